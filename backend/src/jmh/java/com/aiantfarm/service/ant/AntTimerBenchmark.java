@@ -0,0 +1,101 @@
+package com.aiantfarm.service.ant;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedule/cancel throughput of the two AntTimer implementations with a large fleet already scheduled.
+ *
+ * Each op reschedules one random ant (cancel + schedule), which is what edits, warm start and
+ * interval changes do. Intervals are long enough that nothing fires during a run.
+ *
+ * mvn -Pbench package exec:exec -Dbench.args=AntTimerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AntTimerBenchmark {
+
+  private static final long INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+  private static final Runnable NOOP = () -> {};
+
+  @Param({"executor", "wheel"})
+  public String timerType;
+
+  @Param({"10000", "100000"})
+  public int ants;
+
+  private ScheduledExecutorService scheduler;
+  private AntTimer timer;
+  private String[] antIds;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    if ("wheel".equals(timerType)) {
+      timer = new HashedWheelAntTimer(250, 512, r -> {
+        Thread t = new Thread(r, "bench-timer-wheel");
+        t.setDaemon(true);
+        return t;
+      });
+    } else {
+      scheduler = Executors.newScheduledThreadPool(1);
+      timer = new ExecutorAntTimer(scheduler);
+    }
+
+    antIds = new String[ants];
+    for (int i = 0; i < ants; i++) {
+      antIds[i] = "ant-" + i;
+      timer.schedule(antIds[i], INTERVAL_MS, INTERVAL_MS, NOOP);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    timer.shutdown();
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void reschedule() {
+    String antId = antIds[ThreadLocalRandom.current().nextInt(antIds.length)];
+    timer.schedule(antId, INTERVAL_MS, INTERVAL_MS, NOOP);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void rescheduleContended() {
+    String antId = antIds[ThreadLocalRandom.current().nextInt(antIds.length)];
+    timer.schedule(antId, INTERVAL_MS, INTERVAL_MS, NOOP);
+  }
+
+  @Benchmark
+  @Threads(1)
+  public void cancelAndSchedule() {
+    String antId = antIds[ThreadLocalRandom.current().nextInt(antIds.length)];
+    timer.cancel(antId);
+    timer.schedule(antId, INTERVAL_MS, INTERVAL_MS, NOOP);
+  }
+}
@@ -0,0 +1,80 @@
+package com.aiantfarm.service.ant;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rough retained-heap-per-ant for both timers (not a JMH benchmark; JMH doesn't measure footprint).
+ *
+ * mvn -Pbench package exec:exec -Dbench.main=com.aiantfarm.service.ant.AntTimerFootprint -Dbench.args=100000
+ */
+public final class AntTimerFootprint {
+
+  private static final long INTERVAL_MS = TimeUnit.HOURS.toMillis(1);
+
+  private AntTimerFootprint() {}
+
+  public static void main(String[] args) throws Exception {
+    int ants = 100_000;
+    if (args.length > 0 && args[0].matches("\\d+")) {
+      ants = Integer.parseInt(args[0]);
+    }
+
+    String[] antIds = new String[ants];
+    for (int i = 0; i < ants; i++) {
+      antIds[i] = "ant-" + i;
+    }
+    Runnable noop = () -> {};
+
+    // Warm up class loading so the first measurement isn't skewed.
+    measure("executor", antIds, noop, false);
+    measure("wheel", antIds, noop, false);
+
+    measure("executor", antIds, noop, true);
+    measure("wheel", antIds, noop, true);
+  }
+
+  private static void measure(String type, String[] antIds, Runnable fire, boolean print) throws Exception {
+    ScheduledExecutorService scheduler = null;
+    long before = usedHeap();
+
+    AntTimer timer;
+    if ("wheel".equals(type)) {
+      timer = new HashedWheelAntTimer(250, 512, r -> {
+        Thread t = new Thread(r, "footprint-timer-wheel");
+        t.setDaemon(true);
+        return t;
+      });
+    } else {
+      scheduler = Executors.newScheduledThreadPool(1);
+      timer = new ExecutorAntTimer(scheduler);
+    }
+
+    for (String antId : antIds) {
+      timer.schedule(antId, INTERVAL_MS, INTERVAL_MS, fire);
+    }
+    // Let the wheel thread drain pendingAdds into slots.
+    Thread.sleep(1_000);
+
+    long after = usedHeap();
+    if (print) {
+      System.out.printf("timer=%s ants=%d retainedBytes=%d bytesPerAnt=%d%n",
+          type, antIds.length, after - before, (after - before) / antIds.length);
+    }
+
+    timer.shutdown();
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+
+  private static long usedHeap() throws InterruptedException {
+    Runtime rt = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+    return rt.totalMemory() - rt.freeMemory();
+  }
+}
@@ -0,0 +1,87 @@
+package com.aiantfarm.service.ant.runner;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prompt rendering: precompiled single-pass templates and the newline scanner vs the previous
+ * String.replace-per-placeholder + replaceAll and regex-based one-lining (kept here as the baseline).
+ *
+ * Run with the GC profiler for allocation per op (gc.alloc.rate.norm):
+ * mvn -Pbench package exec:exec -Dbench.args="PromptTemplatesBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PromptTemplatesBenchmark {
+
+  private static final String KEY = "prompt.message.user.stable";
+
+  private String legacyTemplate;
+  private Map<String, String> values;
+  private String multiLine;
+  private String singleLine;
+
+  @Setup(Level.Trial)
+  public void setUp() throws Exception {
+    try (InputStream is = PromptTemplates.class.getResourceAsStream("/prompts.properties")) {
+      Properties p = new Properties();
+      p.load(new InputStreamReader(is, StandardCharsets.ISO_8859_1));
+      legacyTemplate = p.getProperty(KEY);
+    }
+
+    values = Map.of(
+        "roomScenario", "A small bakery collective planning its spring market. Stalls, rotas and a tight budget.",
+        "roleBlock", "Role name: Treasurer\nKeeps an eye on costs and asks who is paying.\n",
+        "roomSummary", "Priya proposed moving the market to Saturday. Sam worries about the oven rota. "
+            + "Nobody has confirmed the venue deposit yet; the group agreed to decide by Friday.",
+        "noResponseSentinel", "<<<NO_RESPONSE>>>"
+    );
+
+    multiLine = "Honestly I think we should move it to Thursday.\n\nThe venue on Main St.\r\ndoesn't open until 10.\n";
+    singleLine = "Agreed! Let's also ask Priya whether the 2024 budget numbers are final before we commit.";
+  }
+
+  @Benchmark
+  public String renderCompiled() {
+    return PromptTemplates.render(KEY, values);
+  }
+
+  @Benchmark
+  public String renderLegacy() {
+    String out = legacyTemplate;
+    for (var entry : values.entrySet()) {
+      out = out.replace("{" + entry.getKey() + "}", entry.getValue() == null ? "" : entry.getValue());
+    }
+    return out.replaceAll("\\{[a-zA-Z0-9_]+}", "");
+  }
+
+  @Benchmark
+  public String oneLineScanner() {
+    return PromptBuilder.safeOneLine(multiLine) + PromptBuilder.safeOneLine(singleLine);
+  }
+
+  @Benchmark
+  public String oneLineLegacy() {
+    return multiLine.replaceAll("[\\r\\n]+", " ").trim() + singleLine.replaceAll("[\\r\\n]+", " ").trim();
+  }
+}
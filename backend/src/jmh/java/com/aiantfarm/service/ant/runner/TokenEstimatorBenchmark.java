@@ -0,0 +1,111 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.aiantfarm.domain.AiModel;
+import com.aiantfarm.domain.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the in-process token estimate and of fitting a room into a context budget.
+ *
+ * count: one estimate over a ~200-message transcript (compare with charsOver4, the old proxy).
+ * allocate: a full {@link ContextBudget#allocate} for a 200-message window, which is what every model call does
+ * before building its prompts.
+ *
+ * mvn -Pbench package exec:exec -Dbench.args=TokenEstimatorBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenEstimatorBenchmark {
+
+  private static final String[] ENGLISH = {
+      "Honestly I think we should move the meeting to Thursday, the venue on Main St. doesn't open until 10.",
+      "Agreed! Let's also ask Priya whether the 2024 budget numbers are final before we commit to anything.",
+      "I'm not sure... last time we tried that it took three weeks and nobody was happy with the result.",
+  };
+  private static final String[] MIXED = {
+      "Ok, the 会议 is moved — see https://example.com/agenda?id=42 for details 🙂",
+      "Привет всем! Who's bringing snacks? I can do 12 cupcakes, maybe more if the oven cooperates.",
+      "Der Zeitplan ändert sich: Montag 09:30, Dienstag 14:00. Bitte bestätigen!",
+  };
+  private static final String[] CJK = {
+      "今日は少し遅れます。会議の資料は昨日のメールに添付してあります。",
+      "我觉得这个计划不错，但是预算可能需要再讨论一下。",
+      "내일 회의는 오후 세 시로 변경되었습니다. 참석 부탁드립니다.",
+  };
+
+  @Param({"OPENAI_GPT_4_1_NANO", "ANTHROPIC_HAIKU"})
+  public String model;
+
+  @Param({"english", "mixed", "cjk"})
+  public String text;
+
+  private TokenEstimator estimator;
+  private ContextBudget budget;
+  private List<Message> newestToOldest;
+  private String transcript;
+  private String summary;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    AiModel m = AiModel.valueOf(model);
+    estimator = TokenEstimator.forModel(m);
+    budget = ContextBudget.forModel(m, 3_000);
+
+    String[] lines = switch (text) {
+      case "mixed" -> MIXED;
+      case "cjk" -> CJK;
+      default -> ENGLISH;
+    };
+
+    newestToOldest = new ArrayList<>();
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      String content = lines[i % lines.length];
+      newestToOldest.add(Message.createAntMsg("room-1", "ant-" + (i % 7), "Ant " + (i % 7), content));
+      sb.append("Ant ").append(i % 7).append(": ").append(content).append('\n');
+    }
+    transcript = sb.toString();
+    summary = transcript.substring(0, Math.min(transcript.length(), 1_500));
+  }
+
+  @Benchmark
+  public int count() {
+    return estimator.count(transcript);
+  }
+
+  @Benchmark
+  public int charsOver4() {
+    return transcript.length() / 4;
+  }
+
+  @Benchmark
+  public ContextBudget.Allocation allocate() {
+    return budget.allocate(
+        "A small bakery collective planning its spring market.",
+        "Warm, practical, a little impatient with meetings.",
+        "Treasurer",
+        "Keeps an eye on costs and asks who is paying.",
+        summary,
+        "",
+        newestToOldest);
+  }
+}
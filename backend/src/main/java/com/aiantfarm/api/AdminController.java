@@ -10,6 +10,9 @@ import com.aiantfarm.repository.AntRoomAssignmentRepository;
 import com.aiantfarm.repository.MessageRepository;
 import com.aiantfarm.repository.RoomAntRoleRepository;
 import com.aiantfarm.repository.RoomRepository;
+import com.aiantfarm.repository.RoomSummaryRepository;
+import com.aiantfarm.service.RoomContextCache;
+import com.aiantfarm.service.ant.RoomTurnCoordinator;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -31,6 +34,9 @@ public class AdminController {
   private final MessageRepository messageRepository;
   private final RoomAntRoleRepository roomAntRoleRepository;
   private final AntRoomAssignmentRepository antRoomAssignmentRepository;
+  private final RoomSummaryRepository roomSummaryRepository;
+  private final RoomContextCache roomContextCache;
+  private final RoomTurnCoordinator roomTurnCoordinator;
   private final String adminKey;
 
   private final int defaultAntLimit;
@@ -43,6 +49,9 @@ public class AdminController {
                          MessageRepository messageRepository,
                          RoomAntRoleRepository roomAntRoleRepository,
                          AntRoomAssignmentRepository antRoomAssignmentRepository,
+                         RoomSummaryRepository roomSummaryRepository,
+                         RoomContextCache roomContextCache,
+                         RoomTurnCoordinator roomTurnCoordinator,
                          @Value("${antfarm.admin.key}") String adminKey,
                          @Value("${antfarm.limits.defaultAntLimit:3}") int defaultAntLimit,
                          @Value("${antfarm.limits.defaultAntRoomLimit:3}") int defaultAntRoomLimit,
@@ -53,6 +62,9 @@ public class AdminController {
     this.messageRepository = messageRepository;
     this.roomAntRoleRepository = roomAntRoleRepository;
     this.antRoomAssignmentRepository = antRoomAssignmentRepository;
+    this.roomSummaryRepository = roomSummaryRepository;
+    this.roomContextCache = roomContextCache;
+    this.roomTurnCoordinator = roomTurnCoordinator;
     this.adminKey = adminKey;
     this.defaultAntLimit = defaultAntLimit;
     this.defaultAntRoomLimit = defaultAntRoomLimit;
@@ -196,8 +208,17 @@ public class AdminController {
       log.warn("Admin room delete cascade failed: messages roomId={}", roomId, e);
     }
 
-    // 4) Delete the room metadata itself
+    // 4) Delete the shared room summary
+    try {
+      roomSummaryRepository.deleteByRoomId(roomId);
+    } catch (Exception e) {
+      log.warn("Admin room delete cascade failed: room summary roomId={}", roomId, e);
+    }
+
+    // 5) Delete the room metadata itself
     roomRepository.deleteByRoomId(roomId);
+    roomContextCache.forget(roomId);
+    roomTurnCoordinator.roomDeleted(roomId);
 
     return ResponseEntity.noContent().build();
   }
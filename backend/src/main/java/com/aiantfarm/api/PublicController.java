@@ -72,6 +72,9 @@ public class PublicController {
             ant.model(),
             ant.personalityPrompt(),
             ant.intervalSeconds(),
+            ant.maxIntervalSeconds(),
+            // Public view: scheduler state is not exposed here.
+            ant.intervalSeconds(),
             ant.enabled(),
             ant.replyEvenIfNoNew(),
             ant.maxMessagesPerWeek(),
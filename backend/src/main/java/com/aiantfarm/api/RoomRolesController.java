@@ -5,6 +5,7 @@ import com.aiantfarm.domain.Room;
 import com.aiantfarm.exception.ResourceNotFoundException;
 import com.aiantfarm.repository.RoomRepository;
 import com.aiantfarm.service.RoomAntRoleService;
+import com.aiantfarm.service.RoomContextCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,10 +19,13 @@ public class RoomRolesController {
 
   private final RoomAntRoleService roomAntRoleService;
   private final RoomRepository roomRepository;
+  private final RoomContextCache roomContextCache;
 
-  public RoomRolesController(RoomAntRoleService roomAntRoleService, RoomRepository roomRepository) {
+  public RoomRolesController(RoomAntRoleService roomAntRoleService, RoomRepository roomRepository,
+                             RoomContextCache roomContextCache) {
     this.roomAntRoleService = roomAntRoleService;
     this.roomRepository = roomRepository;
+    this.roomContextCache = roomContextCache;
   }
 
   private static String currentUserId() {
@@ -42,6 +46,7 @@ public class RoomRolesController {
       String scenarioText = req == null || req.scenarioText() == null ? "" : req.scenarioText();
       Room updated = room.withScenarioText(scenarioText);
       roomRepository.update(updated);
+      roomContextCache.invalidate(roomId);
       return ResponseEntity.ok(new RoomDto(updated.id(), updated.name(), updated.createdByUserId(), updated.scenarioText(), updated.createdAt().toString()));
     } catch (ResourceNotFoundException e) {
       return ResponseEntity.notFound().build();
@@ -9,6 +9,9 @@ public record AntDto(
     AiModel model,
     String personalityPrompt,
     int intervalSeconds,
+    Integer maxIntervalSeconds,
+    // What the scheduler is actually using right now (adaptive backoff), >= intervalSeconds.
+    int effectiveIntervalSeconds,
     boolean enabled,
     boolean replyEvenIfNoNew,
     int maxMessagesPerWeek,
@@ -9,6 +9,7 @@ public class CreateAntRequest {
   private AiModel model;
   private String personalityPrompt;
   private Integer intervalSeconds;
+  private Integer maxIntervalSeconds;
   private Boolean enabled;
   private Boolean replyEvenIfNoNew;
 }
@@ -9,6 +9,8 @@ public class UpdateAntRequest {
   private AiModel model;
   private String personalityPrompt;
   private Integer intervalSeconds;
+  // null = unchanged, 0 = clear (back to the server default)
+  private Integer maxIntervalSeconds;
   private Boolean enabled;
   private Boolean replyEvenIfNoNew;
   private Integer maxMessagesPerWeek;
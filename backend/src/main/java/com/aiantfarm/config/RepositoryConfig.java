@@ -46,6 +46,11 @@ public class RepositoryConfig {
     return new RoomAntRoleRepositoryImpl(enhanced, tableName);
   }
 
+  @Bean
+  public RoomSummaryRepository roomSummaryRepository(DynamoDbEnhancedClient enhanced) {
+    return new RoomSummaryRepositoryImpl(enhanced, tableName);
+  }
+
   // --- Ants ---
 
   @Bean
@@ -57,4 +62,9 @@ public class RepositoryConfig {
   public AntRoomAssignmentRepository antRoomAssignmentRepository(DynamoDbEnhancedClient enhanced) {
     return new AntRoomAssignmentRepositoryImpl(enhanced, tableName);
   }
+
+  @Bean
+  public SpendLedgerRepository spendLedgerRepository(DynamoDbEnhancedClient enhanced) {
+    return new SpendLedgerRepositoryImpl(enhanced, tableName);
+  }
 }
@@ -1,9 +1,11 @@
 package com.aiantfarm.config;
 
 import com.aiantfarm.api.JwtAuthFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -18,7 +20,8 @@ public class SecurityConfig {
   @Bean
   public SecurityFilterChain filterChain(HttpSecurity http,
                                          JwtAuthFilter jwtAuthFilter,
-                                         OncePerRequestFilter mdcRequestFilter) throws Exception {
+                                         OncePerRequestFilter mdcRequestFilter,
+                                         @Value("${antfarm.admin.key}") String adminKey) throws Exception {
     http
         .cors(Customizer.withDefaults())
         .csrf(csrf -> csrf.disable())
@@ -28,6 +31,9 @@ public class SecurityConfig {
             .requestMatchers("/error").permitAll()
             // Allow health checks (ALB/ECS)
             .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+            // Everything else under actuator (antscheduler, info) is operator-only: same X-Admin-Key as AdminController
+            .requestMatchers("/actuator/**").access((authentication, context) ->
+                new AuthorizationDecision(adminKey.equals(context.getRequest().getHeader("X-Admin-Key"))))
             // Public auth endpoints - using wildcard to be safe against path variations
             .requestMatchers("/api/v1/auth/**").permitAll()
             // Public read-only endpoints
@@ -7,11 +7,33 @@ package com.aiantfarm.domain;
  */
 public enum AiModel {
   // OpenAI - Currently the default models for Ants
-  OPENAI_GPT_4_1_NANO,
-  OPENAI_GPT_4O_MINI,
-  OPENAI_GPT_5O_MINI,
-  OPENAI_GPT_5_2,
+  OPENAI_GPT_4_1_NANO(AiProvider.OPENAI),
+  OPENAI_GPT_4O_MINI(AiProvider.OPENAI),
+  OPENAI_GPT_5O_MINI(AiProvider.OPENAI, true),
+  OPENAI_GPT_5_2(AiProvider.OPENAI, true),
 
   // Anthropic
-  ANTHROPIC_HAIKU,
+  ANTHROPIC_HAIKU(AiProvider.ANTHROPIC),
+  ;
+
+  private final AiProvider provider;
+  private final boolean adminOnly;
+
+  AiModel(AiProvider provider) {
+    this(provider, false);
+  }
+
+  AiModel(AiProvider provider, boolean adminOnly) {
+    this.provider = provider;
+    this.adminOnly = adminOnly;
+  }
+
+  public AiProvider provider() {
+    return provider;
+  }
+
+  /** Only admins can put an ant on this model (see AdminController). */
+  public boolean adminOnly() {
+    return adminOnly;
+  }
 }
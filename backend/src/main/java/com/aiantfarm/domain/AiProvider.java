@@ -0,0 +1,11 @@
+package com.aiantfarm.domain;
+
+/**
+ * Upstream model provider behind an {@link AiModel}.
+ *
+ * Used to group ants for provider-scoped limits (concurrency caps, rate limits, shared clients).
+ */
+public enum AiProvider {
+  OPENAI,
+  ANTHROPIC,
+}
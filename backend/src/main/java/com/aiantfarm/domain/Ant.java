@@ -16,6 +16,8 @@ public record Ant(
     AiModel model,
     String personalityPrompt,
     int intervalSeconds,
+    // Upper bound for the adaptive interval (null = server default; equal to intervalSeconds = never back off).
+    Integer maxIntervalSeconds,
     boolean enabled,
     boolean replyEvenIfNoNew,
     int maxMessagesPerWeek,
@@ -25,12 +27,33 @@ public record Ant(
     Instant updatedAt
 ) {
 
+  /**
+   * maxIntervalSeconds value that, in an update, clears a stored bound (back to the server default). A null
+   * there means "leave as is".
+   */
+  public static final int CLEAR_MAX_INTERVAL = 0;
+
+  public static Ant create(
+      String ownerUserId,
+      String name,
+      AiModel model,
+      String personalityPrompt,
+      int intervalSeconds,
+      boolean enabled,
+      boolean replyEvenIfNoNew,
+      Integer maxMessagesPerWeek
+  ) {
+    return create(ownerUserId, name, model, personalityPrompt, intervalSeconds, null, enabled, replyEvenIfNoNew,
+        maxMessagesPerWeek);
+  }
+
   public static Ant create(
       String ownerUserId,
       String name,
       AiModel model,
       String personalityPrompt,
       int intervalSeconds,
+      Integer maxIntervalSeconds,
       boolean enabled,
       boolean replyEvenIfNoNew,
       Integer maxMessagesPerWeek
@@ -39,6 +62,9 @@ public record Ant(
     if (ownerUserId.isBlank()) throw new IllegalArgumentException("ownerUserId required");
     if (name == null || name.isBlank()) throw new IllegalArgumentException("name required");
     if (intervalSeconds < 60) throw new IllegalArgumentException("intervalSeconds must be >= 60");
+    Integer safeMaxInterval = maxIntervalSeconds == null || maxIntervalSeconds == CLEAR_MAX_INTERVAL
+        ? null : maxIntervalSeconds;
+    requireMaxIntervalWithinBounds(intervalSeconds, safeMaxInterval);
 
     AiModel safeModel = model == null ? AiModel.OPENAI_GPT_4_1_NANO : model;
     int safeMaxMessages = maxMessagesPerWeek == null ? 2 : maxMessagesPerWeek;
@@ -51,6 +77,7 @@ public record Ant(
         safeModel,
         personalityPrompt == null ? "" : personalityPrompt,
         intervalSeconds,
+        safeMaxInterval,
         enabled,
         replyEvenIfNoNew,
         safeMaxMessages,
@@ -83,12 +110,35 @@ public record Ant(
       Boolean enabled,
       Boolean replyEvenIfNoNew,
       Integer maxMessagesPerWeek
+  ) {
+    return withUpdated(name, model, personalityPrompt, intervalSeconds, null, enabled, replyEvenIfNoNew,
+        maxMessagesPerWeek);
+  }
+
+  public Ant withUpdated(
+      String name,
+      AiModel model,
+      String personalityPrompt,
+      Integer intervalSeconds,
+      Integer maxIntervalSeconds,
+      Boolean enabled,
+      Boolean replyEvenIfNoNew,
+      Integer maxMessagesPerWeek
   ) {
     Instant now = Instant.now();
 
     int nextInterval = intervalSeconds == null ? this.intervalSeconds : intervalSeconds;
     if (nextInterval < 60) throw new IllegalArgumentException("intervalSeconds must be >= 60");
 
+    Integer nextMaxInterval = maxIntervalSeconds == null ? this.maxIntervalSeconds
+        : maxIntervalSeconds == CLEAR_MAX_INTERVAL ? null
+        : maxIntervalSeconds;
+    // Raising the base interval past a previously stored bound just drags the bound along.
+    if (maxIntervalSeconds == null && nextMaxInterval != null && nextMaxInterval < nextInterval) {
+      nextMaxInterval = nextInterval;
+    }
+    requireMaxIntervalWithinBounds(nextInterval, nextMaxInterval);
+
     return new Ant(
         this.id,
         this.ownerUserId,
@@ -96,6 +146,7 @@ public record Ant(
         model == null ? this.model : model,
         personalityPrompt == null ? this.personalityPrompt : personalityPrompt,
         nextInterval,
+        nextMaxInterval,
         enabled == null ? this.enabled : enabled,
         replyEvenIfNoNew == null ? this.replyEvenIfNoNew : replyEvenIfNoNew,
         maxMessagesPerWeek == null ? this.maxMessagesPerWeek : maxMessagesPerWeek,
@@ -121,6 +172,7 @@ public record Ant(
           this.model,
           this.personalityPrompt,
           this.intervalSeconds,
+          this.maxIntervalSeconds,
           this.enabled,
           this.replyEvenIfNoNew,
           this.maxMessagesPerWeek,
@@ -139,6 +191,7 @@ public record Ant(
           this.model,
           this.personalityPrompt,
           this.intervalSeconds,
+          this.maxIntervalSeconds,
           this.enabled,
           this.replyEvenIfNoNew,
           this.maxMessagesPerWeek,
@@ -148,4 +201,10 @@ public record Ant(
           Instant.now()
       );
   }
+
+  private static void requireMaxIntervalWithinBounds(int intervalSeconds, Integer maxIntervalSeconds) {
+    if (maxIntervalSeconds != null && maxIntervalSeconds < intervalSeconds) {
+      throw new IllegalArgumentException("maxIntervalSeconds must be >= intervalSeconds");
+    }
+  }
 }
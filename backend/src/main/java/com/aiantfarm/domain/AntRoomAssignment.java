@@ -31,13 +31,21 @@ public record AntRoomAssignment(
     // When it crosses a threshold (e.g., >= windowSize) we regenerate roomSummary.
     Integer summaryMsgCounter,
 
+    // Newest message id the current roomSummary covers (delta summaries send only messages after it).
+    String summarizedUpToMessageId,
+
     // --- Bicameral self-reflection (internal-only; persisted for continuity) ---
     String bicameralThoughtJson,
     Instant bicameralThoughtAt,
     Integer bicameralThoughtCounter,
 
     // Consecutive NO_RESPONSE results (internal-only; helps prevent permanent silence)
-    Integer noResponseStreak
+    Integer noResponseStreak,
+
+    // Newest message a run already counted into summaryMsgCounter / bicameralThoughtCounter (and persisted) without
+    // getting as far as moving lastSeenMessageId, e.g. its reply call was rate-limit deferred. The next run counts
+    // only what came after it. Cleared whenever lastSeenMessageId is written.
+    String countedUpToMessageId
 ) {
 
   public static AntRoomAssignment create(String antId, String roomId) {
@@ -59,10 +67,12 @@ public record AntRoomAssignment(
         null,
         null,
         0,
+        null,
         "",
         null,
         0,
-        0
+        0,
+        null
     );
   }
 
@@ -71,9 +81,9 @@ public record AntRoomAssignment(
     return new AntRoomAssignment(this.antId, this.roomId, this.createdAt, now, lastSeenMessageId, lastRunAt,
         this.limitReachedNotificationSent,
         this.roleId, this.roleName,
-        this.roomSummary, this.summaryMsgCounter,
+        this.roomSummary, this.summaryMsgCounter, this.summarizedUpToMessageId,
         this.bicameralThoughtJson, this.bicameralThoughtAt, this.bicameralThoughtCounter,
-        this.noResponseStreak);
+        this.noResponseStreak, null);
   }
 
   public AntRoomAssignment withRole(String roleId, String roleName) {
@@ -81,9 +91,9 @@ public record AntRoomAssignment(
     return new AntRoomAssignment(this.antId, this.roomId, this.createdAt, now, this.lastSeenMessageId, this.lastRunAt,
         this.limitReachedNotificationSent,
         roleId, roleName,
-        this.roomSummary, this.summaryMsgCounter,
+        this.roomSummary, this.summaryMsgCounter, this.summarizedUpToMessageId,
         this.bicameralThoughtJson, this.bicameralThoughtAt, this.bicameralThoughtCounter,
-        this.noResponseStreak);
+        this.noResponseStreak, this.countedUpToMessageId);
   }
 
   public AntRoomAssignment withLimitReachedNotificationSent(boolean sent) {
@@ -91,9 +101,9 @@ public record AntRoomAssignment(
     return new AntRoomAssignment(this.antId, this.roomId, this.createdAt, now, this.lastSeenMessageId, this.lastRunAt,
         sent,
         this.roleId, this.roleName,
-        this.roomSummary, this.summaryMsgCounter,
+        this.roomSummary, this.summaryMsgCounter, this.summarizedUpToMessageId,
         this.bicameralThoughtJson, this.bicameralThoughtAt, this.bicameralThoughtCounter,
-        this.noResponseStreak);
+        this.noResponseStreak, this.countedUpToMessageId);
   }
 
   public AntRoomAssignment incrementSummaryCounter(int delta) {
@@ -103,19 +113,23 @@ public record AntRoomAssignment(
     return new AntRoomAssignment(this.antId, this.roomId, this.createdAt, now, this.lastSeenMessageId, this.lastRunAt,
         this.limitReachedNotificationSent,
         this.roleId, this.roleName,
-        this.roomSummary, next,
+        this.roomSummary, next, this.summarizedUpToMessageId,
         this.bicameralThoughtJson, this.bicameralThoughtAt, this.bicameralThoughtCounter,
-        this.noResponseStreak);
+        this.noResponseStreak, this.countedUpToMessageId);
   }
 
   public AntRoomAssignment withSummary(String roomSummary, int resetCounterTo) {
+    return withSummary(roomSummary, resetCounterTo, this.summarizedUpToMessageId);
+  }
+
+  public AntRoomAssignment withSummary(String roomSummary, int resetCounterTo, String summarizedUpToMessageId) {
     Instant now = Instant.now();
     return new AntRoomAssignment(this.antId, this.roomId, this.createdAt, now, this.lastSeenMessageId, this.lastRunAt,
         this.limitReachedNotificationSent,
         this.roleId, this.roleName,
-        roomSummary, Math.max(0, resetCounterTo),
+        roomSummary, Math.max(0, resetCounterTo), summarizedUpToMessageId,
         this.bicameralThoughtJson, this.bicameralThoughtAt, this.bicameralThoughtCounter,
-        this.noResponseStreak);
+        this.noResponseStreak, this.countedUpToMessageId);
   }
 
   public AntRoomAssignment incrementThoughtCounter(int delta) {
@@ -125,9 +139,9 @@ public record AntRoomAssignment(
     return new AntRoomAssignment(this.antId, this.roomId, this.createdAt, now, this.lastSeenMessageId, this.lastRunAt,
         this.limitReachedNotificationSent,
         this.roleId, this.roleName,
-        this.roomSummary, this.summaryMsgCounter,
+        this.roomSummary, this.summaryMsgCounter, this.summarizedUpToMessageId,
         this.bicameralThoughtJson, this.bicameralThoughtAt, next,
-        this.noResponseStreak);
+        this.noResponseStreak, this.countedUpToMessageId);
   }
 
   public AntRoomAssignment withThought(String thoughtJson, Instant thoughtAt, int resetCounterTo) {
@@ -135,11 +149,11 @@ public record AntRoomAssignment(
     return new AntRoomAssignment(this.antId, this.roomId, this.createdAt, now, this.lastSeenMessageId, this.lastRunAt,
         this.limitReachedNotificationSent,
         this.roleId, this.roleName,
-        this.roomSummary, this.summaryMsgCounter,
+        this.roomSummary, this.summaryMsgCounter, this.summarizedUpToMessageId,
         thoughtJson == null ? "" : thoughtJson,
         thoughtAt,
         Math.max(0, resetCounterTo),
-        this.noResponseStreak);
+        this.noResponseStreak, this.countedUpToMessageId);
   }
 
   public AntRoomAssignment incrementNoResponseStreak(int delta) {
@@ -149,9 +163,9 @@ public record AntRoomAssignment(
     return new AntRoomAssignment(this.antId, this.roomId, this.createdAt, now, this.lastSeenMessageId, this.lastRunAt,
         this.limitReachedNotificationSent,
         this.roleId, this.roleName,
-        this.roomSummary, this.summaryMsgCounter,
+        this.roomSummary, this.summaryMsgCounter, this.summarizedUpToMessageId,
         this.bicameralThoughtJson, this.bicameralThoughtAt, this.bicameralThoughtCounter,
-        next);
+        next, this.countedUpToMessageId);
   }
 
   public AntRoomAssignment withNoResponseStreak(int streak) {
@@ -159,8 +173,21 @@ public record AntRoomAssignment(
     return new AntRoomAssignment(this.antId, this.roomId, this.createdAt, now, this.lastSeenMessageId, this.lastRunAt,
         this.limitReachedNotificationSent,
         this.roleId, this.roleName,
-        this.roomSummary, this.summaryMsgCounter,
+        this.roomSummary, this.summaryMsgCounter, this.summarizedUpToMessageId,
+        this.bicameralThoughtJson, this.bicameralThoughtAt, this.bicameralThoughtCounter,
+        Math.max(0, streak), this.countedUpToMessageId);
+  }
+
+  /**
+   * The summary/thought counters now include everything up to {@code messageId} (see countedUpToMessageId).
+   */
+  public AntRoomAssignment withCountedUpTo(String messageId) {
+    Instant now = Instant.now();
+    return new AntRoomAssignment(this.antId, this.roomId, this.createdAt, now, this.lastSeenMessageId, this.lastRunAt,
+        this.limitReachedNotificationSent,
+        this.roleId, this.roleName,
+        this.roomSummary, this.summaryMsgCounter, this.summarizedUpToMessageId,
         this.bicameralThoughtJson, this.bicameralThoughtAt, this.bicameralThoughtCounter,
-        Math.max(0, streak));
+        this.noResponseStreak, messageId);
   }
 }
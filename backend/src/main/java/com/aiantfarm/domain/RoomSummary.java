@@ -0,0 +1,28 @@
+package com.aiantfarm.domain;
+
+import java.time.Instant;
+
+/**
+ * Room-wide rolling summary of the conversation: neutral (no persona, no role), written once per room and read by
+ * every ant in it.
+ *
+ * @param summarizedUpToMessageId newest message id the summary covers
+ */
+public record RoomSummary(
+    String roomId,
+    String summary,
+    String summarizedUpToMessageId,
+    Instant updatedAt
+) {
+  public RoomSummary {
+    if (summary == null) summary = "";
+  }
+
+  public static RoomSummary empty(String roomId) {
+    return new RoomSummary(roomId, "", null, null);
+  }
+
+  public boolean isBlank() {
+    return summary.isBlank();
+  }
+}
@@ -0,0 +1,23 @@
+package com.aiantfarm.domain;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Estimated model spend of one owner or one ant on one UTC day, as last persisted by the spend ledger.
+ *
+ * Amounts are micro-USD (1e-6 USD) so concurrent settlement can stay on plain longs.
+ */
+public record SpendLedgerEntry(
+    Scope scope,
+    String scopeId,
+    LocalDate day,
+    long spentMicroUsd,
+    Instant updatedAt
+) {
+
+  public enum Scope {
+    OWNER, // scopeId = owner userId
+    ANT    // scopeId = antId
+  }
+}
@@ -4,6 +4,7 @@ import com.aiantfarm.domain.Ant;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface AntRepository {
   Ant create(Ant ant);
@@ -17,6 +18,18 @@ public interface AntRepository {
    */
   List<Ant> listAll();
 
+  /**
+   * Warm-start bulk load: one parallel segmented scan over ANT# partitions, delivering every enabled ant
+   * together with its room assignments (no per-ant listByAnt query).
+   *
+   * The sink is called for each ant as soon as its partition has been read (while the rest of its segment is still
+   * streaming), from up to {@code segments} scan threads concurrently, so it must be thread-safe. Returns once every
+   * segment is done.
+   *
+   * @return number of ants scanned (enabled or not)
+   */
+  int scanEnabledWithAssignments(int segments, Consumer<AntWithAssignments> sink);
+
   /**
    * MVP-only: full table scan for Ant META items.
    *
@@ -0,0 +1,11 @@
+package com.aiantfarm.repository;
+
+import com.aiantfarm.domain.Ant;
+import com.aiantfarm.domain.AntRoomAssignment;
+
+import java.util.List;
+
+/**
+ * One ant partition (META item + ROOM# assignment items) as read by a bulk scan.
+ */
+public record AntWithAssignments(Ant ant, List<AntRoomAssignment> assignments) {}
@@ -0,0 +1,11 @@
+package com.aiantfarm.repository;
+
+import com.aiantfarm.domain.RoomSummary;
+
+import java.util.Optional;
+
+public interface RoomSummaryRepository {
+  Optional<RoomSummary> findByRoomId(String roomId);
+  void save(RoomSummary summary);
+  void deleteByRoomId(String roomId);
+}
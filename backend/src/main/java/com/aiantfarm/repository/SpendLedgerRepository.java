@@ -0,0 +1,11 @@
+package com.aiantfarm.repository;
+
+import com.aiantfarm.domain.SpendLedgerEntry;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface SpendLedgerRepository {
+  Optional<SpendLedgerEntry> find(SpendLedgerEntry.Scope scope, String scopeId, LocalDate day);
+  void save(SpendLedgerEntry entry);
+}
@@ -2,17 +2,26 @@ package com.aiantfarm.repository.dynamo;
 
 import com.aiantfarm.domain.AiModel;
 import com.aiantfarm.domain.Ant;
+import com.aiantfarm.domain.AntRoomAssignment;
 import com.aiantfarm.repository.AntRepository;
+import com.aiantfarm.repository.AntWithAssignments;
 import com.aiantfarm.repository.entity.AntEntity;
+import com.aiantfarm.repository.entity.AntRoomAssignmentEntity;
 import com.aiantfarm.utils.DynamoKeys;
 import org.springframework.beans.factory.annotation.Value;
 import software.amazon.awssdk.enhanced.dynamodb.*;
+import software.amazon.awssdk.enhanced.dynamodb.document.EnhancedDocument;
 import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import static com.aiantfarm.utils.DynamoIndexes.GSI_ANT_ID;
 
@@ -21,10 +30,32 @@ public class AntRepositoryImpl implements AntRepository {
   private final DynamoDbTable<AntEntity> table;
   private final DynamoDbIndex<AntEntity> antIndex;
 
+  // Untyped view of the same table: a warm-start scan returns META and ROOM# items side by side.
+  private final DynamoDbTable<EnhancedDocument> documentTable;
+  private final TableSchema<AntRoomAssignmentEntity> assignmentSchema;
+
+  private static final int MAX_SCAN_SEGMENTS = 64;
+
+  // Only ant partitions, and only the META + assignment items in them (skips RUN# history).
+  private static final Expression ANT_PARTITION_FILTER = Expression.builder()
+      .expression("begins_with(#pk, :antPrefix) AND (begins_with(#sk, :metaPrefix) OR begins_with(#sk, :roomPrefix))")
+      .putExpressionName("#pk", "pk")
+      .putExpressionName("#sk", "sk")
+      .putExpressionValue(":antPrefix", AttributeValue.fromS("ANT#"))
+      .putExpressionValue(":metaPrefix", AttributeValue.fromS("META#"))
+      .putExpressionValue(":roomPrefix", AttributeValue.fromS("ROOM#"))
+      .build();
+
   public AntRepositoryImpl(DynamoDbEnhancedClient enhancedClient,
                            String tableName) {
     this.table = enhancedClient.table(tableName, TableSchema.fromBean(AntEntity.class));
     this.antIndex = table.index(GSI_ANT_ID);
+    this.documentTable = enhancedClient.table(tableName, TableSchema.documentSchemaBuilder()
+        .addIndexPartitionKey(TableMetadata.primaryIndexName(), "pk", AttributeValueType.S)
+        .addIndexSortKey(TableMetadata.primaryIndexName(), "sk", AttributeValueType.S)
+        .attributeConverterProviders(AttributeConverterProvider.defaultProvider())
+        .build());
+    this.assignmentSchema = TableSchema.fromBean(AntRoomAssignmentEntity.class);
   }
 
   @Override
@@ -106,6 +137,95 @@ public class AntRepositoryImpl implements AntRepository {
     return out;
   }
 
+  @Override
+  public int scanEnabledWithAssignments(int segments, Consumer<AntWithAssignments> sink) {
+    int totalSegments = Math.max(1, Math.min(segments, MAX_SCAN_SEGMENTS));
+    AtomicInteger scanned = new AtomicInteger();
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+    List<Thread> workers = new ArrayList<>(totalSegments);
+    for (int i = 0; i < totalSegments; i++) {
+      int segment = i;
+      workers.add(Thread.ofPlatform().name("ant-scan-" + segment).daemon(true).start(() -> {
+        try {
+          scanSegment(segment, totalSegments, sink, scanned);
+        } catch (RuntimeException e) {
+          failure.compareAndSet(null, e);
+        }
+      }));
+    }
+
+    for (Thread worker : workers) {
+      try {
+        worker.join();
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while scanning ants", ie);
+      }
+    }
+
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    return scanned.get();
+  }
+
+  /**
+   * Streams the segment: an ant is emitted as soon as the scan moves past its partition, so scheduling starts while
+   * later pages are still being read. A partition's items come back together (in sort-key order) but may be split
+   * across pages, so only the partition being read is buffered from one page to the next. A partition always falls
+   * in exactly one segment, so each ant is emitted once.
+   */
+  private void scanSegment(int segment, int totalSegments, Consumer<AntWithAssignments> sink, AtomicInteger scanned) {
+    ScanEnhancedRequest request = ScanEnhancedRequest.builder()
+        .segment(segment)
+        .totalSegments(totalSegments)
+        .filterExpression(ANT_PARTITION_FILTER)
+        .build();
+
+    ScannedAnt current = null;
+    for (var page : documentTable.scan(request)) {
+      for (EnhancedDocument doc : page.items()) {
+        String pk = doc.getString("pk");
+        String sk = doc.getString("sk");
+        if (pk == null || sk == null) continue;
+
+        if (current == null || !current.pk.equals(pk)) {
+          if (current != null) emit(current.meta, current.assignments, sink, scanned);
+          current = new ScannedAnt(pk);
+        }
+        if (sk.startsWith("META#")) {
+          current.meta = table.tableSchema().mapToItem(doc.toMap());
+        } else {
+          current.assignments.add(AntRoomAssignmentRepositoryImpl.fromEntity(assignmentSchema.mapToItem(doc.toMap())));
+        }
+      }
+    }
+
+    if (current != null) emit(current.meta, current.assignments, sink, scanned);
+  }
+
+  private static final class ScannedAnt {
+    final String pk;
+    AntEntity meta;
+    final List<AntRoomAssignment> assignments = new ArrayList<>();
+
+    ScannedAnt(String pk) {
+      this.pk = pk;
+    }
+  }
+
+  private static void emit(AntEntity meta, List<AntRoomAssignment> assignments,
+                           Consumer<AntWithAssignments> sink, AtomicInteger scanned) {
+    // Orphaned assignments (no META item) are skipped, same as listAll + listByAnt would.
+    if (meta == null) return;
+    scanned.incrementAndGet();
+
+    Ant ant = fromEntity(meta);
+    if (!ant.enabled()) return;
+    sink.accept(new AntWithAssignments(ant, List.copyOf(assignments)));
+  }
+
   private static AntEntity toEntity(Ant a) {
     AntEntity e = new AntEntity();
     e.setPk(DynamoKeys.antPk(a.id()));
@@ -116,6 +236,7 @@ public class AntRepositoryImpl implements AntRepository {
     e.setModel((a.model() == null ? AiModel.OPENAI_GPT_4_1_NANO : a.model()).name());
     e.setPersonalityPrompt(a.personalityPrompt());
     e.setIntervalSeconds(a.intervalSeconds());
+    e.setMaxIntervalSeconds(a.maxIntervalSeconds());
     e.setEnabled(a.enabled());
     e.setReplyEvenIfNoNew(a.replyEvenIfNoNew());
     e.setMaxMessagesPerWeek(a.maxMessagesPerWeek());
@@ -145,6 +266,7 @@ public class AntRepositoryImpl implements AntRepository {
         model,
         e.getPersonalityPrompt() == null ? "" : e.getPersonalityPrompt(),
         e.getIntervalSeconds() != null ? e.getIntervalSeconds() : 60,
+        e.getMaxIntervalSeconds(),
         e.getEnabled() != null && e.getEnabled(),
         e.getReplyEvenIfNoNew() != null && e.getReplyEvenIfNoNew(),
         // Default maxMessagesPerWeek to 500 if null - cant use application config because its a static method
@@ -184,4 +306,4 @@ public class AntRepositoryImpl implements AntRepository {
     } catch (Exception ignored) {
     }
   }
-}
\ No newline at end of file
+}
\ No newline at end of file
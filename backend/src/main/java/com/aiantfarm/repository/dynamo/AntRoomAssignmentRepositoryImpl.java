@@ -121,6 +121,7 @@ public class AntRoomAssignmentRepositoryImpl implements AntRoomAssignmentReposit
     // rolling summary
     e.setRoomSummary(a.roomSummary());
     e.setSummaryMsgCounter(a.summaryMsgCounter());
+    e.setSummarizedUpToMessageId(a.summarizedUpToMessageId());
 
     // bicameral thought
     e.setBicameralThoughtJson(a.bicameralThoughtJson());
@@ -129,11 +130,13 @@ public class AntRoomAssignmentRepositoryImpl implements AntRoomAssignmentReposit
 
     // no-response streak
     e.setNoResponseStreak(a.noResponseStreak());
+    e.setCountedUpToMessageId(a.countedUpToMessageId());
 
     return e;
   }
 
-  private static AntRoomAssignment fromEntity(AntRoomAssignmentEntity e) {
+  // Package-private: also used by AntRepositoryImpl's bulk warm-start scan.
+  static AntRoomAssignment fromEntity(AntRoomAssignmentEntity e) {
     Instant createdAt = e.getCreatedAt() != null ? Instant.parse(e.getCreatedAt()) : Instant.EPOCH;
     Instant updatedAt = e.getUpdatedAt() != null ? Instant.parse(e.getUpdatedAt()) : Instant.EPOCH;
     Instant lastRunAt = e.getLastRunAt() != null ? Instant.parse(e.getLastRunAt()) : null;
@@ -155,10 +158,12 @@ public class AntRoomAssignmentRepositoryImpl implements AntRoomAssignmentReposit
         e.getRoleName(),
         e.getRoomSummary(),
         e.getSummaryMsgCounter() == null ? 0 : e.getSummaryMsgCounter(),
+        e.getSummarizedUpToMessageId(),
         thoughtJson,
         thoughtAt,
         thoughtCounter,
-        noResponseStreak
+        noResponseStreak,
+        e.getCountedUpToMessageId()
     );
   }
 }
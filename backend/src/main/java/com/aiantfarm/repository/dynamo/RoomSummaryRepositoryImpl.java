@@ -0,0 +1,67 @@
+package com.aiantfarm.repository.dynamo;
+
+import com.aiantfarm.domain.RoomSummary;
+import com.aiantfarm.repository.RoomSummaryRepository;
+import com.aiantfarm.repository.entity.RoomSummaryEntity;
+import com.aiantfarm.utils.DynamoKeys;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public class RoomSummaryRepositoryImpl implements RoomSummaryRepository {
+
+  private final DynamoDbTable<RoomSummaryEntity> table;
+
+  public RoomSummaryRepositoryImpl(DynamoDbEnhancedClient enhancedClient, String tableName) {
+    this.table = enhancedClient.table(tableName, TableSchema.fromBean(RoomSummaryEntity.class));
+  }
+
+  @Override
+  public Optional<RoomSummary> findByRoomId(String roomId) {
+    if (roomId == null || roomId.isBlank()) return Optional.empty();
+    RoomSummaryEntity e = table.getItem(r -> r.key(key(roomId)));
+    return Optional.ofNullable(e).map(RoomSummaryRepositoryImpl::fromEntity);
+  }
+
+  @Override
+  public void save(RoomSummary summary) {
+    table.putItem(toEntity(summary));
+  }
+
+  @Override
+  public void deleteByRoomId(String roomId) {
+    if (roomId == null || roomId.isBlank()) return;
+    table.deleteItem(r -> r.key(key(roomId)));
+  }
+
+  private static Key key(String roomId) {
+    return Key.builder()
+        .partitionValue(DynamoKeys.roomPk(roomId))
+        .sortValue(DynamoKeys.roomSummarySk(roomId))
+        .build();
+  }
+
+  private static RoomSummaryEntity toEntity(RoomSummary s) {
+    RoomSummaryEntity e = new RoomSummaryEntity();
+    e.setPk(DynamoKeys.roomPk(s.roomId()));
+    e.setSk(DynamoKeys.roomSummarySk(s.roomId()));
+    e.setRoomId(s.roomId());
+    e.setSummary(s.summary());
+    e.setSummarizedUpToMessageId(s.summarizedUpToMessageId());
+    e.setUpdatedAt(s.updatedAt() != null ? s.updatedAt().toString() : Instant.now().toString());
+    return e;
+  }
+
+  private static RoomSummary fromEntity(RoomSummaryEntity e) {
+    return new RoomSummary(
+        e.getRoomId(),
+        e.getSummary(),
+        e.getSummarizedUpToMessageId(),
+        e.getUpdatedAt() != null ? Instant.parse(e.getUpdatedAt()) : Instant.EPOCH
+    );
+  }
+}
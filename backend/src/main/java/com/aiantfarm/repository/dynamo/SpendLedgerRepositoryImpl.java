@@ -0,0 +1,71 @@
+package com.aiantfarm.repository.dynamo;
+
+import com.aiantfarm.domain.SpendLedgerEntry;
+import com.aiantfarm.repository.SpendLedgerRepository;
+import com.aiantfarm.repository.entity.SpendLedgerEntity;
+import com.aiantfarm.utils.DynamoKeys;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+public class SpendLedgerRepositoryImpl implements SpendLedgerRepository {
+
+  private final DynamoDbTable<SpendLedgerEntity> table;
+
+  private static final long DEFAULT_TTL_DAYS = 35;
+
+  public SpendLedgerRepositoryImpl(DynamoDbEnhancedClient enhancedClient, String tableName) {
+    this.table = enhancedClient.table(tableName, TableSchema.fromBean(SpendLedgerEntity.class));
+  }
+
+  @Override
+  public Optional<SpendLedgerEntry> find(SpendLedgerEntry.Scope scope, String scopeId, LocalDate day) {
+    SpendLedgerEntity e = table.getItem(r -> r.key(Key.builder()
+        .partitionValue(pk(scope, scopeId))
+        .sortValue(DynamoKeys.spendSk(day))
+        .build()));
+    return Optional.ofNullable(e).map(SpendLedgerRepositoryImpl::fromEntity);
+  }
+
+  @Override
+  public void save(SpendLedgerEntry entry) {
+    table.putItem(toEntity(entry));
+  }
+
+  private static String pk(SpendLedgerEntry.Scope scope, String scopeId) {
+    return scope == SpendLedgerEntry.Scope.OWNER ? DynamoKeys.userPk(scopeId) : DynamoKeys.antPk(scopeId);
+  }
+
+  private static SpendLedgerEntity toEntity(SpendLedgerEntry s) {
+    SpendLedgerEntity e = new SpendLedgerEntity();
+    e.setPk(pk(s.scope(), s.scopeId()));
+    e.setSk(DynamoKeys.spendSk(s.day()));
+    e.setScope(s.scope().name());
+    e.setScopeId(s.scopeId());
+    e.setDay(s.day().toString());
+    e.setSpentMicroUsd(s.spentMicroUsd());
+    e.setUpdatedAt(s.updatedAt() != null ? s.updatedAt().toString() : Instant.now().toString());
+
+    // TTL: the day's spend is only needed while that day is current; keep a month for reporting.
+    Instant dayStart = s.day().atStartOfDay(ZoneOffset.UTC).toInstant();
+    e.setTtlEpochSeconds(dayStart.plus(DEFAULT_TTL_DAYS, ChronoUnit.DAYS).getEpochSecond());
+    return e;
+  }
+
+  private static SpendLedgerEntry fromEntity(SpendLedgerEntity e) {
+    return new SpendLedgerEntry(
+        SpendLedgerEntry.Scope.valueOf(e.getScope()),
+        e.getScopeId(),
+        LocalDate.parse(e.getDay()),
+        e.getSpentMicroUsd() != null ? e.getSpentMicroUsd() : 0L,
+        e.getUpdatedAt() != null ? Instant.parse(e.getUpdatedAt()) : Instant.EPOCH
+    );
+  }
+}
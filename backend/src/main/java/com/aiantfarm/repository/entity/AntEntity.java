@@ -34,6 +34,7 @@ public class AntEntity {
   private String model;
   private String personalityPrompt;
   private Integer intervalSeconds;
+  private Integer maxIntervalSeconds;
   private Boolean enabled;
   private Boolean replyEvenIfNoNew;
   private Integer maxMessagesPerWeek;
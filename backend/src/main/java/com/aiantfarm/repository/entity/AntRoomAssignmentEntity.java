@@ -32,6 +32,7 @@ public class AntRoomAssignmentEntity {
   // Rolling summary fields (internal-only; not exposed via API)
   private String roomSummary;
   private Integer summaryMsgCounter;
+  private String summarizedUpToMessageId;
 
   // Bicameral thought fields (internal-only; not exposed via API)
   private String bicameralThoughtJson;
@@ -41,6 +42,9 @@ public class AntRoomAssignmentEntity {
   // Consecutive NO_RESPONSE streak (internal-only)
   private Integer noResponseStreak;
 
+  // Counters already include messages up to this one (run not finished yet; internal-only)
+  private String countedUpToMessageId;
+
   @DynamoDbPartitionKey
   public String getPk() { return pk; }
 
@@ -0,0 +1,25 @@
+package com.aiantfarm.repository.entity;
+
+import lombok.Data;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.*;
+
+@Data
+@DynamoDbBean
+public class RoomSummaryEntity {
+  // ROOM#<roomId>
+  private String pk;
+  // SUMMARY#<roomId>
+  private String sk;
+
+  private String roomId;
+  private String summary;
+  private String summarizedUpToMessageId;
+  private String updatedAt;
+
+  @DynamoDbPartitionKey
+  @DynamoDbAttribute("pk")
+  public String getPk() { return pk; }
+
+  @DynamoDbSortKey
+  public String getSk() { return sk; }
+}
@@ -0,0 +1,32 @@
+package com.aiantfarm.repository.entity;
+
+import lombok.Data;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.*;
+
+@Data
+@DynamoDbBean
+public class SpendLedgerEntity {
+  // USER#<userId> (owner) or ANT#<antId>
+  private String pk;
+  // SPEND#<yyyy-MM-dd>
+  private String sk;
+
+  private String scope;
+  private String scopeId;
+  private String day;
+  private Long spentMicroUsd;
+  private String updatedAt;
+
+  // DynamoDB TTL (epoch seconds). Enable TTL on the table using this attribute name.
+  private Long ttlEpochSeconds;
+
+  @DynamoDbPartitionKey
+  @DynamoDbAttribute("pk")
+  public String getPk() { return pk; }
+
+  @DynamoDbSortKey
+  public String getSk() { return sk; }
+
+  @DynamoDbAttribute("ttlEpochSeconds")
+  public Long getTtlEpochSeconds() { return ttlEpochSeconds; }
+}
@@ -7,6 +7,7 @@ import com.aiantfarm.domain.Ant;
 import com.aiantfarm.domain.AntRoomAssignment;
 import com.aiantfarm.domain.Message;
 import com.aiantfarm.domain.RoomAntRole;
+import com.aiantfarm.domain.RoomSummary;
 import com.aiantfarm.domain.User;
 import com.aiantfarm.exception.QuotaExceededException;
 import com.aiantfarm.exception.ResourceNotFoundException;
@@ -14,7 +15,20 @@ import com.aiantfarm.repository.*;
 import com.aiantfarm.service.ant.AntModelContext;
 import com.aiantfarm.service.ant.AntScheduler;
 import com.aiantfarm.service.ant.IAntModelRunner;
+import com.aiantfarm.service.ant.ReplyGate;
+import com.aiantfarm.service.ant.RoomTurnCoordinator;
+import com.aiantfarm.service.ant.WarmStartRamp;
 import com.aiantfarm.service.ant.runner.AntRunMetrics;
+import com.aiantfarm.service.ant.runner.CombinedTurn;
+import com.aiantfarm.service.ant.runner.CombinedTurnParser;
+import com.aiantfarm.service.ant.runner.ModelRunnerSupport;
+import com.aiantfarm.service.ant.runner.ModelCallTimeoutException;
+import com.aiantfarm.service.ant.runner.ModelUnavailableException;
+import com.aiantfarm.service.ant.runner.RenderedTranscript;
+import com.aiantfarm.service.ant.runner.RateLimitDeferredException;
+import com.aiantfarm.service.ant.runner.SpendBudgetExceededException;
+import com.aiantfarm.service.ant.runner.SpendLedger;
+import com.aiantfarm.service.ant.runner.TokenEstimator;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,6 +38,14 @@ import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,18 +60,35 @@ public class DefaultAntService implements IAntService {
   private final RoomRepository roomRepository;
   private final MessageRepository messageRepository;
   private final AntScheduler antScheduler;
-  private final RoomAntRoleRepository roomAntRoleRepository;
+  private final RoomContextCache roomContextCache;
   private final UserRepository userRepository;
+  private final RoomActivityTracker roomActivityTracker;
+  private final RoomSummaryRepository roomSummaryRepository;
 
   // Rolling summary settings (MVP defaults). Long-term: move to @Value config.
   private static final int SUMMARY_WINDOW_MESSAGES_SIZE = 30;
-  private static final int SUMMARY_MAX_CHARS = 8_000; // approx token cap proxy
+  private static final int SUMMARY_MAX_TOKENS = 2_000; // estimated with the ant's model tokenizer profile
 
   private final int defaultAntLimit;
   private final int defaultAntRoomLimit;
   private final int defaultAntWeeklyMessages;
   private final boolean antsEnabled;
   private final int bicameralEveryNRuns;
+  private final boolean warmStartPhaseOffsets;
+  private final int warmStartMaxStartsPerSecond;
+  private final int warmStartScanSegments;
+  private final boolean wakeOnRoomActivity;
+  private final boolean wakeOnAntPosts;
+  private final long tickDeadlineMs;
+  private final boolean combinedTurnEnabled;
+  private final int summaryEveryNMessages;
+  private final boolean summaryDelta;
+  private final boolean sharedSummary;
+  // Rooms whose shared summary is being regenerated on this pod (one call per room at a time).
+  private final Set<String> sharedSummaryRefreshes = ConcurrentHashMap.newKeySet();
+  private final ReplyGate replyGate;
+  private final RoomTurnCoordinator roomTurnCoordinator;
+  private final SpendLedger spendLedger;
 
   // If an ant repeatedly returns <<<NO_RESPONSE>>> we eventually force it to speak.
   private final int maxNoResponseStreak;
@@ -62,28 +101,81 @@ public class DefaultAntService implements IAntService {
       RoomRepository roomRepository,
       MessageRepository messageRepository,
       AntScheduler antScheduler,
-      RoomAntRoleRepository roomAntRoleRepository,
+      RoomContextCache roomContextCache,
       UserRepository userRepository,
+      RoomActivityTracker roomActivityTracker,
+      RoomSummaryRepository roomSummaryRepository,
+      ReplyGate replyGate,
+      RoomTurnCoordinator roomTurnCoordinator,
+      SpendLedger spendLedger,
       @Value("${antfarm.limits.defaultAntLimit:3}") int defaultAntLimit,
       @Value("${antfarm.limits.defaultAntRoomLimit:3}") int defaultAntRoomLimit,
       @Value("${antfarm.limits.defaultAntWeeklyMessages:500}") int defaultAntWeeklyMessages,
       @Value("${antfarm.ants.enabled:true}") boolean antsEnabled,
       @Value("${antfarm.ants.bicameral.everyNRuns:3}") int bicameralEveryNRuns,
-      @Value("${antfarm.chat.maxNoResponseStreak:3}") int maxNoResponseStreak
+      @Value("${antfarm.chat.maxNoResponseStreak:3}") int maxNoResponseStreak,
+      @Value("${antfarm.ants.warmStart.phaseOffsets:true}") boolean warmStartPhaseOffsets,
+      @Value("${antfarm.ants.warmStart.maxStartsPerSecond:0}") int warmStartMaxStartsPerSecond,
+      @Value("${antfarm.ants.warmStart.scanSegments:4}") int warmStartScanSegments,
+      @Value("${antfarm.ants.wake.enabled:true}") boolean wakeOnRoomActivity,
+      @Value("${antfarm.ants.wake.onAntPosts:false}") boolean wakeOnAntPosts,
+      @Value("${antfarm.ants.tickDeadlineMs:90000}") long tickDeadlineMs,
+      @Value("${antfarm.ants.combinedTurn.enabled:false}") boolean combinedTurnEnabled,
+      @Value("${antfarm.ants.summary.everyNMessages:30}") int summaryEveryNMessages,
+      @Value("${antfarm.ants.summary.delta:false}") boolean summaryDelta,
+      @Value("${antfarm.rooms.summary.shared:false}") boolean sharedSummary
   ) {
     this.antRepository = antRepository;
     this.assignmentRepository = assignmentRepository;
     this.roomRepository = roomRepository;
     this.messageRepository = messageRepository;
     this.antScheduler = antScheduler;
-    this.roomAntRoleRepository = roomAntRoleRepository;
+    this.roomContextCache = roomContextCache;
     this.userRepository = userRepository;
+    this.roomActivityTracker = roomActivityTracker;
+    this.roomSummaryRepository = roomSummaryRepository;
+    this.replyGate = replyGate;
+    this.roomTurnCoordinator = roomTurnCoordinator;
+    this.spendLedger = spendLedger;
     this.defaultAntLimit = defaultAntLimit;
     this.defaultAntRoomLimit = defaultAntRoomLimit;
     this.defaultAntWeeklyMessages = defaultAntWeeklyMessages;
     this.antsEnabled = antsEnabled;
     this.bicameralEveryNRuns = bicameralEveryNRuns;
     this.maxNoResponseStreak = maxNoResponseStreak;
+    this.warmStartPhaseOffsets = warmStartPhaseOffsets;
+    this.warmStartMaxStartsPerSecond = warmStartMaxStartsPerSecond;
+    this.warmStartScanSegments = warmStartScanSegments;
+    this.wakeOnRoomActivity = wakeOnRoomActivity;
+    this.wakeOnAntPosts = wakeOnAntPosts;
+    this.tickDeadlineMs = tickDeadlineMs;
+    this.combinedTurnEnabled = combinedTurnEnabled;
+    this.summaryEveryNMessages = Math.max(1, summaryEveryNMessages);
+    this.summaryDelta = summaryDelta;
+    this.sharedSummary = sharedSummary;
+  }
+
+  @PostConstruct
+  void subscribeToRoomActivity() {
+    if (!antsEnabled || !wakeOnRoomActivity) return;
+    roomActivityTracker.subscribe(this::wakeAntsInRoom);
+  }
+
+  /**
+   * New message in a room: wake the other ants assigned there instead of waiting for their next interval.
+   *
+   * Only user/system posts wake ants by default: every ant reply would otherwise wake all the others, each of
+   * which may reply and wake the rest again, so a room of N ants pays ~N model calls per message.
+   */
+  private void wakeAntsInRoom(RoomActivityTracker.Activity activity) {
+    if (activity.authorAntId() != null && !wakeOnAntPosts) return;
+    int woken = 0;
+    for (AntRoomAssignment a : assignmentRepository.listByRoom(activity.roomId())) {
+      if (a == null || a.antId() == null) continue;
+      if (a.antId().equals(activity.authorAntId())) continue;
+      if (antScheduler.wake(a.antId())) woken++;
+    }
+    log.debug("Room activity roomId={} messageId={} antsWoken={}", activity.roomId(), activity.messageId(), woken);
   }
 
   @PostConstruct
@@ -100,26 +192,33 @@ public class DefaultAntService implements IAntService {
     // When we scale horizontally, we must replace this with a distributed scheduler (e.g., SQS).
 
     try {
-      List<Ant> ants = antRepository.listAll();
-      int scheduled = 0;
-
-      for (Ant ant : ants) {
-        if (ant == null) continue;
-        if (!ant.enabled()) continue;
-        if (assignmentRepository.listByAnt(ant.id()).isEmpty()) continue;
-
-        ensureScheduledIfAssigned(ant);
-        scheduled++;
-      }
-
-      log.info("Warm-start scheduled ants={} (scanned={})", scheduled, ants.size());
+      long startNs = System.nanoTime();
+      AtomicInteger scheduled = new AtomicInteger();
+      WarmStartRamp ramp = new WarmStartRamp(warmStartMaxStartsPerSecond);
+
+      // One segmented scan for ants + assignments; each ant is scheduled as soon as its partition is read.
+      int scanned = antRepository.scanEnabledWithAssignments(warmStartScanSegments, loaded -> {
+        Ant ant = loaded.ant();
+        if (loaded.assignments().isEmpty()) return;
+
+        // Without a phase offset every ant with the same interval fires at "boot + interval" together.
+        long intervalMs = AntScheduler.intervalMs(ant);
+        long delayMs = warmStartPhaseOffsets ? AntScheduler.phaseOffsetMs(ant.id(), intervalMs) : intervalMs;
+        antScheduler.scheduleOrReschedule(ant, ramp.reserve(delayMs), () -> runAntTick(ant.id()));
+        scheduled.incrementAndGet();
+      });
+
+      log.info("Warm-start scheduled ants={} (scanned={}) scanSegments={} tookMs={} phaseOffsets={} "
+              + "maxStartsPerSecond={} rampShifted={}",
+          scheduled.get(), scanned, warmStartScanSegments, (System.nanoTime() - startNs) / 1_000_000,
+          warmStartPhaseOffsets, warmStartMaxStartsPerSecond, ramp.shifted());
     } catch (Exception e) {
       log.error("Warm-start scheduling failed", e);
     }
   }
 
   private static boolean isAdminOnlyModel(AiModel model) {
-    return model == AiModel.OPENAI_GPT_5O_MINI || model == AiModel.OPENAI_GPT_5_2;
+    return model != null && model.adminOnly();
   }
 
   private static void enforceNoAdminOnlyModel(AiModel model) {
@@ -155,7 +254,8 @@ public class DefaultAntService implements IAntService {
     // Safety check: GPT-5 models are admin-only for now.
     enforceNoAdminOnlyModel(model);
 
-    Ant ant = Ant.create(ownerUserId, req.getName(), model, req.getPersonalityPrompt(), interval, enabled, replyEvenIfNoNew, defaultAntWeeklyMessages);
+    Ant ant = Ant.create(ownerUserId, req.getName(), model, req.getPersonalityPrompt(), interval,
+        req.getMaxIntervalSeconds(), enabled, replyEvenIfNoNew, defaultAntWeeklyMessages);
     antRepository.create(ant);
 
     if (ant.enabled()) {
@@ -200,6 +300,7 @@ public class DefaultAntService implements IAntService {
         req == null ? null : req.getModel(),
         req == null ? null : req.getPersonalityPrompt(),
         intervalSeconds,
+        req == null ? null : req.getMaxIntervalSeconds(),
         req == null ? null : req.getEnabled(),
         req == null ? null : req.getReplyEvenIfNoNew(),
         req == null ? null : req.getMaxMessagesPerWeek()
@@ -211,6 +312,7 @@ public class DefaultAntService implements IAntService {
       ensureScheduledIfAssigned(updated);
     } else {
       antScheduler.cancel(updated.id());
+      roomTurnCoordinator.antStopped(updated.id());
     }
 
     return toDto(updated);
@@ -255,6 +357,7 @@ public class DefaultAntService implements IAntService {
   public void unassignFromRoom(String ownerUserId, String antId, String roomId) {
     requireOwnedAnt(ownerUserId, antId);
     assignmentRepository.unassign(antId, roomId);
+    roomTurnCoordinator.antLeft(roomId, antId);
 
     if (assignmentRepository.listByAnt(antId).isEmpty()) {
       antScheduler.cancel(antId);
@@ -287,7 +390,10 @@ public class DefaultAntService implements IAntService {
       return;
     }
 
-    runAntTick(antId);
+    // Same single-flight guard as scheduled ticks: never run the same ant twice concurrently.
+    if (!antScheduler.runExclusive(antId, () -> runAntTick(antId).join())) {
+      log.info("Run-now skipped: tick already in flight antId={}", antId);
+    }
   }
 
   // --- scheduling ---
@@ -299,75 +405,167 @@ public class DefaultAntService implements IAntService {
     antScheduler.scheduleOrReschedule(ant, () -> runAntTick(ant.id()));
   }
 
-  private void runAntTick(String antId) {
+  /**
+   * One scheduled tick. Dynamo reads/writes run as short blocking steps (on the lane thread, then on the
+   * scheduler's tick executor); model calls are async, so a tick waiting on a provider holds no thread.
+   */
+  private CompletableFuture<Void> runAntTick(String antId) {
     long tickStartNs = System.nanoTime();
-    int roomsAttempted = 0;
+    AtomicInteger roomsAttempted = new AtomicInteger();
 
-    // Thread-local metrics collector for this tick
-    AntRunMetrics.start(antId);
+    // Thread-local metrics collector for this tick; continuations re-attach it through `steps`. It also carries
+    // the tick deadline that caps every model call's timeout.
+    AntRunMetrics.start(antId, tickDeadlineMs);
+    Executor steps = AntRunMetrics.propagating(antScheduler.tickExecutor());
 
+    CompletableFuture<Void> run;
     try {
       log.info("Ant tick started antId={}", antId);
-      Ant ant = antRepository.findById(antId).orElse(null);
-      if (ant == null || !ant.enabled()) {
-        antScheduler.cancel(antId);
-        return;
-      }
+      run = runAntTickRooms(antId, roomsAttempted, steps);
+    } catch (Exception e) {
+      run = CompletableFuture.failedFuture(e);
+    } finally {
+      AntRunMetrics.clear();
+    }
 
-      // Lazy reset: refresh quota window every N days (per-ant rolling period).
-      Instant now = Instant.now();
-      Instant periodStart = ant.periodStartDate() == null ? now : ant.periodStartDate();
-      boolean quotaReset = now.isAfter(periodStart.plusSeconds(MESSAGE_CHECK_PERIOD_SECONDS));
-      if (quotaReset) {
-        ant = ant.withUsageReset(now);
-        antRepository.update(ant);
-
-        // Reset per-room notification flags so each room can receive a "limit reached" notice again.
-        List<AntRoomAssignment> allAssignments = assignmentRepository.listByAnt(antId);
-        for (AntRoomAssignment a : allAssignments) {
-          if (Boolean.TRUE.equals(a.limitReachedNotificationSent())) {
-            assignmentRepository.update(a.withLimitReachedNotificationSent(false));
-          }
+    return run.handleAsync((ignored, err) -> {
+      if (err != null) {
+        Throwable cause = ModelRunnerSupport.unwrap(err);
+        if (cause instanceof RateLimitDeferredException e) {
+          // Remaining rooms would hit the same provider bucket; hand the whole tick back to the scheduler.
+          log.info("Ant tick deferred by model rate limit antId={} provider={} model={} retryAfterMs={}",
+              antId, e.provider(), e.modelId(), e.retryAfterMs());
+          antScheduler.deferTick(antId, e.retryAfterMs());
+        } else {
+          log.error("Unhandled error in ant tick antId={}", antId, cause);
         }
       }
 
-      List<AntRoomAssignment> assignments = assignmentRepository.listByAnt(antId);
-      if (assignments.isEmpty()) {
-        antScheduler.cancel(antId);
-        return;
-      }
-
-      for (AntRoomAssignment ar : assignments) {
-        roomsAttempted++;
-        // Reload ant to ensure usage increments are not lost across rooms.
-        ant = antRepository.findById(antId).orElse(null);
-        if (ant == null || !ant.enabled()) break;
-        runAntInRoom(ant, ar);
-      }
-
-    } catch (Exception e) {
-      log.error("Unhandled error in ant tick antId={}", antId, e);
-    } finally {
       long tickLatencyMs = (System.nanoTime() - tickStartNs) / 1_000_000;
       var summary = AntRunMetrics.snapshotSummary();
 
       log.info(
-          "antTickSla antId={} roomsAttempted={} tickLatencyMs={} modelRequests={} ok={} fail={} estUsd={}",
+          "antTickSla antId={} roomsAttempted={} tickLatencyMs={} modelRequests={} ok={} fail={} timeouts={} inputTokens={} cachedInputTokens={} estUsd={} pollsAvoided={} hedges={} hedgeWins={} hedgeExtraUsd={} roomsSkippedDeadline={} roomsSkippedBudget={} budgetDowngradedCalls={} combinedTurns={} combinedFallbacks={} replyCallsAvoided={} turnsYielded={} deltaSummaries={} summaryTokensSaved={} sharedSummaries={} routedCalls={} routeSavedUsd={} routeSavings={}",
           antId,
-          roomsAttempted,
+          roomsAttempted.get(),
           tickLatencyMs,
           summary.requests(),
           summary.successes(),
           summary.failures(),
-          summary.estUsd()
+          summary.timeouts(),
+          summary.inputTokens(),
+          summary.cachedInputTokens(),
+          summary.estUsd(),
+          AntRunMetrics.counter("pollsAvoided"),
+          summary.hedges(),
+          summary.hedgeWins(),
+          summary.hedgeExtraUsd(),
+          AntRunMetrics.counter("roomsSkippedDeadline"),
+          AntRunMetrics.counter("roomsSkippedBudget"),
+          AntRunMetrics.counter("budgetDowngradedCalls"),
+          AntRunMetrics.counter("combinedTurns"),
+          AntRunMetrics.counter("combinedFallbacks"),
+          AntRunMetrics.counter("replyCallsAvoided"),
+          AntRunMetrics.counter("turnsYielded"),
+          AntRunMetrics.counter("deltaSummaries"),
+          AntRunMetrics.counter("summaryTokensSaved"),
+          AntRunMetrics.counter("sharedSummaries"),
+          summary.routedCalls(),
+          summary.routeSavedUsd(),
+          summary.routeSavings()
       );
 
-      AntRunMetrics.clear();
       log.info("Ant tick ended antId={}", antId);
+      return null;
+    }, steps);
+  }
+
+  private CompletableFuture<Void> runAntTickRooms(String antId, AtomicInteger roomsAttempted, Executor steps) {
+    Ant ant = antRepository.findById(antId).orElse(null);
+    if (ant == null || !ant.enabled()) {
+      antScheduler.cancel(antId);
+      roomTurnCoordinator.antStopped(antId);
+      return CompletableFuture.completedFuture(null);
+    }
+
+    // Lazy reset: refresh quota window every N days (per-ant rolling period).
+    Instant now = Instant.now();
+    Instant periodStart = ant.periodStartDate() == null ? now : ant.periodStartDate();
+    boolean quotaReset = now.isAfter(periodStart.plusSeconds(MESSAGE_CHECK_PERIOD_SECONDS));
+    if (quotaReset) {
+      ant = ant.withUsageReset(now);
+      antRepository.update(ant);
+
+      // Reset per-room notification flags so each room can receive a "limit reached" notice again.
+      List<AntRoomAssignment> allAssignments = assignmentRepository.listByAnt(antId);
+      for (AntRoomAssignment a : allAssignments) {
+        if (Boolean.TRUE.equals(a.limitReachedNotificationSent())) {
+          assignmentRepository.update(a.withLimitReachedNotificationSent(false));
+        }
+      }
+    }
+
+    List<AntRoomAssignment> assignments = assignmentRepository.listByAnt(antId);
+    if (assignments.isEmpty()) {
+      antScheduler.cancel(antId);
+      return CompletableFuture.completedFuture(null);
+    }
+
+    // Rooms run one after another. Any active room keeps the base interval; otherwise any idle room backs the
+    // ant off.
+    AtomicReference<Ant> current = new AtomicReference<>(ant);
+    CompletableFuture<AntScheduler.TickActivity> chain = CompletableFuture.completedFuture(AntScheduler.TickActivity.NEUTRAL);
+    for (AntRoomAssignment ar : assignments) {
+      chain = chain.thenComposeAsync(tickActivity -> {
+        Ant previous = current.get();
+        if (previous == null || !previous.enabled()) return CompletableFuture.completedFuture(tickActivity);
+        if (AntRunMetrics.remainingMs() <= 0) {
+          // Out of tick budget; these rooms get their turn next tick.
+          AntRunMetrics.increment("roomsSkippedDeadline");
+          return CompletableFuture.completedFuture(tickActivity);
+        }
+        if (spendLedger.status(previous) == SpendLedger.Status.EXHAUSTED) {
+          // Today's spend budget (ant or owner) is used up; no model calls until it resets.
+          AntRunMetrics.increment("roomsSkippedBudget");
+          log.info("Ant room skipped, spend budget exhausted antId={} roomId={}", antId, ar.roomId());
+          return CompletableFuture.completedFuture(tickActivity);
+        }
+
+        roomsAttempted.incrementAndGet();
+        // Reload ant to ensure usage increments are not lost across rooms.
+        Ant reloaded = antRepository.findById(antId).orElse(null);
+        current.set(reloaded);
+        if (reloaded == null || !reloaded.enabled()) return CompletableFuture.completedFuture(tickActivity);
+
+        return runAntInRoom(reloaded, ar, steps).thenApply(roomActivity -> combineActivity(tickActivity, roomActivity));
+      }, steps);
     }
+
+    return chain.thenAcceptAsync(tickActivity -> {
+      Ant last = current.get();
+      if (last != null && last.enabled()) {
+        antScheduler.onTickCompleted(last, tickActivity);
+      }
+    }, steps);
   }
 
-  private void runAntInRoom(Ant ant, AntRoomAssignment assignment) {
+  private static AntScheduler.TickActivity combineActivity(AntScheduler.TickActivity tick, AntScheduler.TickActivity room) {
+    if (room == AntScheduler.TickActivity.ACTIVE
+        || (room == AntScheduler.TickActivity.IDLE && tick == AntScheduler.TickActivity.NEUTRAL)) {
+      return room;
+    }
+    return tick;
+  }
+
+  /**
+   * Thought → summary → message for one room (or one combined call when all three are due and
+   * antfarm.ants.combinedTurn.enabled), each model call async with the Dynamo work between them on
+   * {@code steps}.
+   *
+   * @return what this room run found, fed into the adaptive interval. Fails only with
+   * RateLimitDeferredException (the tick is handed back to the scheduler).
+   */
+  private CompletableFuture<AntScheduler.TickActivity> runAntInRoom(Ant ant, AntRoomAssignment assignment, Executor steps) {
     String roomId = assignment.roomId();
     log.info("Running ant in room antId={} roomId={}", ant.id(), roomId);
 
@@ -378,189 +576,524 @@ public class DefaultAntService implements IAntService {
         Message msg = Message.createAntMsg(roomId, ant.id(), ant.name(), limitMsg);
         messageRepository.create(msg);
         RoomController.broadcastMessage(roomId, msg, ant.name());
+        roomActivityTracker.publish(msg, ant.id());
 
         assignmentRepository.update(assignment.withLimitReachedNotificationSent(true));
       }
-      return;
+      return CompletableFuture.completedFuture(AntScheduler.TickActivity.NEUTRAL);
     }
 
-    // Ensure role fields are always in scope throughout this method.
-    String roleNameForPrompt = "";
-    String rolePromptForPrompt = "";
-
     try {
-      var ctxPage = messageRepository.listByRoom(roomId, SUMMARY_WINDOW_MESSAGES_SIZE, null);
-      String roomScenario = "";
-
-      // Pull scenario text from Room metadata so PromptBuilder can anchor responses to the room setting.
-      try {
-        roomScenario = roomRepository.findById(roomId)
-            .map(r -> r.scenarioText() == null ? "" : r.scenarioText())
-            .orElse("");
-      } catch (Exception e) {
-        log.warn("Failed to load room scenario for prompt context roomId={} (continuing)", roomId, e);
+      // Quiet room fast path: the activity tracker already knows nothing was posted since lastSeen, so skip
+      // the listByRoom poll (and room/role reads). Only when this run would not trigger a bicameral thought,
+      // so the result is identical to the "no new messages" skip below.
+      if (!ant.replyEvenIfNoNew() && roomActivityTracker.isUnchangedSince(roomId, assignment.lastSeenMessageId())) {
+        AntRoomAssignment working = bicameralEveryNRuns > 0 ? assignment.incrementThoughtCounter(1) : assignment;
+        int thoughtCounter = working.bicameralThoughtCounter() == null ? 0 : working.bicameralThoughtCounter();
+        if (bicameralEveryNRuns <= 0 || thoughtCounter < bicameralEveryNRuns) {
+          roomActivityTracker.recordPollAvoided();
+          AntRunMetrics.increment("pollsAvoided");
+          log.info("Skipped: no new messages in room (cached) antId={} roomId={}", ant.id(), roomId);
+          assignmentRepository.update(working.withLastSeen(working.lastSeenMessageId(), Instant.now()));
+          return CompletableFuture.completedFuture(AntScheduler.TickActivity.IDLE);
+        }
       }
 
-      roleNameForPrompt = assignment.roleName() == null ? "" : assignment.roleName();
-      rolePromptForPrompt = "";
-      if (assignment.roleId() != null && !assignment.roleId().isBlank()) {
-        try {
-          RoomAntRole role = roomAntRoleRepository.find(roomId, assignment.roleId()).orElse(null);
-          if (role != null) {
-            roleNameForPrompt = role.name() == null ? roleNameForPrompt : role.name();
-            rolePromptForPrompt = role.prompt() == null ? "" : role.prompt();
-          }
-        } catch (Exception e) {
-          log.warn("Failed to load role for ant prompt antId={} roomId={} roleId={} (continuing)",
-              ant.id(), roomId, assignment.roleId(), e);
-        }
+      // Messages, scenario, roles and rendered transcript: shared by every ant in the room until something changes.
+      RoomContextCache.Snapshot snapshot = roomContextCache.get(roomId, SUMMARY_WINDOW_MESSAGES_SIZE);
+
+      String roleNameForPrompt = assignment.roleName() == null ? "" : assignment.roleName();
+      String rolePromptForPrompt = "";
+      RoomAntRole role = snapshot.role(assignment.roleId());
+      if (role != null) {
+        roleNameForPrompt = role.name() == null ? roleNameForPrompt : role.name();
+        rolePromptForPrompt = role.prompt() == null ? "" : role.prompt();
       }
 
-      String latestMessageId = ctxPage.items().isEmpty() ? null : ctxPage.items().get(0).id();
+      String latestMessageId = snapshot.newestMessageId();
       boolean roomChanged = latestMessageId != null && !latestMessageId.equals(assignment.lastSeenMessageId());
 
-      int newMessagesInWindow = countNewMessagesSinceLastSeen(ctxPage.items(), assignment.lastSeenMessageId());
+      // A run that persisted its counters but never moved lastSeen (e.g. its reply was rate-limit deferred) already
+      // counted the messages up to countedUpToMessageId, and this run's thought tick.
+      boolean alreadyCounted = assignment.countedUpToMessageId() != null;
+      int newMessagesInWindow = countNewMessagesSinceLastSeen(snapshot.recentMessages(),
+          alreadyCounted ? assignment.countedUpToMessageId() : assignment.lastSeenMessageId());
 
       AntRoomAssignment working = assignment;
       if (roomChanged && newMessagesInWindow > 0) {
         working = working.incrementSummaryCounter(newMessagesInWindow);
       }
 
+      RoomRun run = new RoomRun(ant, roomId, assignment, snapshot.recentMessages(), snapshot.transcript(),
+          sharedSummary ? snapshot.summary() : null,
+          snapshot.scenario(), roleNameForPrompt, rolePromptForPrompt, latestMessageId, roomChanged);
+
       // Bicameral self-reflection trigger (message-driven, every N runs)
-      if (bicameralEveryNRuns > 0) {
+      boolean thoughtDue = false;
+      if (bicameralEveryNRuns > 0 && !alreadyCounted) {
         int nextCounter = (working.bicameralThoughtCounter() == null ? 0 : working.bicameralThoughtCounter()) + 1;
         working = working.incrementThoughtCounter(1);
+        thoughtDue = nextCounter >= bicameralEveryNRuns;
+      }
+
+      CompletableFuture<AntScheduler.TickActivity> result;
+      if (sharedSummary) {
+        // The room summary replaces the per-ant one, which is then never due (and so neither is the combined turn).
+        AntRoomAssignment prepared = working;
+        boolean runThought = thoughtDue;
+        result = refreshSharedSummaryIfDue(run, steps)
+            .thenComposeAsync(r -> runSeparateCalls(r, prepared, runThought, null, steps), steps);
+      } else {
+        // Thought, summary and reply all due: one combined call instead of three. Not when the gate or the room's
+        // turn taking would skip the reply anyway; the separate path then only pays for the thought and summary.
+        // The turn is taken at most once per run, so the decision goes along to whichever path runs.
+        RoomTurnCoordinator.Decision turn = null;
+        if (combinedTurnEnabled && thoughtDue && summaryDue(run, working) && gateReply(run, working).attempt()) {
+          turn = takeTurn(run, working);
+        }
+        result = turn != null && turn.granted()
+            ? runCombinedTurn(run, working, turn, steps)
+            : runSeparateCalls(run, working, thoughtDue, turn, steps);
+      }
+      return result.exceptionallyCompose(err -> onRoomRunFailed(ant, roomId, err));
+    } catch (Exception e) {
+      return onRoomRunFailed(ant, roomId, e);
+    }
+  }
 
-        if (nextCounter >= bicameralEveryNRuns) {
-          try {
-            IAntModelRunner runner = antScheduler.getRunner(ant.model());
-            AntModelContext thoughtCtx = new AntModelContext(
-                ctxPage.items(),
-                working.roomSummary(),
-                roomScenario,
-                ant.personalityPrompt(),
-                roleNameForPrompt,
-                rolePromptForPrompt,
-                working.bicameralThoughtJson()
-            );
-
-            String thoughtJson = runner.generateBicameralThought(ant, roomId, thoughtCtx);
-            if (thoughtJson != null && !thoughtJson.isBlank()) {
-              String trimmed = trimToMax(thoughtJson, 8_000);
-              working = working.withThought(trimmed, Instant.now(), 0);
-
-              if (log.isDebugEnabled()) {
-                String preview = trimmed.replaceAll("[\\r\\n]+", " ").trim();
-                if (preview.length() > 600) preview = preview.substring(0, 600) + "…";
-                log.debug("Bicameral thought updated antId={} roomId={} bytes={} preview={} ",
-                    ant.id(), roomId, trimmed.length(), preview);
-              }
-            } else {
-              // If thought generation returns blank, just reset counter to avoid tight loops.
-              working = working.withThought(working.bicameralThoughtJson(), working.bicameralThoughtAt(), 0);
-
-              if (log.isDebugEnabled()) {
-                log.debug("Bicameral thought generation returned blank antId={} roomId={} (counter reset)", ant.id(), roomId);
-              }
+  /**
+   * Everything the async stages of one room run need from its synchronous prelude.
+   *
+   * @param sharedSummary the room-wide summary prompts use instead of the assignment's own; null when shared
+   *                      summaries are off
+   */
+  private record RoomRun(
+      Ant ant,
+      String roomId,
+      AntRoomAssignment assignment,
+      List<Message> recentMessages,
+      RenderedTranscript transcript,
+      RoomSummary sharedSummary,
+      String roomScenario,
+      String roleName,
+      String rolePrompt,
+      String latestMessageId,
+      boolean roomChanged
+  ) {
+    AntModelContext context(AntRoomAssignment working, String thoughtJson) {
+      return new AntModelContext(
+          recentMessages,
+          summary(working),
+          roomScenario,
+          ant.personalityPrompt(),
+          roleName,
+          rolePrompt,
+          thoughtJson,
+          transcript
+      );
+    }
+
+    /** Same, but with only {@code messages} (newest first) as the transcript. */
+    AntModelContext context(AntRoomAssignment working, String thoughtJson, RenderedTranscript messages) {
+      return new AntModelContext(
+          recentMessages,
+          summary(working),
+          roomScenario,
+          ant.personalityPrompt(),
+          roleName,
+          rolePrompt,
+          thoughtJson,
+          messages
+      );
+    }
+
+    String summary(AntRoomAssignment working) {
+      return sharedSummary != null ? sharedSummary.summary() : working.roomSummary();
+    }
+
+    RoomRun withSharedSummary(RoomSummary summary) {
+      return new RoomRun(ant, roomId, assignment, recentMessages, transcript, summary, roomScenario, roleName,
+          rolePrompt, latestMessageId, roomChanged);
+    }
+  }
+
+  /**
+   * Thought, summary and reply as separate calls. {@code turn} is the room turn already taken for this run, or
+   * null when the reply step should gate and take it itself.
+   */
+  private CompletableFuture<AntScheduler.TickActivity> runSeparateCalls(RoomRun run,
+                                                                      AntRoomAssignment working,
+                                                                      boolean thoughtDue,
+                                                                      RoomTurnCoordinator.Decision turn,
+                                                                      Executor steps) {
+    CompletableFuture<AntRoomAssignment> afterThought = thoughtDue
+        ? generateThought(run, working, steps)
+        : CompletableFuture.completedFuture(working);
+
+    return afterThought
+        .thenComposeAsync(w -> regenerateSummaryIfDue(run, w), steps)
+        .thenComposeAsync(w -> generateReply(run, w, turn, steps), steps);
+  }
+
+  /**
+   * Summary, thought and reply from a single structured call. A malformed response (or a failed call, other than
+   * the ones that end the room run anyway) falls back to {@link #runSeparateCalls}.
+   */
+  private CompletableFuture<AntScheduler.TickActivity> runCombinedTurn(RoomRun run,
+                                                                     AntRoomAssignment working,
+                                                                     RoomTurnCoordinator.Decision turn,
+                                                                     Executor steps) {
+    Ant ant = run.ant();
+    String roomId = run.roomId();
+    AntModelContext ctx = run.context(working, forceReply(working) ? "__FORCE_REPLY__" : working.bicameralThoughtJson());
+
+    return modelCall(() -> runner(ant, "GenerateCombinedTurn")
+            .generateCombinedTurnAsync(ant, roomId, ctx, working.roomSummary()))
+        .handleAsync((raw, err) -> {
+          if (err != null) {
+            Throwable cause = ModelRunnerSupport.unwrap(err);
+            if (cause instanceof RateLimitDeferredException
+                || cause instanceof ModelUnavailableException
+                || cause instanceof SpendBudgetExceededException
+                || (cause instanceof ModelCallTimeoutException t && t.tickDeadline())) {
+              return CompletableFuture.<AntScheduler.TickActivity>failedFuture(cause);
             }
-          } catch (Exception e) {
-            log.warn("Bicameral thought generation failed antId={} roomId={} (continuing)", ant.id(), roomId, e);
-            // Reset counter to avoid retrying every tick if provider is failing.
-            working = working.withThought(working.bicameralThoughtJson(), working.bicameralThoughtAt(), 0);
+            log.warn("Combined turn failed antId={} roomId={} (falling back to separate calls)", ant.id(), roomId, cause);
+            AntRunMetrics.increment("combinedFallbacks");
+            return runSeparateCalls(run, working, true, turn, steps);
+          }
 
+          CombinedTurn combined = CombinedTurnParser.tryParse(raw).orElse(null);
+          if (combined == null) {
+            log.warn("Combined turn response malformed antId={} roomId={} (falling back to separate calls)", ant.id(), roomId);
+            AntRunMetrics.increment("combinedFallbacks");
+            return runSeparateCalls(run, working, true, turn, steps);
+          }
+
+          AntRunMetrics.increment("combinedTurns");
+          AntRoomAssignment updated = working
+              .withThought(trimToMax(combined.thoughtJson(), 8_000), Instant.now(), 0)
+              .withSummary(trimSummary(ant, combined.summary()), 0, run.latestMessageId())
+              .withCountedUpTo(run.latestMessageId());
+          assignmentRepository.update(updated);
+          return CompletableFuture.completedFuture(postReply(run, updated, combined.reply()));
+        }, steps)
+        .thenCompose(Function.identity());
+  }
+
+  private CompletableFuture<AntRoomAssignment> generateThought(RoomRun run, AntRoomAssignment working, Executor steps) {
+    Ant ant = run.ant();
+    String roomId = run.roomId();
+    return modelCall(() -> runner(ant, "GenerateBicameralThought")
+            .generateBicameralThoughtAsync(ant, roomId, run.context(working, working.bicameralThoughtJson())))
+        .handleAsync((thoughtJson, err) -> {
+          if (err != null) {
+            Throwable cause = ModelRunnerSupport.unwrap(err);
+            if (cause instanceof RateLimitDeferredException deferred) throw deferred;
+            if (cause instanceof SpendBudgetExceededException exhausted) throw exhausted;
+
+            log.warn("Bicameral thought generation failed antId={} roomId={} (continuing)", ant.id(), roomId, cause);
             if (log.isDebugEnabled()) {
               log.debug("Bicameral thought NOT updated due to error antId={} roomId={} (counter reset)", ant.id(), roomId);
             }
+            // Reset counter to avoid retrying every tick if provider is failing.
+            return working.withThought(working.bicameralThoughtJson(), working.bicameralThoughtAt(), 0);
           }
-        }
-      }
 
-      int counter = working.summaryMsgCounter() == null ? 0 : working.summaryMsgCounter();
-      boolean summaryMissing = working.roomSummary() == null || working.roomSummary().isBlank();
-      boolean shouldRegenSummary = roomChanged && (summaryMissing || counter >= SUMMARY_WINDOW_MESSAGES_SIZE);
-
-      if (shouldRegenSummary) {
-        IAntModelRunner runner = antScheduler.getRunner(ant.model());
-
-        AntModelContext summaryCtx = new AntModelContext(
-            ctxPage.items(),
-            working.roomSummary(),
-            roomScenario,
-            ant.personalityPrompt(),
-            roleNameForPrompt,
-            rolePromptForPrompt,
-            working.bicameralThoughtJson()
-        );
-        String updatedSummary = runner.generateRoomSummary(ant, roomId, summaryCtx, working.roomSummary());
-
-        if (updatedSummary != null && !updatedSummary.isBlank()) {
-          working = working.withSummary(trimToMax(updatedSummary, SUMMARY_MAX_CHARS), 0);
-        }
-      }
+          if (thoughtJson != null && !thoughtJson.isBlank()) {
+            String trimmed = trimToMax(thoughtJson, 8_000);
 
-      if (!Objects.equals(working, assignment)) {
-        assignmentRepository.update(working);
-      }
+            if (log.isDebugEnabled()) {
+              String preview = trimmed.replaceAll("[\\r\\n]+", " ").trim();
+              if (preview.length() > 600) preview = preview.substring(0, 600) + "…";
+              log.debug("Bicameral thought updated antId={} roomId={} bytes={} preview={} ",
+                  ant.id(), roomId, trimmed.length(), preview);
+            }
+            return working.withThought(trimmed, Instant.now(), 0);
+          }
 
-      if (!ant.replyEvenIfNoNew() && !roomChanged) {
-        log.info("Skipped: no new messages in room antId={} roomId={}", ant.id(), roomId);
-        assignmentRepository.update(working.withLastSeen(working.lastSeenMessageId(), Instant.now()));
-        return;
-      }
+          if (log.isDebugEnabled()) {
+            log.debug("Bicameral thought generation returned blank antId={} roomId={} (counter reset)", ant.id(), roomId);
+          }
+          // If thought generation returns blank, just reset counter to avoid tight loops.
+          return working.withThought(working.bicameralThoughtJson(), working.bicameralThoughtAt(), 0);
+        }, steps);
+  }
 
-      // right before constructing AntModelContext ctx
-      boolean forceReply = false;
-      int streak = working.noResponseStreak() == null ? 0 : working.noResponseStreak();
-      if (maxNoResponseStreak > 0 && streak >= maxNoResponseStreak) {
-        forceReply = true;
-      }
+  private boolean summaryDue(RoomRun run, AntRoomAssignment working) {
+    if (run.sharedSummary() != null) return false;
+    int counter = working.summaryMsgCounter() == null ? 0 : working.summaryMsgCounter();
+    boolean summaryMissing = working.roomSummary() == null || working.roomSummary().isBlank();
+    return run.roomChanged() && (summaryMissing || counter >= summaryEveryNMessages);
+  }
 
-      String thoughtJsonForPrompt = forceReply ? "__FORCE_REPLY__" : working.bicameralThoughtJson();
+  private CompletableFuture<AntRoomAssignment> regenerateSummaryIfDue(RoomRun run, AntRoomAssignment working) {
+    if (!summaryDue(run, working)) {
+      return CompletableFuture.completedFuture(working);
+    }
 
-      var ctx = new AntModelContext(
-          ctxPage.items(),
-          working.roomSummary(),
-          roomScenario,
-          ant.personalityPrompt(),
-          roleNameForPrompt,
-          rolePromptForPrompt,
-          thoughtJsonForPrompt
-      );
+    AntModelContext ctx;
+    List<Message> newMessages = summaryDelta ? messagesSinceSummary(run, working) : null;
+    if (newMessages == null) {
+      ctx = run.context(working, working.bicameralThoughtJson());
+    } else if (newMessages.isEmpty()) {
+      // The summary already covers the newest message (e.g. written by a combined turn): nothing to fold in.
+      return CompletableFuture.completedFuture(working.withSummary(working.roomSummary(), 0, run.latestMessageId()));
+    } else {
+      RenderedTranscript delta = RenderedTranscript.of(newMessages);
+      recordDeltaSummary(run, delta, newMessages.size());
+      ctx = run.context(working, working.bicameralThoughtJson(), delta);
+    }
 
-      IAntModelRunner runner = antScheduler.getRunner(ant.model());
-      String content = runner.generateMessage(ant, roomId, ctx);
-      if (content == null || content.isBlank()) {
-        throw new IllegalStateException("Model runner returned blank content model=" + ant.model());
-      }
+    return modelCall(() -> runner(run.ant(), "GenerateRoomSummary")
+            .generateRoomSummaryAsync(run.ant(), run.roomId(), ctx, working.roomSummary()))
+        .thenApply(updatedSummary -> updatedSummary != null && !updatedSummary.isBlank()
+            ? working.withSummary(trimSummary(run.ant(), updatedSummary), 0, run.latestMessageId())
+            : working);
+  }
+
+  /**
+   * Messages newer than the one the current summary was built up to (newest first), or null when the whole window
+   * has to be sent: no summary yet, no watermark (written before watermarks existed) or the watermark has scrolled
+   * out of the window.
+   */
+  private static List<Message> messagesSinceSummary(RoomRun run, AntRoomAssignment working) {
+    if (working.roomSummary() == null || working.roomSummary().isBlank()) return null;
+    return messagesAfter(run.recentMessages(), working.summarizedUpToMessageId());
+  }
+
+  private static List<Message> messagesAfter(List<Message> newestToOldest, String watermark) {
+    if (watermark == null) return null;
+    for (int i = 0; i < newestToOldest.size(); i++) {
+      Message m = newestToOldest.get(i);
+      if (m != null && watermark.equals(m.id())) return newestToOldest.subList(0, i);
+    }
+    return null;
+  }
 
-      String trimmed = content.trim();
-      if (NO_RESPONSE_SENTINEL.equals(trimmed)) {
-        // Model chose silence: do not post, do not persist, do not count against quotas.
-        AntRoomAssignment updated = working.incrementNoResponseStreak(1);
+  private boolean sharedSummaryDue(RoomRun run) {
+    RoomSummary current = run.sharedSummary();
+    if (current == null || run.latestMessageId() == null) return false;
+    if (current.isBlank()) return true;
+    return countNewMessagesSinceLastSeen(run.recentMessages(), current.summarizedUpToMessageId()) >= summaryEveryNMessages;
+  }
 
-        int newStreak = updated.noResponseStreak() == null ? 0 : updated.noResponseStreak();
+  /**
+   * Regenerates the room's shared summary when enough messages arrived since it was written. Only the first ant to
+   * see that does the call (billed to it, on its model); other ants in the room carry on with the current summary
+   * meanwhile and pick up the new one from the room snapshot.
+   */
+  private CompletableFuture<RoomRun> refreshSharedSummaryIfDue(RoomRun run, Executor steps) {
+    if (!sharedSummaryDue(run) || !sharedSummaryRefreshes.add(run.roomId())) {
+      return CompletableFuture.completedFuture(run);
+    }
 
-        assignmentRepository.update(updated.withLastSeen(latestMessageId, Instant.now()));
-        return;
-      }
+    RoomSummary current = run.sharedSummary();
+    List<Message> newMessages = summaryDelta && !current.isBlank()
+        ? messagesAfter(run.recentMessages(), current.summarizedUpToMessageId())
+        : null;
+    RenderedTranscript transcript = run.transcript();
+    if (newMessages != null) {
+      transcript = RenderedTranscript.of(newMessages);
+      recordDeltaSummary(run, transcript, newMessages.size());
+    }
+    // Neutral: scenario and messages only, no persona or role.
+    AntModelContext ctx = new AntModelContext(run.recentMessages(), current.summary(), run.roomScenario(),
+        null, null, null, null, transcript);
+
+    return modelCall(() -> runner(run.ant(), "GenerateRoomSummary")
+            .generateSharedRoomSummaryAsync(run.ant(), run.roomId(), ctx, current.summary()))
+        .thenApplyAsync(updatedSummary -> {
+          if (updatedSummary == null || updatedSummary.isBlank()) return run;
+
+          RoomSummary updated = new RoomSummary(run.roomId(), trimSummary(run.ant(), updatedSummary),
+              run.latestMessageId(), Instant.now());
+          roomSummaryRepository.save(updated);
+          roomContextCache.summaryUpdated(updated);
+          AntRunMetrics.increment("sharedSummaries");
+          log.info("Shared room summary updated roomId={} byAntId={} upToMessageId={}",
+              run.roomId(), run.ant().id(), updated.summarizedUpToMessageId());
+          return run.withSharedSummary(updated);
+        }, steps)
+        .whenComplete((r, err) -> sharedSummaryRefreshes.remove(run.roomId()));
+  }
+
+  private static void recordDeltaSummary(RoomRun run, RenderedTranscript delta, int newMessages) {
+    TokenEstimator estimator = TokenEstimator.forModel(run.ant().model());
+    int sent = delta.tokens(estimator);
+    int fullWindow = run.transcript().tokens(estimator);
+
+    AntRunMetrics.increment("deltaSummaries");
+    AntRunMetrics.add("summaryTokensSaved", Math.max(0, fullWindow - sent));
+    log.info("Delta summary antId={} roomId={} newMessages={} estTokens={} fullWindowEstTokens={}",
+        run.ant().id(), run.roomId(), newMessages, sent, fullWindow);
+  }
 
-      // Reset streak on real message
-      if (working.noResponseStreak() != null && working.noResponseStreak() > 0) {
-        working = working.withNoResponseStreak(0);
+  private CompletableFuture<AntScheduler.TickActivity> generateReply(RoomRun run,
+                                                                   AntRoomAssignment working,
+                                                                   RoomTurnCoordinator.Decision taken,
+                                                                   Executor steps) {
+    Ant ant = run.ant();
+    String roomId = run.roomId();
+
+    if (!Objects.equals(working, run.assignment())) {
+      // Counters are persisted ahead of the reply call; mark them so a retry of this run doesn't count again.
+      working = working.withCountedUpTo(run.latestMessageId());
+      assignmentRepository.update(working);
+    }
+
+    if (!ant.replyEvenIfNoNew() && !run.roomChanged()) {
+      log.info("Skipped: no new messages in room antId={} roomId={}", ant.id(), roomId);
+      assignmentRepository.update(working.withLastSeen(working.lastSeenMessageId(), Instant.now()));
+      return CompletableFuture.completedFuture(AntScheduler.TickActivity.IDLE);
+    }
+
+    // A turn taken earlier in the run was only taken after the gate let the reply through.
+    ReplyGate.Decision gate = taken != null ? null : gateReply(run, working);
+    if (gate != null && !gate.attempt()) {
+      AntRunMetrics.increment("replyCallsAvoided");
+      log.info("Reply skipped by gate antId={} roomId={} reason={} score={}",
+          ant.id(), roomId, gate.reason(), String.format("%.2f", gate.score()));
+      roomTurnCoordinator.pass(roomId, run.latestMessageId(), ant.id());
+      return CompletableFuture.completedFuture(recordNoResponse(run, working));
+    }
+
+    RoomTurnCoordinator.Decision turn = taken != null ? taken : takeTurn(run, working);
+    if (!turn.granted()) {
+      AntRunMetrics.increment("turnsYielded");
+      log.info("Reply skipped by turn taking antId={} roomId={} reason={} retryAfterMs={}",
+          ant.id(), roomId, turn.reason(), turn.retryAfterMs());
+      if (turn.retryAfterMs() > 0) {
+        // Outranked during the round's hold: leave lastSeen where it is and ask again once the hold is over.
+        antScheduler.deferTick(ant.id(), turn.retryAfterMs());
+        return CompletableFuture.completedFuture(AntScheduler.TickActivity.NEUTRAL);
       }
+      return CompletableFuture.completedFuture(recordNoResponse(run, working));
+    }
 
-      // TODO @HEL - Make is so a message can be created as a DM - IE Other bots wont see it.
-      Message msg = Message.createAntMsg(roomId, ant.id(), ant.name(), content);
-      messageRepository.create(msg);
-      RoomController.broadcastMessage(roomId, msg, ant.name());
+    String thoughtJsonForPrompt = forceReply(working) ? "__FORCE_REPLY__" : working.bicameralThoughtJson();
+    AntModelContext ctx = run.context(working, thoughtJsonForPrompt);
 
-      // Increment usage ONLY for real messages
-      antRepository.update(ant.withUsageIncremented());
+    AntRoomAssignment replying = working;
+    return modelCall(() -> runner(ant, "GenerateMessage").generateMessageAsync(ant, roomId, ctx))
+        .thenApplyAsync(content -> postReply(run, replying, content), steps);
+  }
 
-      latestMessageId = msg.id();
-      assignmentRepository.update(working.withLastSeen(latestMessageId, Instant.now()));
-    } catch (Exception e) {
-      log.error("Ant run failed antId={} roomId={}", ant.id(), roomId, e);
+  private boolean forceReply(AntRoomAssignment working) {
+    int streak = working.noResponseStreak() == null ? 0 : working.noResponseStreak();
+    return maxNoResponseStreak > 0 && streak >= maxNoResponseStreak;
+  }
+
+  /**
+   * Whether this ant is one of the few allowed to reply to the room's newest message (see
+   * {@link RoomTurnCoordinator}); ants that have been quiet longer, or hold a role, go first.
+   */
+  private RoomTurnCoordinator.Decision takeTurn(RoomRun run, AntRoomAssignment working) {
+    Ant ant = run.ant();
+    double weight = roomTurnCoordinator.weight(ant.id(), run.recentMessages(), !run.roleName().isBlank(), Instant.now());
+    return roomTurnCoordinator.acquire(run.roomId(), run.latestMessageId(), ant.id(), weight, forceReply(working));
+  }
+
+  private ReplyGate.Decision gateReply(RoomRun run, AntRoomAssignment working) {
+    return replyGate.decide(new ReplyGate.Input(
+        run.ant(),
+        run.recentMessages(),
+        run.assignment().lastSeenMessageId(),
+        working.noResponseStreak() == null ? 0 : working.noResponseStreak(),
+        forceReply(working),
+        working.bicameralThoughtJson(),
+        Instant.now()
+    ));
+  }
+
+  private AntScheduler.TickActivity postReply(RoomRun run, AntRoomAssignment working, String content) {
+    Ant ant = run.ant();
+    String roomId = run.roomId();
+
+    if (content == null || content.isBlank()) {
+      throw new IllegalStateException("Model runner returned blank content model=" + ant.model());
+    }
+
+    String trimmed = content.trim();
+    if (NO_RESPONSE_SENTINEL.equals(trimmed)) {
+      // Model chose silence: do not post, do not persist, do not count against quotas.
+      roomTurnCoordinator.release(roomId, ant.id());
+      return recordNoResponse(run, working);
+    }
+
+    // Reset streak on real message
+    if (working.noResponseStreak() != null && working.noResponseStreak() > 0) {
+      working = working.withNoResponseStreak(0);
+    }
+
+    // TODO @HEL - Make is so a message can be created as a DM - IE Other bots wont see it.
+    Message msg = Message.createAntMsg(roomId, ant.id(), ant.name(), content);
+    messageRepository.create(msg);
+    RoomController.broadcastMessage(roomId, msg, ant.name());
+    roomActivityTracker.publish(msg, ant.id());
+    roomTurnCoordinator.posted(roomId, msg.id(), ant.id());
+
+    // Increment usage ONLY for real messages
+    antRepository.update(ant.withUsageIncremented());
+
+    assignmentRepository.update(working.withLastSeen(msg.id(), Instant.now()));
+    return AntScheduler.TickActivity.ACTIVE;
+  }
+
+  /**
+   * Silence from the model, or a reply the gate skipped: bump the streak (so force-reply still kicks in) and mark
+   * the window seen.
+   */
+  private AntScheduler.TickActivity recordNoResponse(RoomRun run, AntRoomAssignment working) {
+    AntRoomAssignment updated = working.incrementNoResponseStreak(1);
+
+    int newStreak = updated.noResponseStreak() == null ? 0 : updated.noResponseStreak();
+
+    assignmentRepository.update(updated.withLastSeen(run.latestMessageId(), Instant.now()));
+    // Repeated silence counts as idle even if the room moved; a first silence on new messages doesn't.
+    return run.roomChanged() && newStreak < 2 ? AntScheduler.TickActivity.ACTIVE : AntScheduler.TickActivity.IDLE;
+  }
+
+  private CompletableFuture<AntScheduler.TickActivity> onRoomRunFailed(Ant ant, String roomId, Throwable err) {
+    Throwable cause = ModelRunnerSupport.unwrap(err);
+    if (cause instanceof RateLimitDeferredException) {
+      // The deferred tick comes back for the same round and keeps its turn.
+      return CompletableFuture.failedFuture(cause);
+    }
+    roomTurnCoordinator.release(roomId, ant.id());
+    if (cause instanceof ModelUnavailableException e) {
+      log.warn("Ant run skipped, model circuit open antId={} roomId={} model={}", ant.id(), roomId, e.model());
+    } else if (cause instanceof SpendBudgetExceededException e) {
+      log.info("Ant run skipped, spend budget exhausted antId={} roomId={} scope={} id={}",
+          ant.id(), roomId, e.scope(), e.scopeId());
+    } else if (cause instanceof ModelCallTimeoutException e) {
+      log.warn("Ant run timed out antId={} roomId={} op={} timeoutMs={} tickDeadline={}",
+          ant.id(), roomId, e.operation(), e.timeoutMs(), e.tickDeadline());
+    } else {
+      log.error("Ant run failed antId={} roomId={}", ant.id(), roomId, cause);
+    }
+    return CompletableFuture.completedFuture(AntScheduler.TickActivity.NEUTRAL);
+  }
+
+  /**
+   * Runner for one of the ant's operations. Past the spend budget's downgrade threshold the ant's calls go to the
+   * budget's downgrade model; {@link AntScheduler#getRunner} then applies routing and the circuit breaker.
+   */
+  private IAntModelRunner runner(Ant ant, String operation) {
+    AiModel model = spendLedger.modelFor(ant, spendLedger.status(ant));
+    if (model != ant.model()) AntRunMetrics.increment("budgetDowngradedCalls");
+    return antScheduler.getRunner(model, operation);
+  }
+
+  /**
+   * Starts a model call, turning a synchronous failure (e.g. getRunner's ModelUnavailableException) into a
+   * failed future so every error takes the same path.
+   */
+  private static <T> CompletableFuture<T> modelCall(Supplier<CompletableFuture<T>> call) {
+    try {
+      return call.get();
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
     }
   }
 
@@ -580,6 +1113,12 @@ public class DefaultAntService implements IAntService {
     return newestToOldest.size();
   }
 
+  /** Keeps the end of an over-long summary, like {@link #trimToMax}, but by estimated tokens. */
+  private static String trimSummary(Ant ant, String summary) {
+    if (summary == null) return "";
+    return TokenEstimator.forModel(ant.model()).truncateKeepingEnd(summary.trim(), SUMMARY_MAX_TOKENS);
+  }
+
   private static String trimToMax(String s, int maxChars) {
     if (s == null) return "";
     if (maxChars <= 0) return s;
@@ -606,6 +1145,8 @@ public class DefaultAntService implements IAntService {
         a.model(),
         a.personalityPrompt(),
         a.intervalSeconds(),
+        a.maxIntervalSeconds(),
+        antScheduler.effectiveIntervalSeconds(a),
         a.enabled(),
         a.replyEvenIfNoNew(),
         a.maxMessagesPerWeek(),
@@ -637,6 +1178,7 @@ public class DefaultAntService implements IAntService {
     requireOwnedAnt(ownerUserId, antId);
 
     antScheduler.cancel(antId);
+    roomTurnCoordinator.antStopped(antId);
 
     try {
       List<AntRoomAssignment> assignments = assignmentRepository.listByAnt(antId);
@@ -24,6 +24,7 @@ public class DefaultRoomAntRoleService implements RoomAntRoleService {
   private final RoomAntRoleRepository roomAntRoleRepository;
   private final AntRepository antRepository;
   private final AntRoomAssignmentRepository antRoomAssignmentRepository;
+  private final RoomContextCache roomContextCache;
 
   private final int maxSpotsLimit;
 
@@ -32,12 +33,14 @@ public class DefaultRoomAntRoleService implements RoomAntRoleService {
       RoomAntRoleRepository roomAntRoleRepository,
       AntRepository antRepository,
       AntRoomAssignmentRepository antRoomAssignmentRepository,
+      RoomContextCache roomContextCache,
       @Value("${antfarm.rooms.antRoles.maxSpotsLimit:5}") int maxSpotsLimit
   ) {
     this.roomRepository = roomRepository;
     this.roomAntRoleRepository = roomAntRoleRepository;
     this.antRepository = antRepository;
     this.antRoomAssignmentRepository = antRoomAssignmentRepository;
+    this.roomContextCache = roomContextCache;
     this.maxSpotsLimit = maxSpotsLimit;
   }
 
@@ -60,6 +63,7 @@ public class DefaultRoomAntRoleService implements RoomAntRoleService {
 
     RoomAntRole role = RoomAntRole.create(room.id(), req.name(), req.prompt(), maxSpots);
     roomAntRoleRepository.create(role);
+    roomContextCache.invalidate(room.id());
     return toDto(role);
   }
 
@@ -80,6 +84,7 @@ public class DefaultRoomAntRoleService implements RoomAntRoleService {
     );
 
     roomAntRoleRepository.update(updated);
+    roomContextCache.invalidate(roomId);
     return toDto(updated);
   }
 
@@ -100,6 +105,7 @@ public class DefaultRoomAntRoleService implements RoomAntRoleService {
     }
 
     roomAntRoleRepository.delete(roomId, roleId);
+    roomContextCache.invalidate(roomId);
   }
 
   @Override
@@ -13,7 +13,9 @@ import com.aiantfarm.repository.MessageRepository;
 import com.aiantfarm.repository.Page;
 import com.aiantfarm.repository.RoomAntRoleRepository;
 import com.aiantfarm.repository.RoomRepository;
+import com.aiantfarm.repository.RoomSummaryRepository;
 import com.aiantfarm.repository.UserRepository;
+import com.aiantfarm.service.ant.RoomTurnCoordinator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -28,22 +30,34 @@ public class DefaultRoomService implements IRoomService {
   private final RoomRepository roomRepository;
   private final MessageRepository messageRepository;
   private final RoomAntRoleRepository roomAntRoleRepository;
+  private final RoomSummaryRepository roomSummaryRepository;
   private final AntRoomAssignmentRepository antRoomAssignmentRepository;
   private final UserRepository userRepository;
+  private final RoomActivityTracker roomActivityTracker;
+  private final RoomContextCache roomContextCache;
+  private final RoomTurnCoordinator roomTurnCoordinator;
 
   private final int defaultRoomLimit;
 
   public DefaultRoomService(RoomRepository roomRepository,
                             MessageRepository messageRepository,
                             RoomAntRoleRepository roomAntRoleRepository,
+                            RoomSummaryRepository roomSummaryRepository,
                             AntRoomAssignmentRepository antRoomAssignmentRepository,
                             UserRepository userRepository,
+                            RoomActivityTracker roomActivityTracker,
+                            RoomContextCache roomContextCache,
+                            RoomTurnCoordinator roomTurnCoordinator,
                             @Value("${antfarm.limits.defaultRoomLimit:1}") int defaultRoomLimit) {
     this.roomRepository = roomRepository;
     this.messageRepository = messageRepository;
     this.roomAntRoleRepository = roomAntRoleRepository;
+    this.roomSummaryRepository = roomSummaryRepository;
     this.antRoomAssignmentRepository = antRoomAssignmentRepository;
     this.userRepository = userRepository;
+    this.roomActivityTracker = roomActivityTracker;
+    this.roomContextCache = roomContextCache;
+    this.roomTurnCoordinator = roomTurnCoordinator;
     this.defaultRoomLimit = defaultRoomLimit;
   }
 
@@ -110,6 +124,7 @@ public class DefaultRoomService implements IRoomService {
     }
     var domainMsg = Message.createUserMsg(roomId, userId, userName, req.text());
     domainMsg = messageRepository.create(domainMsg);
+    roomActivityTracker.publish(domainMsg, null);
     return toMessageDto(domainMsg);
   }
 
@@ -155,8 +170,17 @@ public class DefaultRoomService implements IRoomService {
       log.warn("Room delete cascade failed: messages roomId={} ownerUserId={}", roomId, ownerUserId, e);
     }
 
-    // 4) Delete the room metadata itself
+    // 4) Delete the shared room summary
+    try {
+      roomSummaryRepository.deleteByRoomId(roomId);
+    } catch (Exception e) {
+      log.warn("Room delete cascade failed: room summary roomId={} ownerUserId={}", roomId, ownerUserId, e);
+    }
+
+    // 5) Delete the room metadata itself
     roomRepository.deleteByRoomId(roomId);
+    roomContextCache.forget(roomId);
+    roomTurnCoordinator.roomDeleted(roomId);
   }
 
   // --- mappers (domain -> dto) ---
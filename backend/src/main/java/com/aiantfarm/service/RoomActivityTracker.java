@@ -0,0 +1,143 @@
+package com.aiantfarm.service;
+
+import com.aiantfarm.domain.Message;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * In-memory "what is the newest message in this room" signal.
+ *
+ * Writers (user posts, ant posts) publish here; ant ticks consult it before polling
+ * messageRepository.listByRoom, and DefaultAntService subscribes to wake the room's ants.
+ *
+ * Single-pod caveat (same as AntScheduler): posts made on another pod are not seen. Entries therefore
+ * expire after cacheTtlMs, after which the next tick polls Dynamo again.
+ */
+@Component
+@Slf4j
+public class RoomActivityTracker {
+
+  /**
+   * @param authorAntId the posting ant, or null for user/system messages
+   */
+  public record Activity(String roomId, String messageId, String authorAntId) {}
+
+  private record Latest(String messageId, Instant createdAt, long observedAtMs) {}
+
+  private final long cacheTtlMs;
+  private final Map<String, Latest> latestByRoom = new ConcurrentHashMap<>();
+  private final List<Consumer<Activity>> listeners = new CopyOnWriteArrayList<>();
+
+  // Listeners may hit Dynamo; keep that off the request thread that posted the message.
+  private final ExecutorService notifier = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "room-activity");
+    t.setDaemon(true);
+    return t;
+  });
+
+  private final LongAdder published = new LongAdder();
+  private final LongAdder pollsPerformed = new LongAdder();
+  private final LongAdder pollsAvoided = new LongAdder();
+
+  public RoomActivityTracker(@Value("${antfarm.rooms.activity.cacheTtlMs:600000}") long cacheTtlMs) {
+    this.cacheTtlMs = Math.max(0, cacheTtlMs);
+  }
+
+  public void subscribe(Consumer<Activity> listener) {
+    listeners.add(Objects.requireNonNull(listener, "listener"));
+  }
+
+  /**
+   * Record a newly persisted message and notify subscribers (asynchronously).
+   */
+  public void publish(Message msg, String authorAntId) {
+    if (msg == null) return;
+    remember(msg.roomId(), msg.id(), msg.createdAt());
+    published.increment();
+
+    if (listeners.isEmpty()) return;
+    Activity activity = new Activity(msg.roomId(), msg.id(), authorAntId);
+    try {
+      notifier.execute(() -> {
+        for (Consumer<Activity> listener : listeners) {
+          try {
+            listener.accept(activity);
+          } catch (Exception e) {
+            log.warn("Room activity listener failed roomId={}", activity.roomId(), e);
+          }
+        }
+      });
+    } catch (RejectedExecutionException ignored) {
+      // shutting down
+    }
+  }
+
+  /**
+   * Record what a listByRoom poll saw (newest message, or null for an empty room).
+   */
+  public void observe(String roomId, Message newest) {
+    pollsPerformed.increment();
+    if (newest == null) {
+      remember(roomId, null, null);
+    } else {
+      remember(roomId, newest.id(), newest.createdAt());
+    }
+  }
+
+  /**
+   * True only if we know (within cacheTtlMs) that the newest message in the room is {@code lastSeenMessageId}.
+   * Unknown or expired rooms return false so the caller polls.
+   */
+  public boolean isUnchangedSince(String roomId, String lastSeenMessageId) {
+    if (roomId == null) return false;
+    Latest latest = latestByRoom.get(roomId);
+    if (latest == null) return false;
+    if (System.currentTimeMillis() - latest.observedAtMs() > cacheTtlMs) return false;
+    return Objects.equals(latest.messageId(), lastSeenMessageId);
+  }
+
+  public void recordPollAvoided() {
+    pollsAvoided.increment();
+  }
+
+  private void remember(String roomId, String messageId, Instant createdAt) {
+    if (roomId == null) return;
+    Latest next = new Latest(messageId, createdAt, System.currentTimeMillis());
+    // A slow poll must not overwrite a newer message published while it was in flight.
+    latestByRoom.merge(roomId, next, (cur, nxt) -> isOlder(nxt.createdAt(), cur.createdAt()) ? cur : nxt);
+  }
+
+  private static boolean isOlder(Instant candidate, Instant current) {
+    if (current == null) return false;
+    if (candidate == null) return true;
+    return candidate.isBefore(current);
+  }
+
+  public Stats stats() {
+    return new Stats(latestByRoom.size(), published.sum(), pollsPerformed.sum(), pollsAvoided.sum());
+  }
+
+  /**
+   * @param pollsAvoided listByRoom queries skipped because the cached newest message matched lastSeen
+   */
+  public record Stats(int roomsTracked, long published, long pollsPerformed, long pollsAvoided) {}
+
+  @PreDestroy
+  public void shutdown() {
+    notifier.shutdownNow();
+  }
+}
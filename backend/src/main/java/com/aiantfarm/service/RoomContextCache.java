@@ -0,0 +1,242 @@
+package com.aiantfarm.service;
+
+import com.aiantfarm.domain.Message;
+import com.aiantfarm.domain.RoomAntRole;
+import com.aiantfarm.domain.RoomSummary;
+import com.aiantfarm.repository.MessageRepository;
+import com.aiantfarm.repository.RoomAntRoleRepository;
+import com.aiantfarm.repository.RoomRepository;
+import com.aiantfarm.repository.RoomSummaryRepository;
+import com.aiantfarm.service.ant.runner.RenderedTranscript;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shared, versioned per-room prompt context: the recent message window, the scenario, the room's roles, the
+ * rendered transcript and (with antfarm.rooms.summary.shared) the room-wide summary.
+ *
+ * Every ant in a room used to do its own listByRoom + room + role reads and render the same transcript. Now the
+ * first ant to tick after a change loads one immutable {@link Snapshot} and the others (this tick and later ones)
+ * reuse it until it goes stale:
+ * - a newer message is known to {@link RoomActivityTracker} (posts on this pod are published there), or
+ * - the room or its roles were edited ({@link #invalidate}), or
+ * - it is older than maxAgeMs (catches posts and edits made on another pod).
+ *
+ * Loads are single-flight per room, and a load that raced an invalidation is returned to its caller but not
+ * cached. A deleted room is dropped from every per-room map ({@link #forget}).
+ */
+@Component
+@Slf4j
+public class RoomContextCache {
+
+  /**
+   * @param version increases with every load (across rooms), for logs and stats
+   * @param windowSize the message page size this snapshot was loaded with
+   * @param summary the shared room summary; empty when shared summaries are off or none was written yet
+   */
+  public record Snapshot(
+      String roomId,
+      long version,
+      int windowSize,
+      List<Message> recentMessages,
+      String scenario,
+      Map<String, RoomAntRole> rolesById,
+      RenderedTranscript transcript,
+      RoomSummary summary,
+      long loadedAtMs
+  ) {
+    public Message newest() {
+      return recentMessages.isEmpty() ? null : recentMessages.get(0);
+    }
+
+    public String newestMessageId() {
+      Message newest = newest();
+      return newest == null ? null : newest.id();
+    }
+
+    public RoomAntRole role(String roleId) {
+      return roleId == null ? null : rolesById.get(roleId);
+    }
+
+    Snapshot withSummary(RoomSummary summary) {
+      return new Snapshot(roomId, version, windowSize, recentMessages, scenario, rolesById, transcript, summary,
+          loadedAtMs);
+    }
+  }
+
+  private final MessageRepository messageRepository;
+  private final RoomRepository roomRepository;
+  private final RoomAntRoleRepository roomAntRoleRepository;
+  private final RoomActivityTracker roomActivityTracker;
+  private final RoomSummaryRepository roomSummaryRepository;
+  private final boolean enabled;
+  private final boolean sharedSummary;
+  private final long maxAgeMs;
+
+  private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+  // Bumped by invalidate(); a load only installs its snapshot if the room's generation did not move meanwhile.
+  private final Map<String, Long> generations = new ConcurrentHashMap<>();
+  private final Map<String, ReentrantLock> loadLocks = new ConcurrentHashMap<>();
+  private final AtomicLong versions = new AtomicLong();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  public RoomContextCache(MessageRepository messageRepository,
+                          RoomRepository roomRepository,
+                          RoomAntRoleRepository roomAntRoleRepository,
+                          RoomActivityTracker roomActivityTracker,
+                          RoomSummaryRepository roomSummaryRepository,
+                          @Value("${antfarm.rooms.context.enabled:true}") boolean enabled,
+                          @Value("${antfarm.rooms.context.maxAgeMs:60000}") long maxAgeMs,
+                          @Value("${antfarm.rooms.summary.shared:false}") boolean sharedSummary) {
+    this.messageRepository = messageRepository;
+    this.roomRepository = roomRepository;
+    this.roomAntRoleRepository = roomAntRoleRepository;
+    this.roomActivityTracker = roomActivityTracker;
+    this.roomSummaryRepository = roomSummaryRepository;
+    this.enabled = enabled;
+    this.maxAgeMs = Math.max(0, maxAgeMs);
+    this.sharedSummary = sharedSummary;
+  }
+
+  /**
+   * Current snapshot for the room with at least {@code windowSize} recent messages (if the room has them),
+   * loading it if there is none or it is stale.
+   */
+  public Snapshot get(String roomId, int windowSize) {
+    if (!enabled) return load(roomId, windowSize);
+
+    Snapshot cached = snapshots.get(roomId);
+    if (isFresh(cached, windowSize)) {
+      hits.increment();
+      return cached;
+    }
+
+    ReentrantLock lock = loadLocks.computeIfAbsent(roomId, k -> new ReentrantLock());
+    lock.lock();
+    try {
+      // Another ant in the room may have loaded it while we waited.
+      cached = snapshots.get(roomId);
+      if (isFresh(cached, windowSize)) {
+        hits.increment();
+        return cached;
+      }
+
+      long generation = generations.getOrDefault(roomId, 0L);
+      Snapshot loaded = load(roomId, windowSize);
+      // A lock no longer registered means the room was forgotten (deleted) while we waited or loaded.
+      if (generations.getOrDefault(roomId, 0L) == generation && loadLocks.get(roomId) == lock) {
+        snapshots.put(roomId, loaded);
+      }
+      return loaded;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Drop the room's snapshot after an edit to the room (scenario) or its roles.
+   */
+  public void invalidate(String roomId) {
+    if (roomId == null) return;
+    generations.merge(roomId, 1L, Long::sum);
+    if (snapshots.remove(roomId) != null) invalidations.increment();
+  }
+
+  /**
+   * The room was deleted: drop its snapshot, generation and load lock. Done under the room's load lock, and a load
+   * that was waiting on (or holding) the old lock doesn't install its snapshot afterwards.
+   */
+  public void forget(String roomId) {
+    if (roomId == null) return;
+    ReentrantLock lock = loadLocks.get(roomId);
+    if (lock != null) lock.lock();
+    try {
+      if (snapshots.remove(roomId) != null) invalidations.increment();
+      generations.remove(roomId);
+    } finally {
+      if (lock != null) {
+        loadLocks.remove(roomId, lock);
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Put a just-written shared summary into the room's snapshot, so the other ants pick it up without a reload.
+   */
+  public void summaryUpdated(RoomSummary summary) {
+    if (summary == null || summary.roomId() == null) return;
+    snapshots.computeIfPresent(summary.roomId(), (k, s) -> s.withSummary(summary));
+  }
+
+  private boolean isFresh(Snapshot s, int windowSize) {
+    if (s == null) return false;
+    if (s.windowSize() < windowSize) return false;
+    if (System.currentTimeMillis() - s.loadedAtMs() > maxAgeMs) return false;
+    return roomActivityTracker.isUnchangedSince(s.roomId(), s.newestMessageId());
+  }
+
+  private Snapshot load(String roomId, int windowSize) {
+    loads.increment();
+
+    List<Message> recent = List.copyOf(messageRepository.listByRoom(roomId, windowSize, null).items());
+    roomActivityTracker.observe(roomId, recent.isEmpty() ? null : recent.get(0));
+
+    // Pull scenario text from Room metadata so PromptBuilder can anchor responses to the room setting.
+    String scenario = "";
+    try {
+      scenario = roomRepository.findById(roomId)
+          .map(r -> r.scenarioText() == null ? "" : r.scenarioText())
+          .orElse("");
+    } catch (Exception e) {
+      log.warn("Failed to load room scenario for prompt context roomId={} (continuing)", roomId, e);
+    }
+
+    Map<String, RoomAntRole> roles = Map.of();
+    try {
+      roles = roomAntRoleRepository.listByRoom(roomId).stream()
+          .filter(r -> r != null && r.roleId() != null)
+          .collect(Collectors.toUnmodifiableMap(RoomAntRole::roleId, Function.identity(), (a, b) -> a));
+    } catch (Exception e) {
+      log.warn("Failed to load room roles for prompt context roomId={} (continuing)", roomId, e);
+    }
+
+    RoomSummary summary = RoomSummary.empty(roomId);
+    if (sharedSummary) {
+      try {
+        summary = roomSummaryRepository.findByRoomId(roomId).orElse(summary);
+      } catch (Exception e) {
+        log.warn("Failed to load shared room summary roomId={} (continuing)", roomId, e);
+      }
+    }
+
+    long version = versions.incrementAndGet();
+    log.debug("Room context loaded roomId={} version={} messages={} roles={}", roomId, version, recent.size(),
+        roles.size());
+    return new Snapshot(roomId, version, windowSize, recent, scenario, roles, RenderedTranscript.of(recent), summary,
+        System.currentTimeMillis());
+  }
+
+  public Stats stats() {
+    return new Stats(enabled, snapshots.size(), hits.sum(), loads.sum(), invalidations.sum(), versions.get());
+  }
+
+  /**
+   * @param hits room runs served from a cached snapshot (no Dynamo reads, no transcript rendering)
+   * @param loads snapshots built (one listByRoom + room + role list read each, plus the shared summary if on)
+   */
+  public record Stats(boolean enabled, int roomsCached, long hits, long loads, long invalidations, long version) {}
+}
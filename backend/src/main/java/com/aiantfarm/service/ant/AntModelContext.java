@@ -1,6 +1,7 @@
 package com.aiantfarm.service.ant;
 
 import com.aiantfarm.domain.Message;
+import com.aiantfarm.service.ant.runner.RenderedTranscript;
 
 import java.util.List;
 
@@ -8,6 +9,9 @@ import java.util.List;
  * Pre-built per-room context for a single Ant tick.
  *
  * This is intentionally small and explicit: runners should not hit Dynamo.
+ *
+ * {@code transcript} is {@code recentMessages} already rendered; when it comes from a room snapshot it is the same
+ * instance for every ant in the room. Built from {@code recentMessages} when not given.
  */
 public record AntModelContext(
     List<Message> recentMessages,
@@ -16,7 +20,8 @@ public record AntModelContext(
     String antPersonality,
     String roomRoleName,
     String roomRolePrompt,
-    String bicameralThoughtJson
+    String bicameralThoughtJson,
+    RenderedTranscript transcript
 ) {
   public AntModelContext {
     recentMessages = recentMessages == null ? List.of() : List.copyOf(recentMessages);
@@ -26,6 +31,18 @@ public record AntModelContext(
     roomRoleName = roomRoleName == null ? "" : roomRoleName;
     roomRolePrompt = roomRolePrompt == null ? "" : roomRolePrompt;
     bicameralThoughtJson = bicameralThoughtJson == null ? "" : bicameralThoughtJson;
+    if (transcript == null) transcript = RenderedTranscript.of(recentMessages);
+  }
+
+  public AntModelContext(List<Message> recentMessages,
+                         String roomSummary,
+                         String roomScenario,
+                         String antPersonality,
+                         String roomRoleName,
+                         String roomRolePrompt,
+                         String bicameralThoughtJson) {
+    this(recentMessages, roomSummary, roomScenario, antPersonality, roomRoleName, roomRolePrompt,
+        bicameralThoughtJson, null);
   }
 
   public AntModelContext(List<Message> recentMessages, String roomSummary, String roomScenario) {
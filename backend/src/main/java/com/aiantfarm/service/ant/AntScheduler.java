@@ -1,19 +1,28 @@
 package com.aiantfarm.service.ant;
 
 import com.aiantfarm.domain.AiModel;
+import com.aiantfarm.domain.AiProvider;
 import com.aiantfarm.domain.Ant;
 import com.aiantfarm.repository.AntRepository;
 import com.aiantfarm.repository.AntRoomAssignmentRepository;
+import com.aiantfarm.service.ant.runner.ModelCircuitBreaker;
+import com.aiantfarm.service.ant.runner.ModelRouter;
+import com.aiantfarm.service.ant.runner.ModelUnavailableException;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Centralized scheduler for Ant execution.
@@ -27,28 +36,127 @@ import java.util.concurrent.*;
  *
  * When you need horizontal scaling, replace this with a distributed mechanism (e.g., SQS + workers)
  * or a leader-election based scheduler.
+ *
+ * Executor modes (antfarm.ants.executorMode):
+ * - PLATFORM: one fixed "ant-worker-<provider>" pool with a bounded queue per provider (bulkheads), so a
+ *   degraded provider can only fill its own pool and ticks are routed by Ant.model().
+ * - VIRTUAL: one virtual thread per tick. Ticks are almost entirely blocked on provider HTTP calls and
+ *   Dynamo round trips, so parking them is cheap. The bounded queue is replaced by a per-provider
+ *   semaphore cap (see {@link ProviderLane}) so we still never exceed what a provider can take.
+ *
+ * Single-flight: at most one tick per ant is queued or running at any time. A firing that overlaps an
+ * in-flight tick (slow model, many rooms, retry backoff) is handled by antfarm.ants.overlap.policy:
+ * - SKIP: drop it.
+ * - COALESCE: remember one pending tick and run it right after the in-flight one finishes.
+ * - DELAY: retry dispatch after antfarm.ants.overlap.delayMs until the ant is free.
+ * Every skipped/coalesced/delayed firing is counted (see {@link #overlapStats()}).
+ *
+ * Timers (antfarm.ants.timer.type):
+ * - EXECUTOR: one ScheduledFuture per ant (original behavior, {@link ExecutorAntTimer}).
+ * - WHEEL: hashed timing wheel that batches all ants due in a slot per wake-up ({@link HashedWheelAntTimer}).
+ *
+ * Wake-ups: {@link #wake(String)} runs a scheduled ant early (e.g. new room message), debounced and never closer
+ * than wake.minGapMs to its previous tick. The interval timer keeps running as the max-staleness fallback.
+ *
+ * Adaptive interval: after each tick the caller reports {@link TickActivity}. IDLE ticks double the ant's
+ * effective interval up to its max (Ant.maxIntervalSeconds, or adaptiveInterval.defaultMaxIntervalSeconds);
+ * an ACTIVE tick snaps it back to Ant.intervalSeconds.
  */
 @Service
 @Slf4j
 public class AntScheduler {
 
+  public enum ExecutorMode { PLATFORM, VIRTUAL }
+
+  public enum OverlapPolicy { SKIP, COALESCE, DELAY }
+
+  public enum TimerType { EXECUTOR, WHEEL }
+
+  /**
+   * What a tick found, for the adaptive interval.
+   * ACTIVE = new messages / posted; IDLE = nothing new or repeated NO_RESPONSE; NEUTRAL = no signal (errors, quota).
+   */
+  public enum TickActivity { ACTIVE, IDLE, NEUTRAL }
+
+  /**
+   * One ant tick. {@link #start()} returns once the tick's synchronous part is done; the returned stage completes
+   * when the whole tick (including async model calls) has finished. Single-flight, provider caps and lane
+   * metrics all follow the stage, not the worker thread, so a tick waiting on a provider holds no thread.
+   */
+  @FunctionalInterface
+  public interface AntTick {
+    CompletionStage<?> start();
+  }
+
   private final ScheduledExecutorService scheduler;
-  private final ExecutorService workerPool;
+  // Every executor behind the lanes, for shutdown (one per provider in PLATFORM mode, one shared in VIRTUAL).
+  private final List<ExecutorService> workerPools;
+  // Continuations of async ticks (Dynamo steps between model calls). Virtual threads: the steps are short and
+  // blocking, and model calls no longer pin a worker thread while they wait.
+  private final ExecutorService tickExecutor;
+  private final ExecutorMode executorMode;
 
-  private final Map<String, ScheduledFuture<?>> timersByAntId = new ConcurrentHashMap<>();
+  private final TimerType timerType;
+  private final AntTimer timer;
   private final Map<AiModel, IAntModelRunner> runners;
+  private final ModelCircuitBreaker circuitBreaker;
+  private final ModelRouter modelRouter;
+  private final Map<AiProvider, ProviderLane> lanes;
+
+  private final Map<String, AntFlight> flightsByAntId = new ConcurrentHashMap<>();
+  private final OverlapPolicy overlapPolicy;
+  private final long overlapDelayMs;
+  private final LongAdder overlapSkipped = new LongAdder();
+  private final LongAdder overlapCoalesced = new LongAdder();
+  private final LongAdder overlapDelayed = new LongAdder();
+
+  // Current timer callback per scheduled ant, so wake() can fire the same dispatch early.
+  private final Map<String, Runnable> firesByAntId = new ConcurrentHashMap<>();
+  private final long wakeDebounceMs;
+  private final long wakeMinGapMs;
+  private final LongAdder wakesScheduled = new LongAdder();
+  private final LongAdder wakesCoalesced = new LongAdder();
+  private final LongAdder ticksDeferred = new LongAdder();
+
+  private final boolean adaptiveIntervalEnabled;
+  private final long defaultMaxIntervalMs;
+  // Only present while an ant is backed off (absent = base interval).
+  private final Map<String, Long> effectiveIntervalMsByAntId = new ConcurrentHashMap<>();
 
   public AntScheduler(
       List<IAntModelRunner> runners,
+      ModelCircuitBreaker circuitBreaker,
+      ModelRouter modelRouter,
       AntRepository antRepository,
       AntRoomAssignmentRepository assignmentRepository,
       @Value("${antfarm.ants.schedulerThreads:1}") int schedulerThreads,
-      @Value("${antfarm.ants.workerThreads:4}") int workerThreads,
-      @Value("${antfarm.ants.workerQueueSize:200}") int workerQueueSize
+      @Value("${antfarm.ants.providerPools.openai.threads:${antfarm.ants.workerThreads:4}}") int openAiThreads,
+      @Value("${antfarm.ants.providerPools.openai.queueSize:${antfarm.ants.workerQueueSize:200}}") int openAiQueueSize,
+      @Value("${antfarm.ants.providerPools.anthropic.threads:${antfarm.ants.workerThreads:4}}") int anthropicThreads,
+      @Value("${antfarm.ants.providerPools.anthropic.queueSize:${antfarm.ants.workerQueueSize:200}}") int anthropicQueueSize,
+      @Value("${antfarm.ants.executorMode:platform}") String executorMode,
+      @Value("${antfarm.ants.providerConcurrency.openai:32}") int openAiConcurrency,
+      @Value("${antfarm.ants.providerConcurrency.anthropic:16}") int anthropicConcurrency,
+      @Value("${antfarm.ants.providerConcurrency.permitWaitMs:60000}") long permitWaitMs,
+      @Value("${antfarm.ants.overlap.policy:skip}") String overlapPolicy,
+      @Value("${antfarm.ants.overlap.delayMs:5000}") long overlapDelayMs,
+      @Value("${antfarm.ants.timer.type:executor}") String timerType,
+      @Value("${antfarm.ants.timer.wheelTickMs:250}") long wheelTickMs,
+      @Value("${antfarm.ants.timer.wheelSize:512}") int wheelSize,
+      @Value("${antfarm.ants.wake.debounceMs:3000}") long wakeDebounceMs,
+      @Value("${antfarm.ants.wake.minGapMs:60000}") long wakeMinGapMs,
+      @Value("${antfarm.ants.adaptiveInterval.enabled:true}") boolean adaptiveIntervalEnabled,
+      @Value("${antfarm.ants.adaptiveInterval.defaultMaxIntervalSeconds:1800}") long defaultMaxIntervalSeconds
   ) {
     if (schedulerThreads < 1) schedulerThreads = 1;
-    if (workerThreads < 1) workerThreads = 1;
-    if (workerQueueSize < 10) workerQueueSize = 10;
+
+    this.executorMode = parseExecutorMode(executorMode);
+    this.overlapPolicy = parseOverlapPolicy(overlapPolicy);
+    this.overlapDelayMs = Math.max(100, overlapDelayMs);
+    this.wakeDebounceMs = Math.max(0, wakeDebounceMs);
+    this.wakeMinGapMs = Math.max(0, wakeMinGapMs);
+    this.adaptiveIntervalEnabled = adaptiveIntervalEnabled;
+    this.defaultMaxIntervalMs = Math.max(60, defaultMaxIntervalSeconds) * 1000L;
 
     this.scheduler = Executors.newScheduledThreadPool(schedulerThreads, r -> {
       Thread t = new Thread(r, "ant-scheduler");
@@ -56,79 +164,548 @@ public class AntScheduler {
       return t;
     });
 
-    // Bounded queue so we don't OOM if a ton of ants fire at once.
-    BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(workerQueueSize);
-    this.workerPool = new ThreadPoolExecutor(
-        workerThreads,
-        workerThreads,
+    this.timerType = parseTimerType(timerType);
+    if (this.timerType == TimerType.WHEEL) {
+      this.timer = new HashedWheelAntTimer(wheelTickMs, wheelSize, r -> {
+        Thread t = new Thread(r, "ant-timer-wheel");
+        t.setDaemon(true);
+        return t;
+      });
+    } else {
+      this.timer = new ExecutorAntTimer(this.scheduler);
+    }
+
+    // VIRTUAL mode caps each provider with providerConcurrency. In PLATFORM mode the lane's pool size is the cap:
+    // ticks release their pool thread at the first async model call but keep the lane's in-flight slot.
+    boolean virtual = this.executorMode == ExecutorMode.VIRTUAL;
+    EnumMap<AiProvider, ProviderLane> laneMap = new EnumMap<>(AiProvider.class);
+    if (virtual) {
+      // Unbounded by design: admission control happens in the provider lanes, not in a queue.
+      ExecutorService virtualPool = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ant-vworker-", 0).factory());
+      laneMap.put(AiProvider.OPENAI, new ProviderLane(AiProvider.OPENAI, virtualPool, Math.max(1, openAiConcurrency), permitWaitMs));
+      laneMap.put(AiProvider.ANTHROPIC, new ProviderLane(AiProvider.ANTHROPIC, virtualPool, Math.max(1, anthropicConcurrency), permitWaitMs));
+      this.workerPools = List.of(virtualPool);
+    } else {
+      ExecutorService openAiPool = newWorkerPool(AiProvider.OPENAI, openAiThreads, openAiQueueSize);
+      ExecutorService anthropicPool = newWorkerPool(AiProvider.ANTHROPIC, anthropicThreads, anthropicQueueSize);
+      laneMap.put(AiProvider.OPENAI, new ProviderLane(AiProvider.OPENAI, openAiPool, Math.max(1, openAiThreads), permitWaitMs));
+      laneMap.put(AiProvider.ANTHROPIC, new ProviderLane(AiProvider.ANTHROPIC, anthropicPool, Math.max(1, anthropicThreads), permitWaitMs));
+      this.workerPools = List.of(openAiPool, anthropicPool);
+    }
+    this.lanes = Map.copyOf(laneMap);
+    this.tickExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ant-tick-", 0).factory());
+
+    EnumMap<AiModel, IAntModelRunner> map = new EnumMap<>(AiModel.class);
+    for (IAntModelRunner runner : runners) {
+      map.put(runner.model(), runner);
+    }
+    this.runners = Map.copyOf(map);
+    this.circuitBreaker = circuitBreaker;
+    this.modelRouter = modelRouter;
+
+    log.info("AntScheduler initialized executorMode={} overlapPolicy={} timer={} schedulerThreads={} providerPools={} providerConcurrency={} runners={}",
+        this.executorMode, this.overlapPolicy, this.timerType, schedulerThreads,
+        virtual ? "n/a" : Map.of(AiProvider.OPENAI, openAiThreads + "/" + openAiQueueSize,
+            AiProvider.ANTHROPIC, anthropicThreads + "/" + anthropicQueueSize),
+        virtual ? Map.of(AiProvider.OPENAI, openAiConcurrency, AiProvider.ANTHROPIC, anthropicConcurrency) : "n/a",
+        this.runners.keySet());
+  }
+
+  /**
+   * Fixed pool with a bounded queue so we don't OOM if a ton of ants fire at once.
+   */
+  private static ExecutorService newWorkerPool(AiProvider provider, int threads, int queueSize) {
+    int n = Math.max(1, threads);
+    String name = "ant-worker-" + provider.name().toLowerCase(Locale.ROOT);
+    return new ThreadPoolExecutor(
+        n,
+        n,
         0L,
         TimeUnit.MILLISECONDS,
-        queue,
+        new ArrayBlockingQueue<>(Math.max(10, queueSize)),
         r -> {
-          Thread t = new Thread(r, "ant-worker");
+          Thread t = new Thread(r, name);
           t.setDaemon(true);
           return t;
         },
         new ThreadPoolExecutor.AbortPolicy()
     );
+  }
 
-    EnumMap<AiModel, IAntModelRunner> map = new EnumMap<>(AiModel.class);
-    for (IAntModelRunner runner : runners) {
-      map.put(runner.model(), runner);
+  private static ExecutorMode parseExecutorMode(String raw) {
+    if (raw == null || raw.isBlank()) return ExecutorMode.PLATFORM;
+    try {
+      return ExecutorMode.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      log.warn("Unknown antfarm.ants.executorMode={} (falling back to PLATFORM)", raw);
+      return ExecutorMode.PLATFORM;
     }
-    this.runners = Map.copyOf(map);
+  }
+
+  private static TimerType parseTimerType(String raw) {
+    if (raw == null || raw.isBlank()) return TimerType.EXECUTOR;
+    try {
+      return TimerType.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      log.warn("Unknown antfarm.ants.timer.type={} (falling back to EXECUTOR)", raw);
+      return TimerType.EXECUTOR;
+    }
+  }
 
-    log.info("AntScheduler initialized schedulerThreads={} workerThreads={} workerQueueSize={} runners={}",
-        schedulerThreads, workerThreads, workerQueueSize, this.runners.keySet());
+  private static OverlapPolicy parseOverlapPolicy(String raw) {
+    if (raw == null || raw.isBlank()) return OverlapPolicy.SKIP;
+    try {
+      return OverlapPolicy.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      log.warn("Unknown antfarm.ants.overlap.policy={} (falling back to SKIP)", raw);
+      return OverlapPolicy.SKIP;
+    }
   }
 
   /**
    * Ensure an Ant is scheduled at the given interval. If already scheduled, reschedules it.
    */
-  public void scheduleOrReschedule(Ant ant, Runnable tick) {
+  public void scheduleOrReschedule(Ant ant, AntTick tick) {
+    Objects.requireNonNull(ant, "scheduleOrReschedule::ant");
+    scheduleOrReschedule(ant, intervalMs(ant), tick);
+  }
+
+  /**
+   * Same as {@link #scheduleOrReschedule(Ant, AntTick)} but with an explicit first-fire delay
+   * (used by warm start to spread ants across their interval instead of firing them all together).
+   */
+  public void scheduleOrReschedule(Ant ant, long initialDelayMs, AntTick tick) {
     Objects.requireNonNull(ant, "scheduleOrReschedule::ant");
     Objects.requireNonNull(tick, "scheduleOrReschedule::tick");
 
     cancel(ant.id());
 
-    // Must be at least 60 seconds
-    long intervalMs = Math.max(ant.intervalSeconds(), 60) * 1000L;
-    ScheduledFuture<?> repeatingFuture = scheduler.scheduleAtFixedRate(() -> {
-      try {
-        // offload tick to worker pool (so scheduler threads stay responsive)
-        workerPool.submit(tick);
-      } catch (RejectedExecutionException rex) {
-        log.warn("Ant tick rejected by worker queue antId={} model={}", ant.id(), ant.model());
+    long intervalMs = intervalMs(ant);
+    Runnable fire = () -> dispatch(ant, tick);
+    firesByAntId.put(ant.id(), fire);
+    effectiveIntervalMsByAntId.remove(ant.id());
+    timer.schedule(ant.id(), initialDelayMs, intervalMs, fire);
+
+    log.info("Scheduled antId={} model={} intervalSeconds={} initialDelayMs={}",
+        ant.id(), ant.model(), ant.intervalSeconds(), initialDelayMs);
+  }
+
+  /**
+   * Adaptive interval feedback, called by the tick once it knows whether the ant's rooms were active.
+   *
+   * Re-arms the timer only when the effective interval actually changes (first fire one new interval from now).
+   */
+  public void onTickCompleted(Ant ant, TickActivity activity) {
+    if (!adaptiveIntervalEnabled || ant == null || activity == null || activity == TickActivity.NEUTRAL) return;
+
+    long baseMs = intervalMs(ant);
+    long maxMs = Math.max(baseMs, maxIntervalMs(ant));
+
+    // computeIfPresent holds the entry while we re-arm, so a concurrent cancel() can't leave an orphan timer.
+    firesByAntId.computeIfPresent(ant.id(), (antId, fire) -> {
+      long currentMs = effectiveIntervalMsByAntId.getOrDefault(antId, baseMs);
+      long nextMs = activity == TickActivity.ACTIVE ? baseMs : Math.min(maxMs, Math.max(baseMs, currentMs * 2));
+      if (nextMs == currentMs) return fire;
+
+      if (nextMs == baseMs) {
+        effectiveIntervalMsByAntId.remove(antId);
+      } else {
+        effectiveIntervalMsByAntId.put(antId, nextMs);
       }
-    }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+      timer.schedule(antId, nextMs, nextMs, fire);
+      log.info("Adaptive interval antId={} activity={} effectiveIntervalSeconds={} baseSeconds={} maxSeconds={}",
+          antId, activity, nextMs / 1000, baseMs / 1000, maxMs / 1000);
+      return fire;
+    });
+  }
 
-    timersByAntId.put(ant.id(), repeatingFuture);
-    log.info("Scheduled antId={} model={} intervalSeconds={}", ant.id(), ant.model(), ant.intervalSeconds());
+  /**
+   * Interval the timer is currently using for this ant (base interval unless backed off).
+   */
+  public int effectiveIntervalSeconds(Ant ant) {
+    Long effectiveMs = effectiveIntervalMsByAntId.get(ant.id());
+    return effectiveMs == null ? ant.intervalSeconds() : (int) (effectiveMs / 1000);
   }
 
-  public void cancel(String antId) {
-    ScheduledFuture<?> existing = timersByAntId.remove(antId);
-    if (existing != null) {
-      existing.cancel(false);
+  private long maxIntervalMs(Ant ant) {
+    return ant.maxIntervalSeconds() != null ? ant.maxIntervalSeconds() * 1000L : defaultMaxIntervalMs;
+  }
+
+  /**
+   * Effective repeat interval. Must be at least 60 seconds.
+   */
+  public static long intervalMs(Ant ant) {
+    return Math.max(ant.intervalSeconds(), 60) * 1000L;
+  }
+
+  /**
+   * Deterministic phase for an ant within its interval, in [0, intervalMs).
+   *
+   * Same antId always lands on the same offset, so restarts don't reshuffle ants, and different ants are spread
+   * evenly across the interval instead of all firing at "deploy time + interval".
+   */
+  public static long phaseOffsetMs(String antId, long intervalMs) {
+    if (antId == null || intervalMs <= 0) return 0;
+    // String.hashCode is poorly distributed for ids that share a prefix; mix it (murmur3 fmix64).
+    long h = antId.hashCode();
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return Math.floorMod(h, intervalMs);
+  }
+
+  /**
+   * Timer firing entry point. Enforces single-flight per ant before handing the tick to the workers.
+   */
+  private void dispatch(Ant ant, AntTick tick) {
+    AntFlight flight = flightsByAntId.computeIfAbsent(ant.id(), k -> new AntFlight());
+    if (!flight.tryStart()) {
+      onOverlap(ant, tick, flight);
+      return;
+    }
+    submit(ant, tick, flight);
+  }
+
+  /**
+   * Hands a tick to the provider lane for the ant's model (so scheduler threads stay responsive).
+   * The lane runs it on its own pool (PLATFORM) or a virtual thread under its cap (VIRTUAL).
+   *
+   * Caller must own the flight (tryStart() succeeded); it is released when the tick completes.
+   */
+  private void submit(Ant ant, AntTick tick, AntFlight flight) {
+    ProviderLane lane = laneFor(ant.model());
+    if (!lane.submit(ant.id(), tick, () -> complete(flight))) {
+      log.warn("Ant tick rejected by worker queue antId={} model={} provider={}", ant.id(), ant.model(), lane.provider());
+      complete(flight);
     }
   }
 
-  public IAntModelRunner getRunner(AiModel model) {
+  private void onOverlap(Ant ant, AntTick tick, AntFlight flight) {
+    switch (overlapPolicy) {
+      case SKIP -> {
+        overlapSkipped.increment();
+        log.info("Ant tick skipped (previous tick still in flight) antId={} model={}", ant.id(), ant.model());
+      }
+      case COALESCE -> {
+        overlapCoalesced.increment();
+        // Only the first overlapping firing registers a replay; later ones collapse into it.
+        boolean registered = flight.offerPending(() -> {
+          if (timer.isScheduled(ant.id())) {
+            submit(ant, tick, flight);
+          } else {
+            complete(flight);
+          }
+        });
+        log.info("Ant tick coalesced (previous tick still in flight) antId={} model={} replayQueued={}",
+            ant.id(), ant.model(), registered);
+      }
+      case DELAY -> {
+        if (flight.delayScheduled.compareAndSet(false, true)) {
+          overlapDelayed.increment();
+          log.info("Ant tick delayed (previous tick still in flight) antId={} model={} delayMs={}",
+              ant.id(), ant.model(), overlapDelayMs);
+          scheduler.schedule(() -> {
+            flight.delayScheduled.set(false);
+            if (timer.isScheduled(ant.id())) {
+              dispatch(ant, tick);
+            }
+          }, overlapDelayMs, TimeUnit.MILLISECONDS);
+        } else {
+          // A delayed retry is already outstanding; this firing collapses into it.
+          overlapCoalesced.increment();
+        }
+      }
+    }
+  }
+
+  /**
+   * Releases the ant's flight, or hands it straight to a coalesced replay if one is pending.
+   */
+  private void complete(AntFlight flight) {
+    Runnable replay = flight.takePending();
+    if (replay != null) {
+      // Flight stays owned; the replay either resubmits or calls complete() again.
+      replay.run();
+      return;
+    }
+
+    flight.finish();
+
+    // Close the race where an overlap registered a replay between takePending() and finish().
+    if (flight.hasPending() && flight.tryStart()) {
+      Runnable late = flight.takePending();
+      if (late != null) {
+        late.run();
+      } else {
+        flight.finish();
+      }
+    }
+  }
+
+  /**
+   * Runs a tick on the calling thread (manual "run now") while honoring the per-ant single-flight guard.
+   *
+   * @return false if a tick for this ant is already queued or running (nothing was run)
+   */
+  public boolean runExclusive(String antId, Runnable tick) {
+    Objects.requireNonNull(antId, "runExclusive::antId");
+    Objects.requireNonNull(tick, "runExclusive::tick");
+
+    AntFlight flight = flightsByAntId.computeIfAbsent(antId, k -> new AntFlight());
+    if (!flight.tryStart()) {
+      overlapSkipped.increment();
+      return false;
+    }
+    try {
+      tick.run();
+    } finally {
+      complete(flight);
+    }
+    return true;
+  }
+
+  /**
+   * Run a scheduled ant early because something it cares about changed.
+   *
+   * Debounced per ant: wakes arriving while one is pending collapse into it. The wake fires no sooner than
+   * wake.minGapMs after the ant's previous tick started, so chatty rooms can't drive ants faster than that.
+   * Goes through the normal dispatch path (single-flight, overlap policy, provider lanes).
+   *
+   * @return false if the ant is not scheduled on this pod
+   */
+  public boolean wake(String antId) {
+    if (antId == null || !firesByAntId.containsKey(antId)) return false;
+
+    AntFlight flight = flightsByAntId.computeIfAbsent(antId, k -> new AntFlight());
+    if (!flight.wakePending.compareAndSet(false, true)) {
+      wakesCoalesced.increment();
+      return true;
+    }
+
+    long delayMs = wakeDebounceMs;
+    long lastStartedNs = flight.lastStartedNs;
+    if (lastStartedNs != 0) {
+      long sinceLastMs = (System.nanoTime() - lastStartedNs) / 1_000_000;
+      delayMs = Math.max(delayMs, wakeMinGapMs - sinceLastMs);
+    }
+
+    wakesScheduled.increment();
+    fireLater(antId, flight, delayMs);
+    return true;
+  }
+
+  /**
+   * Re-dispatch a tick that the provider rate limiter handed back instead of blocking a worker on it.
+   *
+   * Shares the wake slot, so a deferral and a wake pending for the same ant collapse into one early run.
+   *
+   * @return false if the ant is not scheduled on this pod
+   */
+  public boolean deferTick(String antId, long retryAfterMs) {
+    if (antId == null || !firesByAntId.containsKey(antId)) return false;
+
+    AntFlight flight = flightsByAntId.computeIfAbsent(antId, k -> new AntFlight());
+    if (!flight.wakePending.compareAndSet(false, true)) {
+      wakesCoalesced.increment();
+      return true;
+    }
+
+    ticksDeferred.increment();
+    fireLater(antId, flight, Math.max(1_000, retryAfterMs));
+    return true;
+  }
+
+  private void fireLater(String antId, AntFlight flight, long delayMs) {
+    try {
+      scheduler.schedule(() -> {
+        flight.wakePending.set(false);
+        Runnable fire = firesByAntId.get(antId);
+        if (fire != null) {
+          fire.run();
+        }
+      }, delayMs, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      flight.wakePending.set(false);
+    }
+  }
+
+  public WakeStats wakeStats() {
+    return new WakeStats(wakeDebounceMs, wakeMinGapMs, wakesScheduled.sum(), wakesCoalesced.sum(),
+        ticksDeferred.sum());
+  }
+
+  /**
+   * @param coalesced wakes that arrived while one was already pending for the ant
+   * @param deferred ticks re-dispatched later because model rate-limit capacity was unavailable
+   */
+  public record WakeStats(long debounceMs, long minGapMs, long scheduled, long coalesced, long deferred) {}
+
+  public OverlapStats overlapStats() {
+    return new OverlapStats(overlapPolicy, overlapSkipped.sum(), overlapCoalesced.sum(), overlapDelayed.sum());
+  }
+
+  /**
+   * Counters for firings that could not run because the ant's previous tick was still in flight.
+   */
+  public record OverlapStats(OverlapPolicy policy, long skipped, long coalesced, long delayed) {}
+
+  private ProviderLane laneFor(AiModel model) {
     AiModel m = model == null ? AiModel.OPENAI_GPT_4_1_NANO : model;
+    return lanes.get(m.provider());
+  }
+
+  public ExecutorMode executorMode() {
+    return executorMode;
+  }
+
+  /**
+   * Executor for the steps of a tick that run after its first async model call.
+   */
+  public Executor tickExecutor() {
+    return tickExecutor;
+  }
+
+  /**
+   * Snapshot of per-provider queue wait / in-flight counters (used to size providerConcurrency caps).
+   */
+  public List<ProviderLane.Stats> laneStats() {
+    List<ProviderLane.Stats> out = new ArrayList<>();
+    for (AiProvider p : AiProvider.values()) {
+      ProviderLane lane = lanes.get(p);
+      if (lane != null) out.add(lane.stats());
+    }
+    return out;
+  }
+
+  public int scheduledAntCount() {
+    return timer.size();
+  }
+
+  public TimerType timerType() {
+    return timerType;
+  }
+
+  public TimerStats timerStats() {
+    if (timer instanceof HashedWheelAntTimer wheel) {
+      return new TimerStats(timerType, wheel.size(), wheel.tickMs(), wheel.wheelSize(),
+          wheel.batches(), wheel.fired(), wheel.maxBatchSize());
+    }
+    return new TimerStats(timerType, timer.size(), 0, 0, 0, 0, 0);
+  }
+
+  /**
+   * Timer counters. Wheel fields are 0 for the EXECUTOR timer.
+   *
+   * @param batches number of wheel wake-ups that dispatched at least one ant
+   * @param maxBatchSize largest number of ants dispatched by one wake-up
+   */
+  public record TimerStats(
+      TimerType type,
+      int scheduled,
+      long wheelTickMs,
+      int wheelSize,
+      long batches,
+      long fired,
+      long maxBatchSize
+  ) {}
+
+  public void cancel(String antId) {
+    // Remove the callback first: onTickCompleted re-arms only while it is present.
+    firesByAntId.remove(antId);
+    timer.cancel(antId);
+    effectiveIntervalMsByAntId.remove(antId);
+    // Keep the flight while a tick is running so a reschedule can't start a second concurrent tick.
+    flightsByAntId.computeIfPresent(antId, (k, f) -> f.isBusy() ? f : null);
+  }
+
+  /**
+   * Runner for one operation of an ant on {@code model}: first the per-operation route ({@link ModelRouter}), then
+   * that model's circuit breaker. While the breaker is open the configured fallback model is used, and without a
+   * usable fallback the call fails fast with {@link ModelUnavailableException}.
+   *
+   * @param operation GenerateMessage / GenerateRoomSummary / GenerateBicameralThought / GenerateCombinedTurn
+   */
+  public IAntModelRunner getRunner(AiModel model, String operation) {
+    AiModel m = modelRouter.route(model == null ? AiModel.OPENAI_GPT_4_1_NANO : model, operation);
     IAntModelRunner runner = runners.get(m);
     if (runner == null) {
-      runner = runners.get(AiModel.OPENAI_GPT_4_1_NANO);
+      m = AiModel.OPENAI_GPT_4_1_NANO;
+      runner = runners.get(m);
+    }
+    if (circuitBreaker.tryAcquire(m)) {
+      return runner;
+    }
+
+    AiModel fallback = circuitBreaker.fallbackFor(m);
+    IAntModelRunner fallbackRunner = fallback == null ? null : runners.get(fallback);
+    if (fallbackRunner != null && circuitBreaker.tryAcquire(fallback)) {
+      circuitBreaker.recordFallback(m);
+      log.debug("Model circuit open, routing to fallback model={} fallback={}", m, fallback);
+      return fallbackRunner;
+    }
+
+    circuitBreaker.recordRejected(m);
+    throw new ModelUnavailableException(m);
+  }
+
+  public List<ModelCircuitBreaker.Stats> circuitBreakerStats() {
+    return circuitBreaker.stats();
+  }
+
+  /**
+   * Per-ant single-flight state: busy while a tick is queued or running.
+   */
+  private static final class AntFlight {
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private final AtomicReference<Runnable> pending = new AtomicReference<>();
+    final AtomicBoolean delayScheduled = new AtomicBoolean();
+    final AtomicBoolean wakePending = new AtomicBoolean();
+    volatile long lastStartedNs;
+
+    boolean tryStart() {
+      if (!busy.compareAndSet(false, true)) return false;
+      lastStartedNs = System.nanoTime();
+      return true;
+    }
+
+    boolean isBusy() {
+      return busy.get();
+    }
+
+    void finish() {
+      busy.set(false);
+    }
+
+    boolean offerPending(Runnable replay) {
+      return pending.compareAndSet(null, replay);
+    }
+
+    boolean hasPending() {
+      return pending.get() != null;
+    }
+
+    Runnable takePending() {
+      return pending.getAndSet(null);
     }
-    return runner;
   }
 
   @PreDestroy
   public void shutdown() {
+    try {
+      timer.shutdown();
+    } catch (Exception ignored) {}
     try {
       scheduler.shutdownNow();
     } catch (Exception ignored) {}
+    for (ExecutorService pool : workerPools) {
+      try {
+        pool.shutdownNow();
+      } catch (Exception ignored) {}
+    }
     try {
-      workerPool.shutdownNow();
+      tickExecutor.shutdownNow();
     } catch (Exception ignored) {}
   }
 }
@@ -0,0 +1,71 @@
+package com.aiantfarm.service.ant;
+
+import com.aiantfarm.service.RoomActivityTracker;
+import com.aiantfarm.service.RoomContextCache;
+import com.aiantfarm.service.ant.runner.ModelClientRegistry;
+import com.aiantfarm.service.ant.runner.ProviderRateLimiter;
+import com.aiantfarm.service.ant.runner.RequestHedger;
+import com.aiantfarm.service.ant.runner.SpendLedger;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator view of the in-memory ant scheduler: GET /actuator/antscheduler
+ *
+ * Intended for sizing worker/provider caps. Requires the X-Admin-Key header (see SecurityConfig).
+ */
+@Component
+@Endpoint(id = "antscheduler")
+public class AntSchedulerEndpoint {
+
+  private final AntScheduler antScheduler;
+  private final RoomActivityTracker roomActivityTracker;
+  private final RoomContextCache roomContextCache;
+  private final ProviderRateLimiter rateLimiter;
+  private final RequestHedger hedger;
+  private final ModelClientRegistry clients;
+  private final SpendLedger spendLedger;
+  private final RoomTurnCoordinator roomTurnCoordinator;
+
+  public AntSchedulerEndpoint(AntScheduler antScheduler,
+                              RoomActivityTracker roomActivityTracker,
+                              RoomContextCache roomContextCache,
+                              ProviderRateLimiter rateLimiter,
+                              RequestHedger hedger,
+                              ModelClientRegistry clients,
+                              SpendLedger spendLedger,
+                              RoomTurnCoordinator roomTurnCoordinator) {
+    this.antScheduler = antScheduler;
+    this.roomActivityTracker = roomActivityTracker;
+    this.roomContextCache = roomContextCache;
+    this.rateLimiter = rateLimiter;
+    this.hedger = hedger;
+    this.clients = clients;
+    this.spendLedger = spendLedger;
+    this.roomTurnCoordinator = roomTurnCoordinator;
+  }
+
+  @ReadOperation
+  public Map<String, Object> stats() {
+    Map<String, Object> out = new LinkedHashMap<>();
+    out.put("executorMode", antScheduler.executorMode());
+    out.put("timer", antScheduler.timerStats());
+    out.put("scheduledAnts", antScheduler.scheduledAntCount());
+    out.put("providerLanes", antScheduler.laneStats());
+    out.put("overlap", antScheduler.overlapStats());
+    out.put("wake", antScheduler.wakeStats());
+    out.put("roomActivity", roomActivityTracker.stats());
+    out.put("roomContext", roomContextCache.stats());
+    out.put("rateLimit", rateLimiter.stats());
+    out.put("circuitBreakers", antScheduler.circuitBreakerStats());
+    out.put("hedging", hedger.stats());
+    out.put("httpPools", clients.stats());
+    out.put("spendBudget", spendLedger.stats());
+    out.put("roomTurns", roomTurnCoordinator.stats());
+    return out;
+  }
+}
@@ -0,0 +1,23 @@
+package com.aiantfarm.service.ant;
+
+/**
+ * Repeating per-ant timer used by {@link AntScheduler}.
+ *
+ * Implementations only decide WHEN an ant fires; the fire callback is expected to be cheap and non-blocking
+ * (AntScheduler's dispatch just hands the tick to the worker executor).
+ */
+interface AntTimer {
+
+  /**
+   * Schedule (or replace) the repeating timer for an ant at a fixed rate.
+   */
+  void schedule(String antId, long initialDelayMs, long intervalMs, Runnable fire);
+
+  void cancel(String antId);
+
+  boolean isScheduled(String antId);
+
+  int size();
+
+  void shutdown();
+}
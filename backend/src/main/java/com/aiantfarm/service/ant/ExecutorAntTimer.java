@@ -0,0 +1,56 @@
+package com.aiantfarm.service.ant;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Original timer: one ScheduledFuture per ant in the ScheduledThreadPoolExecutor heap.
+ *
+ * O(log n) per schedule/cancel and one scheduler wake-up per ant firing. Fine for hundreds of ants.
+ */
+final class ExecutorAntTimer implements AntTimer {
+
+  private final ScheduledExecutorService scheduler;
+  private final Map<String, ScheduledFuture<?>> timersByAntId = new ConcurrentHashMap<>();
+
+  ExecutorAntTimer(ScheduledExecutorService scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  @Override
+  public void schedule(String antId, long initialDelayMs, long intervalMs, Runnable fire) {
+    cancel(antId);
+    ScheduledFuture<?> repeatingFuture = scheduler.scheduleAtFixedRate(
+        fire, Math.max(0, initialDelayMs), intervalMs, TimeUnit.MILLISECONDS);
+    timersByAntId.put(antId, repeatingFuture);
+  }
+
+  @Override
+  public void cancel(String antId) {
+    ScheduledFuture<?> existing = timersByAntId.remove(antId);
+    if (existing != null) {
+      existing.cancel(false);
+    }
+  }
+
+  @Override
+  public boolean isScheduled(String antId) {
+    return timersByAntId.containsKey(antId);
+  }
+
+  @Override
+  public int size() {
+    return timersByAntId.size();
+  }
+
+  @Override
+  public void shutdown() {
+    for (ScheduledFuture<?> f : timersByAntId.values()) {
+      f.cancel(false);
+    }
+    timersByAntId.clear();
+  }
+}
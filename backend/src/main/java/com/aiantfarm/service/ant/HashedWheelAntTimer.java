@@ -0,0 +1,292 @@
+package com.aiantfarm.service.ant;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hashed timing wheel for very large ant fleets (100k+ per pod).
+ *
+ * Why: ExecutorAntTimer keeps one ScheduledFuture per ant in a binary heap (O(log n) schedule/cancel) and
+ * wakes the scheduler thread once per firing. Here a single thread advances a fixed-size wheel every tickMs;
+ * schedule/cancel are O(1) (lock-free queues drained by the wheel thread) and all ants due in a slot are
+ * collected and dispatched as one batch per wake-up.
+ *
+ * Precision is one tick (default 250ms), which is irrelevant for intervals >= 60s.
+ * Deadlines beyond one rotation are handled with "remaining rounds" (Netty-style), so the wheel
+ * size only trades memory for per-tick scan cost.
+ *
+ * Threading: only the wheel thread touches slots/entries' links. Other threads communicate via
+ * pendingAdds/pendingCancels.
+ */
+@Slf4j
+final class HashedWheelAntTimer implements AntTimer {
+
+  private final long tickNs;
+  private final int wheelSize;
+  private final int mask;
+  private final Slot[] wheel;
+  private final long startNs;
+
+  private final Map<String, Entry> entriesByAntId = new ConcurrentHashMap<>();
+  private final Queue<Entry> pendingAdds = new ConcurrentLinkedQueue<>();
+  private final Queue<Entry> pendingCancels = new ConcurrentLinkedQueue<>();
+
+  private final Thread worker;
+  private volatile boolean running = true;
+
+  // Wheel-thread only.
+  private long tick;
+
+  private final AtomicLong batches = new AtomicLong();
+  private final AtomicLong fired = new AtomicLong();
+  private final AtomicLong maxBatchSize = new AtomicLong();
+
+  HashedWheelAntTimer(long tickMs, int wheelSize, ThreadFactory threadFactory) {
+    this.tickNs = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMs));
+    this.wheelSize = normalizeWheelSize(wheelSize);
+    this.mask = this.wheelSize - 1;
+    this.wheel = new Slot[this.wheelSize];
+    for (int i = 0; i < this.wheelSize; i++) {
+      wheel[i] = new Slot();
+    }
+    this.startNs = System.nanoTime();
+    this.worker = threadFactory.newThread(this::run);
+    this.worker.start();
+  }
+
+  private static int normalizeWheelSize(int requested) {
+    int n = 1;
+    int target = Math.max(16, Math.min(requested, 1 << 16));
+    while (n < target) n <<= 1;
+    return n;
+  }
+
+  @Override
+  public void schedule(String antId, long initialDelayMs, long intervalMs, Runnable fire) {
+    long now = System.nanoTime() - startNs;
+    Entry e = new Entry(antId, TimeUnit.MILLISECONDS.toNanos(intervalMs),
+        now + TimeUnit.MILLISECONDS.toNanos(Math.max(0, initialDelayMs)), fire);
+
+    Entry previous = entriesByAntId.put(antId, e);
+    if (previous != null) {
+      cancelEntry(previous);
+    }
+    pendingAdds.add(e);
+  }
+
+  @Override
+  public void cancel(String antId) {
+    Entry e = entriesByAntId.remove(antId);
+    if (e != null) {
+      cancelEntry(e);
+    }
+  }
+
+  private void cancelEntry(Entry e) {
+    e.cancelled = true;
+    pendingCancels.add(e);
+  }
+
+  @Override
+  public boolean isScheduled(String antId) {
+    return entriesByAntId.containsKey(antId);
+  }
+
+  @Override
+  public int size() {
+    return entriesByAntId.size();
+  }
+
+  @Override
+  public void shutdown() {
+    running = false;
+    worker.interrupt();
+    entriesByAntId.clear();
+  }
+
+  long tickMs() {
+    return TimeUnit.NANOSECONDS.toMillis(tickNs);
+  }
+
+  int wheelSize() {
+    return wheelSize;
+  }
+
+  long batches() {
+    return batches.get();
+  }
+
+  long fired() {
+    return fired.get();
+  }
+
+  long maxBatchSize() {
+    return maxBatchSize.get();
+  }
+
+  private void run() {
+    List<Entry> due = new ArrayList<>();
+    List<Runnable> batch = new ArrayList<>();
+
+    while (running) {
+      if (waitForNextTick() < 0) break;
+
+      processCancels();
+      transferAdds();
+
+      wheel[(int) (tick & mask)].expire(due);
+
+      for (Entry e : due) {
+        if (e.cancelled) continue;
+        batch.add(e.fire);
+        // Fixed-rate re-arm; never into the slot we just drained.
+        e.deadlineNs += e.intervalNs;
+        place(e, tick + 1);
+      }
+      due.clear();
+
+      if (!batch.isEmpty()) {
+        dispatchBatch(batch);
+        batch.clear();
+      }
+
+      tick++;
+    }
+  }
+
+  private void dispatchBatch(List<Runnable> batch) {
+    batches.incrementAndGet();
+    fired.addAndGet(batch.size());
+    maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+
+    for (Runnable fire : batch) {
+      try {
+        fire.run();
+      } catch (Exception ex) {
+        log.warn("Timing wheel fire callback failed", ex);
+      }
+    }
+  }
+
+  /**
+   * @return current time (relative to startNs) once the next tick is due, or -1 on shutdown.
+   */
+  private long waitForNextTick() {
+    long deadline = tickNs * (tick + 1);
+    while (true) {
+      long now = System.nanoTime() - startNs;
+      long sleepMs = (deadline - now + 999_999) / 1_000_000;
+      if (sleepMs <= 0) {
+        return now;
+      }
+      try {
+        Thread.sleep(sleepMs);
+      } catch (InterruptedException ie) {
+        if (!running) return -1;
+      }
+    }
+  }
+
+  private void processCancels() {
+    Entry e;
+    while ((e = pendingCancels.poll()) != null) {
+      if (e.slot != null) {
+        e.slot.remove(e);
+      }
+    }
+  }
+
+  private void transferAdds() {
+    // Cap per tick so a burst of schedules can't stall the wheel.
+    for (int i = 0; i < 100_000; i++) {
+      Entry e = pendingAdds.poll();
+      if (e == null) return;
+      if (e.cancelled) continue;
+      place(e, tick);
+    }
+  }
+
+  /**
+   * @param minTick first tick whose slot has not been drained yet (tick before expiry, tick + 1 after)
+   */
+  private void place(Entry e, long minTick) {
+    long calculated = e.deadlineNs / tickNs;
+    long ticks = Math.max(calculated, minTick);
+    // Full rotations to skip before the first visit of the target slot actually fires it.
+    e.remainingRounds = (ticks - minTick) / wheelSize;
+    wheel[(int) (ticks & mask)].add(e);
+  }
+
+  private static final class Entry {
+    final String antId;
+    final long intervalNs;
+    final Runnable fire;
+    long deadlineNs;
+    long remainingRounds;
+    volatile boolean cancelled;
+
+    Slot slot;
+    Entry prev;
+    Entry next;
+
+    Entry(String antId, long intervalNs, long deadlineNs, Runnable fire) {
+      this.antId = antId;
+      this.intervalNs = intervalNs;
+      this.deadlineNs = deadlineNs;
+      this.fire = fire;
+    }
+  }
+
+  /**
+   * Intrusive doubly-linked list so cancel is O(1).
+   */
+  private static final class Slot {
+    Entry head;
+    Entry tail;
+
+    void add(Entry e) {
+      e.slot = this;
+      e.prev = tail;
+      e.next = null;
+      if (tail == null) {
+        head = e;
+      } else {
+        tail.next = e;
+      }
+      tail = e;
+    }
+
+    void remove(Entry e) {
+      if (e.prev == null) head = e.next; else e.prev.next = e.next;
+      if (e.next == null) tail = e.prev; else e.next.prev = e.prev;
+      e.prev = null;
+      e.next = null;
+      e.slot = null;
+    }
+
+    void expire(List<Entry> out) {
+      Entry e = head;
+      while (e != null) {
+        Entry next = e.next;
+        if (e.cancelled) {
+          remove(e);
+        } else if (e.remainingRounds <= 0) {
+          remove(e);
+          out.add(e);
+        } else {
+          e.remainingRounds--;
+        }
+        e = next;
+      }
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package com.aiantfarm.service.ant;
+
+import com.aiantfarm.domain.AuthorType;
+import com.aiantfarm.domain.Message;
+import com.aiantfarm.service.ant.runner.BicameralThought;
+import com.aiantfarm.service.ant.runner.BicameralThoughtParser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Default {@link ReplyGate}: scores how likely a real reply is from local signals and skips the model call below
+ * {@code minScore}.
+ *
+ * Always attempts when the reply is forced, or when a new message mentions the ant by name. Otherwise, starting
+ * from 0.5:
+ * - +0.25 a person (not an ant) posted since the ant last looked
+ * - +0.15 the ant hasn't spoken for quietMinutes (or not at all in the window)
+ * - -0.20 the newest message is the ant's own
+ * - -0.15 per consecutive NO_RESPONSE (up to 3)
+ * - up to -0.20 as the share of ant-authored recent messages goes from half to all
+ * - -0.10 the latest thought's stalenessScore is at least staleThreshold
+ *
+ * Off by default ({@code antfarm.ants.replyGate.enabled}); then every reply is attempted.
+ */
+@Component
+@Slf4j
+public class HeuristicReplyGate implements ReplyGate {
+
+  private final boolean enabled;
+  private final double minScore;
+  private final Duration quiet;
+  private final int staleThreshold;
+
+  public HeuristicReplyGate(
+      @Value("${antfarm.ants.replyGate.enabled:false}") boolean enabled,
+      @Value("${antfarm.ants.replyGate.minScore:0.3}") double minScore,
+      @Value("${antfarm.ants.replyGate.quietMinutes:10}") long quietMinutes,
+      @Value("${antfarm.ants.replyGate.staleThreshold:70}") int staleThreshold
+  ) {
+    this.enabled = enabled;
+    this.minScore = minScore;
+    this.quiet = Duration.ofMinutes(Math.max(0, quietMinutes));
+    this.staleThreshold = staleThreshold;
+
+    log.info("HeuristicReplyGate initialized enabled={} minScore={} quietMinutes={} staleThreshold={}",
+        enabled, minScore, quietMinutes, staleThreshold);
+  }
+
+  @Override
+  public Decision decide(Input in) {
+    if (!enabled) return Decision.attempt("disabled");
+    if (in.forceReply()) return Decision.attempt("forceReply");
+
+    List<Message> messages = in.newestToOldest() == null ? List.of() : in.newestToOldest();
+    String antId = in.ant().id();
+    Pattern mention = mentionPattern(in.ant().name());
+
+    boolean humanSinceLastSeen = false;
+    for (Message m : messages) {
+      if (m == null) continue;
+      if (m.id().equals(in.lastSeenMessageId())) break;
+      if (antId.equals(m.authorId())) continue;
+      if (mention != null && m.content() != null && mention.matcher(m.content()).find()) {
+        return Decision.attempt("mentioned");
+      }
+      if (m.authorType() == AuthorType.USER) humanSinceLastSeen = true;
+    }
+
+    double score = 0.5;
+    if (humanSinceLastSeen) score += 0.25;
+
+    Message ownLast = null;
+    int antAuthored = 0;
+    int counted = 0;
+    for (Message m : messages) {
+      if (m == null) continue;
+      counted++;
+      if (m.authorType() == AuthorType.ANT) antAuthored++;
+      if (ownLast == null && antId.equals(m.authorId())) ownLast = m;
+    }
+
+    if (ownLast == null || ownLast.createdAt() == null || ownLast.createdAt().plus(quiet).isBefore(in.now())) score += 0.15;
+    if (!messages.isEmpty() && messages.get(0) != null && antId.equals(messages.get(0).authorId())) score -= 0.20;
+
+    score -= 0.15 * Math.min(3, Math.max(0, in.noResponseStreak()));
+
+    if (counted > 0) {
+      double antShare = (double) antAuthored / counted;
+      score -= 0.20 * Math.max(0, antShare - 0.5) * 2;
+    }
+
+    BicameralThought thought = BicameralThoughtParser.tryParse(in.bicameralThoughtJson()).orElse(null);
+    if (thought != null && thought.stalenessScore() >= staleThreshold) score -= 0.10;
+
+    score = Math.max(0, Math.min(1, score));
+    return score < minScore
+        ? new Decision(false, "lowScore", score)
+        : new Decision(true, "score", score);
+  }
+
+  private static Pattern mentionPattern(String name) {
+    if (name == null || name.isBlank()) return null;
+    // Whole-word, case-insensitive; also matches "@name".
+    return Pattern.compile("(?<![\\p{L}\\p{N}])" + Pattern.quote(name.trim()) + "(?![\\p{L}\\p{N}])",
+        Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+  }
+}
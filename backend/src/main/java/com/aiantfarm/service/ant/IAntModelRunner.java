@@ -3,6 +3,8 @@ package com.aiantfarm.service.ant;
 import com.aiantfarm.domain.AiModel;
 import com.aiantfarm.domain.Ant;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Model-specific execution strategy for an Ant.
  *
@@ -11,6 +13,10 @@ import com.aiantfarm.domain.Ant;
  * - call the provider SDK/API
  * - return the message content to post
  *
+ * Every operation has a blocking and an async variant. The async variants hold no thread while the provider
+ * call (or its retry backoff / rate-limit wait) is outstanding; the blocking ones simply wait for them.
+ * Failures surface as the future's exception (RateLimitDeferredException, ModelUnavailableException, SDK errors).
+ *
  * !!! SAFETY/ABUSE NOTE (do not delete):
  * When you plug in real models, treat room content and persona prompts as untrusted input.
  * Prompt injection, spam, and disallowed content must be handled with moderation + rate limiting.
@@ -25,6 +31,8 @@ public interface IAntModelRunner {
    */
   String generateMessage(Ant ant, String roomId, AntModelContext context);
 
+  CompletableFuture<String> generateMessageAsync(Ant ant, String roomId, AntModelContext context);
+
   /**
    * Generate or update the rolling summary for an ant-room assignment.
    *
@@ -35,9 +43,35 @@ public interface IAntModelRunner {
    */
   String generateRoomSummary(Ant ant, String roomId, AntModelContext context, String existingSummary);
 
+  CompletableFuture<String> generateRoomSummaryAsync(Ant ant, String roomId, AntModelContext context, String existingSummary);
+
+  /**
+   * Generate or update the room-wide summary shared by every ant in the room: factual and neutral (no persona, no
+   * role). {@code ant} only picks the model and is billed for the call.
+   *
+   * @param existingSummary current shared summary (may be blank)
+   * @return updated summary (must be non-blank)
+   */
+  String generateSharedRoomSummary(Ant ant, String roomId, AntModelContext context, String existingSummary);
+
+  CompletableFuture<String> generateSharedRoomSummaryAsync(Ant ant, String roomId, AntModelContext context, String existingSummary);
+
   /**
    * Generate a compact JSON thought object representing the ant's self-reflection about the conversation.
    * This is internal-only state for steering later messages.
    */
   String generateBicameralThought(Ant ant, String roomId, AntModelContext context);
+
+  CompletableFuture<String> generateBicameralThoughtAsync(Ant ant, String roomId, AntModelContext context);
+
+  /**
+   * Updated summary, thought and reply in one structured call, for turns where all three are due (saves resending
+   * the transcript twice).
+   *
+   * @return the raw JSON response; parse with CombinedTurnParser and fall back to the separate calls if it is
+   * malformed
+   */
+  String generateCombinedTurn(Ant ant, String roomId, AntModelContext context, String existingSummary);
+
+  CompletableFuture<String> generateCombinedTurnAsync(Ant ant, String roomId, AntModelContext context, String existingSummary);
 }
@@ -0,0 +1,192 @@
+package com.aiantfarm.service.ant;
+
+import com.aiantfarm.domain.AiProvider;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-provider admission lane (bulkhead) for ant ticks.
+ *
+ * In PLATFORM executor mode each provider owns its own bounded worker pool, so a slow or failing provider can
+ * only exhaust its own threads and queue; ants on healthy providers keep running. A pool thread is only held
+ * until the tick's first async model call, so the lane also caps in-flight ticks at the pool size.
+ *
+ * In VIRTUAL executor mode every tick gets its own virtual thread (one executor shared by all lanes), so a
+ * queue no longer protects the providers. Instead each provider gets a semaphore-based concurrency cap; ticks
+ * park (cheaply) on the semaphore until a permit frees up or the wait budget runs out.
+ *
+ * Both modes record queue wait, run latency, rejections and in-flight counts with the same numbers.
+ */
+@Slf4j
+public final class ProviderLane {
+
+  private final AiProvider provider;
+  private final ExecutorService executor;
+  private final int maxConcurrent;
+  private final Semaphore permits;
+  private final long permitWaitMs;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final AtomicLong dispatched = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private final LongAdder queueWaitMsTotal = new LongAdder();
+  private final AtomicLong queueWaitMsMax = new AtomicLong();
+  private final LongAdder runMsTotal = new LongAdder();
+  private final AtomicLong runMsMax = new AtomicLong();
+
+  /**
+   * @param executor the lane's own pool (PLATFORM) or the shared virtual-thread executor (VIRTUAL)
+   * @param maxConcurrent semaphore size (providerConcurrency in VIRTUAL mode, pool size in PLATFORM mode);
+   * {@code <= 0} means "no cap"
+   */
+  ProviderLane(AiProvider provider, ExecutorService executor, int maxConcurrent, long permitWaitMs) {
+    this.provider = provider;
+    this.executor = executor;
+    this.maxConcurrent = Math.max(0, maxConcurrent);
+    this.permits = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+    this.permitWaitMs = Math.max(0, permitWaitMs);
+  }
+
+  AiProvider provider() {
+    return provider;
+  }
+
+  /**
+   * Hands the tick to this lane's executor. {@code onDone} runs once the tick's stage completes (or after it was
+   * dropped waiting for a permit), but not when the executor rejects it.
+   *
+   * @return false if the lane's queue is full
+   */
+  boolean submit(String antId, AntScheduler.AntTick tick, Runnable onDone) {
+    long enqueuedNs = System.nanoTime();
+    try {
+      executor.execute(() -> run(antId, enqueuedNs, tick).whenComplete((ignored, err) -> onDone.run()));
+      return true;
+    } catch (RejectedExecutionException rex) {
+      rejected.incrementAndGet();
+      return false;
+    }
+  }
+
+  /**
+   * Starts the tick on the calling thread once admitted. The permit and in-flight slot are held until the
+   * tick's stage completes, so the cap also covers its async model calls.
+   *
+   * @param enqueuedNs System.nanoTime() captured when the tick was handed to the executor
+   */
+  private CompletionStage<?> run(String antId, long enqueuedNs, AntScheduler.AntTick tick) {
+    boolean acquired = false;
+    if (permits != null) {
+      waiting.incrementAndGet();
+      try {
+        acquired = permits.tryAcquire(permitWaitMs, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      } finally {
+        waiting.decrementAndGet();
+      }
+
+      if (!acquired) {
+        rejected.incrementAndGet();
+        log.warn("Ant tick dropped waiting for provider permit antId={} provider={} waitedMs={}",
+            antId, provider, (System.nanoTime() - enqueuedNs) / 1_000_000);
+        return CompletableFuture.completedFuture(null);
+      }
+    }
+
+    long waitMs = (System.nanoTime() - enqueuedNs) / 1_000_000;
+    queueWaitMsTotal.add(waitMs);
+    queueWaitMsMax.accumulateAndGet(waitMs, Math::max);
+    dispatched.incrementAndGet();
+
+    inFlight.incrementAndGet();
+    long runStartNs = System.nanoTime();
+    boolean holdsPermit = acquired;
+    CompletionStage<?> stage;
+    try {
+      stage = tick.start();
+    } catch (Throwable t) {
+      stage = CompletableFuture.failedFuture(t);
+    }
+    if (stage == null) {
+      stage = CompletableFuture.completedFuture(null);
+    }
+    return stage.whenComplete((ignored, err) -> {
+      long runMs = (System.nanoTime() - runStartNs) / 1_000_000;
+      runMsTotal.add(runMs);
+      runMsMax.accumulateAndGet(runMs, Math::max);
+      inFlight.decrementAndGet();
+      if (holdsPermit) {
+        permits.release();
+      }
+      if (err != null) {
+        log.warn("Ant tick failed antId={} provider={}", antId, provider, err);
+      }
+    });
+  }
+
+  Stats stats() {
+    long n = dispatched.get();
+    long avgWait = n == 0 ? 0 : queueWaitMsTotal.sum() / n;
+    long avgRun = n == 0 ? 0 : runMsTotal.sum() / n;
+
+    int poolThreads = 0;
+    int queued = waiting.get();
+    int queueCapacity = 0;
+    if (executor instanceof ThreadPoolExecutor tpe) {
+      poolThreads = tpe.getMaximumPoolSize();
+      queued = tpe.getQueue().size();
+      queueCapacity = queued + tpe.getQueue().remainingCapacity();
+    }
+
+    return new Stats(
+        provider,
+        poolThreads,
+        queueCapacity,
+        queued,
+        maxConcurrent,
+        inFlight.get(),
+        waiting.get(),
+        n,
+        rejected.get(),
+        avgWait,
+        queueWaitMsMax.get(),
+        avgRun,
+        runMsMax.get()
+    );
+  }
+
+  /**
+   * Point-in-time counters for one provider lane. Exposed via the antscheduler actuator endpoint.
+   *
+   * @param poolThreads size of the lane's own pool; 0 in VIRTUAL mode
+   * @param queued ticks waiting for a pool thread (PLATFORM) or a permit (VIRTUAL)
+   * @param maxConcurrent 0 when the lane is uncapped
+   */
+  public record Stats(
+      AiProvider provider,
+      int poolThreads,
+      int queueCapacity,
+      int queued,
+      int maxConcurrent,
+      int inFlight,
+      int waiting,
+      long dispatched,
+      long rejected,
+      long avgQueueWaitMs,
+      long maxQueueWaitMs,
+      long avgRunMs,
+      long maxRunMs
+  ) {}
+}
@@ -0,0 +1,47 @@
+package com.aiantfarm.service.ant;
+
+import com.aiantfarm.domain.Ant;
+import com.aiantfarm.domain.Message;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Cheap local pre-decision before a reply call: should this ant even ask the model for a message?
+ *
+ * A skipped reply is treated exactly like a {@code <<<NO_RESPONSE>>>} answer (the no-response streak grows), so
+ * the force-reply logic still kicks in after {@code antfarm.chat.maxNoResponseStreak}. Implementations must always
+ * let forced replies through.
+ *
+ * Must not call a model or hit Dynamo: everything it needs is in {@link Input}.
+ */
+public interface ReplyGate {
+
+  Decision decide(Input input);
+
+  /**
+   * @param newestToOldest the room's recent messages (same window the prompt uses)
+   * @param lastSeenMessageId newest message the ant had seen before this run (null if none)
+   * @param bicameralThoughtJson latest thought for this ant-room (may be blank)
+   */
+  record Input(
+      Ant ant,
+      List<Message> newestToOldest,
+      String lastSeenMessageId,
+      int noResponseStreak,
+      boolean forceReply,
+      String bicameralThoughtJson,
+      Instant now
+  ) {}
+
+  /**
+   * @param reason short, log-friendly (e.g. "mentioned", "lowScore")
+   * @param score the implementation's likelihood of a real reply, 0..1 (1 for short-circuit decisions)
+   */
+  record Decision(boolean attempt, String reason, double score) {
+
+    public static Decision attempt(String reason) {
+      return new Decision(true, reason, 1d);
+    }
+  }
+}
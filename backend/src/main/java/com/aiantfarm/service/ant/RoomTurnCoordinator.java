@@ -0,0 +1,277 @@
+package com.aiantfarm.service.ant;
+
+import com.aiantfarm.domain.Message;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-room turn taking: decides which ants may call the model for a reply to a given room version (the newest
+ * message id), so ants whose timers fire around the same new message don't all answer it at once.
+ *
+ * A round starts when an ant asks about a version the room hasn't seen yet and ends when the next message lands:
+ * - at most maxResponders ants get a turn per round;
+ * - for the first holdMs of a round, an ant yields if enough recently active ants of this room, which have not
+ *   had their say this round, outrank it (so the slots go to the ants that have been quiet longest, or hold a
+ *   role); after that, free slots go to whoever asks first;
+ * - forced replies always get a turn (and take a slot).
+ *
+ * Ranks come from {@link #weight}, as each ant last reported it. A yielded ant skips the reply call. When the round
+ * is full that is final and the caller treats it like a NO_RESPONSE; an outranked ant is told to ask again once the
+ * hold is over ({@link Decision#retryAfterMs}). A turn that ends silent or failed is given back with
+ * {@link #release}. Ants that leave the room, are disabled or deleted, and deleted rooms are dropped, so they are
+ * not waited for.
+ *
+ * In-memory, per pod. Off by default ({@code antfarm.ants.turns.enabled}); then every ant gets a turn.
+ */
+@Component
+@Slf4j
+public class RoomTurnCoordinator {
+
+  /**
+   * @param reason short, log-friendly (e.g. "roundFull", "outranked")
+   * @param retryAfterMs for a yield that is not final (outranked during the hold): when to ask again; 0 otherwise
+   */
+  public record Decision(boolean granted, String reason, long retryAfterMs) {
+    Decision(boolean granted, String reason) {
+      this(granted, reason, 0);
+    }
+  }
+
+  private record Candidate(double weight, long seenAtMs) {}
+
+  private static final class RoomTurns {
+    final Map<String, Candidate> candidates = new HashMap<>();
+    final Set<String> granted = new HashSet<>();
+    // Yielded or passed (e.g. skipped by the reply gate) this round: no longer waited for.
+    final Set<String> done = new HashSet<>();
+    String version;
+    long roundStartedMs;
+  }
+
+  private final boolean enabled;
+  private final int maxResponders;
+  private final long holdMs;
+  private final long activeWindowMs;
+  private final Duration quiet;
+  private final double roleWeight;
+
+  private final Map<String, RoomTurns> rooms = new ConcurrentHashMap<>();
+
+  private final LongAdder grants = new LongAdder();
+  private final LongAdder yields = new LongAdder();
+  private final LongAdder releases = new LongAdder();
+
+  public RoomTurnCoordinator(
+      @Value("${antfarm.ants.turns.enabled:false}") boolean enabled,
+      @Value("${antfarm.ants.turns.maxResponders:2}") int maxResponders,
+      @Value("${antfarm.ants.turns.holdMs:20000}") long holdMs,
+      @Value("${antfarm.ants.turns.activeWindowMs:600000}") long activeWindowMs,
+      @Value("${antfarm.ants.turns.quietMinutes:10}") long quietMinutes,
+      @Value("${antfarm.ants.turns.roleWeight:0.25}") double roleWeight
+  ) {
+    this.enabled = enabled;
+    this.maxResponders = Math.max(1, maxResponders);
+    this.holdMs = Math.max(0, holdMs);
+    this.activeWindowMs = Math.max(0, activeWindowMs);
+    this.quiet = Duration.ofMinutes(Math.max(1, quietMinutes));
+    this.roleWeight = Math.max(0, roleWeight);
+
+    log.info("RoomTurnCoordinator initialized enabled={} maxResponders={} holdMs={} activeWindowMs={} quietMinutes={} roleWeight={}",
+        enabled, this.maxResponders, this.holdMs, this.activeWindowMs, quietMinutes, this.roleWeight);
+  }
+
+  public boolean enabled() {
+    return enabled;
+  }
+
+  /**
+   * Rank of an ant for the next turn: 0..1 for how long it has been quiet (1 after quietMinutes, or if it has not
+   * spoken in the window), plus roleWeight if it holds a role in the room.
+   */
+  public double weight(String antId, List<Message> newestToOldest, boolean hasRole, Instant now) {
+    double w = 1d;
+    if (newestToOldest != null) {
+      for (Message m : newestToOldest) {
+        if (m == null || !Objects.equals(antId, m.authorId())) continue;
+        if (m.createdAt() != null) {
+          long quietMs = Math.max(0, Duration.between(m.createdAt(), now).toMillis());
+          w = Math.min(1d, (double) quietMs / quiet.toMillis());
+        }
+        break;
+      }
+    }
+    return hasRole ? w + roleWeight : w;
+  }
+
+  /**
+   * May this ant generate a reply to {@code version} of the room? Asking again in the same round gives the same
+   * answer.
+   */
+  public Decision acquire(String roomId, String version, String antId, double weight, boolean force) {
+    if (!enabled) return new Decision(true, "disabled");
+
+    RoomTurns t = rooms.computeIfAbsent(roomId, k -> new RoomTurns());
+    synchronized (t) {
+      long now = System.currentTimeMillis();
+      startRoundIfNew(t, version, now);
+      t.candidates.put(antId, new Candidate(weight, now));
+
+      if (t.granted.contains(antId)) return new Decision(true, "granted");
+      if (force) return grant(t, antId, "forceReply");
+      if (t.done.contains(antId)) return new Decision(false, "yielded");
+
+      if (t.granted.size() >= maxResponders) return yieldTurn(t, antId, "roundFull");
+
+      if (now - t.roundStartedMs < holdMs && outrankedBy(t, antId, weight, now) >= maxResponders - t.granted.size()) {
+        // Not done: the ant still waits for a slot, and may take a free one after the hold.
+        yields.increment();
+        return new Decision(false, "outranked", holdMs - (now - t.roundStartedMs));
+      }
+      return grant(t, antId, "granted");
+    }
+  }
+
+  /**
+   * The ant won't reply to this version for its own reasons (e.g. the reply gate skipped it): others stop waiting
+   * for it this round.
+   */
+  public void pass(String roomId, String version, String antId) {
+    if (!enabled) return;
+    RoomTurns t = rooms.computeIfAbsent(roomId, k -> new RoomTurns());
+    synchronized (t) {
+      startRoundIfNew(t, version, System.currentTimeMillis());
+      if (!t.granted.contains(antId)) t.done.add(antId);
+    }
+  }
+
+  /**
+   * An ant posted {@code messageId}: that starts the next round, in which the author has just spoken and is not
+   * waited for.
+   */
+  public void posted(String roomId, String messageId, String antId) {
+    if (!enabled) return;
+    RoomTurns t = rooms.computeIfAbsent(roomId, k -> new RoomTurns());
+    synchronized (t) {
+      startRoundIfNew(t, messageId, System.currentTimeMillis());
+      t.candidates.computeIfPresent(antId, (k, c) -> new Candidate(0d, c.seenAtMs()));
+      t.done.add(antId);
+    }
+  }
+
+  /**
+   * Give back a turn that produced no message (silence or a failed call), so another ant can take the slot.
+   */
+  public void release(String roomId, String antId) {
+    if (!enabled) return;
+    RoomTurns t = rooms.get(roomId);
+    if (t == null) return;
+    synchronized (t) {
+      if (t.granted.remove(antId)) {
+        t.done.add(antId);
+        releases.increment();
+      }
+    }
+  }
+
+  /**
+   * The ant was unassigned from the room: it no longer holds or waits for a turn there.
+   */
+  public void antLeft(String roomId, String antId) {
+    if (!enabled || roomId == null) return;
+    RoomTurns t = rooms.get(roomId);
+    if (t == null) return;
+    synchronized (t) {
+      forget(t, antId);
+    }
+  }
+
+  /**
+   * The ant was disabled or deleted: drop it from every room.
+   */
+  public void antStopped(String antId) {
+    if (!enabled) return;
+    for (RoomTurns t : rooms.values()) {
+      synchronized (t) {
+        forget(t, antId);
+      }
+    }
+  }
+
+  /**
+   * The room was deleted.
+   */
+  public void roomDeleted(String roomId) {
+    if (roomId == null) return;
+    rooms.remove(roomId);
+  }
+
+  private static void forget(RoomTurns t, String antId) {
+    t.candidates.remove(antId);
+    t.granted.remove(antId);
+  }
+
+  private static void startRoundIfNew(RoomTurns t, String version, long now) {
+    if (Objects.equals(t.version, version)) return;
+    t.version = version;
+    t.roundStartedMs = now;
+    t.granted.clear();
+    t.done.clear();
+  }
+
+  /**
+   * Recently active ants of the room, still undecided this round, with a higher weight (ties by id). Drops
+   * candidates not seen within activeWindowMs.
+   */
+  private int outrankedBy(RoomTurns t, String antId, double weight, long now) {
+    int ahead = 0;
+    Iterator<Map.Entry<String, Candidate>> it = t.candidates.entrySet().iterator();
+    while (it.hasNext()) {
+      Map.Entry<String, Candidate> e = it.next();
+      Candidate c = e.getValue();
+      if (now - c.seenAtMs() > activeWindowMs) {
+        it.remove();
+        continue;
+      }
+      String other = e.getKey();
+      if (other.equals(antId) || t.granted.contains(other) || t.done.contains(other)) continue;
+      if (c.weight() > weight || (c.weight() == weight && other.compareTo(antId) < 0)) ahead++;
+    }
+    return ahead;
+  }
+
+  private Decision grant(RoomTurns t, String antId, String reason) {
+    t.granted.add(antId);
+    grants.increment();
+    return new Decision(true, reason);
+  }
+
+  private Decision yieldTurn(RoomTurns t, String antId, String reason) {
+    t.done.add(antId);
+    yields.increment();
+    return new Decision(false, reason);
+  }
+
+  public Stats stats() {
+    return new Stats(enabled, maxResponders, rooms.size(), grants.sum(), yields.sum(), releases.sum());
+  }
+
+  /**
+   * @param yielded reply calls skipped because the round was full or better-placed ants were due (the latter ask
+   *     again after the hold)
+   * @param released turns given back after silence or a failed call
+   */
+  public record Stats(boolean enabled, int maxResponders, int rooms, long granted, long yielded, long released) {}
+}
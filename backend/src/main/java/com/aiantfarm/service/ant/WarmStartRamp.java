@@ -0,0 +1,54 @@
+package com.aiantfarm.service.ant;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caps how many ants get their first tick in any one second after a (re)start.
+ *
+ * Phase offsets already spread ants across their interval, but short intervals (or many ants hashing close
+ * together) can still put a burst of first ticks into the same second. Each ant reserves a slot in the
+ * one-second bucket of its requested delay; when that bucket is full it is pushed to the next free one.
+ *
+ * Thread-safe: warm start reserves from several scan threads at once.
+ */
+public final class WarmStartRamp {
+
+  private final int maxStartsPerSecond;
+  private final Map<Long, Integer> startsBySecond = new HashMap<>();
+  private int shifted;
+
+  /**
+   * @param maxStartsPerSecond {@code <= 0} disables the ramp (requested delays are returned as-is)
+   */
+  public WarmStartRamp(int maxStartsPerSecond) {
+    this.maxStartsPerSecond = maxStartsPerSecond;
+  }
+
+  /**
+   * @return the delay to actually use; never earlier than {@code requestedDelayMs}
+   */
+  public synchronized long reserve(long requestedDelayMs) {
+    long delayMs = Math.max(0, requestedDelayMs);
+    if (maxStartsPerSecond <= 0) return delayMs;
+
+    long second = delayMs / 1000;
+    while (startsBySecond.getOrDefault(second, 0) >= maxStartsPerSecond) {
+      second++;
+    }
+    startsBySecond.merge(second, 1, Integer::sum);
+
+    if (second == delayMs / 1000) return delayMs;
+
+    shifted++;
+    // Keep the sub-second part so ants pushed into the same bucket don't fire on the same millisecond.
+    return second * 1000 + delayMs % 1000;
+  }
+
+  /**
+   * Number of ants whose first tick was pushed later by the ramp.
+   */
+  public synchronized int shifted() {
+    return shifted;
+  }
+}
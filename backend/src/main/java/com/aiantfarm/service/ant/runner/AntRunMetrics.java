@@ -5,7 +5,12 @@ import com.aiantfarm.domain.AiModel;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Thread-local collector for one ant scheduler tick.
@@ -14,8 +19,14 @@ import java.util.List;
  * - Collect per-model-call metrics (latency/tokens/estimated cost/retries)
  * - Log a single summary line once per tick
  *
- * This is intentionally ThreadLocal (per your request). If we later need cross-thread correlation,
- * we can extend this to an MDC/runId based approach.
+ * - Count non-model events for the tick (e.g. polls avoided) via {@link #increment(String)}
+ * - Record hedged requests (see {@link RequestHedger}) with their extra spend, next to the normal events
+ * - Carry the tick's deadline, so model calls can cap their timeouts by what is left of it ({@link #remainingMs()})
+ * - Record calls served by another model than the ant's own ({@link ModelRouter}) with what that saved
+ *
+ * This is intentionally ThreadLocal (per your request). Async ticks carry the collector across threads
+ * explicitly: {@link #propagating(Executor)} for tick continuations, {@link #bind}/{@link #restore} in
+ * runner callbacks. A tick's stages run one after another, so the collector is never written concurrently.
  */
 public final class AntRunMetrics {
 
@@ -24,7 +35,15 @@ public final class AntRunMetrics {
   private static final ThreadLocal<Collector> TL = new ThreadLocal<>();
 
   public static void start(String antId) {
-    TL.set(new Collector(antId));
+    start(antId, 0);
+  }
+
+  /**
+   * @param deadlineMs time budget for the whole tick, retries included; 0 means no deadline
+   */
+  public static void start(String antId, long deadlineMs) {
+    long deadlineNs = deadlineMs > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs) : 0;
+    TL.set(new Collector(antId, deadlineNs));
   }
 
   public static Collector current() {
@@ -35,12 +54,47 @@ public final class AntRunMetrics {
     TL.remove();
   }
 
+  /**
+   * Attach {@code collector} to the calling thread (null detaches).
+   *
+   * @return the collector that was attached before, to hand back to {@link #restore}
+   */
+  public static Collector bind(Collector collector) {
+    Collector previous = TL.get();
+    restore(collector);
+    return previous;
+  }
+
+  public static void restore(Collector previous) {
+    if (previous == null) {
+      TL.remove();
+    } else {
+      TL.set(previous);
+    }
+  }
+
+  /**
+   * Executor that runs each task with the calling thread's current collector attached.
+   */
+  public static Executor propagating(Executor delegate) {
+    Collector collector = TL.get();
+    return task -> delegate.execute(() -> {
+      Collector previous = bind(collector);
+      try {
+        task.run();
+      } finally {
+        restore(previous);
+      }
+    });
+  }
+
   public static void record(
       String operation,
       AiModel model,
       long latencyMs,
       Integer inputTokens,
       Integer outputTokens,
+      Integer cachedInputTokens,
       BigDecimal estUsd,
       int attempt,
       int maxAttempts,
@@ -49,21 +103,77 @@ public final class AntRunMetrics {
   ) {
     Collector c = TL.get();
     if (c == null) return;
-    c.events.add(new Event(operation, model, latencyMs, inputTokens, outputTokens, estUsd, attempt, maxAttempts, success, errorClass));
+    c.events.add(new Event(operation, model, latencyMs, inputTokens, outputTokens, cachedInputTokens, estUsd, attempt,
+        maxAttempts, success, errorClass));
+  }
+
+  public static void recordHedge(
+      String operation,
+      AiModel model,
+      long delayMs,
+      boolean hedgeWon,
+      long latencyMs,
+      BigDecimal extraUsd
+  ) {
+    Collector c = TL.get();
+    if (c == null) return;
+    c.hedges.add(new HedgeEvent(operation, model, delayMs, hedgeWon, latencyMs, extraUsd));
+  }
+
+  /**
+   * @param savedUsd estimated cost at {@code antModel} minus the actual cost at {@code model} (negative if dearer)
+   */
+  public static void recordRoute(String operation, AiModel antModel, AiModel model, BigDecimal savedUsd) {
+    Collector c = TL.get();
+    if (c == null) return;
+    c.routes.add(new RouteEvent(operation, antModel, model, savedUsd));
+  }
+
+  /**
+   * Milliseconds left before the current tick's deadline (may be negative); Long.MAX_VALUE if there is none.
+   */
+  public static long remainingMs() {
+    return remainingMs(TL.get());
+  }
+
+  public static long remainingMs(Collector collector) {
+    if (collector == null || collector.deadlineNs == 0) return Long.MAX_VALUE;
+    return TimeUnit.NANOSECONDS.toMillis(collector.deadlineNs - System.nanoTime());
+  }
+
+  public static void increment(String counter) {
+    add(counter, 1);
+  }
+
+  public static void add(String counter, int delta) {
+    Collector c = TL.get();
+    if (c == null) return;
+    c.counters.merge(counter, delta, Integer::sum);
+  }
+
+  public static int counter(String counter) {
+    Collector c = TL.get();
+    if (c == null) return 0;
+    return c.counters.getOrDefault(counter, 0);
   }
 
   public static Summary snapshotSummary() {
     Collector c = TL.get();
-    if (c == null) return new Summary(0, 0, 0, BigDecimal.ZERO, Collections.emptyList());
+    if (c == null) return new Summary(0, 0, 0, 0, 0, 0, BigDecimal.ZERO, Collections.emptyList(), 0, 0, BigDecimal.ZERO,
+        Collections.emptyList(), 0, BigDecimal.ZERO, Collections.emptyMap());
     return c.toSummary();
   }
 
+  /**
+   * @param inputTokens the whole prompt; {@code cachedInputTokens} of it came from the provider's prompt cache
+   */
   public record Event(
       String operation,
       AiModel model,
       long latencyMs,
       Integer inputTokens,
       Integer outputTokens,
+      Integer cachedInputTokens,
       BigDecimal estUsd,
       int attempt,
       int maxAttempts,
@@ -71,34 +181,101 @@ public final class AntRunMetrics {
       String errorClass
   ) {}
 
+  /**
+   * One hedged call: a second request went out after {@code delayMs}; {@code latencyMs} is when the race
+   * resolved. {@code extraUsd} is the estimated cost of the losing request.
+   */
+  public record HedgeEvent(
+      String operation,
+      AiModel model,
+      long delayMs,
+      boolean hedgeWon,
+      long latencyMs,
+      BigDecimal extraUsd
+  ) {}
+
+  /**
+   * One successful call served by {@code model} instead of the ant's own {@code antModel}.
+   */
+  public record RouteEvent(
+      String operation,
+      AiModel antModel,
+      AiModel model,
+      BigDecimal savedUsd
+  ) {}
+
+  /**
+   * @param timeouts failures with errorClass {@link ModelCallTimeoutException#ERROR_CLASS}
+   * @param cachedInputTokens part of {@code inputTokens} served from the providers' prompt caches
+   * @param estUsd winning calls only; the hedges' extra spend is in {@code hedgeExtraUsd}
+   * @param routedCalls successful calls served by another model than the ant's own
+   * @param routeSavings saved USD per route, keyed {@code operation:ANT_MODEL>MODEL}
+   */
   public record Summary(
       int requests,
       int successes,
       int failures,
+      int timeouts,
+      long inputTokens,
+      long cachedInputTokens,
       BigDecimal estUsd,
-      List<Event> events
+      List<Event> events,
+      int hedges,
+      int hedgeWins,
+      BigDecimal hedgeExtraUsd,
+      List<HedgeEvent> hedgeEvents,
+      int routedCalls,
+      BigDecimal routeSavedUsd,
+      Map<String, BigDecimal> routeSavings
   ) {}
 
   public static final class Collector {
     final String antId;
+    final long deadlineNs;
     final List<Event> events = new ArrayList<>();
+    final List<HedgeEvent> hedges = new ArrayList<>();
+    final List<RouteEvent> routes = new ArrayList<>();
+    final Map<String, Integer> counters = new HashMap<>();
 
-    Collector(String antId) {
+    Collector(String antId, long deadlineNs) {
       this.antId = antId;
+      this.deadlineNs = deadlineNs;
     }
 
     Summary toSummary() {
       int req = events.size();
       int ok = 0;
       int fail = 0;
+      int timeouts = 0;
+      long inTok = 0;
+      long cachedTok = 0;
       BigDecimal usd = BigDecimal.ZERO;
 
       for (Event e : events) {
         if (e.success) ok++; else fail++;
+        if (ModelCallTimeoutException.ERROR_CLASS.equals(e.errorClass)) timeouts++;
+        if (e.inputTokens != null && e.inputTokens > 0) inTok += e.inputTokens;
+        if (e.cachedInputTokens != null && e.cachedInputTokens > 0) cachedTok += e.cachedInputTokens;
         if (e.estUsd != null) usd = usd.add(e.estUsd);
       }
 
-      return new Summary(req, ok, fail, usd, List.copyOf(events));
+      int hedgeWins = 0;
+      BigDecimal hedgeUsd = BigDecimal.ZERO;
+      for (HedgeEvent h : hedges) {
+        if (h.hedgeWon) hedgeWins++;
+        if (h.extraUsd != null) hedgeUsd = hedgeUsd.add(h.extraUsd);
+      }
+
+      BigDecimal routeUsd = BigDecimal.ZERO;
+      Map<String, BigDecimal> routeSavings = new TreeMap<>();
+      for (RouteEvent r : routes) {
+        BigDecimal saved = r.savedUsd == null ? BigDecimal.ZERO : r.savedUsd;
+        routeUsd = routeUsd.add(saved);
+        routeSavings.merge(r.operation + ":" + r.antModel + ">" + r.model, saved, BigDecimal::add);
+      }
+
+      return new Summary(req, ok, fail, timeouts, inTok, cachedTok, usd, List.copyOf(events), hedges.size(), hedgeWins,
+          hedgeUsd, List.copyOf(hedges), routes.size(), routeUsd, Collections.unmodifiableMap(routeSavings));
     }
   }
 }
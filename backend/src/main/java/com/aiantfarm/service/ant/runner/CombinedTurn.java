@@ -0,0 +1,14 @@
+package com.aiantfarm.service.ant.runner;
+
+/**
+ * Parsed output of one combined summary + thought + reply call (see {@link CombinedTurnParser}).
+ *
+ * @param summary updated rolling room summary (non-blank)
+ * @param thoughtJson bicameral thought, re-serialized; always parses with {@link BicameralThoughtParser}
+ * @param reply next message, or the NO_RESPONSE sentinel (non-blank)
+ */
+public record CombinedTurn(
+    String summary,
+    String thoughtJson,
+    String reply
+) {}
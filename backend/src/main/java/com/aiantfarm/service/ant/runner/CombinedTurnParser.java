@@ -0,0 +1,58 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Parser for the combined summary + thought + reply response:
+ * {@code {"summary": "...", "thought": {...}, "reply": "..."}}.
+ *
+ * IMPORTANT: Untrusted model output. Anything malformed (missing field, blank summary/reply, thought that doesn't
+ * parse) yields empty, and the caller falls back to the separate calls.
+ */
+public final class CombinedTurnParser {
+  private CombinedTurnParser() {}
+
+  private static final ObjectMapper MAPPER = new ObjectMapper()
+      .findAndRegisterModules()
+      .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+  public static Optional<CombinedTurn> tryParse(String raw) {
+    if (raw == null || raw.isBlank()) return Optional.empty();
+
+    // Models sometimes wrap the object in a markdown fence or add a sentence around it.
+    int start = raw.indexOf('{');
+    int end = raw.lastIndexOf('}');
+    if (start < 0 || end <= start) return Optional.empty();
+
+    try {
+      JsonNode root = MAPPER.readTree(raw.substring(start, end + 1));
+      if (root == null || !root.isObject()) return Optional.empty();
+
+      String summary = text(root.get("summary"));
+      String reply = text(root.get("reply"));
+      JsonNode thought = root.get("thought");
+      if (summary == null || reply == null || thought == null || !thought.isObject()) return Optional.empty();
+
+      // The model's own timestamp is not trusted (and often not valid ISO-8601).
+      ((ObjectNode) thought).put("createdAt", Instant.now().toString());
+      String thoughtJson = MAPPER.writeValueAsString(thought);
+      if (BicameralThoughtParser.tryParse(thoughtJson).isEmpty()) return Optional.empty();
+
+      return Optional.of(new CombinedTurn(summary, thoughtJson, reply));
+    } catch (Exception e) {
+      return Optional.empty();
+    }
+  }
+
+  private static String text(JsonNode node) {
+    if (node == null || !node.isTextual()) return null;
+    String s = node.asText().trim();
+    return s.isEmpty() ? null : s;
+  }
+}
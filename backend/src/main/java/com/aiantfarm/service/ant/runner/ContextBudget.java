@@ -0,0 +1,120 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.aiantfarm.domain.AiModel;
+import com.aiantfarm.domain.Message;
+
+import java.util.List;
+
+/**
+ * Splits a per-model input token budget across the parts of a prompt.
+ *
+ * Each fixed section (scenario, persona, role, summary, thought directive) is capped at a share of the budget and
+ * cut down with {@link TokenEstimator#truncate} if it is over. Whatever the sections don't use goes to the
+ * transcript, which is filled newest message first, so a long room history loses its oldest lines rather than
+ * the conversation the ant is replying to.
+ *
+ * Prompt wrapper text (templates, headings, rules) is not counted here; the budget is for room content.
+ */
+public final class ContextBudget {
+
+  // Upper bounds per section, as a share of the budget.
+  private static final double SCENARIO_SHARE = 0.15;
+  private static final double PERSONA_SHARE = 0.15;
+  private static final double ROLE_SHARE = 0.10;
+  private static final double SUMMARY_SHARE = 0.25;
+  private static final double THOUGHT_SHARE = 0.05;
+
+  private final TokenEstimator estimator;
+  private final int inputTokens;
+
+  public ContextBudget(TokenEstimator estimator, int inputTokens) {
+    this.estimator = estimator;
+    this.inputTokens = Math.max(0, inputTokens);
+  }
+
+  public static ContextBudget forModel(AiModel model, int inputTokens) {
+    return new ContextBudget(TokenEstimator.forModel(model), inputTokens);
+  }
+
+  public TokenEstimator estimator() {
+    return estimator;
+  }
+
+  public int inputTokens() {
+    return inputTokens;
+  }
+
+  /**
+   * Fitted prompt parts. {@code thoughtJson} is blank when the directive it renders to was over its cap (a cut
+   * JSON object would not parse anyway). {@code tokens} is the estimate for everything returned.
+   */
+  public record Allocation(
+      String scenario,
+      String persona,
+      String roleName,
+      String rolePrompt,
+      String summary,
+      String thoughtJson,
+      String transcript,
+      int transcriptTokens,
+      int tokens
+  ) {}
+
+  public Allocation allocate(String scenario,
+                             String persona,
+                             String roleName,
+                             String rolePrompt,
+                             String summary,
+                             String thoughtJson,
+                             List<Message> newestToOldest) {
+    return allocate(scenario, persona, roleName, rolePrompt, summary, thoughtJson,
+        RenderedTranscript.of(newestToOldest));
+  }
+
+  /**
+   * Same, with the transcript already rendered (shared per room snapshot).
+   */
+  public Allocation allocate(String scenario,
+                             String persona,
+                             String roleName,
+                             String rolePrompt,
+                             String summary,
+                             String thoughtJson,
+                             RenderedTranscript transcript) {
+    int used = 0;
+
+    String sc = estimator.truncate(trim(scenario), cap(SCENARIO_SHARE));
+    used += estimator.count(sc);
+
+    String pp = estimator.truncate(trim(persona), cap(PERSONA_SHARE));
+    used += estimator.count(pp);
+
+    String rn = trim(roleName);
+    int roleNameTokens = estimator.count(rn);
+    String rp = estimator.truncate(trim(rolePrompt), Math.max(0, cap(ROLE_SHARE) - roleNameTokens));
+    used += roleNameTokens + estimator.count(rp);
+
+    String sm = estimator.truncate(trim(summary), cap(SUMMARY_SHARE));
+    used += estimator.count(sm);
+
+    String th = trim(thoughtJson);
+    if (!th.isBlank()) {
+      int directiveTokens = estimator.count(PromptBuilder.buildEngagementDirective(th));
+      if (directiveTokens > cap(THOUGHT_SHARE)) th = "";
+      else used += directiveTokens;
+    }
+
+    RenderedTranscript.Fit fit = (transcript == null ? RenderedTranscript.of(null) : transcript)
+        .fit(estimator, Math.max(0, inputTokens - used));
+
+    return new Allocation(sc, pp, rn, rp, sm, th, fit.text(), fit.tokens(), used + fit.tokens());
+  }
+
+  private int cap(double share) {
+    return (int) (inputTokens * share);
+  }
+
+  private static String trim(String s) {
+    return s == null ? "" : s.trim();
+  }
+}
@@ -0,0 +1,53 @@
+package com.aiantfarm.service.ant.runner;
+
+import java.math.BigDecimal;
+
+/**
+ * What the hedged copy of one attempt took out when it was sent: its rate-limit permit and its own spend
+ * reservation. The runner settles it once, together with the attempt's own, when the race is over.
+ *
+ * The hedge is sent from the hedger's timer thread, so it may be attached after the race was already settled; it is
+ * cancelled before it gets anywhere then, and its tokens and reservation are given back straight away.
+ */
+public final class HedgeLeg {
+
+  private ProviderRateLimiter.Permit permit;
+  private SpendLedger.Reservation spend;
+  private boolean settled;
+
+  /**
+   * The hedge went out on {@code permit}, with {@code spend} reserved for it.
+   */
+  public void sent(ProviderRateLimiter.Permit permit, SpendLedger.Reservation spend) {
+    synchronized (this) {
+      if (!settled) {
+        this.permit = permit;
+        this.spend = spend;
+        return;
+      }
+    }
+    permit.settle(0, 0);
+    spend.release();
+  }
+
+  /**
+   * The race is over. On success the hedge, if one went out, is charged the winner's usage and cost (the hedger's
+   * estimate of the losing request). Null usage (the race failed) keeps the permit's estimate and releases the
+   * reservation, as for the attempt's own.
+   */
+  public void settle(Integer inputTokens, Integer outputTokens, BigDecimal usd) {
+    ProviderRateLimiter.Permit p;
+    SpendLedger.Reservation s;
+    synchronized (this) {
+      settled = true;
+      p = permit;
+      s = spend;
+      permit = null;
+      spend = null;
+    }
+    if (p != null) p.settle(inputTokens, outputTokens);
+    if (s != null) {
+      if (usd == null) s.release(); else s.settle(usd);
+    }
+  }
+}
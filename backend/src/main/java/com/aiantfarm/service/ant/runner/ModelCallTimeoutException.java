@@ -0,0 +1,41 @@
+package com.aiantfarm.service.ant.runner;
+
+/**
+ * A model call ran past its per-operation timeout, or the ant tick ran out of its deadline budget.
+ *
+ * The HTTP request is cancelled before this is thrown. A tick-deadline timeout is not retried.
+ */
+public class ModelCallTimeoutException extends RuntimeException {
+
+  /**
+   * errorClass recorded in {@link AntRunMetrics} and the antModelSla lines for any timeout.
+   */
+  public static final String ERROR_CLASS = "Timeout";
+
+  private final String operation;
+  private final long timeoutMs;
+  private final boolean tickDeadline;
+
+  public ModelCallTimeoutException(String operation, long timeoutMs, boolean tickDeadline) {
+    super((tickDeadline ? "Ant tick deadline exceeded" : "Model call timed out") + " op=" + operation
+        + " timeoutMs=" + timeoutMs);
+    this.operation = operation;
+    this.timeoutMs = timeoutMs;
+    this.tickDeadline = tickDeadline;
+  }
+
+  public String operation() {
+    return operation;
+  }
+
+  public long timeoutMs() {
+    return timeoutMs;
+  }
+
+  /**
+   * True when the call was cut short by what was left of the tick's deadline rather than its own timeout.
+   */
+  public boolean tickDeadline() {
+    return tickDeadline;
+  }
+}
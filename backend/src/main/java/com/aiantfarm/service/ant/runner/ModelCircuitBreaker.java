@@ -0,0 +1,300 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.aiantfarm.domain.AiModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-model circuit breaker fed by the runners' success/failure log calls (see {@link ModelRunnerSupport}).
+ *
+ * Why: when a provider degrades, every tick used to burn maxAttempts retries with backoff sleeps, leaving the
+ * worker pool asleep while other providers' ants starve. Once a model's recent calls fail (or are slow) often
+ * enough, AntScheduler.getRunner stops handing out that model for openMs and routes to its fallback instead.
+ *
+ * States:
+ * - CLOSED: calls flow; outcomes go into a count-based sliding window.
+ * - OPEN: calls rejected until openMs has passed.
+ * - HALF_OPEN: up to halfOpenProbes calls are let through; all succeeding closes the breaker, any failure
+ *   re-opens it.
+ *
+ * Blank-output failures are the model's answer, not provider health, so they are not counted.
+ */
+@Component
+@Slf4j
+public class ModelCircuitBreaker {
+
+  public enum State { CLOSED, OPEN, HALF_OPEN }
+
+  private final boolean enabled;
+  private final int windowSize;
+  private final int minCalls;
+  private final double failureRateThreshold;
+  private final long slowCallMs;
+  private final double slowCallRateThreshold;
+  private final long openNs;
+  private final int halfOpenProbes;
+  private final Map<AiModel, AiModel> fallbacks;
+
+  private final Map<AiModel, Breaker> breakers;
+
+  public ModelCircuitBreaker(
+      @Value("${antfarm.models.circuitBreaker.enabled:true}") boolean enabled,
+      @Value("${antfarm.models.circuitBreaker.windowSize:20}") int windowSize,
+      @Value("${antfarm.models.circuitBreaker.minCalls:10}") int minCalls,
+      @Value("${antfarm.models.circuitBreaker.failureRateThreshold:0.5}") double failureRateThreshold,
+      @Value("${antfarm.models.circuitBreaker.slowCallMs:15000}") long slowCallMs,
+      @Value("${antfarm.models.circuitBreaker.slowCallRateThreshold:0.8}") double slowCallRateThreshold,
+      @Value("${antfarm.models.circuitBreaker.openMs:30000}") long openMs,
+      @Value("${antfarm.models.circuitBreaker.halfOpenProbes:2}") int halfOpenProbes,
+      @Value("${antfarm.models.circuitBreaker.fallback:}") String fallback
+  ) {
+    this.enabled = enabled;
+    this.windowSize = Math.max(1, windowSize);
+    this.minCalls = Math.max(1, Math.min(minCalls, this.windowSize));
+    this.failureRateThreshold = failureRateThreshold;
+    this.slowCallMs = slowCallMs;
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    this.openNs = Math.max(1, openMs) * 1_000_000L;
+    this.halfOpenProbes = Math.max(1, halfOpenProbes);
+    this.fallbacks = parseFallbacks(fallback);
+
+    EnumMap<AiModel, Breaker> map = new EnumMap<>(AiModel.class);
+    for (AiModel m : AiModel.values()) {
+      map.put(m, new Breaker(m, this.windowSize));
+    }
+    this.breakers = Map.copyOf(map);
+
+    log.info("ModelCircuitBreaker initialized enabled={} windowSize={} minCalls={} failureRateThreshold={} slowCallMs={} slowCallRateThreshold={} openMs={} halfOpenProbes={} fallbacks={}",
+        enabled, this.windowSize, this.minCalls, failureRateThreshold, slowCallMs, slowCallRateThreshold, openMs,
+        this.halfOpenProbes, this.fallbacks);
+  }
+
+  /**
+   * Format: {@code FROM:TO,FROM:TO} using {@link AiModel} names, e.g. {@code OPENAI_GPT_4_1_NANO:ANTHROPIC_HAIKU}.
+   */
+  private static Map<AiModel, AiModel> parseFallbacks(String raw) {
+    EnumMap<AiModel, AiModel> out = new EnumMap<>(AiModel.class);
+    if (raw == null || raw.isBlank()) return out;
+    for (String pair : raw.split(",")) {
+      String[] parts = pair.split(":");
+      if (parts.length != 2) {
+        log.warn("Ignoring malformed antfarm.models.circuitBreaker.fallback entry={}", pair);
+        continue;
+      }
+      try {
+        AiModel from = AiModel.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+        AiModel to = AiModel.valueOf(parts[1].trim().toUpperCase(Locale.ROOT));
+        if (from != to) out.put(from, to);
+      } catch (IllegalArgumentException e) {
+        log.warn("Ignoring unknown model in antfarm.models.circuitBreaker.fallback entry={}", pair);
+      }
+    }
+    return out;
+  }
+
+  /**
+   * @return true if a call to this model may go ahead (in HALF_OPEN this uses up a probe slot)
+   */
+  public boolean tryAcquire(AiModel model) {
+    if (!enabled || model == null) return true;
+    Breaker b = breakers.get(model);
+    synchronized (b) {
+      return b.tryAcquire(System.nanoTime());
+    }
+  }
+
+  public AiModel fallbackFor(AiModel model) {
+    return model == null ? null : fallbacks.get(model);
+  }
+
+  public void recordFallback(AiModel model) {
+    if (model == null) return;
+    Breaker b = breakers.get(model);
+    synchronized (b) {
+      b.fallbacks++;
+    }
+  }
+
+  public void recordRejected(AiModel model) {
+    if (model == null) return;
+    Breaker b = breakers.get(model);
+    synchronized (b) {
+      b.rejected++;
+    }
+  }
+
+  /**
+   * Open means "stop retrying": runners use this to bail out of their backoff loop early.
+   */
+  public boolean isOpen(AiModel model) {
+    if (!enabled || model == null) return false;
+    Breaker b = breakers.get(model);
+    synchronized (b) {
+      return b.state == State.OPEN;
+    }
+  }
+
+  public void onSuccess(AiModel model, long latencyMs) {
+    record(model, slowCallMs > 0 && latencyMs >= slowCallMs ? Outcome.SLOW : Outcome.OK);
+  }
+
+  public void onFailure(AiModel model, String errorClass) {
+    if (errorClass != null && errorClass.startsWith("Blank")) return;
+    record(model, Outcome.FAIL);
+  }
+
+  private void record(AiModel model, Outcome outcome) {
+    if (!enabled || model == null) return;
+    Breaker b = breakers.get(model);
+    State before;
+    State after;
+    synchronized (b) {
+      before = b.state;
+      b.record(outcome, System.nanoTime());
+      after = b.state;
+    }
+    if (before != after) {
+      log.warn("Model circuit breaker transition model={} from={} to={}", model, before, after);
+    }
+  }
+
+  public List<Stats> stats() {
+    List<Stats> out = new ArrayList<>();
+    for (AiModel m : AiModel.values()) {
+      Breaker b = breakers.get(m);
+      synchronized (b) {
+        out.add(b.snapshot(fallbacks.get(m)));
+      }
+    }
+    return out;
+  }
+
+  /**
+   * @param rejected calls failed fast because the breaker was open and there was no usable fallback
+   * @param fallbacks calls routed to {@code fallbackModel} instead
+   */
+  public record Stats(
+      AiModel model,
+      State state,
+      int windowCalls,
+      double failureRate,
+      double slowCallRate,
+      long timesOpened,
+      long rejected,
+      long fallbacks,
+      AiModel fallbackModel
+  ) {}
+
+  private enum Outcome { OK, SLOW, FAIL }
+
+  /**
+   * Guarded by its own monitor.
+   */
+  private final class Breaker {
+    final AiModel model;
+    final Outcome[] window;
+    int next;
+    int calls;
+    int failures;
+    int slow;
+
+    State state = State.CLOSED;
+    long openedAtNs;
+    int probesIssued;
+    int probeSuccesses;
+    long lastProbeNs;
+
+    long timesOpened;
+    long rejected;
+    long fallbacks;
+
+    Breaker(AiModel model, int size) {
+      this.model = model;
+      this.window = new Outcome[size];
+    }
+
+    boolean tryAcquire(long now) {
+      if (state == State.CLOSED) return true;
+      if (state == State.OPEN) {
+        if (now - openedAtNs < openNs) return false;
+        state = State.HALF_OPEN;
+        probesIssued = 0;
+        probeSuccesses = 0;
+        log.info("Model circuit breaker half-open model={}", model);
+      }
+      // A probe that never reports back (e.g. deferred by the rate limiter) must not wedge HALF_OPEN forever.
+      if (probesIssued >= halfOpenProbes && now - lastProbeNs >= openNs) {
+        probesIssued = probeSuccesses;
+      }
+      if (probesIssued >= halfOpenProbes) return false;
+      probesIssued++;
+      lastProbeNs = now;
+      return true;
+    }
+
+    void record(Outcome outcome, long now) {
+      switch (state) {
+        case OPEN -> {
+          // Stragglers from before the trip; ignore.
+        }
+        case HALF_OPEN -> {
+          if (outcome == Outcome.OK) {
+            if (++probeSuccesses >= halfOpenProbes) {
+              state = State.CLOSED;
+              resetWindow();
+            }
+          } else {
+            open(now);
+          }
+        }
+        case CLOSED -> {
+          Outcome evicted = window[next];
+          if (evicted != null) {
+            calls--;
+            if (evicted == Outcome.FAIL) failures--;
+            if (evicted == Outcome.SLOW) slow--;
+          }
+          window[next] = outcome;
+          next = (next + 1) % window.length;
+          calls++;
+          if (outcome == Outcome.FAIL) failures++;
+          if (outcome == Outcome.SLOW) slow++;
+
+          if (calls >= minCalls
+              && ((double) failures / calls >= failureRateThreshold || (double) slow / calls >= slowCallRateThreshold)) {
+            open(now);
+          }
+        }
+      }
+    }
+
+    private void open(long now) {
+      state = State.OPEN;
+      openedAtNs = now;
+      timesOpened++;
+      resetWindow();
+    }
+
+    private void resetWindow() {
+      Arrays.fill(window, null);
+      next = 0;
+      calls = 0;
+      failures = 0;
+      slow = 0;
+    }
+
+    Stats snapshot(AiModel fallbackModel) {
+      double fr = calls == 0 ? 0 : (double) failures / calls;
+      double sr = calls == 0 ? 0 : (double) slow / calls;
+      return new Stats(model, state, calls, fr, sr, timesOpened, rejected, fallbacks, fallbackModel);
+    }
+  }
+}
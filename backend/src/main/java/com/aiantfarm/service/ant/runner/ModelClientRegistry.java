@@ -0,0 +1,85 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.aiantfarm.domain.AiProvider;
+import com.aiantfarm.service.ant.runner.anthropic.AnthropicHttpClient;
+import com.aiantfarm.service.ant.runner.openai.OpenAiHttpClient;
+import com.anthropic.client.AnthropicClient;
+import com.openai.client.OpenAIClient;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provider SDK clients shared by all model variants.
+ *
+ * Why: each runner used to build its own OpenAIOkHttpClient/AnthropicOkHttpClient, i.e. its own connection pool,
+ * dispatcher and TLS sessions, so four OpenAI models meant four sets of handshakes to the same host. The model is
+ * a request parameter, so one SDK client per provider (and API key) is enough; all of them run on one tuned
+ * {@link ProviderHttpPool} per provider.
+ */
+@Component
+@Slf4j
+public class ModelClientRegistry {
+
+  private final Map<AiProvider, ProviderHttpPool> pools;
+  private final Map<String, OpenAIClient> openAiClients = new ConcurrentHashMap<>();
+  private final Map<String, AnthropicClient> anthropicClients = new ConcurrentHashMap<>();
+
+  public ModelClientRegistry(
+      @Value("${antfarm.models.http.maxIdleConnections:16}") int maxIdleConnections,
+      @Value("${antfarm.models.http.keepAliveMs:300000}") long keepAliveMs,
+      @Value("${antfarm.models.http.http2:true}") boolean http2,
+      @Value("${antfarm.models.http.maxRequests:256}") int maxRequests,
+      @Value("${antfarm.models.http.maxRequestsPerHost:128}") int maxRequestsPerHost,
+      @Value("${antfarm.models.http.connectTimeoutMs:10000}") long connectTimeoutMs,
+      @Value("${antfarm.models.http.readTimeoutMs:600000}") long readTimeoutMs
+  ) {
+    EnumMap<AiProvider, ProviderHttpPool> map = new EnumMap<>(AiProvider.class);
+    for (AiProvider p : AiProvider.values()) {
+      map.put(p, new ProviderHttpPool(p, maxIdleConnections, keepAliveMs, http2, maxRequests, maxRequestsPerHost,
+          connectTimeoutMs, readTimeoutMs));
+    }
+    this.pools = Map.copyOf(map);
+
+    log.info("ModelClientRegistry initialized providers={} maxIdleConnections={} keepAliveMs={} http2={} maxRequests={} maxRequestsPerHost={} connectTimeoutMs={} readTimeoutMs={}",
+        pools.keySet(), maxIdleConnections, keepAliveMs, http2, maxRequests, maxRequestsPerHost, connectTimeoutMs,
+        readTimeoutMs);
+  }
+
+  public OpenAIClient openAi(String apiKey) {
+    return openAiClients.computeIfAbsent(apiKey, k -> OpenAiHttpClient.newClient(pools.get(AiProvider.OPENAI), k));
+  }
+
+  public AnthropicClient anthropic(String apiKey) {
+    return anthropicClients.computeIfAbsent(apiKey,
+        k -> AnthropicHttpClient.newClient(pools.get(AiProvider.ANTHROPIC), k));
+  }
+
+  /**
+   * Connection pool / dispatcher counters per provider. Exposed via the antscheduler actuator endpoint.
+   */
+  public List<ProviderHttpPool.Stats> stats() {
+    List<ProviderHttpPool.Stats> out = new ArrayList<>();
+    for (AiProvider p : AiProvider.values()) {
+      ProviderHttpPool pool = pools.get(p);
+      if (pool != null) out.add(pool.stats());
+    }
+    return out;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    for (ProviderHttpPool pool : pools.values()) {
+      try {
+        pool.close();
+      } catch (Exception ignored) {}
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.aiantfarm.domain.AiModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-operation model routing: which model serves GenerateMessage / GenerateRoomSummary /
+ * GenerateBicameralThought / GenerateCombinedTurn for an ant, by owner tier.
+ *
+ * Why: summaries and thoughts are housekeeping the users never read, yet they went to the ant's own model. An
+ * admin ant on OPENAI_GPT_5_2 paid premium rates for them. Operations without a route keep the ant's model.
+ *
+ * The owner tier is derived from the ant's model: only admins can assign an {@link AiModel#adminOnly()} model, so
+ * those ants are ADMIN and everything else is STANDARD.
+ *
+ * Savings show up per route on antTickSla (see {@link AntRunMetrics.Summary#routeSavedUsd()}).
+ */
+@Component
+@Slf4j
+public class ModelRouter {
+
+  public enum OwnerTier {
+    STANDARD, ADMIN;
+
+    public static OwnerTier of(AiModel antModel) {
+      return antModel != null && antModel.adminOnly() ? ADMIN : STANDARD;
+    }
+  }
+
+  private static final Set<String> OPERATIONS = Set.of(
+      "GenerateMessage", "GenerateRoomSummary", "GenerateBicameralThought", "GenerateCombinedTurn");
+
+  private final boolean enabled;
+  private final Map<OwnerTier, Map<String, AiModel>> routes;
+
+  public ModelRouter(
+      @Value("${antfarm.models.routing.enabled:false}") boolean enabled,
+      @Value("${antfarm.models.routing.standard:}") String standard,
+      @Value("${antfarm.models.routing.admin:GenerateRoomSummary:OPENAI_GPT_4_1_NANO,GenerateBicameralThought:OPENAI_GPT_4_1_NANO}") String admin
+  ) {
+    this.enabled = enabled;
+
+    EnumMap<OwnerTier, Map<String, AiModel>> map = new EnumMap<>(OwnerTier.class);
+    map.put(OwnerTier.STANDARD, parseRoutes("standard", standard));
+    map.put(OwnerTier.ADMIN, parseRoutes("admin", admin));
+    this.routes = map;
+
+    log.info("ModelRouter initialized enabled={} routes={}", enabled, routes);
+  }
+
+  /**
+   * Format: {@code OPERATION:MODEL,OPERATION:MODEL}, e.g. {@code GenerateRoomSummary:OPENAI_GPT_4_1_NANO}.
+   */
+  private static Map<String, AiModel> parseRoutes(String tier, String raw) {
+    Map<String, AiModel> out = new LinkedHashMap<>();
+    if (raw == null || raw.isBlank()) return out;
+    for (String pair : raw.split(",")) {
+      String[] parts = pair.split(":");
+      if (parts.length != 2 || !OPERATIONS.contains(parts[0].trim())) {
+        log.warn("Ignoring malformed antfarm.models.routing.{} entry={}", tier, pair);
+        continue;
+      }
+      try {
+        out.put(parts[0].trim(), AiModel.valueOf(parts[1].trim().toUpperCase(Locale.ROOT)));
+      } catch (IllegalArgumentException e) {
+        log.warn("Ignoring unknown model in antfarm.models.routing.{} entry={}", tier, pair);
+      }
+    }
+    return Map.copyOf(out);
+  }
+
+  /**
+   * @return the model to call for {@code operation}; the ant's own model when routing is off or has no route
+   */
+  public AiModel route(AiModel antModel, String operation) {
+    if (!enabled || antModel == null || operation == null) return antModel;
+    AiModel routed = routes.get(OwnerTier.of(antModel)).get(operation);
+    return routed == null ? antModel : routed;
+  }
+}
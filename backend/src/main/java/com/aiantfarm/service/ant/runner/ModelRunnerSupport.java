@@ -2,16 +2,107 @@ package com.aiantfarm.service.ant.runner;
 
 import com.aiantfarm.domain.AiModel;
 import com.aiantfarm.domain.Ant;
+import com.aiantfarm.service.ant.AntModelContext;
 import org.slf4j.Logger;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Lightweight base for runner implementations.
  */
 public abstract class ModelRunnerSupport {
 
+  private final ModelCircuitBreaker circuitBreaker;
+
+  protected ModelRunnerSupport(ModelCircuitBreaker circuitBreaker) {
+    this.circuitBreaker = circuitBreaker;
+  }
+
+  /**
+   * Blocking bridge for the synchronous runner API: waits for the async call and rethrows its original failure
+   * (not the CompletionException wrapper).
+   */
+  protected static <T> T await(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      Throwable cause = unwrap(e);
+      if (cause instanceof RuntimeException re) throw re;
+      if (cause instanceof Error er) throw er;
+      throw e;
+    }
+  }
+
+  /**
+   * Fits the room context into the runner's input budget. One allocation per call, built before the prompts, so the
+   * system and user prompts agree on what was cut. {@code summary} is the one the call works from and
+   * {@code thoughtJson} is blank for calls that are not steered by a thought.
+   */
+  protected static ContextBudget.Allocation fitContext(ContextBudget budget,
+                                                       AntModelContext context,
+                                                       String persona,
+                                                       String summary,
+                                                       String thoughtJson) {
+    return budget.allocate(
+        context == null ? "" : context.roomScenario(),
+        persona,
+        context == null ? "" : context.roomRoleName(),
+        context == null ? "" : context.roomRolePrompt(),
+        summary,
+        thoughtJson,
+        context == null ? null : context.transcript());
+  }
+
+  public static Throwable unwrap(Throwable t) {
+    Throwable cur = t;
+    while ((cur instanceof CompletionException || cur instanceof ExecutionException) && cur.getCause() != null) {
+      cur = cur.getCause();
+    }
+    return cur;
+  }
+
+  /**
+   * errorClass for metrics and logs: {@link ModelCallTimeoutException#ERROR_CLASS} for our own timeouts and for
+   * socket timeouts anywhere in the cause chain (the SDKs wrap them in their IO exceptions), else the class name.
+   */
+  protected static String errorClass(Throwable e) {
+    for (Throwable cur = e; cur != null; cur = cur.getCause() == cur ? null : cur.getCause()) {
+      if (cur instanceof ModelCallTimeoutException || cur instanceof SocketTimeoutException) {
+        return ModelCallTimeoutException.ERROR_CLASS;
+      }
+    }
+    return e == null ? null : e.getClass().getSimpleName();
+  }
+
+  /**
+   * Timeout for one attempt: the operation's own timeout, capped by what is left of the tick deadline. Zero or
+   * less means the tick is out of time.
+   */
+  protected static long attemptTimeoutMs(long operationTimeoutMs, AntRunMetrics.Collector metrics) {
+    return Math.min(operationTimeoutMs, AntRunMetrics.remainingMs(metrics));
+  }
+
+  /**
+   * Maps the race's TimeoutException to a {@link ModelCallTimeoutException}; other errors pass through.
+   */
+  protected static Throwable asTimeout(Throwable e, String operation, long timeoutMs, long operationTimeoutMs) {
+    if (!(e instanceof TimeoutException)) return e;
+    return new ModelCallTimeoutException(operation, timeoutMs, timeoutMs < operationTimeoutMs);
+  }
+
+  /**
+   * True while the model's breaker is open; retry loops stop early instead of sleeping through backoff.
+   */
+  protected boolean circuitOpen(AiModel model) {
+    return circuitBreaker != null && circuitBreaker.isOpen(model);
+  }
+
   protected void logSuccess(Logger log,
                             Ant ant,
                             String roomId,
@@ -19,6 +110,8 @@ public abstract class ModelRunnerSupport {
                             long latencyMs,
                             Integer inputTokens,
                             Integer outputTokens) {
+    if (circuitBreaker != null) circuitBreaker.onSuccess(model, latencyMs);
+
     // Back-compat log line used by existing tooling
     log.info("antModel ok antId={} roomId={} model={} latencyMs={} inputTokens={} outputTokens={}",
         ant.id(), roomId, model, latencyMs,
@@ -42,15 +135,19 @@ public abstract class ModelRunnerSupport {
                             long latencyMs,
                             Integer inputTokens,
                             Integer outputTokens,
+                            Integer cachedInputTokens,
+                            Integer cacheWriteTokens,
                             int attempt,
                             int maxAttempts) {
+    if (circuitBreaker != null) circuitBreaker.onSuccess(model, latencyMs);
+
     // Back-compat
     log.info("antModel ok antId={} roomId={} model={} latencyMs={} inputTokens={} outputTokens={}",
         ant.id(), roomId, model, latencyMs,
         inputTokens == null ? -1 : inputTokens,
         outputTokens == null ? -1 : outputTokens);
 
-    BigDecimal costUsd = estimateUsd(model, inputTokens, outputTokens);
+    BigDecimal costUsd = estimateUsd(model, inputTokens, outputTokens, cachedInputTokens, cacheWriteTokens);
 
     AntRunMetrics.record(
         operation,
@@ -58,6 +155,7 @@ public abstract class ModelRunnerSupport {
         latencyMs,
         inputTokens,
         outputTokens,
+        cachedInputTokens,
         costUsd,
         attempt,
         maxAttempts,
@@ -65,10 +163,18 @@ public abstract class ModelRunnerSupport {
         null
     );
 
-    log.info("antModelSla ok antId={} roomId={} model={} op={} latencyMs={} inputTokens={} outputTokens={} estUsd={} attempt={} maxAttempts={}",
+    // Served by another model than the ant's own (a ModelRouter route or a breaker fallback): what did that save?
+    if (ant.model() != null && ant.model() != model) {
+      BigDecimal antModelUsd = estimateUsd(ant.model(), inputTokens, outputTokens, cachedInputTokens, cacheWriteTokens);
+      AntRunMetrics.recordRoute(operation, ant.model(), model, antModelUsd.subtract(costUsd));
+    }
+
+    log.info("antModelSla ok antId={} roomId={} model={} op={} latencyMs={} inputTokens={} outputTokens={} cachedInputTokens={} cacheWriteTokens={} estUsd={} attempt={} maxAttempts={}",
         ant.id(), roomId, model, operation, latencyMs,
         inputTokens == null ? -1 : inputTokens,
         outputTokens == null ? -1 : outputTokens,
+        cachedInputTokens == null ? -1 : cachedInputTokens,
+        cacheWriteTokens == null ? -1 : cacheWriteTokens,
         costUsd,
         attempt,
         maxAttempts);
@@ -81,6 +187,8 @@ public abstract class ModelRunnerSupport {
                             long latencyMs,
                             String errorClass,
                             String message) {
+    if (circuitBreaker != null) circuitBreaker.onFailure(model, errorClass);
+
     log.warn("antModel fail antId={} roomId={} model={} latencyMs={} errorClass={} message={}",
         ant.id(), roomId, model, latencyMs, errorClass, message);
 
@@ -98,6 +206,8 @@ public abstract class ModelRunnerSupport {
                             String message,
                             int attempt,
                             int maxAttempts) {
+    if (circuitBreaker != null) circuitBreaker.onFailure(model, errorClass);
+
     log.warn("antModel fail antId={} roomId={} model={} latencyMs={} errorClass={} message={}",
         ant.id(), roomId, model, latencyMs, errorClass, message);
 
@@ -107,6 +217,7 @@ public abstract class ModelRunnerSupport {
         latencyMs,
         -1,
         -1,
+        null,
         BigDecimal.ZERO,
         attempt,
         maxAttempts,
@@ -126,24 +237,53 @@ public abstract class ModelRunnerSupport {
    * Units: $ per 1M tokens.
    */
   protected static BigDecimal estimateUsd(AiModel model, Integer inputTokens, Integer outputTokens) {
+    return estimateUsd(model, inputTokens, outputTokens, null, null);
+  }
+
+  /**
+   * Prompt-caching aware estimate.
+   *
+   * @param inputTokens the whole prompt, cached part included
+   * @param cachedInputTokens part of the prompt read from the provider's prompt cache (discounted)
+   * @param cacheWriteTokens part of the prompt written to the cache (Anthropic bills these above the input rate)
+   */
+  protected static BigDecimal estimateUsd(AiModel model,
+                                          Integer inputTokens,
+                                          Integer outputTokens,
+                                          Integer cachedInputTokens,
+                                          Integer cacheWriteTokens) {
     long inTok = inputTokens == null || inputTokens < 0 ? 0 : inputTokens;
     long outTok = outputTokens == null || outputTokens < 0 ? 0 : outputTokens;
+    long cachedTok = Math.min(inTok, cachedInputTokens == null || cachedInputTokens < 0 ? 0 : cachedInputTokens);
+    long writeTok = Math.min(inTok - cachedTok, cacheWriteTokens == null || cacheWriteTokens < 0 ? 0 : cacheWriteTokens);
+    long uncachedTok = inTok - cachedTok - writeTok;
 
     Pricing p = Pricing.forModel(model);
     if (p == null) return BigDecimal.ZERO;
 
-    BigDecimal in = BigDecimal.valueOf(inTok).multiply(p.usdPer1MInput).divide(BigDecimal.valueOf(1_000_000L), 12, RoundingMode.HALF_UP);
-    BigDecimal out = BigDecimal.valueOf(outTok).multiply(p.usdPer1MOutput).divide(BigDecimal.valueOf(1_000_000L), 12, RoundingMode.HALF_UP);
-    return in.add(out).setScale(8, RoundingMode.HALF_UP);
+    BigDecimal in = perMillion(uncachedTok, p.usdPer1MInput);
+    BigDecimal cached = perMillion(cachedTok, p.usdPer1MCachedInput);
+    BigDecimal write = perMillion(writeTok, p.usdPer1MCacheWrite);
+    BigDecimal out = perMillion(outTok, p.usdPer1MOutput);
+    return in.add(cached).add(write).add(out).setScale(8, RoundingMode.HALF_UP);
+  }
+
+  private static BigDecimal perMillion(long tokens, BigDecimal usdPer1M) {
+    return BigDecimal.valueOf(tokens).multiply(usdPer1M).divide(BigDecimal.valueOf(1_000_000L), 12, RoundingMode.HALF_UP);
   }
 
   protected static class Pricing {
     final BigDecimal usdPer1MInput;
     final BigDecimal usdPer1MOutput;
+    final BigDecimal usdPer1MCachedInput;
+    final BigDecimal usdPer1MCacheWrite;
 
-    Pricing(BigDecimal usdPer1MInput, BigDecimal usdPer1MOutput) {
+    Pricing(BigDecimal usdPer1MInput, BigDecimal usdPer1MOutput, BigDecimal usdPer1MCachedInput,
+            BigDecimal usdPer1MCacheWrite) {
       this.usdPer1MInput = usdPer1MInput;
       this.usdPer1MOutput = usdPer1MOutput;
+      this.usdPer1MCachedInput = usdPer1MCachedInput;
+      this.usdPer1MCacheWrite = usdPer1MCacheWrite;
     }
 
     static Pricing forModel(AiModel model) {
@@ -151,12 +291,19 @@ public abstract class ModelRunnerSupport {
 
       // NOTE: These are placeholders until you choose exact pricing.
       // They are used only to produce an *estimate* in logs.
+      // Cached input follows each provider's discount (OpenAI 50-90% off, no write charge; Anthropic reads at
+      // 10% and writes at 125% of the input rate).
       return switch (model) {
-        case OPENAI_GPT_4_1_NANO -> new Pricing(BigDecimal.valueOf(0.15), BigDecimal.valueOf(0.60));
-        case OPENAI_GPT_4O_MINI -> new Pricing(BigDecimal.valueOf(0.15), BigDecimal.valueOf(0.60));
-        case OPENAI_GPT_5O_MINI -> new Pricing(BigDecimal.valueOf(0.25), BigDecimal.valueOf(2.00));
-        case OPENAI_GPT_5_2 -> new Pricing(BigDecimal.valueOf(0.50), BigDecimal.valueOf(4.00));
-        case ANTHROPIC_HAIKU -> new Pricing(BigDecimal.valueOf(0.25), BigDecimal.valueOf(1.25));
+        case OPENAI_GPT_4_1_NANO -> new Pricing(BigDecimal.valueOf(0.15), BigDecimal.valueOf(0.60),
+            BigDecimal.valueOf(0.0375), BigDecimal.valueOf(0.15));
+        case OPENAI_GPT_4O_MINI -> new Pricing(BigDecimal.valueOf(0.15), BigDecimal.valueOf(0.60),
+            BigDecimal.valueOf(0.075), BigDecimal.valueOf(0.15));
+        case OPENAI_GPT_5O_MINI -> new Pricing(BigDecimal.valueOf(0.25), BigDecimal.valueOf(2.00),
+            BigDecimal.valueOf(0.025), BigDecimal.valueOf(0.25));
+        case OPENAI_GPT_5_2 -> new Pricing(BigDecimal.valueOf(0.50), BigDecimal.valueOf(4.00),
+            BigDecimal.valueOf(0.05), BigDecimal.valueOf(0.50));
+        case ANTHROPIC_HAIKU -> new Pricing(BigDecimal.valueOf(0.25), BigDecimal.valueOf(1.25),
+            BigDecimal.valueOf(0.025), BigDecimal.valueOf(0.3125));
       };
     }
   }
@@ -0,0 +1,20 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.aiantfarm.domain.AiModel;
+
+/**
+ * Thrown instead of calling a model whose circuit breaker is open and which has no usable fallback.
+ */
+public class ModelUnavailableException extends RuntimeException {
+
+  private final AiModel model;
+
+  public ModelUnavailableException(AiModel model) {
+    super("Model circuit open model=" + model);
+    this.model = model;
+  }
+
+  public AiModel model() {
+    return model;
+  }
+}
@@ -43,39 +43,45 @@ public final class PromptBuilder {
     );
   }
 
+  /**
+   * A user prompt split for provider prompt caching.
+   *
+   * {@code stable} is byte-identical from call to call until the room setup or rolling summary changes;
+   * {@code tail} changes every call. Sent in that order after the system prompt, everything up to the end of
+   * {@code stable} is a prefix the provider can serve from its cache.
+   */
+  public record UserPrompt(String stable, String tail) {
+    public String text() {
+      return stable + tail;
+    }
+  }
+
   /**
    * User prompt for message generation.
    *
-   * Includes:
-   * - room scenario
-   * - ant personality (restated)
-   * - assigned room role (name + prompt)
-   * - rolling summary
-   * - last N messages
+   * Stable: room scenario, assigned room role (name + prompt), standing guidance, rolling summary.
+   * Tail: engagement directive, last N messages, forced-reply block, task line.
+   *
+   * The personality is not restated here; it is already in {@link #buildSystemPrompt}.
    */
-  public static String buildUserContext(String roomScenario,
-                                       String antPersonality,
-                                       String roomRoleName,
-                                       String roomRolePrompt,
-                                       String rollingSummary,
-                                       String bicameralThoughtJson,
-                                       List<Message> newestToOldest,
-                                       int maxChars) {
-    return buildUserContext(roomScenario, antPersonality, roomRoleName, roomRolePrompt,
-        rollingSummary, bicameralThoughtJson, newestToOldest, maxChars, false);
+  public static UserPrompt buildUserContext(String roomScenario,
+                                            String roomRoleName,
+                                            String roomRolePrompt,
+                                            String rollingSummary,
+                                            String bicameralThoughtJson,
+                                            String transcript) {
+    return buildUserContext(roomScenario, roomRoleName, roomRolePrompt,
+        rollingSummary, bicameralThoughtJson, transcript, false);
   }
 
-  public static String buildUserContext(String roomScenario,
-                                       String antPersonality,
-                                       String roomRoleName,
-                                       String roomRolePrompt,
-                                       String rollingSummary,
-                                       String bicameralThoughtJson,
-                                       List<Message> newestToOldest,
-                                       int maxChars,
-                                       boolean forceReply) {
+  public static UserPrompt buildUserContext(String roomScenario,
+                                            String roomRoleName,
+                                            String roomRolePrompt,
+                                            String rollingSummary,
+                                            String bicameralThoughtJson,
+                                            String transcript,
+                                            boolean forceReply) {
     String scenario = roomScenario == null ? "" : roomScenario.trim();
-    String personality = antPersonality == null ? "" : antPersonality.trim();
     String roleName = roomRoleName == null ? "" : roomRoleName.trim();
     String rolePrompt = roomRolePrompt == null ? "" : roomRolePrompt.trim();
     String summary = rollingSummary == null ? "" : rollingSummary.trim();
@@ -85,8 +91,6 @@ public final class PromptBuilder {
     if (!rolePrompt.isBlank()) roleBlock += rolePrompt + "\n";
     if (roleBlock.isBlank()) roleBlock = "(no specific role assigned)\n";
 
-    String transcript = messagesToTranscript(newestToOldest, maxChars);
-
     String engagement = buildEngagementDirective(bicameralThoughtJson);
     String engagementDirectiveBlock = (engagement.isBlank())
         ? ""
@@ -100,19 +104,24 @@ public final class PromptBuilder {
       );
     }
 
-    return PromptTemplates.render(
-        "prompt.message.user",
+    String stable = PromptTemplates.render(
+        "prompt.message.user.stable",
         java.util.Map.of(
             "roomScenario", scenario,
-            "antPersonality", personality,
             "roleBlock", roleBlock,
             "roomSummary", summary.isBlank() ? "(no summary yet)" : summary,
+            "noResponseSentinel", NO_RESPONSE_SENTINEL
+        )
+    );
+    String tail = PromptTemplates.render(
+        "prompt.message.user.tail",
+        java.util.Map.of(
             "engagementDirectiveBlock", engagementDirectiveBlock,
             "transcript", transcript,
-            "noResponseSentinel", NO_RESPONSE_SENTINEL,
             "forceReplyBlock", forceReplyBlock
         )
     );
+    return new UserPrompt(stable, tail);
   }
 
   /**
@@ -179,34 +188,47 @@ public final class PromptBuilder {
         + "- Do NOT invent facts.\n";
   }
 
+  /**
+   * System prompt for the room-wide summary every ant in the room reads (see {@link #buildSummarySystemPrompt} for
+   * the per-ant one): neutral, so it must not take on any one ant's voice or priorities.
+   */
+  public static String buildSharedSummarySystemPrompt(Integer maxOutputTokens) {
+    String outputLimitLine = (maxOutputTokens == null)
+        ? "Output limit: keep the summary short (aim <= ~200 words).\n"
+        : ("Output limit: hard cap is " + maxOutputTokens + " output tokens. Keep the summary short and dense.\n");
+
+    return "You maintain a rolling, neutral summary of a chat room that several participants read.\n"
+        + "Write a concise rolled-up summary of what has been said: who said what, open questions, decisions.\n"
+        + outputLimitLine
+        + "Hard rules:\n"
+        + "- Keep it short (<= ~5 paragraphs, <= ~8 sentences).\n"
+        + "- Stay factual; no opinions, advice or perspective of any one participant.\n"
+        + "- Do NOT quote long transcripts.\n"
+        + "- Preserve important facts, decisions, names, and goals.\n"
+        + "- Do NOT invent facts.\n";
+  }
+
   /**
    * User prompt for summary generation.
    *
-   * Includes scenario + personality + role so the summary preserves what matters for this specific ant.
+   * Includes scenario + role so the summary preserves what matters for this specific ant (the personality is in
+   * the summary system prompt). Stable: scenario + role. Tail: existing summary, new messages, task line.
    */
-  public static String buildSummaryUserPrompt(String roomScenario,
-                                             String antPersonality,
-                                             String roomRoleName,
-                                             String roomRolePrompt,
-                                             String existingSummary,
-                                             List<Message> newestToOldest,
-                                             int maxChars) {
+  public static UserPrompt buildSummaryUserPrompt(String roomScenario,
+                                                  String roomRoleName,
+                                                  String roomRolePrompt,
+                                                  String existingSummary,
+                                                  String transcript) {
     String scenario = roomScenario == null ? "" : roomScenario.trim();
-    String personality = antPersonality == null ? "" : antPersonality.trim();
     String roleName = roomRoleName == null ? "" : roomRoleName.trim();
     String rolePrompt = roomRolePrompt == null ? "" : roomRolePrompt.trim();
     String existing = existingSummary == null ? "" : existingSummary.trim();
 
-    String transcript = messagesToTranscript(newestToOldest, maxChars);
-
     StringBuilder sb = new StringBuilder();
 
     if (!scenario.isBlank()) {
       sb.append("ROOM SETTING / SCENARIO:\n").append(scenario).append("\n\n");
     }
-    if (!personality.isBlank()) {
-      sb.append("ANT PERSONALITY (follow strictly):\n").append(personality).append("\n\n");
-    }
     if (!roleName.isBlank() || !rolePrompt.isBlank()) {
       sb.append("ANT ROLE IN THIS ROOM:\n");
       if (!roleName.isBlank()) sb.append("Role name: ").append(roleName).append("\n");
@@ -214,14 +236,15 @@ public final class PromptBuilder {
       sb.append("\n");
     }
 
+    StringBuilder tail = new StringBuilder();
     if (!existing.isBlank()) {
-      sb.append("EXISTING SUMMARY:\n").append(existing).append("\n\n");
+      tail.append("EXISTING SUMMARY:\n").append(existing).append("\n\n");
     }
 
-    sb.append("NEW MESSAGES (latest window):\n").append(transcript).append("\n\n");
-    sb.append("Task: produce an UPDATED rolled-up summary (replace the existing summary with a new one).\n");
+    tail.append("NEW MESSAGES (latest window):\n").append(transcript).append("\n\n");
+    tail.append("Task: produce an UPDATED rolled-up summary (replace the existing summary with a new one).\n");
 
-    return sb.toString();
+    return new UserPrompt(sb.toString(), tail.toString());
   }
 
   public static String buildBicameralThoughtSystemPrompt(String antName, Integer maxOutputTokens) {
@@ -235,13 +258,16 @@ public final class PromptBuilder {
     );
   }
 
-  public static String buildBicameralThoughtUserPrompt(String roomScenario,
-                                                      String antPersonality,
-                                                      String roomRoleName,
-                                                      String roomRolePrompt,
-                                                      String rollingSummary,
-                                                      List<Message> newestToOldest,
-                                                      int maxChars) {
+  /**
+   * Stable: scenario, personality, role, the JSON schema and guidance, rolling summary. Tail: recent messages and
+   * the task line.
+   */
+  public static UserPrompt buildBicameralThoughtUserPrompt(String roomScenario,
+                                                           String antPersonality,
+                                                           String roomRoleName,
+                                                           String roomRolePrompt,
+                                                           String rollingSummary,
+                                                           String transcript) {
     String scenario = roomScenario == null ? "" : roomScenario.trim();
     String personality = antPersonality == null ? "" : antPersonality.trim();
     String roleName = roomRoleName == null ? "" : roomRoleName.trim();
@@ -253,50 +279,146 @@ public final class PromptBuilder {
     if (!rolePrompt.isBlank()) roleBlock += rolePrompt + "\n";
     if (roleBlock.isBlank()) roleBlock = "(no specific role assigned)\n";
 
-    String transcript = messagesToTranscript(newestToOldest, maxChars);
+    String stable = PromptTemplates.render(
+        "prompt.bicameral.user.stable",
+        java.util.Map.of(
+            "roomScenario", scenario,
+            "antPersonality", personality,
+            "roleBlock", roleBlock,
+            "roomSummary", summary.isBlank() ? "(no summary yet)" : summary
+        )
+    );
+    String tail = PromptTemplates.render(
+        "prompt.bicameral.user.tail",
+        java.util.Map.of("transcript", transcript)
+    );
+    return new UserPrompt(stable, tail);
+  }
+
+  /**
+   * System prompt for the combined summary + thought + reply call: the message system prompt's rules plus the
+   * JSON-only output instruction.
+   *
+   * @param replyMaxTokens soft cap for the reply field
+   * @param maxOutputTokens hard cap for the whole JSON object
+   */
+  public static String buildCombinedSystemPrompt(String antName, String personalityPrompt, int replyMaxTokens,
+                                                 int maxOutputTokens) {
+    String pp = personalityPrompt == null ? "" : personalityPrompt.trim();
+    String personalityBlock = pp.isBlank() ? "" : ("Personality (follow):\n" + pp + "\n\n");
+    String outputLimitHint = "Output limit: hard cap of " + maxOutputTokens + " output tokens for the whole JSON. "
+        + "Keep the reply concise (roughly <= " + replyMaxTokens + " tokens).\n";
 
     return PromptTemplates.render(
-        "prompt.bicameral.user",
+        "prompt.combined.system",
+        java.util.Map.of(
+            "antName", antName == null ? "" : antName,
+            "personalityBlock", personalityBlock + outputLimitHint
+        )
+    );
+  }
+
+  /**
+   * User prompt for the combined call. Stable: scenario, role, JSON schema and rules, existing summary.
+   * Tail: recent messages, forced-reply block, task line.
+   */
+  public static UserPrompt buildCombinedUserPrompt(String roomScenario,
+                                                   String roomRoleName,
+                                                   String roomRolePrompt,
+                                                   String existingSummary,
+                                                   String transcript,
+                                                   boolean forceReply) {
+    String scenario = roomScenario == null ? "" : roomScenario.trim();
+    String roleName = roomRoleName == null ? "" : roomRoleName.trim();
+    String rolePrompt = roomRolePrompt == null ? "" : roomRolePrompt.trim();
+    String summary = existingSummary == null ? "" : existingSummary.trim();
+
+    String roleBlock = "";
+    if (!roleName.isBlank()) roleBlock += "Role name: " + roleName + "\n";
+    if (!rolePrompt.isBlank()) roleBlock += rolePrompt + "\n";
+    if (roleBlock.isBlank()) roleBlock = "(no specific role assigned)\n";
+
+    String forceReplyBlock = "";
+    if (forceReply) {
+      forceReplyBlock = PromptTemplates.render(
+          "prompt.message.forceReplyBlock",
+          java.util.Map.of("noResponseSentinel", NO_RESPONSE_SENTINEL)
+      );
+    }
+
+    String stable = PromptTemplates.render(
+        "prompt.combined.user.stable",
         java.util.Map.of(
             "roomScenario", scenario,
-            "antPersonality", personality,
             "roleBlock", roleBlock,
             "roomSummary", summary.isBlank() ? "(no summary yet)" : summary,
-            "transcript", transcript
+            "noResponseSentinel", NO_RESPONSE_SENTINEL
         )
     );
+    String tail = PromptTemplates.render(
+        "prompt.combined.user.tail",
+        java.util.Map.of(
+            "transcript", transcript,
+            "forceReplyBlock", forceReplyBlock
+        )
+    );
+    return new UserPrompt(stable, tail);
   }
 
   /**
-   * Converts message list to a transcript string.
+   * Converts message list to a transcript string of at most {@code maxTokens} (per {@code estimator}).
+   *
+   * Messages are taken newest first until the budget runs out, then written oldest->newest for readability. The
+   * newest message is always kept (cut down if it alone is over budget).
    * If the list is empty or null, returns "(no prior messages)".
    */
-  public static String messagesToTranscript(List<Message> newestToOldest, int maxChars) {
-    if (newestToOldest == null || newestToOldest.isEmpty()) return "(no prior messages)";
+  public static String messagesToTranscript(List<Message> newestToOldest, TokenEstimator estimator, int maxTokens) {
+    return RenderedTranscript.of(newestToOldest).fit(estimator, maxTokens).text();
+  }
 
-    StringBuilder sb = new StringBuilder();
-    int used = 0;
-
-    // Convert to oldest->newest for readability
-    for (int i = newestToOldest.size() - 1; i >= 0; i--) {
-      Message m = newestToOldest.get(i);
-      if (m == null) continue;
-      String who;
-      if (m.authorType() == AuthorType.USER) who = m.authorName() != null ? m.authorName() : "User";
-      else if (m.authorType() == AuthorType.ANT) who = m.authorName() != null ? m.authorName() : "Ant";
-      else who = "System";
-
-      String line = who + ": " + safeOneLine(m.content()) + "\n";
-      if (used + line.length() > maxChars) break;
-      sb.append(line);
-      used += line.length();
-    }
+  /** One transcript line: "Speaker: content on one line\n". */
+  static String transcriptLine(Message m) {
+    return speaker(m) + ": " + safeOneLine(m.content()) + "\n";
+  }
 
-    return sb.toString().isBlank() ? "(no prior messages)" : sb.toString();
+  private static String speaker(Message m) {
+    if (m.authorType() == AuthorType.USER) return m.authorName() != null ? m.authorName() : "User";
+    if (m.authorType() == AuthorType.ANT) return m.authorName() != null ? m.authorName() : "Ant";
+    return "System";
   }
 
-  private static String safeOneLine(String s) {
+  /**
+   * Trims and collapses each run of line breaks to one space. Hand-rolled (no regex) since it runs on every
+   * message of every transcript; returns {@code s} itself when there is nothing to change.
+   */
+  static String safeOneLine(String s) {
     if (s == null) return "";
-    return s.replaceAll("[\\r\\n]+", " ").trim();
+    int start = 0;
+    int end = s.length();
+    while (start < end && s.charAt(start) <= ' ') start++;
+    while (end > start && s.charAt(end - 1) <= ' ') end--;
+
+    int firstBreak = start;
+    while (firstBreak < end && !isLineBreak(s.charAt(firstBreak))) firstBreak++;
+    if (firstBreak == end) return (start == 0 && end == s.length()) ? s : s.substring(start, end);
+
+    StringBuilder sb = new StringBuilder(end - start);
+    sb.append(s, start, firstBreak);
+    boolean inBreak = false;
+    for (int i = firstBreak; i < end; i++) {
+      char c = s.charAt(i);
+      if (isLineBreak(c)) {
+        if (!inBreak) sb.append(' ');
+        inBreak = true;
+      } else {
+        sb.append(c);
+        inBreak = false;
+      }
+    }
+    return sb.toString();
+  }
+
+  private static boolean isLineBreak(char c) {
+    return c == '\r' || c == '\n';
   }
 }
@@ -3,6 +3,9 @@ package com.aiantfarm.service.ant.runner;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -11,13 +14,16 @@ import java.util.Properties;
  *
  * Resource: /prompts.properties
  * Keys: prompt.*
- * Placeholders: {name}
+ * Placeholders: {name} ([a-zA-Z0-9_]+); placeholders without a value render as nothing (optional sections).
+ *
+ * Templates are compiled once at class load into literal / placeholder segments and rendered in a single pass.
+ * Values are copied as-is: a value that itself contains "{name}" (room text, summaries) is not expanded or removed.
  */
 public final class PromptTemplates {
   private PromptTemplates() {}
 
   private static final String RESOURCE = "/prompts.properties";
-  private static final Properties PROPS = load();
+  private static final Map<String, Template> TEMPLATES = compileAll(load());
 
   private static Properties load() {
     try (InputStream is = PromptTemplates.class.getResourceAsStream(RESOURCE)) {
@@ -32,24 +38,88 @@ public final class PromptTemplates {
     }
   }
 
+  private static Map<String, Template> compileAll(Properties props) {
+    Map<String, Template> out = new HashMap<>();
+    for (String key : props.stringPropertyNames()) {
+      out.put(key, Template.compile(props.getProperty(key)));
+    }
+    return Map.copyOf(out);
+  }
+
   public static String render(String key, Map<String, String> values) {
-    String template = PROPS.getProperty(key);
+    Template template = TEMPLATES.get(key);
     if (template == null) {
       throw new IllegalArgumentException("Unknown prompt template key: " + key);
     }
+    return template.render(values);
+  }
+
+  /**
+   * A template split into {@code literals.length == names.length + 1} pieces:
+   * literals[0] {names[0]} literals[1] ... {names[n-1]} literals[n].
+   */
+  static final class Template {
+    private final String[] literals;
+    private final String[] names;
+    private final int literalLength;
+
+    private Template(String[] literals, String[] names) {
+      this.literals = literals;
+      this.names = names;
+      int len = 0;
+      for (String l : literals) len += l.length();
+      this.literalLength = len;
+    }
 
-    String out = template;
-    if (values != null) {
-      for (var entry : values.entrySet()) {
-        String k = entry.getKey();
-        String v = entry.getValue();
-        out = out.replace("{" + k + "}", v == null ? "" : v);
+    static Template compile(String text) {
+      List<String> literals = new ArrayList<>();
+      List<String> names = new ArrayList<>();
+      int literalStart = 0;
+      int i = 0;
+      while (i < text.length()) {
+        if (text.charAt(i) != '{') {
+          i++;
+          continue;
+        }
+        int j = i + 1;
+        while (j < text.length() && isNameChar(text.charAt(j))) j++;
+        if (j > i + 1 && j < text.length() && text.charAt(j) == '}') {
+          literals.add(text.substring(literalStart, i));
+          names.add(text.substring(i + 1, j));
+          literalStart = j + 1;
+          i = j + 1;
+        } else {
+          // Not a placeholder (e.g. the JSON schema's "{\n"): keep it as text.
+          i++;
+        }
       }
+      literals.add(text.substring(literalStart));
+      return new Template(literals.toArray(String[]::new), names.toArray(String[]::new));
     }
 
-    // remove unresolved placeholders (optional sections)
-    out = out.replaceAll("\\{[a-zA-Z0-9_]+}", "");
+    String render(Map<String, String> values) {
+      if (names.length == 0) return literals[0];
+
+      int size = literalLength;
+      if (values != null) {
+        for (String name : names) {
+          String v = values.get(name);
+          if (v != null) size += v.length();
+        }
+      }
 
-    return out;
+      StringBuilder sb = new StringBuilder(size);
+      sb.append(literals[0]);
+      for (int k = 0; k < names.length; k++) {
+        String v = values == null ? null : values.get(names[k]);
+        if (v != null) sb.append(v);
+        sb.append(literals[k + 1]);
+      }
+      return sb.toString();
+    }
+
+    private static boolean isNameChar(char c) {
+      return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
   }
 }
@@ -0,0 +1,270 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.aiantfarm.domain.AiProvider;
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * One tuned OkHttp client (connection pool + dispatcher + TLS session cache) for a provider, shared by every
+ * model variant's SDK client through {@link ModelClientRegistry}.
+ *
+ * Records connection-level metrics with an EventListener: new connections (each one a TCP + TLS handshake),
+ * connect/TLS time, and how often a call reused a pooled connection.
+ */
+public final class ProviderHttpPool {
+
+  /**
+   * Request header carrying the id a {@link #cancellable} send was given. The SDK transports read it to register the
+   * HTTP call under that id and strip it before the request goes out.
+   */
+  public static final String REQUEST_ID_HEADER = "X-Antfarm-Request-Id";
+
+  // In-flight cancellable sends by request id. Entries go away when the SDK future completes.
+  private static final Map<String, Sends> SENDS = new ConcurrentHashMap<>();
+
+  private final AiProvider provider;
+  private final OkHttpClient client;
+
+  private final LongAdder calls = new LongAdder();
+  private final LongAdder cancelledCalls = new LongAdder();
+  private final LongAdder connectsOpened = new LongAdder();
+  private final LongAdder connectFailures = new LongAdder();
+  private final LongAdder http2Connects = new LongAdder();
+  private final LongAdder connectMsTotal = new LongAdder();
+  private final AtomicLong connectMsMax = new AtomicLong();
+  private final LongAdder tlsMsTotal = new LongAdder();
+  private final LongAdder tlsHandshakes = new LongAdder();
+
+  ProviderHttpPool(AiProvider provider,
+                   int maxIdleConnections,
+                   long keepAliveMs,
+                   boolean http2,
+                   int maxRequests,
+                   int maxRequestsPerHost,
+                   long connectTimeoutMs,
+                   long readTimeoutMs) {
+    this.provider = provider;
+
+    // OkHttp's default of 5 requests per host would cap in-flight async model calls per provider at 5.
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(Math.max(1, maxRequests));
+    dispatcher.setMaxRequestsPerHost(Math.max(1, Math.min(maxRequests, maxRequestsPerHost)));
+
+    this.client = new OkHttpClient.Builder()
+        .connectionPool(new ConnectionPool(Math.max(0, maxIdleConnections), Math.max(1, keepAliveMs), TimeUnit.MILLISECONDS))
+        .dispatcher(dispatcher)
+        .protocols(http2 ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1))
+        .connectTimeout(Math.max(0, connectTimeoutMs), TimeUnit.MILLISECONDS)
+        .readTimeout(Math.max(0, readTimeoutMs), TimeUnit.MILLISECONDS)
+        .writeTimeout(Math.max(0, readTimeoutMs), TimeUnit.MILLISECONDS)
+        .eventListenerFactory(call -> new Listener())
+        .build();
+  }
+
+  public AiProvider provider() {
+    return provider;
+  }
+
+  public OkHttpClient client() {
+    return client;
+  }
+
+  /**
+   * Runs {@code send} with a fresh request id and ties the HTTP calls made under it to the returned future, so
+   * cancelling the future (e.g. the loser of a hedged request, or a timed-out call) cancels the calls and frees
+   * their dispatcher slot. Cancelling an SDK future alone only stops waiting for it.
+   *
+   * {@code send} must put the id on the request as {@link #REQUEST_ID_HEADER}. The SDK builds and sends the request
+   * on another thread, so the id, not the calling thread, is what links the two; a call that only starts after
+   * the cancel is cancelled as soon as it is registered.
+   */
+  public static <T> CompletableFuture<T> cancellable(Function<String, CompletableFuture<T>> send) {
+    String requestId = UUID.randomUUID().toString();
+    Sends sends = new Sends();
+    SENDS.put(requestId, sends);
+    CompletableFuture<T> sent;
+    try {
+      sent = send.apply(requestId);
+    } catch (RuntimeException e) {
+      SENDS.remove(requestId);
+      throw e;
+    }
+    if (sent == null) {
+      SENDS.remove(requestId);
+      return null;
+    }
+    sent.whenComplete((value, err) -> SENDS.remove(requestId));
+
+    CompletableFuture<T> out = new CompletableFuture<>();
+    sent.whenComplete((value, err) -> {
+      if (err != null) out.completeExceptionally(err); else out.complete(value);
+    });
+    out.whenComplete((value, err) -> {
+      if (err instanceof CancellationException) sends.cancel();
+    });
+    return out;
+  }
+
+  /**
+   * Called by the SDK transports for every async call they start, with the request's {@link #REQUEST_ID_HEADER}
+   * (null if it has none).
+   */
+  public static void started(String requestId, Call call) {
+    if (requestId == null) return;
+    Sends sends = SENDS.get(requestId);
+    if (sends != null) sends.add(call);
+  }
+
+  /**
+   * HTTP calls of one cancellable send (one, unless the SDK retries). Guarded by its own monitor.
+   */
+  private static final class Sends {
+    private final List<Call> calls = new ArrayList<>(1);
+    private boolean cancelled;
+
+    void add(Call call) {
+      synchronized (this) {
+        if (!cancelled) {
+          calls.add(call);
+          return;
+        }
+      }
+      call.cancel();
+    }
+
+    void cancel() {
+      List<Call> toCancel;
+      synchronized (this) {
+        if (cancelled) return;
+        cancelled = true;
+        toCancel = List.copyOf(calls);
+        calls.clear();
+      }
+      toCancel.forEach(Call::cancel);
+    }
+  }
+
+  void close() {
+    client.dispatcher().executorService().shutdown();
+    client.connectionPool().evictAll();
+  }
+
+  Stats stats() {
+    ConnectionPool pool = client.connectionPool();
+    int total = pool.connectionCount();
+    int idle = pool.idleConnectionCount();
+    long opened = connectsOpened.sum();
+    long tls = tlsHandshakes.sum();
+    long n = calls.sum();
+    return new Stats(
+        provider,
+        total,
+        idle,
+        Math.max(0, total - idle),
+        client.dispatcher().runningCallsCount(),
+        client.dispatcher().queuedCallsCount(),
+        n,
+        cancelledCalls.sum(),
+        opened,
+        http2Connects.sum(),
+        connectFailures.sum(),
+        opened == 0 ? 0 : connectMsTotal.sum() / opened,
+        connectMsMax.get(),
+        tls == 0 ? 0 : tlsMsTotal.sum() / tls,
+        n == 0 ? 0 : Math.max(0, 1d - (double) opened / n)
+    );
+  }
+
+  /**
+   * @param cancelledCalls calls cancelled before they finished (hedge losers, timed-out calls)
+   * @param connectsOpened new connections (TCP + TLS handshakes); everything else reused a pooled connection
+   * @param avgConnectMs TCP connect through TLS handshake, per new connection
+   * @param reuseRatio share of calls that did not open a new connection
+   */
+  public record Stats(
+      AiProvider provider,
+      int connections,
+      int idleConnections,
+      int activeConnections,
+      int runningCalls,
+      int queuedCalls,
+      long calls,
+      long cancelledCalls,
+      long connectsOpened,
+      long http2Connects,
+      long connectFailures,
+      long avgConnectMs,
+      long maxConnectMs,
+      long avgTlsMs,
+      double reuseRatio
+  ) {}
+
+  /**
+   * One instance per call. A call's events arrive one after another, so the start timestamps need no locking.
+   */
+  private final class Listener extends EventListener {
+    private long connectStartNs;
+    private long tlsStartNs;
+
+    @Override
+    public void callStart(Call call) {
+      calls.increment();
+    }
+
+    @Override
+    public void canceled(Call call) {
+      cancelledCalls.increment();
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress address, Proxy proxy) {
+      connectStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+      tlsStartNs = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+      if (tlsStartNs == 0) return;
+      tlsMsTotal.add((System.nanoTime() - tlsStartNs) / 1_000_000);
+      tlsHandshakes.increment();
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol) {
+      long ms = (System.nanoTime() - connectStartNs) / 1_000_000;
+      connectsOpened.increment();
+      connectMsTotal.add(ms);
+      connectMsMax.accumulateAndGet(ms, Math::max);
+      if (protocol == Protocol.HTTP_2) http2Connects.increment();
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress address, Proxy proxy, Protocol protocol, IOException ioe) {
+      connectFailures.increment();
+    }
+  }
+}
@@ -0,0 +1,285 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.aiantfarm.domain.AiProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client-side requests-per-minute / tokens-per-minute limiter, shared by all model runners.
+ *
+ * Why: the runners used to find out about provider limits from 429s and then sleep in RetryUtil. Here every call
+ * reserves capacity first (1 request + estimated tokens) from buckets keyed by provider + model id, and settles
+ * the token reservation with the real usage once the response comes back.
+ *
+ * Waiting (never a sleep; the permit future completes once capacity is there):
+ * - Async calls may wait up to virtualMaxWaitMs, since no thread is held meanwhile.
+ * - Blocking callers wait up to platformMaxWaitMs, or virtualMaxWaitMs on a virtual thread (parking is cheap).
+ * - Anything longer fails with {@link RateLimitDeferredException}; AntScheduler re-dispatches the tick later
+ *   instead of pinning a worker thread.
+ *
+ * A 429 that still gets through pauses the model's buckets for cooldownMs.
+ */
+@Component
+@Slf4j
+public class ProviderRateLimiter {
+
+  private final Map<AiProvider, Limits> limitsByProvider;
+  private final Map<String, Buckets> bucketsByModel = new ConcurrentHashMap<>();
+
+  private final long platformMaxWaitMs;
+  private final long virtualMaxWaitMs;
+  private final long cooldownMs;
+
+  private final LongAdder acquired = new LongAdder();
+  private final LongAdder waited = new LongAdder();
+  private final LongAdder waitedMsTotal = new LongAdder();
+  private final LongAdder deferred = new LongAdder();
+  private final LongAdder providerRateLimited = new LongAdder();
+
+  public ProviderRateLimiter(
+      @Value("${antfarm.models.openai.rateLimit.requestsPerMinute:500}") int openAiRpm,
+      @Value("${antfarm.models.openai.rateLimit.tokensPerMinute:200000}") int openAiTpm,
+      @Value("${antfarm.models.anthropic.rateLimit.requestsPerMinute:50}") int anthropicRpm,
+      @Value("${antfarm.models.anthropic.rateLimit.tokensPerMinute:50000}") int anthropicTpm,
+      @Value("${antfarm.models.rateLimit.platformMaxWaitMs:250}") long platformMaxWaitMs,
+      @Value("${antfarm.models.rateLimit.virtualMaxWaitMs:30000}") long virtualMaxWaitMs,
+      @Value("${antfarm.models.rateLimit.cooldownMs:5000}") long cooldownMs
+  ) {
+    EnumMap<AiProvider, Limits> limits = new EnumMap<>(AiProvider.class);
+    limits.put(AiProvider.OPENAI, new Limits(openAiRpm, openAiTpm));
+    limits.put(AiProvider.ANTHROPIC, new Limits(anthropicRpm, anthropicTpm));
+    this.limitsByProvider = Map.copyOf(limits);
+    this.platformMaxWaitMs = Math.max(0, platformMaxWaitMs);
+    this.virtualMaxWaitMs = Math.max(this.platformMaxWaitMs, virtualMaxWaitMs);
+    this.cooldownMs = Math.max(0, cooldownMs);
+
+    log.info("ProviderRateLimiter initialized limits={} platformMaxWaitMs={} virtualMaxWaitMs={} cooldownMs={}",
+        limitsByProvider, this.platformMaxWaitMs, this.virtualMaxWaitMs, this.cooldownMs);
+  }
+
+  /**
+   * Reserve one request plus {@code estimatedTokens} for this provider/model.
+   *
+   * The capacity is taken immediately; the returned future completes once it is actually available (after at
+   * most {@code maxWaitMs}), or fails with {@link RateLimitDeferredException} if it is further away than that.
+   */
+  public CompletableFuture<Permit> acquireAsync(AiProvider provider, String modelId, int estimatedTokens, long maxWaitMs) {
+    Buckets buckets = bucketsFor(provider, modelId);
+    if (buckets == null) return CompletableFuture.completedFuture(Permit.NONE);
+
+    long tokens = Math.max(0, estimatedTokens);
+
+    long waitMs;
+    synchronized (buckets) {
+      waitMs = buckets.waitMs(tokens);
+      if (waitMs > maxWaitMs) {
+        deferred.increment();
+        return CompletableFuture.failedFuture(new RateLimitDeferredException(provider, modelId, waitMs));
+      }
+      buckets.take(tokens);
+    }
+
+    acquired.increment();
+    Permit permit = new Permit(buckets, tokens);
+    if (waitMs <= 0) {
+      return CompletableFuture.completedFuture(permit);
+    }
+    waited.increment();
+    waitedMsTotal.add(waitMs);
+    return CompletableFuture.supplyAsync(() -> permit, CompletableFuture.delayedExecutor(waitMs, TimeUnit.MILLISECONDS));
+  }
+
+  /**
+   * Non-waiting reservation for optional calls (hedged requests).
+   *
+   * @return null if the capacity is not available right now
+   */
+  public Permit tryAcquire(AiProvider provider, String modelId, int estimatedTokens) {
+    Buckets buckets = bucketsFor(provider, modelId);
+    if (buckets == null) return Permit.NONE;
+
+    long tokens = Math.max(0, estimatedTokens);
+    synchronized (buckets) {
+      if (buckets.waitMs(tokens) > 0) return null;
+      buckets.take(tokens);
+    }
+    acquired.increment();
+    return new Permit(buckets, tokens);
+  }
+
+  /**
+   * Wait budget for a caller that will block on the result (synchronous runner API).
+   */
+  public long blockingMaxWaitMs() {
+    return Thread.currentThread().isVirtual() ? virtualMaxWaitMs : platformMaxWaitMs;
+  }
+
+  /**
+   * Wait budget for async callers, which hold no thread while waiting.
+   */
+  public long asyncMaxWaitMs() {
+    return virtualMaxWaitMs;
+  }
+
+  /**
+   * Provider returned 429 anyway (other consumers of the key, stale limits): stop issuing for a while.
+   */
+  public void onRateLimited(AiProvider provider, String modelId) {
+    providerRateLimited.increment();
+    Buckets buckets = bucketsFor(provider, modelId);
+    if (buckets == null) return;
+    synchronized (buckets) {
+      buckets.pauseFor(cooldownMs);
+    }
+  }
+
+  /**
+   * Rough pre-call token estimate (~4 chars per token) for prompts plus the requested output budget.
+   */
+  public static int estimateTokens(String systemPrompt, String userPrompt, long maxOutputTokens) {
+    long chars = (systemPrompt == null ? 0 : systemPrompt.length()) + (userPrompt == null ? 0 : userPrompt.length());
+    return (int) Math.min(Integer.MAX_VALUE, chars / 4 + Math.max(0, maxOutputTokens));
+  }
+
+  private Buckets bucketsFor(AiProvider provider, String modelId) {
+    Limits limits = provider == null ? null : limitsByProvider.get(provider);
+    if (limits == null || (limits.requestsPerMinute() <= 0 && limits.tokensPerMinute() <= 0)) return null;
+    return bucketsByModel.computeIfAbsent(provider + ":" + modelId, k -> new Buckets(k, limits));
+  }
+
+  public Stats stats() {
+    List<ModelStats> models = new ArrayList<>();
+    for (Buckets b : bucketsByModel.values()) {
+      synchronized (b) {
+        models.add(b.snapshot());
+      }
+    }
+    long n = waited.sum();
+    return new Stats(acquired.sum(), n, n == 0 ? 0 : waitedMsTotal.sum() / n, deferred.sum(),
+        providerRateLimited.sum(), models);
+  }
+
+  /**
+   * @param deferred calls handed back to the scheduler because capacity was too far away
+   * @param providerRateLimited 429s that still reached us
+   */
+  public record Stats(long acquired, long waited, long avgWaitMs, long deferred, long providerRateLimited,
+                      List<ModelStats> models) {}
+
+  public record ModelStats(String key, long availableRequests, long availableTokens) {}
+
+  private record Limits(int requestsPerMinute, int tokensPerMinute) {}
+
+  /**
+   * Token reservation for one call. Settle with real usage so the TPM bucket tracks what was actually spent.
+   */
+  public static final class Permit {
+    static final Permit NONE = new Permit(null, 0);
+
+    private final Buckets buckets;
+    private final long reservedTokens;
+
+    private Permit(Buckets buckets, long reservedTokens) {
+      this.buckets = buckets;
+      this.reservedTokens = reservedTokens;
+    }
+
+    /**
+     * Unknown usage (null) keeps the estimate.
+     */
+    public void settle(Integer inputTokens, Integer outputTokens) {
+      if (buckets == null || inputTokens == null || outputTokens == null) return;
+      long actual = Math.max(0, inputTokens) + Math.max(0, outputTokens);
+      synchronized (buckets) {
+        buckets.adjustTokens(reservedTokens - actual);
+      }
+    }
+  }
+
+  /**
+   * RPM + TPM buckets for one provider/model. Continuous refill; balances may go negative (outstanding
+   * reservations), which is what turns into wait time for the next caller. Guarded by its own monitor.
+   */
+  private static final class Buckets {
+    private static final double NANOS_PER_MINUTE = 60_000_000_000d;
+
+    final String key;
+    final double requestCapacity;
+    final double tokenCapacity;
+    final double requestsPerNs;
+    final double tokensPerNs;
+
+    double requests;
+    double tokens;
+    long lastRefillNs;
+    long pausedUntilNs;
+
+    Buckets(String key, Limits limits) {
+      this.key = key;
+      this.requestCapacity = Math.max(0, limits.requestsPerMinute());
+      this.tokenCapacity = Math.max(0, limits.tokensPerMinute());
+      this.requestsPerNs = requestCapacity / NANOS_PER_MINUTE;
+      this.tokensPerNs = tokenCapacity / NANOS_PER_MINUTE;
+      this.requests = requestCapacity;
+      this.tokens = tokenCapacity;
+      this.lastRefillNs = System.nanoTime();
+    }
+
+    long waitMs(long wantTokens) {
+      long now = refill();
+      double waitNs = Math.max(0, pausedUntilNs - now);
+      if (requestCapacity > 0 && requests < 1) {
+        waitNs = Math.max(waitNs, (1 - requests) / requestsPerNs);
+      }
+      if (tokenCapacity > 0) {
+        // A single call larger than the whole bucket can never fit; only wait for a full bucket.
+        double want = Math.min(wantTokens, tokenCapacity);
+        if (tokens < want) {
+          waitNs = Math.max(waitNs, (want - tokens) / tokensPerNs);
+        }
+      }
+      return (long) Math.ceil(waitNs / 1_000_000d);
+    }
+
+    void take(long wantTokens) {
+      if (requestCapacity > 0) requests -= 1;
+      if (tokenCapacity > 0) tokens -= Math.min(wantTokens, tokenCapacity);
+    }
+
+    void adjustTokens(long delta) {
+      if (tokenCapacity <= 0) return;
+      refill();
+      tokens = Math.min(tokenCapacity, tokens + delta);
+    }
+
+    void pauseFor(long ms) {
+      pausedUntilNs = Math.max(pausedUntilNs, System.nanoTime() + ms * 1_000_000L);
+    }
+
+    private long refill() {
+      long now = System.nanoTime();
+      long elapsed = now - lastRefillNs;
+      if (elapsed > 0) {
+        requests = Math.min(requestCapacity, requests + elapsed * requestsPerNs);
+        tokens = Math.min(tokenCapacity, tokens + elapsed * tokensPerNs);
+        lastRefillNs = now;
+      }
+      return now;
+    }
+
+    ModelStats snapshot() {
+      refill();
+      return new ModelStats(key, (long) Math.floor(requests), (long) Math.floor(tokens));
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.aiantfarm.domain.AiProvider;
+
+/**
+ * Thrown by {@link ProviderRateLimiter} when a call would have to wait longer than the caller is allowed to block.
+ *
+ * Not a failure: the tick is handed back to AntScheduler and re-dispatched after {@link #retryAfterMs()}.
+ */
+public class RateLimitDeferredException extends RuntimeException {
+
+  private final AiProvider provider;
+  private final String modelId;
+  private final long retryAfterMs;
+
+  public RateLimitDeferredException(AiProvider provider, String modelId, long retryAfterMs) {
+    super("Rate limit capacity unavailable provider=" + provider + " model=" + modelId
+        + " retryAfterMs=" + retryAfterMs);
+    this.provider = provider;
+    this.modelId = modelId;
+    this.retryAfterMs = retryAfterMs;
+  }
+
+  public AiProvider provider() {
+    return provider;
+  }
+
+  public String modelId() {
+    return modelId;
+  }
+
+  public long retryAfterMs() {
+    return retryAfterMs;
+  }
+}
@@ -0,0 +1,102 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.aiantfarm.domain.Message;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A room's recent messages rendered once as transcript lines (newest first), with per-line token counts computed
+ * on first use per {@link TokenEstimator}.
+ *
+ * Immutable apart from those memos, so one instance is shared by every ant reading the same room snapshot: each
+ * ant only picks how many of the newest lines fit its budget. The last fit is remembered too, since ants on the
+ * same model with similar prompts usually ask for the same budget.
+ */
+public final class RenderedTranscript {
+
+  static final String NO_MESSAGES = "(no prior messages)";
+
+  private static final RenderedTranscript EMPTY = new RenderedTranscript(new String[0]);
+
+  /**
+   * @param messages how many messages made it in (the newest of them possibly cut down)
+   */
+  public record Fit(String text, int tokens, int messages) {}
+
+  private record LastFit(TokenEstimator estimator, int maxTokens, Fit fit) {}
+
+  private final String[] lines;
+  private final Map<TokenEstimator, int[]> lineTokens = new ConcurrentHashMap<>(4);
+  private volatile LastFit lastFit;
+
+  private RenderedTranscript(String[] lines) {
+    this.lines = lines;
+  }
+
+  public static RenderedTranscript of(List<Message> newestToOldest) {
+    if (newestToOldest == null || newestToOldest.isEmpty()) return EMPTY;
+    String[] rendered = newestToOldest.stream()
+        .filter(m -> m != null)
+        .map(PromptBuilder::transcriptLine)
+        .toArray(String[]::new);
+    return rendered.length == 0 ? EMPTY : new RenderedTranscript(rendered);
+  }
+
+  public int size() {
+    return lines.length;
+  }
+
+  /** Estimated tokens for all lines, without any budget. */
+  public int tokens(TokenEstimator estimator) {
+    int sum = 0;
+    for (int t : lineTokens.computeIfAbsent(estimator, this::countLines)) sum += t;
+    return sum;
+  }
+
+  /**
+   * The newest lines that fit in {@code maxTokens}, oldest->newest. The newest message is always kept (cut down if
+   * it alone is over budget). No messages gives "(no prior messages)".
+   */
+  public Fit fit(TokenEstimator estimator, int maxTokens) {
+    LastFit last = lastFit;
+    if (last != null && last.estimator() == estimator && last.maxTokens() == maxTokens) return last.fit();
+
+    Fit fit = compute(estimator, maxTokens);
+    lastFit = new LastFit(estimator, maxTokens, fit);
+    return fit;
+  }
+
+  private Fit compute(TokenEstimator estimator, int maxTokens) {
+    if (lines.length == 0) return new Fit(NO_MESSAGES, estimator.count(NO_MESSAGES), 0);
+
+    int[] tokens = lineTokens.computeIfAbsent(estimator, this::countLines);
+    int kept = 0;
+    int used = 0;
+    while (kept < lines.length && used + tokens[kept] <= maxTokens) {
+      used += tokens[kept];
+      kept++;
+    }
+
+    if (kept == 0) {
+      if (maxTokens <= 0) return new Fit(NO_MESSAGES, estimator.count(NO_MESSAGES), 0);
+      String cut = estimator.truncate(lines[0], maxTokens) + "\n";
+      return new Fit(cut, estimator.count(cut), 1);
+    }
+
+    StringBuilder sb = new StringBuilder();
+    for (int i = kept - 1; i >= 0; i--) {
+      sb.append(lines[i]);
+    }
+    return new Fit(sb.toString(), used, kept);
+  }
+
+  private int[] countLines(TokenEstimator estimator) {
+    int[] out = new int[lines.length];
+    for (int i = 0; i < lines.length; i++) {
+      out[i] = estimator.count(lines[i]);
+    }
+    return out;
+  }
+}
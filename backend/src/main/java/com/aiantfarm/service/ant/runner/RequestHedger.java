@@ -0,0 +1,385 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.aiantfarm.domain.AiModel;
+import com.aiantfarm.domain.Ant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Opt-in hedged requests for message generation (tail latency).
+ *
+ * Why: p99 tick latency is dominated by the occasional 15-20s provider response. If a GenerateMessage call has
+ * not answered after the model's recent p{percentile} latency, a second identical request is sent; the first
+ * successful response wins and the other one is cancelled.
+ *
+ * The latency window holds the primary request's time to answer; a primary cancelled by a winning hedge or a
+ * timeout counts with the time it had run by then, so slow calls keep pulling the percentile up.
+ *
+ * Caps (both checked before a hedge is sent):
+ * - maxHedgeRate: hedges per GenerateMessage call. Each call earns maxHedgeRate of a hedge, a hedge spends a whole
+ *   one; the balance carries over (capped at one hedge), so quiet models get their share too.
+ * - maxExtraUsdPerHour: estimated cost of the losing requests, per one-hour window. The loser is charged at the
+ *   winner's token usage (same request, input fully billed), so this over-estimates rather than under-.
+ *
+ * Summaries and bicameral thoughts are not hedged: they don't gate a visible reply.
+ */
+@Component
+@Slf4j
+public class RequestHedger {
+
+  public static final String HEDGED_OPERATION = "GenerateMessage";
+
+  private static final long HOUR_NS = TimeUnit.HOURS.toNanos(1);
+
+  private final boolean enabled;
+  private final double percentile;
+  private final long minDelayMs;
+  private final int minSamples;
+  private final double maxHedgeRate;
+  private final BigDecimal maxExtraUsdPerHour;
+
+  private final Map<AiModel, ModelState> states;
+
+  public RequestHedger(
+      @Value("${antfarm.models.hedging.enabled:false}") boolean enabled,
+      @Value("${antfarm.models.hedging.percentile:0.95}") double percentile,
+      @Value("${antfarm.models.hedging.minDelayMs:2000}") long minDelayMs,
+      @Value("${antfarm.models.hedging.windowSize:200}") int windowSize,
+      @Value("${antfarm.models.hedging.minSamples:20}") int minSamples,
+      @Value("${antfarm.models.hedging.maxHedgeRate:0.05}") double maxHedgeRate,
+      @Value("${antfarm.models.hedging.maxExtraUsdPerHour:0.50}") BigDecimal maxExtraUsdPerHour
+  ) {
+    this.enabled = enabled;
+    this.percentile = Math.min(0.999, Math.max(0.5, percentile));
+    this.minDelayMs = Math.max(0, minDelayMs);
+    int size = Math.max(1, windowSize);
+    this.minSamples = Math.max(1, Math.min(minSamples, size));
+    this.maxHedgeRate = Math.max(0, maxHedgeRate);
+    this.maxExtraUsdPerHour = maxExtraUsdPerHour == null ? BigDecimal.ZERO : maxExtraUsdPerHour;
+
+    EnumMap<AiModel, ModelState> map = new EnumMap<>(AiModel.class);
+    for (AiModel m : AiModel.values()) {
+      map.put(m, new ModelState(m, size));
+    }
+    this.states = Map.copyOf(map);
+
+    log.info("RequestHedger initialized enabled={} percentile={} minDelayMs={} windowSize={} minSamples={} maxHedgeRate={} maxExtraUsdPerHour={}",
+        enabled, this.percentile, this.minDelayMs, size, this.minSamples, this.maxHedgeRate, this.maxExtraUsdPerHour);
+  }
+
+  /**
+   * Sends {@code primary} now and, if it is still running after the hedge delay and the caps allow it,
+   * {@code hedge} as well. Operations other than {@link #HEDGED_OPERATION} (or hedging disabled) just run
+   * {@code primary}.
+   *
+   * @param hedge sends the duplicate request, or returns null if it can't go out right now (its rate-limit
+   * permit is taken without waiting, its spend reserved on its own)
+   */
+  public <T> Race<T> race(AiModel model,
+                          String operation,
+                          Supplier<CompletableFuture<T>> primary,
+                          Supplier<CompletableFuture<T>> hedge) {
+    long startNs = System.nanoTime();
+    Race<T> race = new Race<>();
+    CompletableFuture<T> first = primary.get();
+    race.primary = first;
+
+    if (!enabled || model == null || hedge == null || !HEDGED_OPERATION.equals(operation)) {
+      first.whenComplete(race::completeWith);
+      return race;
+    }
+
+    ModelState state = states.get(model);
+    long delayMs;
+    synchronized (state) {
+      state.rollWindows(startNs);
+      state.calls++;
+      state.hedgeCredit = Math.min(1d, state.hedgeCredit + maxHedgeRate);
+      delayMs = state.hedgeDelayMs();
+    }
+
+    first.whenComplete((value, err) -> {
+      // A failed primary says nothing about latency; a cancelled one ran at least this long.
+      if (err == null || isCancellation(err)) observe(state, startNs);
+      race.settle(false, value, err);
+    });
+    if (delayMs < 0) return race;
+
+    race.delayMs = delayMs;
+    CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS).execute(() -> {
+      if (race.result.isDone() || !admit(state) || !race.beginHedge()) return;
+
+      CompletableFuture<T> second;
+      try {
+        second = hedge.get();
+      } catch (RuntimeException e) {
+        second = CompletableFuture.failedFuture(e);
+      }
+      if (second == null) {
+        // Rate limiter or spend budget had no room for it; the hedge never went out.
+        race.abandonHedge();
+        synchronized (state) {
+          state.hedges--;
+          state.hedgeCredit = Math.min(1d, state.hedgeCredit + 1d);
+          state.deferred++;
+        }
+        return;
+      }
+      race.attachHedge(second);
+      second.whenComplete((value, err) -> race.settle(true, value, err));
+    });
+    return race;
+  }
+
+  private boolean admit(ModelState state) {
+    long now = System.nanoTime();
+    synchronized (state) {
+      state.rollWindows(now);
+      if (state.hedgeCredit < 1d) {
+        state.skippedRate++;
+        return false;
+      }
+      if (state.hourExtraUsd.compareTo(maxExtraUsdPerHour) >= 0) {
+        state.skippedBudget++;
+        return false;
+      }
+      state.hedgeCredit -= 1d;
+      state.hedges++;
+      return true;
+    }
+  }
+
+  private static boolean isCancellation(Throwable err) {
+    Throwable e = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+    return e instanceof CancellationException;
+  }
+
+  private void observe(ModelState state, long startNs) {
+    long latencyMs = (System.nanoTime() - startNs) / 1_000_000;
+    synchronized (state) {
+      state.observe(latencyMs);
+    }
+  }
+
+  /**
+   * Charge a finished hedged race to the cost cap and the tick's metrics. Call from the runner callback (the
+   * tick's metrics collector must be bound).
+   *
+   * @param extraUsd estimated cost of the losing request; zero if the race failed
+   */
+  public void settle(Ant ant, String roomId, AiModel model, String operation, Race<?> race, long latencyMs,
+                     BigDecimal extraUsd) {
+    if (model == null || race == null || !race.hedged()) return;
+    BigDecimal extra = extraUsd == null ? BigDecimal.ZERO : extraUsd;
+
+    ModelState state = states.get(model);
+    synchronized (state) {
+      state.rollWindows(System.nanoTime());
+      state.hourExtraUsd = state.hourExtraUsd.add(extra);
+      state.extraUsd = state.extraUsd.add(extra);
+      if (race.hedgeWon()) state.hedgeWins++;
+    }
+
+    AntRunMetrics.recordHedge(operation, model, race.delayMs(), race.hedgeWon(), latencyMs, extra);
+    log.info("antModelHedge antId={} roomId={} model={} op={} delayMs={} hedgeWon={} latencyMs={} extraUsd={}",
+        ant == null ? null : ant.id(), roomId, model, operation, race.delayMs(), race.hedgeWon(), latencyMs, extra);
+  }
+
+  public List<Stats> stats() {
+    List<Stats> out = new ArrayList<>();
+    for (AiModel m : AiModel.values()) {
+      ModelState s = states.get(m);
+      synchronized (s) {
+        out.add(s.snapshot());
+      }
+    }
+    return out;
+  }
+
+  /**
+   * @param hedgeDelayMs current delay before a hedge is sent; -1 while there are fewer than minSamples latencies
+   * @param skippedRate hedges not sent because of maxHedgeRate
+   * @param skippedBudget hedges not sent because of maxExtraUsdPerHour
+   * @param deferred hedges not sent because the rate limiter had no capacity right away, or the spend budget no room
+   */
+  public record Stats(
+      AiModel model,
+      long calls,
+      long hedgeDelayMs,
+      long hedges,
+      long hedgeWins,
+      long skippedRate,
+      long skippedBudget,
+      long deferred,
+      BigDecimal extraUsd
+  ) {}
+
+  /**
+   * Outcome of one (possibly hedged) request. {@link #result()} completes with the first success, or with the
+   * last failure once every request sent has failed.
+   */
+  public static final class Race<T> {
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+    private final AtomicBoolean hedgeWon = new AtomicBoolean();
+    private volatile boolean hedged;
+    private volatile long delayMs = -1;
+
+    private CompletableFuture<T> primary;
+    private CompletableFuture<T> hedge;
+    private int pending = 1;
+
+    public CompletableFuture<T> result() {
+      return result;
+    }
+
+    public boolean hedged() {
+      return hedged;
+    }
+
+    public boolean hedgeWon() {
+      return hedgeWon.get();
+    }
+
+    public long delayMs() {
+      return delayMs;
+    }
+
+    /**
+     * {@link #result()}, failed with a TimeoutException if nothing has won within {@code timeoutMs}. The requests
+     * still in flight are then cancelled (their HTTP calls too, via ProviderHttpPool.cancellable) before the
+     * returned future completes, so a caller reacting to the timeout already has the dispatcher slots back.
+     */
+    public CompletableFuture<T> result(long timeoutMs) {
+      return result.orTimeout(Math.max(1, timeoutMs), TimeUnit.MILLISECONDS).whenComplete((value, err) -> {
+        if (err instanceof TimeoutException) cancelInFlight();
+      });
+    }
+
+    private void cancelInFlight() {
+      CompletableFuture<T> p;
+      CompletableFuture<T> h;
+      synchronized (this) {
+        p = primary;
+        h = hedge;
+      }
+      if (p != null) p.cancel(true);
+      if (h != null) h.cancel(true);
+    }
+
+    private void completeWith(T value, Throwable err) {
+      if (err != null) result.completeExceptionally(err); else result.complete(value);
+    }
+
+    private synchronized boolean beginHedge() {
+      if (result.isDone()) return false;
+      this.hedged = true;
+      pending++;
+      return true;
+    }
+
+    private synchronized void abandonHedge() {
+      this.hedged = false;
+      pending--;
+      if (!result.isDone() && pending == 0 && primary.isDone()) {
+        // The primary failed while the hedge was being set up and deferred to it; surface its error now.
+        primary.whenComplete(this::completeWith);
+      }
+    }
+
+    private void attachHedge(CompletableFuture<T> hedge) {
+      boolean lost;
+      synchronized (this) {
+        this.hedge = hedge;
+        lost = result.isDone() && !hedgeWon.get();
+      }
+      // The race resolved (primary answered, or the call timed out) while the hedge was being sent.
+      if (lost) hedge.cancel(true);
+    }
+
+    private void settle(boolean fromHedge, T value, Throwable err) {
+      CompletableFuture<T> loser;
+      synchronized (this) {
+        pending--;
+        if (result.isDone()) return;
+        if (err != null && pending > 0) return; // the other request may still succeed
+        if (err == null && fromHedge) hedgeWon.set(true);
+        loser = fromHedge ? primary : hedge;
+      }
+      completeWith(value, err);
+      if (loser != null) {
+        // Runners send through ProviderHttpPool.cancellable, so this cancels the HTTP call too.
+        loser.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * Guarded by its own monitor.
+   */
+  private final class ModelState {
+    final AiModel model;
+    final long[] latencies;
+    int next;
+    int samples;
+
+    long calls;
+    long hedges;
+    long hedgeWins;
+    long skippedRate;
+    long skippedBudget;
+    long deferred;
+    BigDecimal extraUsd = BigDecimal.ZERO;
+
+    // Hedges earned and not spent yet (see maxHedgeRate).
+    double hedgeCredit;
+    long hourStartNs = System.nanoTime();
+    BigDecimal hourExtraUsd = BigDecimal.ZERO;
+
+    ModelState(AiModel model, int size) {
+      this.model = model;
+      this.latencies = new long[size];
+    }
+
+    void observe(long latencyMs) {
+      latencies[next] = latencyMs;
+      next = (next + 1) % latencies.length;
+      if (samples < latencies.length) samples++;
+    }
+
+    long hedgeDelayMs() {
+      if (samples < minSamples) return -1;
+      long[] sorted = Arrays.copyOf(latencies, samples);
+      Arrays.sort(sorted);
+      int idx = (int) Math.min(samples - 1, Math.ceil(percentile * samples) - 1);
+      return Math.max(minDelayMs, sorted[Math.max(0, idx)]);
+    }
+
+    void rollWindows(long now) {
+      if (now - hourStartNs >= HOUR_NS) {
+        hourStartNs = now;
+        hourExtraUsd = BigDecimal.ZERO;
+      }
+    }
+
+    Stats snapshot() {
+      return new Stats(model, calls, hedgeDelayMs(), hedges, hedgeWins, skippedRate, skippedBudget, deferred,
+          extraUsd.setScale(8, RoundingMode.HALF_UP));
+    }
+  }
+}
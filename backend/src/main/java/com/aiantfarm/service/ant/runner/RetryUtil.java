@@ -1,6 +1,9 @@
 package com.aiantfarm.service.ant.runner;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Small retry helper (no external deps) for transient model/API errors.
@@ -8,14 +11,18 @@ import java.util.concurrent.ThreadLocalRandom;
 public final class RetryUtil {
   private RetryUtil() {}
 
-  public static void sleepBackoff(int attempt, long baseMs, long maxMs) {
+  /**
+   * Exponential backoff with jitter, as an executor that runs its task once the delay has passed (JDK delayed
+   * executor: one shared timer thread), for async retry loops that must not hold a thread.
+   */
+  public static Executor backoffExecutor(int attempt, long baseMs, long maxMs) {
+    return CompletableFuture.delayedExecutor(backoffDelayMs(attempt, baseMs, maxMs), TimeUnit.MILLISECONDS);
+  }
+
+  static long backoffDelayMs(int attempt, long baseMs, long maxMs) {
     long pow = (long) Math.pow(2, Math.max(0, attempt));
     long delay = Math.min(maxMs, baseMs * pow);
     long jitter = ThreadLocalRandom.current().nextLong(0, Math.max(1, delay / 4));
-    try {
-      Thread.sleep(delay + jitter);
-    } catch (InterruptedException ie) {
-      Thread.currentThread().interrupt();
-    }
+    return delay + jitter;
   }
 }
@@ -0,0 +1,27 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.aiantfarm.domain.SpendLedgerEntry;
+
+/**
+ * A model call was not sent because its estimated cost would take the ant or its owner past the day's spend
+ * budget (see {@link SpendLedger}). Not retried; the rest of the tick is skipped.
+ */
+public class SpendBudgetExceededException extends RuntimeException {
+
+  private final SpendLedgerEntry.Scope scope;
+  private final String scopeId;
+
+  public SpendBudgetExceededException(SpendLedgerEntry.Scope scope, String scopeId, long limitMicroUsd) {
+    super("Spend budget exhausted scope=" + scope + " id=" + scopeId + " limitUsd=" + (limitMicroUsd / 1_000_000d));
+    this.scope = scope;
+    this.scopeId = scopeId;
+  }
+
+  public SpendLedgerEntry.Scope scope() {
+    return scope;
+  }
+
+  public String scopeId() {
+    return scopeId;
+  }
+}
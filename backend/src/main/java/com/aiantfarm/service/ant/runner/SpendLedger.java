@@ -0,0 +1,341 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.aiantfarm.domain.AiModel;
+import com.aiantfarm.domain.Ant;
+import com.aiantfarm.domain.SpendLedgerEntry;
+import com.aiantfarm.repository.SpendLedgerRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Daily (UTC) estimated-spend budget per owner and per ant, covering every model call: replies, summaries,
+ * thoughts, retries and NO_RESPONSE answers alike. maxMessagesPerWeek only counts posted messages.
+ *
+ * Each attempt reserves its worst case before it is sent: {@link ModelRunnerSupport#estimateUsd} on the projected
+ * prompt tokens plus the request's max output tokens. A call that would take the ant or the owner past the limit
+ * fails with {@link SpendBudgetExceededException}. Once the response is back the reservation is settled against
+ * the actual usage (released on failure). Spent + reserved never exceeds a limit, however many ticks run at once.
+ *
+ * Ticks consult {@link #status(Ant)}: past downgradeAtFraction of a budget the ant's calls go to downgradeModel,
+ * and an exhausted budget skips the tick's rooms.
+ *
+ * Persistence: totals are kept in memory and written to Dynamo every flushIntervalMs (only accounts that changed),
+ * plus once on shutdown; an account is read back the first time it is touched. Single-pod caveat (same as
+ * AntScheduler): another pod's spend is not seen until it is reloaded.
+ */
+@Component
+@Slf4j
+public class SpendLedger {
+
+  public enum Status { OK, DOWNGRADE, EXHAUSTED }
+
+  private final boolean enabled;
+  private final long ownerLimitMicroUsd;
+  private final long antLimitMicroUsd;
+  private final double downgradeAtFraction;
+  private final AiModel downgradeModel;
+  private final long flushIntervalMs;
+  private final SpendLedgerRepository repository;
+
+  private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+
+  private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "spend-ledger-flush");
+    t.setDaemon(true);
+    return t;
+  });
+
+  private final LongAdder reservations = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder writes = new LongAdder();
+  private final LongAdder writeFailures = new LongAdder();
+
+  public SpendLedger(
+      @Value("${antfarm.budget.enabled:false}") boolean enabled,
+      @Value("${antfarm.budget.ownerUsdPerDay:2.00}") double ownerUsdPerDay,
+      @Value("${antfarm.budget.antUsdPerDay:0.50}") double antUsdPerDay,
+      @Value("${antfarm.budget.downgradeAtFraction:0.8}") double downgradeAtFraction,
+      @Value("${antfarm.budget.downgradeModel:OPENAI_GPT_4_1_NANO}") String downgradeModel,
+      @Value("${antfarm.budget.flushIntervalMs:60000}") long flushIntervalMs,
+      SpendLedgerRepository repository
+  ) {
+    this.enabled = enabled;
+    this.ownerLimitMicroUsd = toMicroUsd(BigDecimal.valueOf(Math.max(0, ownerUsdPerDay)));
+    this.antLimitMicroUsd = toMicroUsd(BigDecimal.valueOf(Math.max(0, antUsdPerDay)));
+    this.downgradeAtFraction = downgradeAtFraction;
+    this.downgradeModel = parseModel(downgradeModel);
+    this.flushIntervalMs = Math.max(1_000, flushIntervalMs);
+    this.repository = repository;
+
+    log.info("SpendLedger initialized enabled={} ownerUsdPerDay={} antUsdPerDay={} downgradeAtFraction={} downgradeModel={} flushIntervalMs={}",
+        enabled, ownerUsdPerDay, antUsdPerDay, downgradeAtFraction, this.downgradeModel, this.flushIntervalMs);
+  }
+
+  private static AiModel parseModel(String raw) {
+    if (raw == null || raw.isBlank()) return null;
+    try {
+      return AiModel.valueOf(raw.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      log.warn("Unknown antfarm.budget.downgradeModel={} (downgrading disabled)", raw);
+      return null;
+    }
+  }
+
+  @PostConstruct
+  void startFlusher() {
+    if (!enabled) return;
+    flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Where the ant stands against its own and its owner's budget (whichever is further along).
+   */
+  public Status status(Ant ant) {
+    if (!enabled || ant == null) return Status.OK;
+    LocalDate today = today();
+    double used = account(SpendLedgerEntry.Scope.ANT, ant.id()).usedFraction(antLimitMicroUsd, today);
+    Account owner = ownerAccount(ant);
+    if (owner != null) used = Math.max(used, owner.usedFraction(ownerLimitMicroUsd, today));
+
+    if (used >= 1) return Status.EXHAUSTED;
+    if (downgradeAtFraction > 0 && used >= downgradeAtFraction) return Status.DOWNGRADE;
+    return Status.OK;
+  }
+
+  /**
+   * Model the ant's calls should use for this status: downgradeModel while downgrading, else the ant's own.
+   */
+  public AiModel modelFor(Ant ant, Status status) {
+    if (status == Status.DOWNGRADE && downgradeModel != null) return downgradeModel;
+    return ant.model();
+  }
+
+  /**
+   * Reserve the worst-case cost of one attempt on {@code model}.
+   *
+   * @throws SpendBudgetExceededException if it doesn't fit the ant's or the owner's remaining budget
+   */
+  public Reservation reserve(Ant ant, AiModel model, int estimatedInputTokens, long maxOutputTokens) {
+    if (!enabled || ant == null) return Reservation.NONE;
+
+    long micros = toMicroUsd(ModelRunnerSupport.estimateUsd(model, estimatedInputTokens,
+        (int) Math.min(Integer.MAX_VALUE, Math.max(0, maxOutputTokens))));
+    LocalDate today = today();
+
+    Account antAccount = account(SpendLedgerEntry.Scope.ANT, ant.id());
+    if (!antAccount.tryReserve(micros, antLimitMicroUsd, today)) {
+      rejected.increment();
+      throw new SpendBudgetExceededException(SpendLedgerEntry.Scope.ANT, ant.id(), antLimitMicroUsd);
+    }
+    Account ownerAccount = ownerAccount(ant);
+    if (ownerAccount != null && !ownerAccount.tryReserve(micros, ownerLimitMicroUsd, today)) {
+      antAccount.settle(micros, 0, today);
+      rejected.increment();
+      throw new SpendBudgetExceededException(SpendLedgerEntry.Scope.OWNER, ant.ownerUserId(), ownerLimitMicroUsd);
+    }
+
+    reservations.increment();
+    return new Reservation(antAccount, ownerAccount, micros);
+  }
+
+  private Account ownerAccount(Ant ant) {
+    String owner = ant.ownerUserId();
+    return owner == null || owner.isBlank() ? null : account(SpendLedgerEntry.Scope.OWNER, owner);
+  }
+
+  private Account account(SpendLedgerEntry.Scope scope, String id) {
+    String key = scope + "#" + id;
+    Account existing = accounts.get(key);
+    if (existing != null) return existing;
+
+    // Loaded outside computeIfAbsent so a slow Dynamo read doesn't block the map; a racing load is discarded.
+    Account loaded = load(scope, id);
+    Account raced = accounts.putIfAbsent(key, loaded);
+    return raced != null ? raced : loaded;
+  }
+
+  private Account load(SpendLedgerEntry.Scope scope, String id) {
+    LocalDate today = today();
+    long spent = 0;
+    try {
+      spent = repository.find(scope, id, today).map(SpendLedgerEntry::spentMicroUsd).orElse(0L);
+    } catch (Exception e) {
+      log.warn("Spend ledger load failed scope={} id={} (starting from 0)", scope, id, e);
+    }
+    return new Account(scope, id, today, spent);
+  }
+
+  private void flushSafely() {
+    try {
+      flush();
+    } catch (Exception e) {
+      log.warn("Spend ledger flush failed", e);
+    }
+  }
+
+  /**
+   * Write every account whose spend changed since its last write; drop accounts left over from earlier days.
+   */
+  void flush() {
+    LocalDate today = today();
+    for (Map.Entry<String, Account> entry : accounts.entrySet()) {
+      Account a = entry.getValue();
+      SpendLedgerEntry dirty = a.dirtySnapshot();
+      if (dirty != null) {
+        try {
+          repository.save(dirty);
+          a.markPersisted(dirty.day(), dirty.spentMicroUsd());
+          writes.increment();
+        } catch (Exception e) {
+          writeFailures.increment();
+          log.warn("Spend ledger write failed scope={} id={}", a.scope, a.id, e);
+        }
+      }
+      if (a.idleBefore(today)) accounts.remove(entry.getKey(), a);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    flusher.shutdownNow();
+    if (enabled) flushSafely();
+  }
+
+  public Stats stats() {
+    return new Stats(enabled, accounts.size(), reservations.sum(), rejected.sum(), writes.sum(), writeFailures.sum());
+  }
+
+  /**
+   * @param rejected calls not sent because a budget was exhausted
+   * @param writes Dynamo writes (one per changed account per flush)
+   */
+  public record Stats(boolean enabled, int accounts, long reservations, long rejected, long writes, long writeFailures) {}
+
+  private static LocalDate today() {
+    return LocalDate.now(ZoneOffset.UTC);
+  }
+
+  static long toMicroUsd(BigDecimal usd) {
+    if (usd == null || usd.signum() <= 0) return 0;
+    return usd.movePointRight(6).setScale(0, RoundingMode.CEILING).longValue();
+  }
+
+  /**
+   * One attempt's reservation; settle exactly once (further calls are ignored).
+   */
+  public static final class Reservation {
+    static final Reservation NONE = new Reservation(null, null, 0);
+
+    private final Account ant;
+    private final Account owner;
+    private final long reservedMicroUsd;
+    private final AtomicBoolean settled = new AtomicBoolean();
+
+    private Reservation(Account ant, Account owner, long reservedMicroUsd) {
+      this.ant = ant;
+      this.owner = owner;
+      this.reservedMicroUsd = reservedMicroUsd;
+    }
+
+    /**
+     * Replace the reservation with the call's actual estimated cost.
+     */
+    public void settle(BigDecimal actualUsd) {
+      if (ant == null || !settled.compareAndSet(false, true)) return;
+      long actual = toMicroUsd(actualUsd);
+      LocalDate today = today();
+      ant.settle(reservedMicroUsd, actual, today);
+      if (owner != null) owner.settle(reservedMicroUsd, actual, today);
+    }
+
+    /**
+     * Nothing was billed (the call failed or was never sent).
+     */
+    public void release() {
+      settle(BigDecimal.ZERO);
+    }
+  }
+
+  /**
+   * Running totals for one owner or ant. The day rolls over lazily; reservations made the day before are settled
+   * into the new day.
+   */
+  private static final class Account {
+    final SpendLedgerEntry.Scope scope;
+    final String id;
+    private LocalDate day;
+    private long spent;
+    private long reserved;
+    private long persisted;
+    // Previous day's total if it rolled over before the flusher wrote it.
+    private SpendLedgerEntry unsavedPreviousDay;
+
+    Account(SpendLedgerEntry.Scope scope, String id, LocalDate day, long spent) {
+      this.scope = scope;
+      this.id = id;
+      this.day = day;
+      this.spent = spent;
+      this.persisted = spent;
+    }
+
+    synchronized boolean tryReserve(long micros, long limit, LocalDate today) {
+      roll(today);
+      if (limit > 0 && spent + reserved + micros > limit) return false;
+      reserved += micros;
+      return true;
+    }
+
+    synchronized void settle(long reservedMicros, long actualMicros, LocalDate today) {
+      roll(today);
+      reserved = Math.max(0, reserved - reservedMicros);
+      spent += actualMicros;
+    }
+
+    synchronized double usedFraction(long limit, LocalDate today) {
+      roll(today);
+      return limit <= 0 ? 0 : (double) (spent + reserved) / limit;
+    }
+
+    synchronized SpendLedgerEntry dirtySnapshot() {
+      if (unsavedPreviousDay != null) return unsavedPreviousDay;
+      return spent == persisted ? null : new SpendLedgerEntry(scope, id, day, spent, Instant.now());
+    }
+
+    synchronized void markPersisted(LocalDate writtenDay, long writtenSpent) {
+      if (unsavedPreviousDay != null && unsavedPreviousDay.day().equals(writtenDay)) {
+        unsavedPreviousDay = null;
+      } else if (day.equals(writtenDay)) {
+        persisted = writtenSpent;
+      }
+    }
+
+    synchronized boolean idleBefore(LocalDate today) {
+      return day.isBefore(today) && reserved == 0 && spent == persisted && unsavedPreviousDay == null;
+    }
+
+    private void roll(LocalDate today) {
+      if (today.equals(day)) return;
+      if (spent != persisted) unsavedPreviousDay = new SpendLedgerEntry(scope, id, day, spent, Instant.now());
+      day = today;
+      spent = 0;
+      persisted = 0;
+    }
+  }
+}
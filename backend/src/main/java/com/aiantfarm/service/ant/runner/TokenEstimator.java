@@ -0,0 +1,190 @@
+package com.aiantfarm.service.ant.runner;
+
+import com.aiantfarm.domain.AiModel;
+
+/**
+ * In-process token estimate for prompt budgeting.
+ *
+ * Not a real BPE tokenizer (no vocab files, no regex): one pass over the chars that prices each run the way the
+ * provider tokenizers roughly do.
+ * - Latin letters: one token per word up to {@code wordChars} letters, one more per further {@code wordChars}.
+ * - Digits: groups of three.
+ * - A single space before a word rides with the word; longer whitespace runs and line breaks cost one.
+ * - Punctuation: one token per two chars of a run; an apostrophe inside a word ("don't") joins the suffix.
+ * - CJK / kana / hangul: about a token per char ({@code cjkPerMille}).
+ * - Other scripts (Cyrillic, Greek, Arabic, ...): one token per {@code otherScriptChars} letters.
+ * - Outside the BMP (emoji): a token per UTF-16 char.
+ *
+ * Usage numbers from the providers stay the source of truth for cost; this is for fitting prompts into a budget.
+ */
+public final class TokenEstimator {
+
+  /** o200k-style (GPT-4.1 / GPT-5 family). */
+  public static final TokenEstimator OPENAI = new TokenEstimator("openai", 6, 3, 1_000);
+  /** Claude tokenizer: shorter word pieces, more tokens per CJK char. */
+  public static final TokenEstimator ANTHROPIC = new TokenEstimator("anthropic", 5, 2, 1_300);
+
+  private static final int LATIN = 1;
+  private static final int DIGIT = 2;
+  private static final int SPACE = 3;
+  private static final int NEWLINE = 4;
+  private static final int PUNCT = 5;
+  private static final int CJK = 6;
+  private static final int OTHER = 7;
+  private static final int ASTRAL = 8;
+
+  private static final byte[] ASCII_CLASS = new byte[128];
+
+  static {
+    for (int c = 0; c < 128; c++) {
+      int cls;
+      if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) cls = LATIN;
+      else if (c >= '0' && c <= '9') cls = DIGIT;
+      else if (c == '\n' || c == '\r') cls = NEWLINE;
+      else if (c <= ' ') cls = SPACE;
+      else cls = PUNCT;
+      ASCII_CLASS[c] = (byte) cls;
+    }
+  }
+
+  private final String name;
+  private final int wordChars;
+  private final int otherScriptChars;
+  private final int cjkPerMille;
+
+  private TokenEstimator(String name, int wordChars, int otherScriptChars, int cjkPerMille) {
+    this.name = name;
+    this.wordChars = wordChars;
+    this.otherScriptChars = otherScriptChars;
+    this.cjkPerMille = cjkPerMille;
+  }
+
+  public static TokenEstimator forModel(AiModel model) {
+    if (model == null) return OPENAI;
+    return switch (model.provider()) {
+      case OPENAI -> OPENAI;
+      case ANTHROPIC -> ANTHROPIC;
+    };
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public int count(CharSequence s) {
+    if (s == null || s.isEmpty()) return 0;
+    return toTokens(scan(s, 0, s.length(), Long.MAX_VALUE));
+  }
+
+  /**
+   * Longest prefix of {@code s} that fits in {@code maxTokens}, with trailing whitespace dropped.
+   * Returns {@code s} itself when it already fits.
+   */
+  public String truncate(String s, int maxTokens) {
+    if (s == null) return "";
+    if (maxTokens <= 0) return "";
+    long r = scan(s, 0, s.length(), maxTokens * 1000L);
+    if (r >= 0) return s;
+    return s.substring(0, safeCut(s, (int) (-r - 1))).stripTrailing();
+  }
+
+  /**
+   * Longest suffix of {@code s} that fits in {@code maxTokens}, with leading whitespace dropped.
+   * For text where the newest part matters most (rolling summaries). Returns {@code s} itself when it fits.
+   */
+  public String truncateKeepingEnd(String s, int maxTokens) {
+    if (s == null) return "";
+    if (maxTokens <= 0) return "";
+    long limit = maxTokens * 1000L;
+    if (scan(s, 0, s.length(), limit) >= 0) return s;
+
+    // Smallest start index whose suffix fits. Cost is monotone in the start index (up to run-boundary noise,
+    // which only makes the result a few chars shorter than optimal).
+    int lo = 1;
+    int hi = s.length();
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (scan(s, mid, s.length(), limit) >= 0) hi = mid;
+      else lo = mid + 1;
+    }
+    int start = lo;
+    if (start < s.length() && Character.isLowSurrogate(s.charAt(start))) start++;
+    return s.substring(start).stripLeading();
+  }
+
+  /**
+   * Walks {@code s[from, to)} run by run and returns the estimate in thousandths of a token. Stops early once the
+   * total would pass {@code limitMille} and returns {@code -(cut) - 1}, where {@code cut} is the end of the longest
+   * prefix that still fits.
+   */
+  private long scan(CharSequence s, int from, int to, long limitMille) {
+    long total = 0;
+    int i = from;
+    while (i < to) {
+      int cls = classOf(s.charAt(i));
+      int j = i + 1;
+      while (j < to && classOf(s.charAt(j)) == cls) j++;
+      int len = j - i;
+
+      long cost;
+      switch (cls) {
+        case LATIN -> cost = (1L + (len - 1) / wordChars) * 1000;
+        case DIGIT -> cost = ((len + 2L) / 3) * 1000;
+        case SPACE -> cost = (len == 1 && j < to) ? 0 : 1000;
+        case NEWLINE -> cost = 1000;
+        case PUNCT -> {
+          boolean joinsWord = len == 1 && s.charAt(i) == '\'' && i > from && j < to
+              && classOf(s.charAt(i - 1)) == LATIN && classOf(s.charAt(j)) == LATIN;
+          cost = joinsWord ? 0 : ((len + 1L) / 2) * 1000;
+        }
+        case CJK -> cost = (long) len * cjkPerMille;
+        case OTHER -> cost = (1L + (len - 1) / otherScriptChars) * 1000;
+        default -> cost = len * 1000L;
+      }
+
+      if (total + cost > limitMille) {
+        return -(long) partialRunEnd(cls, i, len, limitMille - total) - 1;
+      }
+      total += cost;
+      i = j;
+    }
+    return total;
+  }
+
+  /** How far into a run starting at {@code i} a remaining budget of {@code leftMille} reaches. */
+  private int partialRunEnd(int cls, int i, int len, long leftMille) {
+    long whole = leftMille / 1000;
+    int fit = switch (cls) {
+      case LATIN -> (int) Math.min(len, whole * wordChars);
+      case DIGIT -> (int) Math.min(len, whole * 3);
+      case OTHER -> (int) Math.min(len, whole * otherScriptChars);
+      case CJK -> (int) Math.min(len, leftMille / cjkPerMille);
+      case ASTRAL -> (int) Math.min(len, whole);
+      default -> 0;
+    };
+    return i + fit;
+  }
+
+  private static int toTokens(long mille) {
+    return (int) Math.min(Integer.MAX_VALUE, (mille + 999) / 1000);
+  }
+
+  /** Do not cut between the halves of a surrogate pair. */
+  private static int safeCut(String s, int cut) {
+    if (cut > 0 && cut < s.length() && Character.isHighSurrogate(s.charAt(cut - 1))) return cut - 1;
+    return cut;
+  }
+
+  private static int classOf(char c) {
+    if (c < 128) return ASCII_CLASS[c];
+    if (Character.isSurrogate(c)) return ASTRAL;
+    // Latin-1 supplement + Latin extended: accented letters tokenize close to plain ASCII words.
+    if (c < 0x0250) return Character.isLetter(c) ? LATIN : PUNCT;
+    if ((c >= 0x2E80 && c <= 0x9FFF) || (c >= 0xAC00 && c <= 0xD7AF)
+        || (c >= 0xF900 && c <= 0xFAFF) || (c >= 0xFF00 && c <= 0xFFEF)) {
+      return CJK;
+    }
+    if (Character.isWhitespace(c)) return SPACE;
+    return Character.isLetterOrDigit(c) ? OTHER : PUNCT;
+  }
+}
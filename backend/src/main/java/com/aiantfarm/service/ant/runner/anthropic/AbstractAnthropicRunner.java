@@ -3,23 +3,42 @@ package com.aiantfarm.service.ant.runner.anthropic;
 import com.aiantfarm.domain.Ant;
 import com.aiantfarm.service.ant.AntModelContext;
 import com.aiantfarm.service.ant.IAntModelRunner;
+import com.aiantfarm.service.ant.runner.AntRunMetrics;
+import com.aiantfarm.service.ant.runner.ContextBudget;
+import com.aiantfarm.service.ant.runner.HedgeLeg;
+import com.aiantfarm.service.ant.runner.ModelCallTimeoutException;
+import com.aiantfarm.service.ant.runner.ModelCircuitBreaker;
+import com.aiantfarm.service.ant.runner.ModelClientRegistry;
 import com.aiantfarm.service.ant.runner.ModelRunnerSupport;
 import com.aiantfarm.service.ant.runner.PromptBuilder;
 import com.aiantfarm.service.ant.runner.PromptTranscriptLogger;
+import com.aiantfarm.service.ant.runner.ProviderHttpPool;
+import com.aiantfarm.service.ant.runner.ProviderRateLimiter;
+import com.aiantfarm.service.ant.runner.RequestHedger;
 import com.aiantfarm.service.ant.runner.RetryUtil;
+import com.aiantfarm.service.ant.runner.SpendBudgetExceededException;
+import com.aiantfarm.service.ant.runner.SpendLedger;
 import com.anthropic.client.AnthropicClient;
-import com.anthropic.client.okhttp.AnthropicOkHttpClient;
 import com.anthropic.errors.AnthropicIoException;
 import com.anthropic.errors.AnthropicRetryableException;
 import com.anthropic.errors.InternalServerException;
 import com.anthropic.errors.RateLimitException;
 import com.anthropic.errors.UnauthorizedException;
+import com.anthropic.models.messages.CacheControlEphemeral;
 import com.anthropic.models.messages.ContentBlock;
+import com.anthropic.models.messages.ContentBlockParam;
 import com.anthropic.models.messages.Message;
 import com.anthropic.models.messages.MessageCreateParams;
+import com.anthropic.models.messages.TextBlockParam;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 /**
  * Shared Anthropic runner implementation.
  */
@@ -31,20 +50,49 @@ public abstract class AbstractAnthropicRunner extends ModelRunnerSupport impleme
   private final int maxTokens;
   private final double temperature;
 
+  private final long messageTimeoutMs;
+  private final long summaryTimeoutMs;
+  private final long thoughtTimeoutMs;
+
+  private final int contextTokens;
+
   private final PromptTranscriptLogger transcriptLogger;
+  private final ProviderRateLimiter rateLimiter;
+  private final RequestHedger hedger;
+  private final ModelClientRegistry clients;
+  private final SpendLedger spendLedger;
 
   private AnthropicClient client;
+  private ContextBudget contextBudget;
 
   protected AbstractAnthropicRunner(String apiKey,
                                     double temperature,
                                     int maxTokens,
                                     String modelId,
-                                    PromptTranscriptLogger transcriptLogger) {
+                                    long messageTimeoutMs,
+                                    long summaryTimeoutMs,
+                                    long thoughtTimeoutMs,
+                                    int contextTokens,
+                                    PromptTranscriptLogger transcriptLogger,
+                                    ProviderRateLimiter rateLimiter,
+                                    ModelCircuitBreaker circuitBreaker,
+                                    RequestHedger hedger,
+                                    ModelClientRegistry clients,
+                                    SpendLedger spendLedger) {
+    super(circuitBreaker);
     this.apiKey = apiKey;
     this.temperature = temperature;
     this.maxTokens = maxTokens;
     this.modelId = modelId;
+    this.messageTimeoutMs = messageTimeoutMs;
+    this.summaryTimeoutMs = summaryTimeoutMs;
+    this.thoughtTimeoutMs = thoughtTimeoutMs;
+    this.contextTokens = contextTokens;
     this.transcriptLogger = transcriptLogger;
+    this.rateLimiter = rateLimiter;
+    this.hedger = hedger;
+    this.clients = clients;
+    this.spendLedger = spendLedger;
   }
 
   @PostConstruct
@@ -54,252 +102,409 @@ public abstract class AbstractAnthropicRunner extends ModelRunnerSupport impleme
       throw new IllegalStateException("Anthropic API key missing");
     }
 
-    // We do our own retries/backoff below, so keep SDK retries at 0 to avoid double-retrying.
-    this.client = AnthropicOkHttpClient.builder()
-        .apiKey(apiKey)
-        .maxRetries(0)
-        .build();
+    // We do our own retries/backoff below, so SDK retries stay at 0. The client is shared by all Anthropic models.
+    this.client = clients.anthropic(apiKey);
+    this.contextBudget = ContextBudget.forModel(model(), contextTokens);
   }
 
   @Override
   public String generateMessage(Ant ant, String roomId, AntModelContext context) {
-    long start = System.nanoTime();
+    return await(messageCall(ant, roomId, context, rateLimiter.blockingMaxWaitMs()));
+  }
 
-    String system = PromptBuilder.buildSystemPrompt(ant.name(), ant.personalityPrompt(), maxTokens);
+  @Override
+  public CompletableFuture<String> generateMessageAsync(Ant ant, String roomId, AntModelContext context) {
+    return messageCall(ant, roomId, context, rateLimiter.asyncMaxWaitMs());
+  }
 
-    boolean forceReply = context != null && "__FORCE_REPLY__".equals(context.bicameralThoughtJson());
-    String userCtx = PromptBuilder.buildUserContext(
-        context == null ? "" : context.roomScenario(),
-        context == null ? "" : context.antPersonality(),
-        context == null ? "" : context.roomRoleName(),
-        context == null ? "" : context.roomRolePrompt(),
-        context == null ? "" : context.roomSummary(),
-        forceReply ? "" : (context == null ? "" : context.bicameralThoughtJson()),
-        context == null ? null : context.recentMessages(),
-        8_000,
-        forceReply);
+  @Override
+  public String generateRoomSummary(Ant ant, String roomId, AntModelContext context, String existingSummary) {
+    return await(summaryCall(ant, roomId, context, existingSummary, false, rateLimiter.blockingMaxWaitMs()));
+  }
 
-    MessageCreateParams params = MessageCreateParams.builder()
-        .model(modelId)                 // SDK supports model(String)
-        .maxTokens((long) maxTokens)    // SDK expects Long
-        .temperature(temperature)
-        .system(system)
-        .addUserMessage(userCtx)
-        .build();
+  @Override
+  public CompletableFuture<String> generateRoomSummaryAsync(Ant ant, String roomId, AntModelContext context,
+                                                            String existingSummary) {
+    return summaryCall(ant, roomId, context, existingSummary, false, rateLimiter.asyncMaxWaitMs());
+  }
+
+  @Override
+  public String generateSharedRoomSummary(Ant ant, String roomId, AntModelContext context, String existingSummary) {
+    return await(summaryCall(ant, roomId, context, existingSummary, true, rateLimiter.blockingMaxWaitMs()));
+  }
 
-    int maxAttempts = 3;
-    for (int attempt = 0; attempt < maxAttempts; attempt++) {
-      try {
-        Message resp = client.messages().create(params);
+  @Override
+  public CompletableFuture<String> generateSharedRoomSummaryAsync(Ant ant, String roomId, AntModelContext context,
+                                                                  String existingSummary) {
+    return summaryCall(ant, roomId, context, existingSummary, true, rateLimiter.asyncMaxWaitMs());
+  }
 
-        String out = extractText(resp);
-        long latencyMs = (System.nanoTime() - start) / 1_000_000;
+  @Override
+  public String generateBicameralThought(Ant ant, String roomId, AntModelContext context) {
+    return await(thoughtCall(ant, roomId, context, rateLimiter.blockingMaxWaitMs()));
+  }
 
-        Integer inTok = resp.usage() != null ? (int) resp.usage().inputTokens() : null;
-        Integer outTok = resp.usage() != null ? (int) resp.usage().outputTokens() : null;
+  @Override
+  public CompletableFuture<String> generateBicameralThoughtAsync(Ant ant, String roomId, AntModelContext context) {
+    return thoughtCall(ant, roomId, context, rateLimiter.asyncMaxWaitMs());
+  }
 
-        if (isBlank(out)) {
-          logFailure(log, ant, roomId, model(), latencyMs, "BlankResponse", "Anthropic returned blank content");
-          throw new IllegalStateException("blank response");
-        }
+  @Override
+  public String generateCombinedTurn(Ant ant, String roomId, AntModelContext context, String existingSummary) {
+    return await(combinedCall(ant, roomId, context, existingSummary, rateLimiter.blockingMaxWaitMs()));
+  }
 
-        // --- Prompt/response transcript logging (opt-in) ---
-        if (transcriptLogger != null && transcriptLogger.enabled()) {
-          transcriptLogger.logPromptAndResponse(
-              ant,
-              roomId,
-              model(),
-              "GenerateMessage",
-              system,
-              userCtx,
-              out,
-              latencyMs,
-              inTok,
-              outTok
-          );
-        }
+  @Override
+  public CompletableFuture<String> generateCombinedTurnAsync(Ant ant, String roomId, AntModelContext context,
+                                                             String existingSummary) {
+    return combinedCall(ant, roomId, context, existingSummary, rateLimiter.asyncMaxWaitMs());
+  }
 
-        logSuccess(log, ant, roomId, model(), latencyMs, inTok, outTok);
-        return out.trim();
-
-      } catch (UnauthorizedException e) {
-        long latencyMs = (System.nanoTime() - start) / 1_000_000;
-        logFailure(log, ant, roomId, model(), latencyMs, e.getClass().getSimpleName(), "auth failed");
-        throw e;
-
-      } catch (RateLimitException | AnthropicIoException | AnthropicRetryableException | InternalServerException e) {
-        long latencyMs = (System.nanoTime() - start) / 1_000_000;
-        logFailure(log, ant, roomId, model(), latencyMs, e.getClass().getSimpleName(), e.getMessage());
-        if (attempt == maxAttempts - 1) throw e;
-        RetryUtil.sleepBackoff(attempt, 250, 2_000);
-
-      } catch (Exception e) {
-        long latencyMs = (System.nanoTime() - start) / 1_000_000;
-        logFailure(log, ant, roomId, model(), latencyMs, e.getClass().getSimpleName(), e.getMessage());
-        if (attempt == maxAttempts - 1) throw new RuntimeException(e);
-        RetryUtil.sleepBackoff(attempt, 250, 2_000);
-      }
-    }
+  private CompletableFuture<String> messageCall(Ant ant, String roomId, AntModelContext context, long rateLimitWaitMs) {
+    long start = System.nanoTime();
+
+    boolean forceReply = context != null && "__FORCE_REPLY__".equals(context.bicameralThoughtJson());
+    ContextBudget.Allocation fit = fitContext(contextBudget, context, ant.personalityPrompt(),
+        context == null ? "" : context.roomSummary(),
+        forceReply ? "" : (context == null ? "" : context.bicameralThoughtJson()));
+
+    String system = PromptBuilder.buildSystemPrompt(ant.name(), fit.persona(), maxTokens);
+    PromptBuilder.UserPrompt userCtx = PromptBuilder.buildUserContext(
+        fit.scenario(),
+        fit.roleName(),
+        fit.rolePrompt(),
+        fit.summary(),
+        fit.thoughtJson(),
+        fit.transcript(),
+        forceReply);
+
+    MessageCreateParams params = cachedPromptParams((long) maxTokens, temperature, system, userCtx);
 
-    throw new IllegalStateException("unreachable");
+    return callWithRetry(ant, roomId, start, "GenerateMessage", system, userCtx.text(), params,
+        "BlankResponse", "Anthropic returned blank content", messageTimeoutMs, rateLimitWaitMs);
   }
 
-  @Override
-  public String generateRoomSummary(Ant ant, String roomId, AntModelContext context, String existingSummary) {
+  /**
+   * @param shared room-wide neutral summary: no persona and a system prompt that doesn't name the ant (which only
+   *               picks the model and pays)
+   */
+  private CompletableFuture<String> summaryCall(Ant ant, String roomId, AntModelContext context, String existingSummary,
+                                                boolean shared, long rateLimitWaitMs) {
+    long start = System.nanoTime();
+
+    ContextBudget.Allocation fit = fitContext(contextBudget, context, shared ? "" : ant.personalityPrompt(),
+        existingSummary, "");
+    String system = shared
+        ? PromptBuilder.buildSharedSummarySystemPrompt(600)
+        : PromptBuilder.buildSummarySystemPrompt(ant.name(), fit.persona(), 600);
+    PromptBuilder.UserPrompt user = PromptBuilder.buildSummaryUserPrompt(
+        fit.scenario(),
+        fit.roleName(),
+        fit.rolePrompt(),
+        fit.summary(),
+        fit.transcript());
+
+    MessageCreateParams params = cachedPromptParams(600L, 0.2, system, user);
+
+    return callWithRetry(ant, roomId, start, "GenerateRoomSummary", system, user.text(), params,
+        "BlankSummary", "Anthropic returned blank summary", summaryTimeoutMs, rateLimitWaitMs);
+  }
+
+  private CompletableFuture<String> thoughtCall(Ant ant, String roomId, AntModelContext context, long rateLimitWaitMs) {
     long start = System.nanoTime();
 
-    String system = PromptBuilder.buildSummarySystemPrompt(ant.name(), ant.personalityPrompt(), 600);
-    String user = PromptBuilder.buildSummaryUserPrompt(
-        context == null ? "" : context.roomScenario(),
+    ContextBudget.Allocation fit = fitContext(contextBudget, context,
         context == null ? "" : context.antPersonality(),
-        context == null ? "" : context.roomRoleName(),
-        context == null ? "" : context.roomRolePrompt(),
-        existingSummary,
-        context == null ? null : context.recentMessages(),
-        8_000);
-
-    MessageCreateParams params = MessageCreateParams.builder()
-        .model(modelId)
-        .maxTokens(600L)
-        .temperature(0.2)
-        .system(system)
-        .addUserMessage(user)
-        .build();
+        context == null ? "" : context.roomSummary(),
+        "");
+    String system = PromptBuilder.buildBicameralThoughtSystemPrompt(ant.name(), 500);
+    PromptBuilder.UserPrompt user = PromptBuilder.buildBicameralThoughtUserPrompt(
+        fit.scenario(),
+        fit.persona(),
+        fit.roleName(),
+        fit.rolePrompt(),
+        fit.summary(),
+        fit.transcript());
+
+    MessageCreateParams params = cachedPromptParams(500L, 0.2, system, user);
+
+    return callWithRetry(ant, roomId, start, "GenerateBicameralThought", system, user.text(), params,
+        "BlankThought", "Anthropic returned blank thought JSON", thoughtTimeoutMs, rateLimitWaitMs);
+  }
+
+  private CompletableFuture<String> combinedCall(Ant ant, String roomId, AntModelContext context, String existingSummary,
+                                                 long rateLimitWaitMs) {
+    long start = System.nanoTime();
 
-    int maxAttempts = 3;
-    for (int attempt = 0; attempt < maxAttempts; attempt++) {
-      try {
-        Message resp = client.messages().create(params);
-        String out = extractText(resp);
-        long latencyMs = (System.nanoTime() - start) / 1_000_000;
+    // Output budget is what the three separate calls would have had (summary 600 + thought 500 + message).
+    int combinedMax = 600 + 500 + maxTokens;
 
-        Integer inTok = resp.usage() != null ? (int) resp.usage().inputTokens() : null;
-        Integer outTok = resp.usage() != null ? (int) resp.usage().outputTokens() : null;
+    boolean forceReply = context != null && "__FORCE_REPLY__".equals(context.bicameralThoughtJson());
+    ContextBudget.Allocation fit = fitContext(contextBudget, context, ant.personalityPrompt(), existingSummary, "");
+    String system = PromptBuilder.buildCombinedSystemPrompt(ant.name(), fit.persona(), maxTokens, combinedMax);
+    PromptBuilder.UserPrompt user = PromptBuilder.buildCombinedUserPrompt(
+        fit.scenario(),
+        fit.roleName(),
+        fit.rolePrompt(),
+        fit.summary(),
+        fit.transcript(),
+        forceReply);
 
-        if (isBlank(out)) {
-          logFailure(log, ant, roomId, model(), latencyMs, "BlankSummary", "Anthropic returned blank summary");
-          throw new IllegalStateException("blank summary");
-        }
+    MessageCreateParams params = cachedPromptParams((long) combinedMax, temperature, system, user);
 
-        // --- Prompt/response transcript logging (opt-in) ---
-        if (transcriptLogger != null && transcriptLogger.enabled()) {
-          transcriptLogger.logPromptAndResponse(
-              ant,
-              roomId,
-              model(),
-              "GenerateRoomSummary",
-              system,
-              user,
-              out,
-              latencyMs,
-              inTok,
-              outTok
-          );
-        }
+    // Roughly a summary call's worth of output plus a message's.
+    long timeoutMs = Math.max(summaryTimeoutMs, thoughtTimeoutMs) + messageTimeoutMs;
+    return callWithRetry(ant, roomId, start, "GenerateCombinedTurn", system, user.text(), params,
+        "BlankCombinedTurn", "Anthropic returned blank combined turn", timeoutMs, rateLimitWaitMs);
+  }
 
-        logSuccess(log, ant, roomId, model(), latencyMs, inTok, outTok);
-        return out.trim();
-
-      } catch (UnauthorizedException e) {
-        long latencyMs = (System.nanoTime() - start) / 1_000_000;
-        logFailure(log, ant, roomId, model(), latencyMs, e.getClass().getSimpleName(), "auth failed");
-        throw e;
-
-      } catch (RateLimitException | AnthropicIoException | AnthropicRetryableException | InternalServerException e) {
-        long latencyMs = (System.nanoTime() - start) / 1_000_000;
-        logFailure(log, ant, roomId, model(), latencyMs, e.getClass().getSimpleName(), e.getMessage());
-        if (attempt == maxAttempts - 1) throw e;
-        RetryUtil.sleepBackoff(attempt, 250, 2_000);
-
-      } catch (Exception e) {
-        long latencyMs = (System.nanoTime() - start) / 1_000_000;
-        logFailure(log, ant, roomId, model(), latencyMs, e.getClass().getSimpleName(), e.getMessage());
-        if (attempt == maxAttempts - 1) throw new RuntimeException(e);
-        RetryUtil.sleepBackoff(attempt, 250, 2_000);
-      }
+  /**
+   * Prompt caching: cache_control breakpoints after the system prompt and after the stable part of the user prompt,
+   * so repeat calls for the same ant and room read that prefix from Anthropic's cache. A prefix shorter than the
+   * model's minimum cacheable length is simply not cached.
+   */
+  private MessageCreateParams cachedPromptParams(long maxTokens,
+                                                 double temperature,
+                                                 String system,
+                                                 PromptBuilder.UserPrompt user) {
+    CacheControlEphemeral cache = CacheControlEphemeral.builder().build();
+
+    List<ContentBlockParam> userBlocks = new ArrayList<>(2);
+    // Empty text blocks are rejected by the API.
+    if (!isBlank(user.stable())) {
+      userBlocks.add(ContentBlockParam.ofText(TextBlockParam.builder().text(user.stable()).cacheControl(cache).build()));
     }
+    userBlocks.add(ContentBlockParam.ofText(TextBlockParam.builder().text(user.tail()).build()));
 
-    throw new IllegalStateException("unreachable");
+    return MessageCreateParams.builder()
+        .model(modelId)                 // SDK supports model(String)
+        .maxTokens(maxTokens)
+        .temperature(temperature)
+        .systemOfTextBlockParams(List.of(TextBlockParam.builder().text(system).cacheControl(cache).build()))
+        .addUserMessageOfBlockParams(userBlocks)
+        .build();
   }
 
-  @Override
-  public String generateBicameralThought(Ant ant, String roomId, AntModelContext context) {
-    long start = System.nanoTime();
+  /**
+   * Non-blocking retry loop: each attempt is an async SDK call, and backoff waits are scheduled
+   * (RetryUtil.backoffExecutor) instead of slept, so no thread is held between attempts.
+   *
+   * Each attempt gets {@code timeoutMs}, capped by what is left of the tick deadline; no retry is started once
+   * the tick is out of time.
+   */
+  private CompletableFuture<String> callWithRetry(Ant ant,
+                                                  String roomId,
+                                                  long startNano,
+                                                  String operation,
+                                                  String systemPrompt,
+                                                  String userPrompt,
+                                                  MessageCreateParams params,
+                                                  String blankCode,
+                                                  String blankMsg,
+                                                  long timeoutMs,
+                                                  long rateLimitWaitMs) {
+    Call call = new Call(
+        ant,
+        roomId,
+        startNano,
+        operation,
+        systemPrompt,
+        userPrompt,
+        params,
+        blankCode,
+        blankMsg,
+        3,
+        timeoutMs,
+        ProviderRateLimiter.estimateTokens(systemPrompt, userPrompt, params.maxTokens()),
+        params.maxTokens(),
+        rateLimitWaitMs,
+        AntRunMetrics.current()
+    );
+    return attempt(call, 0);
+  }
 
-    String system = PromptBuilder.buildBicameralThoughtSystemPrompt(ant.name(), 500);
-    String user = PromptBuilder.buildBicameralThoughtUserPrompt(
-        context == null ? "" : context.roomScenario(),
-        context == null ? "" : context.antPersonality(),
-        context == null ? "" : context.roomRoleName(),
-        context == null ? "" : context.roomRolePrompt(),
-        context == null ? "" : context.roomSummary(),
-        context == null ? null : context.recentMessages(),
-        8_000);
-
-    MessageCreateParams params = MessageCreateParams.builder()
-        .model(modelId)
-        .maxTokens(500L)
-        .temperature(0.2)
-        .system(system)
-        .addUserMessage(user)
-        .build();
+  private CompletableFuture<String> attempt(Call call, int attempt) {
+    // Worst-case cost of this attempt against the ant's/owner's spend budget; an exhausted budget is not retried.
+    SpendLedger.Reservation spend;
+    try {
+      spend = spendLedger.reserve(call.ant(), model(), call.estimatedTokens() - (int) call.maxOutputTokens(),
+          call.maxOutputTokens());
+    } catch (SpendBudgetExceededException e) {
+      return CompletableFuture.failedFuture(e);
+    }
 
-    int maxAttempts = 3;
-    for (int attempt = 0; attempt < maxAttempts; attempt++) {
-      try {
-        Message resp = client.messages().create(params);
+    // A rate-limit deferral fails the acquire future and is not a failed attempt; it reaches the caller as is.
+    return rateLimiter.acquireAsync(model().provider(), modelId, call.estimatedTokens(), call.rateLimitWaitMs())
+        .whenComplete((permit, err) -> {
+          if (err != null) spend.release();
+        })
+        .thenCompose(permit -> {
+          long timeoutMs = attemptTimeoutMs(call.timeoutMs(), call.metrics());
+          if (timeoutMs <= 0) {
+            // Tick deadline already spent: hand the reservations back instead of sending.
+            permit.settle(0, 0);
+            spend.release();
+            return CompletableFuture.failedFuture(new ModelCallTimeoutException(call.operation(), 0, true));
+          }
+          HedgeLeg hedgeLeg = new HedgeLeg();
+          RequestHedger.Race<Message> race = hedger.race(model(), call.operation(),
+              () -> send(call.params()),
+              () -> sendHedge(call, call.params(), hedgeLeg));
+          return race.result(timeoutMs)
+              .handle((resp, err) -> onResponse(call, attempt, permit, hedgeLeg, spend, race, timeoutMs, resp, err))
+              .thenCompose(Function.identity());
+        });
+  }
+
+  /**
+   * One HTTP request for {@code params}; cancelling the returned future cancels the request (each call gets its
+   * own request id, so the two legs of a hedge are cancelled separately).
+   */
+  private CompletableFuture<Message> send(MessageCreateParams params) {
+    return ProviderHttpPool.cancellable(requestId -> client.async().messages().create(
+        params.toBuilder().putAdditionalHeader(ProviderHttpPool.REQUEST_ID_HEADER, requestId).build()));
+  }
 
-        String out = extractText(resp);
-        long latencyMs = (System.nanoTime() - start) / 1_000_000;
+  /**
+   * The hedged copy of {@code params}, or null if the rate limiter has no room for it right now or its cost doesn't
+   * fit the spend budget. It reserves its own worst case, like any attempt.
+   */
+  private CompletableFuture<Message> sendHedge(Call call, MessageCreateParams params, HedgeLeg hedgeLeg) {
+    SpendLedger.Reservation spend;
+    try {
+      spend = spendLedger.reserve(call.ant(), model(), call.estimatedTokens() - (int) call.maxOutputTokens(),
+          call.maxOutputTokens());
+    } catch (SpendBudgetExceededException e) {
+      return null;
+    }
+    ProviderRateLimiter.Permit permit = rateLimiter.tryAcquire(model().provider(), modelId, call.estimatedTokens());
+    if (permit == null) {
+      spend.release();
+      return null;
+    }
+    hedgeLeg.sent(permit, spend);
+    return send(params);
+  }
 
-        Integer inTok = resp.usage() != null ? (int) resp.usage().inputTokens() : null;
-        Integer outTok = resp.usage() != null ? (int) resp.usage().outputTokens() : null;
+  private CompletableFuture<String> onResponse(Call call,
+                                               int attempt,
+                                               ProviderRateLimiter.Permit permit,
+                                               HedgeLeg hedgeLeg,
+                                               SpendLedger.Reservation spend,
+                                               RequestHedger.Race<Message> race,
+                                               long timeoutMs,
+                                               Message resp,
+                                               Throwable err) {
+    // SDK callbacks run on HTTP client threads; re-attach the tick's metrics collector.
+    AntRunMetrics.Collector previous = AntRunMetrics.bind(call.metrics());
+    try {
+      Ant ant = call.ant();
+      String roomId = call.roomId();
+      String operation = call.operation();
+      int maxAttempts = call.maxAttempts();
+      long latencyMs = (System.nanoTime() - call.startNano()) / 1_000_000;
+
+      if (err != null) {
+        spend.release();
+        hedgeLeg.settle(null, null, null);
+        hedger.settle(ant, roomId, model(), operation, race, latencyMs, BigDecimal.ZERO);
+        Throwable e = asTimeout(unwrap(err), operation, timeoutMs, call.timeoutMs());
+
+        if (e instanceof UnauthorizedException) {
+          logFailure(log, ant, roomId, model(), operation, latencyMs, e.getClass().getSimpleName(), "auth failed", attempt + 1, maxAttempts);
+          return CompletableFuture.failedFuture(e);
+        }
 
-        if (isBlank(out)) {
-          logFailure(log, ant, roomId, model(), latencyMs, "BlankThought", "Anthropic returned blank thought JSON");
-          throw new IllegalStateException("blank thought");
+        if (e instanceof RateLimitException) {
+          rateLimiter.onRateLimited(model().provider(), modelId);
+        }
+        logFailure(log, ant, roomId, model(), operation, latencyMs, errorClass(e), e.getMessage(), attempt + 1, maxAttempts);
+        if (attempt == maxAttempts - 1 || circuitOpen(model()) || AntRunMetrics.remainingMs(call.metrics()) <= 0) {
+          boolean sdkRetryable = e instanceof RateLimitException || e instanceof AnthropicIoException
+              || e instanceof AnthropicRetryableException || e instanceof InternalServerException;
+          return CompletableFuture.failedFuture(sdkRetryable || e instanceof ModelCallTimeoutException ? e : new RuntimeException(e));
         }
+        return retryAfterBackoff(call, attempt);
+      }
 
-        if (transcriptLogger != null && transcriptLogger.enabled()) {
-          transcriptLogger.logPromptAndResponse(
-              ant,
-              roomId,
-              model(),
-              "GenerateBicameralThought",
-              system,
-              user,
-              out,
-              latencyMs,
-              inTok,
-              outTok
-          );
+      String out = extractText(resp);
+
+      Integer inTok = null;
+      Integer outTok = null;
+      Integer cachedTok = null;
+      Integer cacheWriteTok = null;
+      if (resp.usage() != null) {
+        cachedTok = resp.usage().cacheReadInputTokens().map(Long::intValue).orElse(0);
+        cacheWriteTok = resp.usage().cacheCreationInputTokens().map(Long::intValue).orElse(0);
+        // Anthropic's input_tokens excludes cache reads/writes; count the whole prompt, as OpenAI does.
+        inTok = (int) resp.usage().inputTokens() + cachedTok + cacheWriteTok;
+        outTok = (int) resp.usage().outputTokens();
+      }
+      permit.settle(inTok, outTok);
+      BigDecimal usd = estimateUsd(model(), inTok, outTok, cachedTok, cacheWriteTok);
+      spend.settle(usd);
+      // A hedged race paid for two requests: the loser is charged at the winner's usage, as the hedger counts it.
+      hedgeLeg.settle(inTok, outTok, usd);
+      hedger.settle(ant, roomId, model(), operation, race, latencyMs, usd);
+
+      if (isBlank(out)) {
+        logFailure(log, ant, roomId, model(), operation, latencyMs, call.blankCode(), call.blankMsg(), attempt + 1, maxAttempts);
+        if (attempt == maxAttempts - 1 || circuitOpen(model())) {
+          return CompletableFuture.failedFuture(new RuntimeException(new IllegalStateException("blank response")));
         }
+        return retryAfterBackoff(call, attempt);
+      }
 
-        logSuccess(log, ant, roomId, model(), latencyMs, inTok, outTok);
-        return out.trim();
-
-      } catch (UnauthorizedException e) {
-        long latencyMs = (System.nanoTime() - start) / 1_000_000;
-        logFailure(log, ant, roomId, model(), latencyMs, e.getClass().getSimpleName(), "auth failed");
-        throw e;
-
-      } catch (RateLimitException | AnthropicIoException | AnthropicRetryableException | InternalServerException e) {
-        long latencyMs = (System.nanoTime() - start) / 1_000_000;
-        logFailure(log, ant, roomId, model(), latencyMs, e.getClass().getSimpleName(), e.getMessage());
-        if (attempt == maxAttempts - 1) throw e;
-        RetryUtil.sleepBackoff(attempt, 250, 2_000);
-
-      } catch (Exception e) {
-        long latencyMs = (System.nanoTime() - start) / 1_000_000;
-        logFailure(log, ant, roomId, model(), latencyMs, e.getClass().getSimpleName(), e.getMessage());
-        if (attempt == maxAttempts - 1) throw new RuntimeException(e);
-        RetryUtil.sleepBackoff(attempt, 250, 2_000);
+      // --- Prompt/response transcript logging (opt-in) ---
+      if (transcriptLogger != null && transcriptLogger.enabled()) {
+        transcriptLogger.logPromptAndResponse(
+            ant,
+            roomId,
+            model(),
+            operation,
+            call.systemPrompt(),
+            call.userPrompt(),
+            out,
+            latencyMs,
+            inTok,
+            outTok
+        );
       }
+
+      logSuccess(log, ant, roomId, model(), operation, latencyMs, inTok, outTok, cachedTok, cacheWriteTok, attempt + 1,
+          maxAttempts);
+      return CompletableFuture.completedFuture(out.trim());
+    } finally {
+      AntRunMetrics.restore(previous);
     }
+  }
 
-    throw new IllegalStateException("unreachable");
+  private CompletableFuture<String> retryAfterBackoff(Call call, int attempt) {
+    return CompletableFuture.runAsync(() -> {}, RetryUtil.backoffExecutor(attempt, 250, 2_000))
+        .thenCompose(ignored -> attempt(call, attempt + 1));
   }
 
+  /**
+   * Everything an attempt needs, so a retry can be issued from a scheduler thread.
+   */
+  private record Call(
+      Ant ant,
+      String roomId,
+      long startNano,
+      String operation,
+      String systemPrompt,
+      String userPrompt,
+      MessageCreateParams params,
+      String blankCode,
+      String blankMsg,
+      int maxAttempts,
+      long timeoutMs,
+      int estimatedTokens,
+      long maxOutputTokens,
+      long rateLimitWaitMs,
+      AntRunMetrics.Collector metrics
+  ) {}
+
   private static String extractText(Message message) {
     if (message == null || message.content() == null || message.content().isEmpty()) return null;
 
@@ -1,7 +1,12 @@
 package com.aiantfarm.service.ant.runner.anthropic;
 
 import com.aiantfarm.domain.AiModel;
+import com.aiantfarm.service.ant.runner.ModelCircuitBreaker;
+import com.aiantfarm.service.ant.runner.ModelClientRegistry;
 import com.aiantfarm.service.ant.runner.PromptTranscriptLogger;
+import com.aiantfarm.service.ant.runner.ProviderRateLimiter;
+import com.aiantfarm.service.ant.runner.RequestHedger;
+import com.aiantfarm.service.ant.runner.SpendLedger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -16,9 +21,21 @@ public class AnthropicHaikuRunner extends AbstractAnthropicRunner {
       @Value("${antfarm.models.anthropic.temperature:0.7}") double temperature,
       @Value("${antfarm.models.anthropic.maxTokens:256}") int maxTokens,
       @Value("${antfarm.models.anthropic.model.haiku:claude-3-5-haiku-latest}") String modelId,
-      PromptTranscriptLogger transcriptLogger
+      @Value("${antfarm.models.anthropic.timeoutMs:20000}") long messageTimeoutMs,
+      @Value("${antfarm.models.anthropic.timeouts.summaryMs:30000}") long summaryTimeoutMs,
+      @Value("${antfarm.models.anthropic.timeouts.thoughtMs:30000}") long thoughtTimeoutMs,
+      @Value("${antfarm.models.anthropic.contextTokens.haiku:3000}") int contextTokens,
+      PromptTranscriptLogger transcriptLogger,
+      ProviderRateLimiter rateLimiter,
+      ModelCircuitBreaker circuitBreaker,
+      RequestHedger hedger,
+      ModelClientRegistry clients,
+      SpendLedger spendLedger
   ) {
-    super(apiKey, temperature, maxTokens, modelId, transcriptLogger);
+    super(apiKey, temperature, maxTokens, modelId,
+        messageTimeoutMs, summaryTimeoutMs, thoughtTimeoutMs,
+        contextTokens,
+        transcriptLogger, rateLimiter, circuitBreaker, hedger, clients, spendLedger);
   }
 
   @Override
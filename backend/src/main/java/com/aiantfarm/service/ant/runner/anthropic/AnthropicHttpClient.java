@@ -0,0 +1,215 @@
+package com.aiantfarm.service.ant.runner.anthropic;
+
+import com.aiantfarm.service.ant.runner.ProviderHttpPool;
+import com.anthropic.backends.AnthropicBackend;
+import com.anthropic.backends.Backend;
+import com.anthropic.client.AnthropicClient;
+import com.anthropic.client.AnthropicClientImpl;
+import com.anthropic.core.ClientOptions;
+import com.anthropic.core.RequestOptions;
+import com.anthropic.core.http.Headers;
+import com.anthropic.core.http.HttpClient;
+import com.anthropic.core.http.HttpRequest;
+import com.anthropic.core.http.HttpRequestBody;
+import com.anthropic.core.http.HttpResponse;
+import com.anthropic.errors.AnthropicIoException;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Anthropic SDK transport on top of the provider's shared {@link ProviderHttpPool}.
+ *
+ * Why: AnthropicOkHttpClient builds a private OkHttp client (pool, dispatcher, TLS sessions) per runner, and its builder
+ * exposes none of the pool settings. This is the SDK's documented "custom HTTP client" route: the same request
+ * and response mapping, but every model variant shares one tuned client.
+ *
+ * Timeouts come from the pool's OkHttp client, not from per-request SDK options.
+ */
+public final class AnthropicHttpClient implements HttpClient {
+
+  private final ProviderHttpPool pool;
+  // Adds the API key and anthropic-version headers; the SDK's own OkHttp transport applies it the same way.
+  private final Backend backend;
+
+  private AnthropicHttpClient(ProviderHttpPool pool, Backend backend) {
+    this.pool = pool;
+    this.backend = backend;
+  }
+
+  /**
+   * SDK client for {@code apiKey} on the shared pool. SDK retries stay off; the runners retry themselves.
+   */
+  public static AnthropicClient newClient(ProviderHttpPool pool, String apiKey) {
+    Backend backend = AnthropicBackend.builder().apiKey(apiKey).build();
+    return new AnthropicClientImpl(ClientOptions.builder()
+        .httpClient(new AnthropicHttpClient(pool, backend))
+        .baseUrl(backend.baseUrl())
+        .maxRetries(0)
+        .build());
+  }
+
+  @Override
+  public HttpResponse execute(HttpRequest request) {
+    return execute(request, RequestOptions.none());
+  }
+
+  @Override
+  public HttpResponse execute(HttpRequest request, RequestOptions requestOptions) {
+    Call call = pool.client().newCall(toRequest(authorize(request)));
+    try {
+      return backend.prepareResponse(toResponse(call.execute()));
+    } catch (IOException e) {
+      throw new AnthropicIoException("Request failed", e);
+    } finally {
+      closeBody(request);
+    }
+  }
+
+  @Override
+  public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+    return executeAsync(request, RequestOptions.none());
+  }
+
+  @Override
+  public CompletableFuture<HttpResponse> executeAsync(HttpRequest request, RequestOptions requestOptions) {
+    CompletableFuture<HttpResponse> future = new CompletableFuture<>();
+    future.whenComplete((r, e) -> closeBody(request));
+
+    Call call = pool.client().newCall(toRequest(authorize(request)));
+    ProviderHttpPool.started(requestId(request), call);
+    call.enqueue(new Callback() {
+      @Override
+      public void onResponse(Call c, Response response) {
+        future.complete(backend.prepareResponse(toResponse(response)));
+      }
+
+      @Override
+      public void onFailure(Call c, IOException e) {
+        future.completeExceptionally(new AnthropicIoException("Request failed", e));
+      }
+    });
+    return future;
+  }
+
+  @Override
+  public void close() {
+    // The pool outlives SDK clients; ModelClientRegistry closes it on shutdown.
+    backend.close();
+  }
+
+  private HttpRequest authorize(HttpRequest request) {
+    return backend.authorizeRequest(backend.prepareRequest(request));
+  }
+
+  private static Request toRequest(HttpRequest request) {
+    HttpUrl.Builder url = HttpUrl.get(request.baseUrl()).newBuilder();
+    for (String segment : request.pathSegments()) {
+      url.addPathSegment(segment);
+    }
+    for (String key : request.queryParams().keys()) {
+      for (String value : request.queryParams().values(key)) {
+        url.addQueryParameter(key, value);
+      }
+    }
+
+    String method = request.method().name();
+    RequestBody body = request.body() == null ? null : toRequestBody(request.body());
+    if (body == null && requiresBody(method)) {
+      body = RequestBody.create(new byte[0], null);
+    }
+
+    Request.Builder builder = new Request.Builder().url(url.build()).method(method, body);
+    Headers headers = request.headers();
+    for (String name : headers.names()) {
+      if (name.equalsIgnoreCase(ProviderHttpPool.REQUEST_ID_HEADER)) continue;
+      for (String value : headers.values(name)) {
+        builder.addHeader(name, value);
+      }
+    }
+    return builder.build();
+  }
+
+  private static String requestId(HttpRequest request) {
+    List<String> ids = request.headers().values(ProviderHttpPool.REQUEST_ID_HEADER);
+    return ids.isEmpty() ? null : ids.get(0);
+  }
+
+  private static boolean requiresBody(String method) {
+    return method.equals("POST") || method.equals("PUT") || method.equals("PATCH");
+  }
+
+  private static RequestBody toRequestBody(HttpRequestBody body) {
+    MediaType mediaType = body.contentType() == null ? null : MediaType.parse(body.contentType());
+    long length = body.contentLength();
+    return new RequestBody() {
+      @Override
+      public MediaType contentType() {
+        return mediaType;
+      }
+
+      @Override
+      public long contentLength() {
+        return length;
+      }
+
+      @Override
+      public boolean isOneShot() {
+        return !body.repeatable();
+      }
+
+      @Override
+      public void writeTo(BufferedSink sink) {
+        body.writeTo(sink.outputStream());
+      }
+    };
+  }
+
+  private static HttpResponse toResponse(Response response) {
+    Headers.Builder headers = Headers.builder();
+    for (String name : response.headers().names()) {
+      for (String value : response.headers().values(name)) {
+        headers.put(name, value);
+      }
+    }
+    Headers built = headers.build();
+    return new HttpResponse() {
+      @Override
+      public int statusCode() {
+        return response.code();
+      }
+
+      @Override
+      public Headers headers() {
+        return built;
+      }
+
+      @Override
+      public InputStream body() {
+        return response.body().byteStream();
+      }
+
+      @Override
+      public void close() {
+        response.close();
+      }
+    };
+  }
+
+  private static void closeBody(HttpRequest request) {
+    if (request.body() != null) {
+      request.body().close();
+    }
+  }
+}
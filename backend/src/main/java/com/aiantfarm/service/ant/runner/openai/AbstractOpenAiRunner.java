@@ -3,16 +3,27 @@ package com.aiantfarm.service.ant.runner.openai;
 import com.aiantfarm.domain.Ant;
 import com.aiantfarm.service.ant.AntModelContext;
 import com.aiantfarm.service.ant.IAntModelRunner;
+import com.aiantfarm.service.ant.runner.AntRunMetrics;
+import com.aiantfarm.service.ant.runner.ContextBudget;
+import com.aiantfarm.service.ant.runner.HedgeLeg;
+import com.aiantfarm.service.ant.runner.ModelCallTimeoutException;
+import com.aiantfarm.service.ant.runner.ModelCircuitBreaker;
+import com.aiantfarm.service.ant.runner.ModelClientRegistry;
 import com.aiantfarm.service.ant.runner.ModelRunnerSupport;
 import com.aiantfarm.service.ant.runner.PromptBuilder;
 import com.aiantfarm.service.ant.runner.PromptTranscriptLogger;
+import com.aiantfarm.service.ant.runner.ProviderHttpPool;
+import com.aiantfarm.service.ant.runner.ProviderRateLimiter;
+import com.aiantfarm.service.ant.runner.RequestHedger;
 import com.aiantfarm.service.ant.runner.RetryUtil;
+import com.aiantfarm.service.ant.runner.SpendBudgetExceededException;
+import com.aiantfarm.service.ant.runner.SpendLedger;
 import com.openai.client.OpenAIClient;
-import com.openai.client.okhttp.OpenAIOkHttpClient;
 import com.openai.errors.OpenAIIoException;
 import com.openai.errors.OpenAIRetryableException;
 import com.openai.errors.RateLimitException;
 import com.openai.errors.UnauthorizedException;
+import com.openai.models.ResponseFormatJsonObject;
 import com.openai.models.chat.completions.ChatCompletion;
 import com.openai.models.chat.completions.ChatCompletionCreateParams;
 import com.openai.models.chat.completions.ChatCompletionSystemMessageParam;
@@ -20,6 +31,10 @@ import com.openai.models.chat.completions.ChatCompletionUserMessageParam;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 /**
  * Shared OpenAI runner implementation.
  */
@@ -38,9 +53,20 @@ public abstract class AbstractOpenAiRunner extends ModelRunnerSupport implements
 
   private final int maxAttempts;
 
+  private final long messageTimeoutMs;
+  private final long summaryTimeoutMs;
+  private final long thoughtTimeoutMs;
+
+  private final int contextTokens;
+
   private final PromptTranscriptLogger transcriptLogger;
+  private final ProviderRateLimiter rateLimiter;
+  private final RequestHedger hedger;
+  private final ModelClientRegistry clients;
+  private final SpendLedger spendLedger;
 
   private OpenAIClient client;
+  private ContextBudget contextBudget;
 
   protected AbstractOpenAiRunner(String apiKey,
                                  double temperature,
@@ -51,7 +77,17 @@ public abstract class AbstractOpenAiRunner extends ModelRunnerSupport implements
                                  int thoughtMaxTokens,
                                  int thoughtMaxTokensCap,
                                  int maxAttempts,
-                                 PromptTranscriptLogger transcriptLogger) {
+                                 long messageTimeoutMs,
+                                 long summaryTimeoutMs,
+                                 long thoughtTimeoutMs,
+                                 int contextTokens,
+                                 PromptTranscriptLogger transcriptLogger,
+                                 ProviderRateLimiter rateLimiter,
+                                 ModelCircuitBreaker circuitBreaker,
+                                 RequestHedger hedger,
+                                 ModelClientRegistry clients,
+                                 SpendLedger spendLedger) {
+    super(circuitBreaker);
     this.apiKey = apiKey;
     this.temperature = temperature;
     this.maxTokens = maxTokens;
@@ -61,7 +97,15 @@ public abstract class AbstractOpenAiRunner extends ModelRunnerSupport implements
     this.thoughtMaxTokens = thoughtMaxTokens;
     this.thoughtMaxTokensCap = thoughtMaxTokensCap;
     this.maxAttempts = maxAttempts;
+    this.messageTimeoutMs = messageTimeoutMs;
+    this.summaryTimeoutMs = summaryTimeoutMs;
+    this.thoughtTimeoutMs = thoughtTimeoutMs;
+    this.contextTokens = contextTokens;
     this.transcriptLogger = transcriptLogger;
+    this.rateLimiter = rateLimiter;
+    this.hedger = hedger;
+    this.clients = clients;
+    this.spendLedger = spendLedger;
   }
 
   @PostConstruct
@@ -71,32 +115,84 @@ public abstract class AbstractOpenAiRunner extends ModelRunnerSupport implements
       throw new IllegalStateException("OpenAI API key missing");
     }
 
-    // openai-java 4.x client
-    this.client = OpenAIOkHttpClient.builder()
-        .apiKey(apiKey)
-        // keep retries centralized in our RetryUtil loop
-        .maxRetries(0)
-        .build();
+    // One openai-java client per API key, shared by all OpenAI models (SDK retries off; we retry ourselves).
+    this.client = clients.openAi(apiKey);
+    this.contextBudget = ContextBudget.forModel(model(), contextTokens);
   }
 
   @Override
   public String generateMessage(Ant ant, String roomId, AntModelContext context) {
-    long start = System.nanoTime();
+    return await(messageCall(ant, roomId, context, rateLimiter.blockingMaxWaitMs()));
+  }
 
-    String system = PromptBuilder.buildSystemPrompt(ant.name(), ant.personalityPrompt(), maxTokens);
+  @Override
+  public CompletableFuture<String> generateMessageAsync(Ant ant, String roomId, AntModelContext context) {
+    return messageCall(ant, roomId, context, rateLimiter.asyncMaxWaitMs());
+  }
+
+  @Override
+  public String generateRoomSummary(Ant ant, String roomId, AntModelContext context, String existingSummary) {
+    return await(summaryCall(ant, roomId, context, existingSummary, false, rateLimiter.blockingMaxWaitMs()));
+  }
+
+  @Override
+  public CompletableFuture<String> generateRoomSummaryAsync(Ant ant, String roomId, AntModelContext context,
+                                                            String existingSummary) {
+    return summaryCall(ant, roomId, context, existingSummary, false, rateLimiter.asyncMaxWaitMs());
+  }
+
+  @Override
+  public String generateSharedRoomSummary(Ant ant, String roomId, AntModelContext context, String existingSummary) {
+    return await(summaryCall(ant, roomId, context, existingSummary, true, rateLimiter.blockingMaxWaitMs()));
+  }
+
+  @Override
+  public CompletableFuture<String> generateSharedRoomSummaryAsync(Ant ant, String roomId, AntModelContext context,
+                                                                  String existingSummary) {
+    return summaryCall(ant, roomId, context, existingSummary, true, rateLimiter.asyncMaxWaitMs());
+  }
+
+  @Override
+  public String generateBicameralThought(Ant ant, String roomId, AntModelContext context) {
+    return await(thoughtCall(ant, roomId, context, rateLimiter.blockingMaxWaitMs()));
+  }
+
+  @Override
+  public CompletableFuture<String> generateBicameralThoughtAsync(Ant ant, String roomId, AntModelContext context) {
+    return thoughtCall(ant, roomId, context, rateLimiter.asyncMaxWaitMs());
+  }
+
+  @Override
+  public String generateCombinedTurn(Ant ant, String roomId, AntModelContext context, String existingSummary) {
+    return await(combinedCall(ant, roomId, context, existingSummary, rateLimiter.blockingMaxWaitMs()));
+  }
+
+  @Override
+  public CompletableFuture<String> generateCombinedTurnAsync(Ant ant, String roomId, AntModelContext context,
+                                                             String existingSummary) {
+    return combinedCall(ant, roomId, context, existingSummary, rateLimiter.asyncMaxWaitMs());
+  }
+
+  private CompletableFuture<String> messageCall(Ant ant, String roomId, AntModelContext context, long rateLimitWaitMs) {
+    long start = System.nanoTime();
 
     // --- NOTE (forceReply): temporary workaround using sentinel string ---
     boolean forceReply = context != null && "__FORCE_REPLY__".equals(context.bicameralThoughtJson());
-    String userCtx = PromptBuilder.buildUserContext(
-        context == null ? "" : context.roomScenario(),
-        context == null ? "" : context.antPersonality(),
-        context == null ? "" : context.roomRoleName(),
-        context == null ? "" : context.roomRolePrompt(),
+    ContextBudget.Allocation fit = fitContext(contextBudget, context, ant.personalityPrompt(),
         context == null ? "" : context.roomSummary(),
-        forceReply ? "" : (context == null ? "" : context.bicameralThoughtJson()),
-        context == null ? null : context.recentMessages(),
-        8_000,
-        forceReply);
+        forceReply ? "" : (context == null ? "" : context.bicameralThoughtJson()));
+
+    String system = PromptBuilder.buildSystemPrompt(ant.name(), fit.persona(), maxTokens);
+
+    // Stable part first, volatile tail last: OpenAI caches repeated prompt prefixes automatically.
+    String userCtx = PromptBuilder.buildUserContext(
+        fit.scenario(),
+        fit.roleName(),
+        fit.rolePrompt(),
+        fit.summary(),
+        fit.thoughtJson(),
+        fit.transcript(),
+        forceReply).text();
 
     ChatCompletionCreateParams params = ChatCompletionCreateParams.builder()
         .model(modelId)
@@ -107,24 +203,30 @@ public abstract class AbstractOpenAiRunner extends ModelRunnerSupport implements
         .build();
 
     return callWithRetry(ant, roomId, start, "GenerateMessage", system, userCtx, params,
-        "BlankResponse", "OpenAI returned blank content");
+        "BlankResponse", "OpenAI returned blank content", messageTimeoutMs, rateLimitWaitMs);
   }
 
-  @Override
-  public String generateRoomSummary(Ant ant, String roomId, AntModelContext context, String existingSummary) {
+  /**
+   * @param shared room-wide neutral summary: no persona and a system prompt that doesn't name the ant (which only
+   *               picks the model and pays)
+   */
+  private CompletableFuture<String> summaryCall(Ant ant, String roomId, AntModelContext context, String existingSummary,
+                                                boolean shared, long rateLimitWaitMs) {
     long start = System.nanoTime();
 
     int summaryMax = Math.max(maxTokens, this.summaryMaxTokens);
     int summaryMaxCap = Math.min(summaryMax, this.summaryMaxTokensCap);
-    String system = PromptBuilder.buildSummarySystemPrompt(ant.name(), ant.personalityPrompt(), summaryMaxCap);
+    ContextBudget.Allocation fit = fitContext(contextBudget, context, shared ? "" : ant.personalityPrompt(),
+        existingSummary, "");
+    String system = shared
+        ? PromptBuilder.buildSharedSummarySystemPrompt(summaryMaxCap)
+        : PromptBuilder.buildSummarySystemPrompt(ant.name(), fit.persona(), summaryMaxCap);
     String user = PromptBuilder.buildSummaryUserPrompt(
-        context == null ? "" : context.roomScenario(),
-        context == null ? "" : context.antPersonality(),
-        context == null ? "" : context.roomRoleName(),
-        context == null ? "" : context.roomRolePrompt(),
-        existingSummary,
-        context == null ? null : context.recentMessages(),
-        8_000);
+        fit.scenario(),
+        fit.roleName(),
+        fit.rolePrompt(),
+        fit.summary(),
+        fit.transcript()).text();
 
     // Summaries can be longer than messages; allow some headroom beyond the global maxTokens,
     // but keep it conservative to avoid page-length outputs.
@@ -137,24 +239,26 @@ public abstract class AbstractOpenAiRunner extends ModelRunnerSupport implements
          .build();
 
      return callWithRetry(ant, roomId, start, "GenerateRoomSummary", system, user, params,
-         "BlankSummary", "OpenAI returned blank summary");
+         "BlankSummary", "OpenAI returned blank summary", summaryTimeoutMs, rateLimitWaitMs);
    }
 
-  @Override
-  public String generateBicameralThought(Ant ant, String roomId, AntModelContext context) {
+  private CompletableFuture<String> thoughtCall(Ant ant, String roomId, AntModelContext context, long rateLimitWaitMs) {
     long start = System.nanoTime();
 
     int thoughtMax = Math.max(maxTokens, this.thoughtMaxTokens);
     int thoughtMaxCap = Math.min(thoughtMax, this.thoughtMaxTokensCap);
-    String system = PromptBuilder.buildBicameralThoughtSystemPrompt(ant.name(), thoughtMaxCap);
-    String user = PromptBuilder.buildBicameralThoughtUserPrompt(
-        context == null ? "" : context.roomScenario(),
+    ContextBudget.Allocation fit = fitContext(contextBudget, context,
         context == null ? "" : context.antPersonality(),
-        context == null ? "" : context.roomRoleName(),
-        context == null ? "" : context.roomRolePrompt(),
         context == null ? "" : context.roomSummary(),
-        context == null ? null : context.recentMessages(),
-        8_000);
+        "");
+    String system = PromptBuilder.buildBicameralThoughtSystemPrompt(ant.name(), thoughtMaxCap);
+    String user = PromptBuilder.buildBicameralThoughtUserPrompt(
+        fit.scenario(),
+        fit.persona(),
+        fit.roleName(),
+        fit.rolePrompt(),
+        fit.summary(),
+        fit.transcript()).text();
 
     // Thoughts can also be moderately long JSON, but keep it bounded.
      ChatCompletionCreateParams params = ChatCompletionCreateParams.builder()
@@ -166,125 +270,301 @@ public abstract class AbstractOpenAiRunner extends ModelRunnerSupport implements
          .build();
 
      return callWithRetry(ant, roomId, start, "GenerateBicameralThought", system, user, params,
-         "BlankThought", "OpenAI returned blank thought JSON");
+         "BlankThought", "OpenAI returned blank thought JSON", thoughtTimeoutMs, rateLimitWaitMs);
    }
 
-  private String callWithRetry(Ant ant,
-                              String roomId,
-                              long startNano,
-                              String operation,
-                              String systemPrompt,
-                              String userPrompt,
-                              ChatCompletionCreateParams params,
-                              String blankCode,
-                              String blankMsg) {
-    int maxAttempts = Math.max(1, this.maxAttempts); // 1 + retries
-
-    String retryReason = null;
+  private CompletableFuture<String> combinedCall(Ant ant, String roomId, AntModelContext context, String existingSummary,
+                                                 long rateLimitWaitMs) {
+    long start = System.nanoTime();
+
+    // Output budget is what the three separate calls would have had.
+    int summaryMaxCap = Math.min(Math.max(maxTokens, this.summaryMaxTokens), this.summaryMaxTokensCap);
+    int thoughtMaxCap = Math.min(Math.max(maxTokens, this.thoughtMaxTokens), this.thoughtMaxTokensCap);
+    int combinedMax = summaryMaxCap + thoughtMaxCap + maxTokens;
+
+    boolean forceReply = context != null && "__FORCE_REPLY__".equals(context.bicameralThoughtJson());
+    ContextBudget.Allocation fit = fitContext(contextBudget, context, ant.personalityPrompt(), existingSummary, "");
+    String system = PromptBuilder.buildCombinedSystemPrompt(ant.name(), fit.persona(), maxTokens, combinedMax);
+    String user = PromptBuilder.buildCombinedUserPrompt(
+        fit.scenario(),
+        fit.roleName(),
+        fit.rolePrompt(),
+        fit.summary(),
+        fit.transcript(),
+        forceReply).text();
+
+    ChatCompletionCreateParams params = ChatCompletionCreateParams.builder()
+        .model(modelId)
+        .temperature(temperature)
+        .maxCompletionTokens((long) combinedMax*2)
+        .responseFormat(ResponseFormatJsonObject.builder().build())
+        .addMessage(ChatCompletionSystemMessageParam.builder().content(system).build())
+        .addMessage(ChatCompletionUserMessageParam.builder().content(user).build())
+        .build();
+
+    // Roughly a summary call's worth of output plus a message's.
+    long timeoutMs = Math.max(summaryTimeoutMs, thoughtTimeoutMs) + messageTimeoutMs;
+    return callWithRetry(ant, roomId, start, "GenerateCombinedTurn", system, user, params,
+        "BlankCombinedTurn", "OpenAI returned blank combined turn", timeoutMs, rateLimitWaitMs);
+  }
+
+  /**
+   * Non-blocking retry loop: each attempt is an async SDK call, and backoff waits are scheduled
+   * (RetryUtil.backoffExecutor) instead of slept, so no thread is held between attempts.
+   *
+   * Each attempt gets {@code timeoutMs}, capped by what is left of the tick deadline; no retry is started once
+   * the tick is out of time.
+   */
+  private CompletableFuture<String> callWithRetry(Ant ant,
+                                                  String roomId,
+                                                  long startNano,
+                                                  String operation,
+                                                  String systemPrompt,
+                                                  String userPrompt,
+                                                  ChatCompletionCreateParams params,
+                                                  String blankCode,
+                                                  String blankMsg,
+                                                  long timeoutMs,
+                                                  long rateLimitWaitMs) {
     // We keep the original userPrompt and append retry feedback only on retries.
     String baseUserPrompt = userPrompt == null ? "" : userPrompt;
+    long maxOutputTokens = params.maxCompletionTokens().orElse(0L);
+    Call call = new Call(
+        ant,
+        roomId,
+        startNano,
+        operation,
+        systemPrompt,
+        baseUserPrompt,
+        params,
+        blankCode,
+        blankMsg,
+        Math.max(1, this.maxAttempts), // 1 + retries
+        timeoutMs,
+        ProviderRateLimiter.estimateTokens(systemPrompt, baseUserPrompt, maxOutputTokens),
+        maxOutputTokens,
+        rateLimitWaitMs,
+        AntRunMetrics.current()
+    );
+    return attempt(call, 0, null);
+  }
 
-     for (int attempt = 0; attempt < maxAttempts; attempt++) {
-       try {
-        String effectiveUserPrompt = baseUserPrompt;
-        boolean shouldAppend = attempt > 0 && retryReason != null && !retryReason.trim().isEmpty();
-        if (shouldAppend) {
-          effectiveUserPrompt = appendRetryReason(baseUserPrompt, retryReason);
+  private CompletableFuture<String> attempt(Call call, int attempt, String retryReason) {
+    String effectiveUserPrompt = call.userPrompt();
+    boolean shouldAppend = attempt > 0 && retryReason != null && !retryReason.trim().isEmpty();
+    if (shouldAppend) {
+      effectiveUserPrompt = appendRetryReason(call.userPrompt(), retryReason);
+    }
+    ChatCompletionCreateParams effectiveParams = rebuildWithUserPrompt(call.params(), effectiveUserPrompt);
+    String sentUserPrompt = effectiveUserPrompt;
+
+    // Worst-case cost of this attempt against the ant's/owner's spend budget; an exhausted budget is not retried.
+    SpendLedger.Reservation spend;
+    try {
+      spend = spendLedger.reserve(call.ant(), model(), call.estimatedTokens() - (int) call.maxOutputTokens(),
+          call.maxOutputTokens());
+    } catch (SpendBudgetExceededException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+
+    // A rate-limit deferral fails the acquire future and is not a failed attempt; it reaches the caller as is.
+    return rateLimiter.acquireAsync(model().provider(), modelId, call.estimatedTokens(), call.rateLimitWaitMs())
+        .whenComplete((permit, err) -> {
+          if (err != null) spend.release();
+        })
+        .thenCompose(permit -> {
+          long timeoutMs = attemptTimeoutMs(call.timeoutMs(), call.metrics());
+          if (timeoutMs <= 0) {
+            // Tick deadline already spent: hand the reservations back instead of sending.
+            permit.settle(0, 0);
+            spend.release();
+            return CompletableFuture.failedFuture(new ModelCallTimeoutException(call.operation(), 0, true));
+          }
+          HedgeLeg hedgeLeg = new HedgeLeg();
+          RequestHedger.Race<ChatCompletion> race = hedger.race(model(), call.operation(),
+              () -> send(effectiveParams),
+              () -> sendHedge(call, effectiveParams, hedgeLeg));
+          return race.result(timeoutMs)
+              .handle((cc, err) -> onResponse(call, attempt, sentUserPrompt, permit, hedgeLeg, spend, race, timeoutMs, cc, err))
+              .thenCompose(Function.identity());
+        });
+  }
+
+  /**
+   * One HTTP request for {@code params}; cancelling the returned future cancels the request (each call gets its
+   * own request id, so the two legs of a hedge are cancelled separately).
+   */
+  private CompletableFuture<ChatCompletion> send(ChatCompletionCreateParams params) {
+    return ProviderHttpPool.cancellable(requestId -> client.async().chat().completions().create(
+        params.toBuilder().putAdditionalHeader(ProviderHttpPool.REQUEST_ID_HEADER, requestId).build()));
+  }
+
+  /**
+   * The hedged copy of {@code params}, or null if the rate limiter has no room for it right now or its cost doesn't
+   * fit the spend budget. It reserves its own worst case, like any attempt.
+   */
+  private CompletableFuture<ChatCompletion> sendHedge(Call call, ChatCompletionCreateParams params, HedgeLeg hedgeLeg) {
+    SpendLedger.Reservation spend;
+    try {
+      spend = spendLedger.reserve(call.ant(), model(), call.estimatedTokens() - (int) call.maxOutputTokens(),
+          call.maxOutputTokens());
+    } catch (SpendBudgetExceededException e) {
+      return null;
+    }
+    ProviderRateLimiter.Permit permit = rateLimiter.tryAcquire(model().provider(), modelId, call.estimatedTokens());
+    if (permit == null) {
+      spend.release();
+      return null;
+    }
+    hedgeLeg.sent(permit, spend);
+    return send(params);
+  }
+
+  private CompletableFuture<String> onResponse(Call call,
+                                               int attempt,
+                                               String effectiveUserPrompt,
+                                               ProviderRateLimiter.Permit permit,
+                                               HedgeLeg hedgeLeg,
+                                               SpendLedger.Reservation spend,
+                                               RequestHedger.Race<ChatCompletion> race,
+                                               long timeoutMs,
+                                               ChatCompletion cc,
+                                               Throwable err) {
+    // SDK callbacks run on HTTP client threads; re-attach the tick's metrics collector.
+    AntRunMetrics.Collector previous = AntRunMetrics.bind(call.metrics());
+    try {
+      Ant ant = call.ant();
+      String roomId = call.roomId();
+      String operation = call.operation();
+      int maxAttempts = call.maxAttempts();
+      long latencyMs = (System.nanoTime() - call.startNano()) / 1_000_000;
+
+      if (err != null) {
+        spend.release();
+        hedgeLeg.settle(null, null, null);
+        hedger.settle(ant, roomId, model(), operation, race, latencyMs, BigDecimal.ZERO);
+        Throwable e = asTimeout(unwrap(err), operation, timeoutMs, call.timeoutMs());
+        String errorClass = errorClass(e);
+        // Nothing for the model to correct after a timeout; retry with the prompt as is.
+        String retryReason = e instanceof ModelCallTimeoutException
+            ? null
+            : e.getClass().getSimpleName() + (e.getMessage() == null ? "" : (": " + e.getMessage()));
+
+        if (e instanceof UnauthorizedException) {
+          logFailure(log, ant, roomId, model(), operation, latencyMs, e.getClass().getSimpleName(), "auth failed", attempt + 1, maxAttempts);
+          return CompletableFuture.failedFuture(e);
         }
 
-        ChatCompletionCreateParams effectiveParams = rebuildWithUserPrompt(params, effectiveUserPrompt);
-
-        ChatCompletion cc = client.chat().completions().create(effectiveParams);
-        String out = extractTextFromChatCompletion(cc);
-
-         long latencyMs = (System.nanoTime() - startNano) / 1_000_000;
-
-         Integer inTok = null;
-         Integer outTok = null;
-         try {
-           if (cc.usage().isPresent()) {
-             inTok = (int) cc.usage().get().promptTokens();
-             outTok = (int) cc.usage().get().completionTokens();
-           }
-         } catch (Exception ex) {
-           log.warn("Failed to parse OpenAI usage tokens antId={} roomId={} model={}", ant.id(), roomId, model(), ex);
-         }
-
-         if (isBlank(out)) {
-           // Capture something actionable for the next retry.
-           String finishReason = null;
-           try {
-             if (cc.choices() != null && !cc.choices().isEmpty() && cc.choices().get(0) != null) {
-               finishReason = String.valueOf(cc.choices().get(0).finishReason());
-             }
-           } catch (Exception ignore) {
-             // ignore
-           }
-           retryReason = "blank_content" + (finishReason == null ? "" : ("; finishReason=" + finishReason))
-               + (outTok == null ? "" : ("; outTok=" + outTok));
-
-           // Log the most useful metadata we can without dumping full prompts.
-           try {
-             int choices = cc.choices() == null ? 0 : cc.choices().size();
-             // reuse finishReason if we already computed it
-             if (cc.choices() != null && !cc.choices().isEmpty() && cc.choices().get(0) != null) {
-               try {
-                 if (finishReason == null) finishReason = String.valueOf(cc.choices().get(0).finishReason());
-               } catch (Exception ignore) {
-                 // ignore
-               }
-             }
-             log.warn("OpenAI blank content antId={} roomId={} model={} op={} choices={} finishReason={} inTok={} outTok={}",
-                 ant.id(), roomId, model(), operation, choices, finishReason, inTok, outTok);
-           } catch (Exception ignore) {
-             // ignore
-           }
-           logFailure(log, ant, roomId, model(), operation, latencyMs, blankCode, blankMsg, attempt + 1, maxAttempts);
-           throw new IllegalStateException("blank response");
-         }
-
-         // --- Prompt/response transcript logging (opt-in) ---
-         if (transcriptLogger != null && transcriptLogger.enabled()) {
-           transcriptLogger.logPromptAndResponse(
-               ant,
-               roomId,
-               model(),
-               operation,
-               systemPrompt,
-               effectiveUserPrompt,
-               out,
-               latencyMs,
-               inTok,
-               outTok
-           );
-         }
-
-         logSuccess(log, ant, roomId, model(), operation, latencyMs, inTok, outTok, attempt + 1, maxAttempts);
-         return out.trim();
-
-       } catch (UnauthorizedException e) {
-         long latencyMs = (System.nanoTime() - startNano) / 1_000_000;
-         logFailure(log, ant, roomId, model(), operation, latencyMs, e.getClass().getSimpleName(), "auth failed", attempt + 1, maxAttempts);
-         throw e;
-
-       } catch (RateLimitException | OpenAIIoException | OpenAIRetryableException e) {
-         retryReason = e.getClass().getSimpleName() + (e.getMessage() == null ? "" : (": " + e.getMessage()));
-         long latencyMs = (System.nanoTime() - startNano) / 1_000_000;
-         logFailure(log, ant, roomId, model(), operation, latencyMs, e.getClass().getSimpleName(), e.getMessage(), attempt + 1, maxAttempts);
-         if (attempt == maxAttempts - 1) throw e;
-         RetryUtil.sleepBackoff(attempt, 250, 2_000);
-
-       } catch (Exception e) {
-         retryReason = e.getClass().getSimpleName() + (e.getMessage() == null ? "" : (": " + e.getMessage()));
-         long latencyMs = (System.nanoTime() - startNano) / 1_000_000;
-         logFailure(log, ant, roomId, model(), operation, latencyMs, e.getClass().getSimpleName(), e.getMessage(), attempt + 1, maxAttempts);
-         if (attempt == maxAttempts - 1) throw new RuntimeException(e);
-         RetryUtil.sleepBackoff(attempt, 250, 2_000);
-       }
-     }
-
-     throw new IllegalStateException("unreachable");
-   }
+        if (e instanceof RateLimitException) {
+          rateLimiter.onRateLimited(model().provider(), modelId);
+        }
+        logFailure(log, ant, roomId, model(), operation, latencyMs, errorClass, e.getMessage(), attempt + 1, maxAttempts);
+        if (attempt == maxAttempts - 1 || circuitOpen(model()) || AntRunMetrics.remainingMs(call.metrics()) <= 0) {
+          boolean sdkRetryable = e instanceof RateLimitException || e instanceof OpenAIIoException
+              || e instanceof OpenAIRetryableException;
+          return CompletableFuture.failedFuture(sdkRetryable || e instanceof ModelCallTimeoutException ? e : new RuntimeException(e));
+        }
+        return retryAfterBackoff(call, attempt, retryReason);
+      }
+
+      String out = extractTextFromChatCompletion(cc);
+
+      Integer inTok = null;
+      Integer outTok = null;
+      Integer cachedTok = null;
+      try {
+        if (cc.usage().isPresent()) {
+          inTok = (int) cc.usage().get().promptTokens();
+          outTok = (int) cc.usage().get().completionTokens();
+          // promptTokens includes the cached prefix.
+          cachedTok = cc.usage().get().promptTokensDetails()
+              .flatMap(d -> d.cachedTokens())
+              .map(Long::intValue)
+              .orElse(0);
+        }
+      } catch (Exception ex) {
+        log.warn("Failed to parse OpenAI usage tokens antId={} roomId={} model={}", ant.id(), roomId, model(), ex);
+      }
+      permit.settle(inTok, outTok);
+      BigDecimal usd = estimateUsd(model(), inTok, outTok, cachedTok, null);
+      spend.settle(usd);
+      // A hedged race paid for two requests: the loser is charged at the winner's usage, as the hedger counts it.
+      hedgeLeg.settle(inTok, outTok, usd);
+      hedger.settle(ant, roomId, model(), operation, race, latencyMs, usd);
+
+      if (isBlank(out)) {
+        // Capture something actionable for the next retry.
+        String finishReason = null;
+        int choices = 0;
+        try {
+          choices = cc.choices() == null ? 0 : cc.choices().size();
+          if (choices > 0 && cc.choices().get(0) != null) {
+            finishReason = String.valueOf(cc.choices().get(0).finishReason());
+          }
+        } catch (Exception ignore) {
+          // ignore
+        }
+        String retryReason = "blank_content" + (finishReason == null ? "" : ("; finishReason=" + finishReason))
+            + (outTok == null ? "" : ("; outTok=" + outTok));
+
+        // Log the most useful metadata we can without dumping full prompts.
+        log.warn("OpenAI blank content antId={} roomId={} model={} op={} choices={} finishReason={} inTok={} outTok={}",
+            ant.id(), roomId, model(), operation, choices, finishReason, inTok, outTok);
+        logFailure(log, ant, roomId, model(), operation, latencyMs, call.blankCode(), call.blankMsg(), attempt + 1, maxAttempts);
+        if (attempt == maxAttempts - 1 || circuitOpen(model())) {
+          return CompletableFuture.failedFuture(new RuntimeException(new IllegalStateException("blank response")));
+        }
+        return retryAfterBackoff(call, attempt, retryReason);
+      }
+
+      // --- Prompt/response transcript logging (opt-in) ---
+      if (transcriptLogger != null && transcriptLogger.enabled()) {
+        transcriptLogger.logPromptAndResponse(
+            ant,
+            roomId,
+            model(),
+            operation,
+            call.systemPrompt(),
+            effectiveUserPrompt,
+            out,
+            latencyMs,
+            inTok,
+            outTok
+        );
+      }
+
+      logSuccess(log, ant, roomId, model(), operation, latencyMs, inTok, outTok, cachedTok, null, attempt + 1, maxAttempts);
+      return CompletableFuture.completedFuture(out.trim());
+    } finally {
+      AntRunMetrics.restore(previous);
+    }
+  }
+
+  private CompletableFuture<String> retryAfterBackoff(Call call, int attempt, String retryReason) {
+    return CompletableFuture.runAsync(() -> {}, RetryUtil.backoffExecutor(attempt, 250, 2_000))
+        .thenCompose(ignored -> attempt(call, attempt + 1, retryReason));
+  }
+
+  /**
+   * Everything an attempt needs, so a retry can be issued from a scheduler thread.
+   */
+  private record Call(
+      Ant ant,
+      String roomId,
+      long startNano,
+      String operation,
+      String systemPrompt,
+      String userPrompt,
+      ChatCompletionCreateParams params,
+      String blankCode,
+      String blankMsg,
+      int maxAttempts,
+      long timeoutMs,
+      int estimatedTokens,
+      long maxOutputTokens,
+      long rateLimitWaitMs,
+      AntRunMetrics.Collector metrics
+  ) {}
 
   private static String appendRetryReason(String prompt, String reason) {
     String p = prompt == null ? "" : prompt;
@@ -315,6 +595,11 @@ public abstract class AbstractOpenAiRunner extends ModelRunnerSupport implements
     } catch (Exception ignore) {
       // ignore
     }
+    try {
+      original.responseFormat().ifPresent(b::responseFormat);
+    } catch (Exception ignore) {
+      // ignore
+    }
 
     // Preserve system message if present.
     try {
@@ -1,7 +1,12 @@
 package com.aiantfarm.service.ant.runner.openai;
 
 import com.aiantfarm.domain.AiModel;
+import com.aiantfarm.service.ant.runner.ModelCircuitBreaker;
+import com.aiantfarm.service.ant.runner.ModelClientRegistry;
 import com.aiantfarm.service.ant.runner.PromptTranscriptLogger;
+import com.aiantfarm.service.ant.runner.ProviderRateLimiter;
+import com.aiantfarm.service.ant.runner.RequestHedger;
+import com.aiantfarm.service.ant.runner.SpendLedger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -21,13 +26,29 @@ public class OpenAiGpt41NanoRunner extends AbstractOpenAiRunner {
       @Value("${antfarm.models.openai.outputLimits.summaryMaxTokensCap:600}") int summaryMaxTokensCap,
       @Value("${antfarm.models.openai.outputLimits.thoughtMaxTokens:400}") int thoughtMaxTokens,
       @Value("${antfarm.models.openai.outputLimits.thoughtMaxTokensCap:600}") int thoughtMaxTokensCap,
-      PromptTranscriptLogger transcriptLogger
+      @Value("${antfarm.models.openai.timeoutMs:20000}") long messageTimeoutMs,
+      @Value("${antfarm.models.openai.timeouts.summaryMs:30000}") long summaryTimeoutMs,
+      @Value("${antfarm.models.openai.timeouts.thoughtMs:30000}") long thoughtTimeoutMs,
+      @Value("${antfarm.models.openai.contextTokens.gpt41Nano:3000}") int contextTokens,
+      PromptTranscriptLogger transcriptLogger,
+      ProviderRateLimiter rateLimiter,
+      ModelCircuitBreaker circuitBreaker,
+      RequestHedger hedger,
+      ModelClientRegistry clients,
+      SpendLedger spendLedger
   ) {
     super(apiKey, temperature, maxTokens, modelId,
         summaryMaxTokens, summaryMaxTokensCap,
         thoughtMaxTokens, thoughtMaxTokensCap,
         maxAttempts,
-        transcriptLogger);
+        messageTimeoutMs, summaryTimeoutMs, thoughtTimeoutMs,
+        contextTokens,
+        transcriptLogger,
+        rateLimiter,
+        circuitBreaker,
+        hedger,
+        clients,
+        spendLedger);
   }
 
   @Override
@@ -1,6 +1,7 @@
 package com.aiantfarm.utils;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 
@@ -37,6 +38,11 @@ public final class DynamoKeys {
     return "META#" + roomId;
   }
 
+  public static String roomSummarySk(String roomId) {
+    require(roomId, "roomId");
+    return "SUMMARY#" + roomId;
+  }
+
   public static String roomMemberSk(String userId) {
     require(userId, "userId");
     return "MEMBER#" + userId;
@@ -86,6 +92,13 @@ public final class DynamoKeys {
     return "ANTROLE#" + roleId;
   }
 
+  // --- Spend ledger (owner or ant partition) ---
+
+  public static String spendSk(LocalDate day) {
+    Objects.requireNonNull(day, "day");
+    return "SPEND#" + day;
+  }
+
   private static void require(String s, String name) {
     if (s == null || s.isBlank()) throw new IllegalArgumentException(name + " must be set");
   }
@@ -63,6 +63,10 @@ export interface AntDto {
   model: string;
   personalityPrompt: string;
   intervalSeconds: number;
+  // Upper bound for idle backoff (null = server default)
+  maxIntervalSeconds?: number | null;
+  // Interval the scheduler is currently using (>= intervalSeconds while backed off)
+  effectiveIntervalSeconds?: number;
   enabled: boolean;
   replyEvenIfNoNew: boolean;
 
@@ -85,13 +89,17 @@ export interface CreateAntRequest {
   model: string;
   personalityPrompt: string;
   intervalSeconds: number;
+  maxIntervalSeconds?: number | null;
   enabled: boolean;
   replyEvenIfNoNew: boolean;
   maxMessagesPerWeek: number;
 }
 
+// On update, maxIntervalSeconds null = unchanged, 0 = clear (back to the server default).
 export interface UpdateAntRequest extends CreateAntRequest {}
 
+export const CLEAR_MAX_INTERVAL = 0;
+
 export interface AntRoomAssignmentDto {
   antId: string;
   roomId: string;
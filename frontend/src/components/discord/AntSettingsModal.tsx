@@ -1,6 +1,7 @@
 import React, { useEffect, useMemo, useState } from 'react';
 import { antApi } from '../../api/ants';
 import type { AntDto, AntDetailDto, CreateAntRequest, UpdateAntRequest } from '../../api/dto';
+import { CLEAR_MAX_INTERVAL } from '../../api/dto';
 import { AiModel } from '../../api/enums';
 import { AssignAntToRoomModal } from './AssignAntToRoomModal';
 import { getRoomsCached, getRoomName } from '../../api/roomsCache';
@@ -23,6 +24,7 @@ function pickEditableFields(ant: AntDto) {
     model: ant.model as AiModel,
     personalityPrompt: ant.personalityPrompt,
     intervalSeconds: ant.intervalSeconds,
+    maxIntervalSeconds: ant.maxIntervalSeconds ?? null,
     enabled: ant.enabled,
     replyEvenIfNoNew: ant.replyEvenIfNoNew,
     maxMessagesPerWeek: ant.maxMessagesPerWeek,
@@ -64,6 +66,8 @@ export const AntSettingsModal: React.FC<AntSettingsModalProps> = ({
   const [modelValue, setModelValue] = useState<AiModel>(AiModel.OPENAI_GPT_4_1_NANO);
   const [prompt, setPrompt] = useState('');
   const [intervalSeconds, setIntervalSeconds] = useState(DEFAULT_INTERVAL_SECONDS);
+  // null = let the server pick the idle backoff cap
+  const [maxIntervalSeconds, setMaxIntervalSeconds] = useState<number | null>(null);
   const [enabled, setEnabled] = useState(true);
   const [replyEvenIfNoNew, setReplyEvenIfNoNew] = useState(false);
   const [maxMessagesPerWeek, setMaxMessagesPerWeek] = useState(DEFAULT_MAX_MESSAGES_PER_WEEK);
@@ -83,6 +87,7 @@ export const AntSettingsModal: React.FC<AntSettingsModalProps> = ({
         model: AiModel.OPENAI_GPT_4_1_NANO,
         personalityPrompt: '',
         intervalSeconds: DEFAULT_INTERVAL_SECONDS,
+        maxIntervalSeconds: null,
         enabled: true,
         replyEvenIfNoNew: false,
         maxMessagesPerWeek: DEFAULT_MAX_MESSAGES_PER_WEEK,
@@ -92,6 +97,7 @@ export const AntSettingsModal: React.FC<AntSettingsModalProps> = ({
       setModelValue(defaults.model);
       setPrompt(defaults.personalityPrompt);
       setIntervalSeconds(defaults.intervalSeconds);
+      setMaxIntervalSeconds(defaults.maxIntervalSeconds);
       setEnabled(defaults.enabled);
       setReplyEvenIfNoNew(defaults.replyEvenIfNoNew);
       setMaxMessagesPerWeek(defaults.maxMessagesPerWeek);
@@ -123,6 +129,7 @@ export const AntSettingsModal: React.FC<AntSettingsModalProps> = ({
         setPrompt(editable.personalityPrompt);
         // Clamp interval to enforce minimum UI constraint, even if older ants have smaller intervals.
         setIntervalSeconds(Math.max(editable.intervalSeconds, MIN_INTERVAL_SECONDS));
+        setMaxIntervalSeconds(editable.maxIntervalSeconds);
         setEnabled(editable.enabled);
         setReplyEvenIfNoNew(editable.replyEvenIfNoNew);
         setMaxMessagesPerWeek(editable.maxMessagesPerWeek);
@@ -142,11 +149,14 @@ export const AntSettingsModal: React.FC<AntSettingsModalProps> = ({
       model: modelValue,
       personalityPrompt: prompt,
       intervalSeconds,
+      maxIntervalSeconds,
       enabled,
       replyEvenIfNoNew,
       maxMessagesPerWeek,
     };
-  }, [name, modelValue, prompt, intervalSeconds, enabled, replyEvenIfNoNew, maxMessagesPerWeek]);
+  }, [name, modelValue, prompt, intervalSeconds, maxIntervalSeconds, enabled, replyEvenIfNoNew, maxMessagesPerWeek]);
+
+  const maxIntervalValid = maxIntervalSeconds == null || maxIntervalSeconds >= intervalSeconds;
 
   const isDirty = useMemo(() => {
     if (!initial) return false;
@@ -154,8 +164,8 @@ export const AntSettingsModal: React.FC<AntSettingsModalProps> = ({
   }, [initial, current]);
 
   const canSave = mode === 'create'
-    ? !!name.trim() && !!prompt.trim() && intervalSeconds >= MIN_INTERVAL_SECONDS && maxMessagesPerWeek >= 1
-    : isDirty;
+    ? !!name.trim() && !!prompt.trim() && intervalSeconds >= MIN_INTERVAL_SECONDS && maxMessagesPerWeek >= 1 && maxIntervalValid
+    : isDirty && maxIntervalValid;
 
   const handleSave = async () => {
     if (saving) return;
@@ -170,6 +180,7 @@ export const AntSettingsModal: React.FC<AntSettingsModalProps> = ({
           model: modelValue,
           personalityPrompt: prompt,
           intervalSeconds: clampedInterval,
+          maxIntervalSeconds,
           enabled,
           replyEvenIfNoNew,
           maxMessagesPerWeek,
@@ -187,6 +198,8 @@ export const AntSettingsModal: React.FC<AntSettingsModalProps> = ({
         model: modelValue,
         personalityPrompt: prompt,
         intervalSeconds: clampedInterval,
+        // An empty field clears a stored bound; null would leave it unchanged.
+        maxIntervalSeconds: maxIntervalSeconds ?? CLEAR_MAX_INTERVAL,
         enabled,
         replyEvenIfNoNew,
         maxMessagesPerWeek,
@@ -347,6 +360,22 @@ export const AntSettingsModal: React.FC<AntSettingsModalProps> = ({
                     title={`Minimum is ${MIN_INTERVAL_SECONDS}s (5 minutes). Default is ${DEFAULT_INTERVAL_SECONDS}s (10 minutes).`}
                   />
                   <div className="text-[11px] text-theme-muted mt-1">Min: {MIN_INTERVAL_SECONDS}s • Default: {DEFAULT_INTERVAL_SECONDS}s</div>
+                  <label className="block text-xs font-bold text-theme-muted uppercase tracking-wider mt-4 mb-2">Max Idle Interval (seconds)</label>
+                  <input
+                    type="number"
+                    min={intervalSeconds}
+                    step={60}
+                    value={maxIntervalSeconds ?? ''}
+                    placeholder="Server default"
+                    onChange={(e) => setMaxIntervalSeconds(e.target.value === '' ? null : parseInt(e.target.value, 10))}
+                    className="w-full bg-theme-base/50 border border-white/10 rounded-xl p-3 text-white focus:outline-none focus:ring-2 focus:ring-theme-primary"
+                    title="When its rooms are quiet, the ant slows down up to this interval. Set equal to Interval to never slow down."
+                  />
+                  <div className={`text-[11px] mt-1 ${maxIntervalValid ? 'text-theme-muted' : 'text-red-400'}`}>
+                    {maxIntervalValid
+                      ? `Now: ${detail?.ant.effectiveIntervalSeconds ?? intervalSeconds}s`
+                      : 'Must be at least the interval'}
+                  </div>
                 </div>
 
                 <div>
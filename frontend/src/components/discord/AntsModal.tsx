@@ -121,6 +121,11 @@ export const AntsModal: React.FC<AntsModalProps> = ({ roomId, onClose }) => {
                               <>
                                 <span>Model: {ant.model}</span>
                                 <span>Interval: {ant.intervalSeconds}s</span>
+                                {ant.effectiveIntervalSeconds != null && ant.effectiveIntervalSeconds !== ant.intervalSeconds && (
+                                  <span title="Backed off because its rooms have been quiet">
+                                    Now: {ant.effectiveIntervalSeconds}s
+                                  </span>
+                                )}
                                 <span title="Weekly message budget for this ant">
                                   Msgs/week: {ant.messagesSentThisPeriod == null ? '—' : ant.messagesSentThisPeriod} / {ant.maxMessagesPerWeek}
                                 </span>